@@ -1,12 +1,15 @@
 package com.commerceweb.config;
 
-import com.commerceweb.entity.User;
-import com.commerceweb.repository.UserRepository;
+import com.commerceweb.entity.UserRole;
+import com.commerceweb.security.AuthenticatedUser;
 import com.commerceweb.security.jwt.JwtProvider;
+import com.commerceweb.security.jwt.TokenRevocationRegistry;
+import com.commerceweb.security.jwt.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,16 +20,17 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.List;
 
+@Slf4j
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtProvider jwtProvider;
-    private final UserRepository userRepository;
+    private final TokenRevocationRegistry revocationRegistry;
 
 
-    public JwtAuthenticationFilter(JwtProvider jwtProvider, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtProvider jwtProvider, TokenRevocationRegistry revocationRegistry) {
         this.jwtProvider = jwtProvider;
-        this.userRepository = userRepository;
+        this.revocationRegistry = revocationRegistry;
     }
 
     @Override
@@ -38,37 +42,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            if (jwtProvider.validateToken(token)) {
-                try {
-                    // 1. 기존에 확실히 존재하는 extractUserId 사용
-                    String userIdStr = jwtProvider.extractUserId(token);
-                    Long userId = Long.parseLong(userIdStr);
-
-                    User user = userRepository.findById(userId).orElse(null);
+            // 1. 서명 검증과 클레임 추출을 한 번에 처리 (검증된 토큰은 캐시에서 바로 반환)
+            VerifiedToken verified = jwtProvider.verify(token).orElse(null);
 
-                    if (user != null) {
-                        // 2. 권한 강제 부여 (ROLE_CUSTOMER)
-                        // DB에 CUSTOMER라고 있든 ROLE_CUSTOMER라고 있든 상관없이 시큐리티용 권한 생성
-                        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"));
+            if (verified != null) {
+                try {
+                    Long userId = verified.userId();
+                    String email = verified.email();
+                    String role = verified.role();
+
+                    if (!verified.hasIdentityClaims()) {
+                        // 이메일/권한 클레임이 없는 이전 형식의 토큰은 다시 로그인해야 한다
+                        log.debug("❌ 클레임이 없는 토큰 (userId: {})", userId);
+                    } else if (revocationRegistry.isRevoked(userId, verified.issuedAt())) {
+                        log.debug("❌ 폐기된 토큰 (userId: {})", userId);
+                    } else {
+                        // 2. DB 조회 없이 토큰에 담긴 실제 권한으로 Authentication 생성
+                        AuthenticatedUser principal = new AuthenticatedUser(userId, email, UserRole.valueOf(role));
+                        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
 
                         UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(user.getEmail(), null, authorities);
+                                new UsernamePasswordAuthenticationToken(principal, null, authorities);
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                        System.out.println("✅ [DEBUG] 인증 성공: " + user.getEmail() + " (ROLE_CUSTOMER 권한 부여됨)");
-                    } else {
-                        System.out.println("❌ [DEBUG] DB에 유저 없음 (ID: " + userId + ")");
+                        log.debug("✅ 인증 성공: {} (ROLE_{})", email, role);
                     }
                 } catch (Exception e) {
-                    System.out.println("❌ [DEBUG] 토큰 처리 중 오류: " + e.getMessage());
+                    log.debug("❌ 토큰 처리 중 오류: {}", e.getMessage());
                 }
             } else {
-                System.out.println("❌ [DEBUG] 유효하지 않은 토큰");
+                log.debug("❌ 유효하지 않은 토큰");
             }
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,44 @@
 package com.commerceweb.config;
 
+import com.commerceweb.security.jwt.TokenRevocationRegistry;
+import com.commerceweb.service.product.ProductCache;
+import com.commerceweb.service.recommendation.RecommendationCache;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
 
 @Configuration
 @EnableCaching
 public class RedisCacheConfig {
     // Spring Boot가 자동으로 Redis 캐시 설정을 처리합니다.
+
+    /**
+     * 다른 노드가 발행한 상품/추천 캐시 무효화와 토큰 폐기 메시지 구독 (각 노드의 로컬 캐시에 반영한다)
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       ProductCache productCache,
+                                                                       RecommendationCache recommendationCache,
+                                                                       TokenRevocationRegistry revocationRegistry) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> productCache.onInvalidationMessage(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(ProductCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(
+                (message, pattern) -> recommendationCache.onInvalidationMessage(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(RecommendationCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(
+                (message, pattern) -> revocationRegistry.onInvalidationMessage(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TokenRevocationRegistry.INVALIDATION_CHANNEL));
+        return container;
+    }
 }
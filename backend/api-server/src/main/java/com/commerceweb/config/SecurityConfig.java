@@ -14,6 +14,8 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 
 import java.util.Arrays;
 
@@ -42,12 +44,16 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/error").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
+                        // ✅ 로그아웃은 폐기할 사용자를 토큰에서 알아야 하므로 인증 필요 (아래 /api/auth/** 허용보다 먼저)
+                        .requestMatchers(HttpMethod.POST, "/api/auth/logout").authenticated()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/sales/**").permitAll()
                         .requestMatchers("/api/reviews/**").permitAll()
-                        .requestMatchers("/api/orders/**").hasAnyRole("CUSTOMER", "USER", "ADMIN")
+                        .requestMatchers("/api/orders/**").hasAnyRole("CUSTOMER", "SELLER", "USER", "ADMIN")
                         .anyRequest().authenticated()
                 )
+                // ✅ 토큰이 없거나 유효하지 않은 요청은 403이 아니라 401 (프론트엔드가 로그인 페이지로 보냄)
+                .exceptionHandling(eh -> eh.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -74,6 +80,7 @@ public class SecurityConfig {
 
         config.addAllowedMethod("*"); // GET, POST, PUT, DELETE, OPTIONS 모두 허용
         config.addAllowedHeader("*");
+        config.addExposedHeader("X-Next-Cursor"); // 목록 API의 다음 페이지 커서
         config.setMaxAge(3600L);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
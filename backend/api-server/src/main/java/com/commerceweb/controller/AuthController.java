@@ -1,17 +1,25 @@
 package com.commerceweb.controller;
 
 import com.commerceweb.security.jwt.JwtProvider;
+import com.commerceweb.security.jwt.TokenRevocationRegistry;
 import com.commerceweb.dto.AuthResponse;
 import com.commerceweb.dto.LoginRequest;
 import com.commerceweb.dto.SignupRequest;
 import com.commerceweb.dto.ErrorResponse;
 import com.commerceweb.entity.User;
+import com.commerceweb.security.AuthenticatedUser;
+import com.commerceweb.security.CurrentUser;
+import com.commerceweb.security.HashingCapacityExceededException;
 import com.commerceweb.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:3000")  // React 개발 서버 허용
@@ -23,74 +31,78 @@ public class AuthController {
     @Autowired
     private JwtProvider jwtProvider;
 
-    // ✅ 회원가입 API
-    @PostMapping("/signup")
-    public ResponseEntity<?> signup(@RequestBody SignupRequest request) {
-        try {
-            // 1️⃣ AuthService를 통한 회원가입 (Role 추가됨)
-            User user = authService.signup(
-                    request.getEmail(),
-                    request.getPassword(),
-                    request.getName(),
-                    request.getRole() // ✅ 프론트에서 넘어온 ROLE(SELLER/CUSTOMER) 전달
-            );
-
-            System.out.println("✅ 회원가입 완료: " + user.getEmail() + " (" + user.getRole() + ")");
-
-            // 2️⃣ JWT 토큰 생성
-            String token = jwtProvider.generateToken(String.valueOf(user.getId()));
-            System.out.println("✅ JWT 토큰 생성: " + token.substring(0, 20) + "...");
-
-            // 3️⃣ 응답 DTO 반환 (Role 정보 포함)
-            AuthResponse response = new AuthResponse(
-                    token,
-                    user.getId(),
-                    user.getEmail(),
-                    user.getName(),
-                    user.getRole().name() // ✅ 프론트엔드 권한 체크를 위해 전송
-            );
-
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(response);
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
 
-        } catch (RuntimeException e) {
-            System.out.println("❌ 회원가입 실패: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse(e.getMessage()));
-        }
+    // ✅ 회원가입 API (해싱이 끝나면 비동기로 응답하므로 요청 스레드를 점유하지 않음)
+    @PostMapping("/signup")
+    public CompletableFuture<ResponseEntity<?>> signup(@RequestBody SignupRequest request) {
+        // 1️⃣ AuthService를 통한 회원가입 (Role 추가됨)
+        return authService.signup(
+                        request.getEmail(),
+                        request.getPassword(),
+                        request.getName(),
+                        request.getRole() // ✅ 프론트에서 넘어온 ROLE(SELLER/CUSTOMER) 전달
+                )
+                .<ResponseEntity<?>>thenApply(user -> {
+                    System.out.println("✅ 회원가입 완료: " + user.getEmail() + " (" + user.getRole() + ")");
+
+                    // 2️⃣ JWT 토큰 생성 + 3️⃣ 응답 DTO 반환 (Role 정보 포함)
+                    return ResponseEntity.status(HttpStatus.CREATED)
+                            .body(toAuthResponse(user));
+                })
+                .exceptionally(e -> failure("❌ 회원가입 실패: ", e, HttpStatus.BAD_REQUEST));
     }
 
-    // ✅ 로그인 API
+    // ✅ 로그인 API (해싱이 끝나면 비동기로 응답하므로 요청 스레드를 점유하지 않음)
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        try {
-            // 1️⃣ AuthService를 통한 로그인
-            User user = authService.login(
-                    request.getEmail(),
-                    request.getPassword()
-            );
-
-            System.out.println("✅ 로그인 완료: " + user.getEmail() + " (" + user.getRole() + ")");
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
+        // 1️⃣ AuthService를 통한 로그인
+        return authService.login(
+                        request.getEmail(),
+                        request.getPassword()
+                )
+                .<ResponseEntity<?>>thenApply(user -> {
+                    System.out.println("✅ 로그인 완료: " + user.getEmail() + " (" + user.getRole() + ")");
+
+                    // 2️⃣ JWT 토큰 생성 + 3️⃣ 응답 DTO 반환 (Role 정보 포함)
+                    // ✅ 로그인 성공 시 권한 정보를 줘야 판매 통계 페이지 접근 가능
+                    return ResponseEntity.ok(toAuthResponse(user));
+                })
+                .exceptionally(e -> failure("❌ 로그인 실패: ", e, HttpStatus.UNAUTHORIZED));
+    }
 
-            // 2️⃣ JWT 토큰 생성
-            String token = jwtProvider.generateToken(String.valueOf(user.getId()));
-            System.out.println("✅ JWT 토큰 생성: " + token.substring(0, 20) + "...");
+    // ✅ 로그아웃 API: 지금까지 발급된 해당 사용자의 토큰을 모두 무효화
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@CurrentUser AuthenticatedUser currentUser) {
+        revocationRegistry.revokeAll(currentUser.id());
+        return ResponseEntity.ok().build();
+    }
 
-            // 3️⃣ 응답 DTO 반환 (Role 정보 포함)
-            AuthResponse response = new AuthResponse(
-                    token,
-                    user.getId(),
-                    user.getEmail(),
-                    user.getName(),
-                    user.getRole().name() // ✅ 로그인 성공 시 권한 정보를 줘야 판매 통계 페이지 접근 가능
-            );
+    private AuthResponse toAuthResponse(User user) {
+        String token = jwtProvider.generateToken(user);
+        System.out.println("✅ JWT 토큰 생성: " + token.substring(0, 20) + "...");
+
+        return new AuthResponse(
+                token,
+                user.getId(),
+                user.getEmail(),
+                user.getName(),
+                user.getRole().name() // ✅ 프론트엔드 권한 체크를 위해 전송
+        );
+    }
 
-            return ResponseEntity.ok(response);
+    // 해싱 대기열 포화는 503, 그 외 실패는 지정한 상태 코드로 응답
+    private ResponseEntity<?> failure(String logPrefix, Throwable e, HttpStatus status) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        System.out.println(logPrefix + cause.getMessage());
 
-        } catch (RuntimeException e) {
-            System.out.println("❌ 로그인 실패: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse(e.getMessage()));
+        if (cause instanceof HashingCapacityExceededException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse(cause.getMessage()));
         }
+        return ResponseEntity.status(status)
+                .body(new ErrorResponse(cause.getMessage()));
     }
 }
\ No newline at end of file
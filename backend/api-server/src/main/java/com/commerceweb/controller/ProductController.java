@@ -1,75 +1,107 @@
 package com.commerceweb.controller;
 
+import com.commerceweb.dto.CursorPage;
 import com.commerceweb.dto.product.ProductResponse;
 import com.commerceweb.entity.Product;
+import com.commerceweb.security.AuthenticatedUser;
+import com.commerceweb.security.CurrentUser;
 import com.commerceweb.service.ProductService;
+import com.commerceweb.service.product.ProductSort;
+import com.commerceweb.service.recommendation.RecentViews;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 @Slf4j
 // ✅ 이 한 줄이 없으면 프론트엔드(5173 포트)에서 데이터를 못 가져옵니다.
-@CrossOrigin(origins = "http://localhost:5173")
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = ProductController.NEXT_CURSOR_HEADER)
 public class ProductController {
 
+    // ✅ 목록 API는 본문은 배열 그대로 두고 다음 페이지 커서를 헤더로 내려줍니다. (마지막 페이지면 헤더 없음)
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // ✅ 로그인하지 않은 방문자는 프론트엔드가 만든 세션 id를 보내면 최근 본 상품 기반 추천을 받을 수 있습니다.
+    public static final String SESSION_ID_HEADER = "X-Session-Id";
+    private static final String DEFAULT_PAGE_SIZE = "50";
+
     private final ProductService productService;
 
     /**
-     * 상품 목록 조회 (검색 기능 포함)
+     * 상품 목록 조회 (검색 기능 포함, 키셋 페이지네이션)
      */
     @GetMapping
     public ResponseEntity<List<ProductResponse>> getProducts(
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String name) {
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) ProductSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
 
-        log.debug("상품 목록 조회 요청 - category: {}, name: {}", category, name);
-        List<Product> products = productService.getProducts(category, name);
+        log.debug("상품 목록 조회 요청 - category: {}, name: {}, sort: {}", category, name, sort);
+        CursorPage<Product> page = productService.getProducts(category, name, sort, cursor, size);
 
         // Entity → DTO 변환
-        List<ProductResponse> responses = products.stream()
-                .map(ProductResponse::from)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(responses);
+        return toResponse(page);
     }
 
     /**
-     * 상품 상세 조회
+     * 상품 상세 조회 (로그인 사용자 또는 세션의 최근 본 상품으로 기록)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProduct(@PathVariable Long id) {
-        Product product = productService.getProduct(id);
+    public ResponseEntity<ProductResponse> getProduct(
+            @PathVariable Long id,
+            @CurrentUser(required = false) AuthenticatedUser currentUser,
+            @RequestHeader(value = SESSION_ID_HEADER, required = false) String sessionId) {
+        String viewer = RecentViews.viewerKey(currentUser != null ? currentUser.id() : null, sessionId);
+        Product product = productService.getProduct(id, viewer);
         return ResponseEntity.ok(ProductResponse.from(product));
     }
 
+    /**
+     * 비슷한 상품 조회
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<ProductResponse>> getSimilarProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ProductResponse> products = productService.getSimilarProducts(id, limit).stream()
+                .map(ProductResponse::from)
+                .toList();
+        return ResponseEntity.ok(products);
+    }
+
     /**
      * 인기 상품 조회
      */
     @GetMapping("/trending/popular")
-    public ResponseEntity<List<ProductResponse>> getPopularProducts() {
-        List<Product> products = productService.getTopRatedProducts();
-        List<ProductResponse> responses = products.stream()
-                .map(ProductResponse::from)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<ProductResponse>> getPopularProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return toResponse(productService.getTopRatedProducts(cursor, size));
     }
 
     /**
      * 트렌딩 상품 조회
      */
     @GetMapping("/trending/trending")
-    public ResponseEntity<List<ProductResponse>> getTrendingProducts() {
-        List<Product> products = productService.getTrendingProducts();
-        List<ProductResponse> responses = products.stream()
-                .map(ProductResponse::from)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<ProductResponse>> getTrendingProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return toResponse(productService.getTrendingProducts(cursor, size));
+    }
+
+    private ResponseEntity<List<ProductResponse>> toResponse(CursorPage<Product> page) {
+        CursorPage<ProductResponse> responses = page.map(ProductResponse::from);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (responses.nextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, responses.nextCursor());
+        }
+        return builder.body(responses.items());
     }
-}
\ No newline at end of file
+}
@@ -4,14 +4,13 @@ import java.util.List;
 
 import com.commerceweb.dto.product.ProductResponse;
 import com.commerceweb.dto.product.RecommendationResponse;
-import com.commerceweb.entity.User;
-import com.commerceweb.repository.UserRepository;
+import com.commerceweb.security.AuthenticatedUser;
+import com.commerceweb.security.CurrentUser;
 import com.commerceweb.service.RecommendationService;
+import com.commerceweb.service.recommendation.RecentViews;
 
 import lombok.RequiredArgsConstructor;
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -20,26 +19,43 @@ import org.springframework.web.bind.annotation.*;
 public class RecommendationController {
 
     private final RecommendationService recommendationService;
-    private final UserRepository userRepository;
 
     @GetMapping("/recommendations")
-    public RecommendationResponse getRecommendations(@RequestParam(defaultValue = "5") int topN) {
-        Long userId = getCurrentUserId();
-
-        List<ProductResponse> products = recommendationService.getRecommendations(userId, topN).stream()
+    public RecommendationResponse getRecommendations(@CurrentUser AuthenticatedUser currentUser,
+                                                     @RequestParam(defaultValue = "5") int topN) {
+        List<ProductResponse> products = recommendationService.getRecommendations(currentUser.id(), topN).stream()
                 .map(ProductResponse::from)
                 .toList();
 
         return new RecommendationResponse(products);
     }
 
-    private Long getCurrentUserId() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName(); // 보통 JWT subject가 여기로 들어옴
+    /**
+     * 최근 본 상품 기반 실시간 추천 (로그인하지 않았으면 세션 id 헤더 기준, 조회 기록이 없으면 인기 상품)
+     */
+    @GetMapping("/products/recommendations")
+    public RecommendationResponse getRecentViewRecommendations(
+            @CurrentUser(required = false) AuthenticatedUser currentUser,
+            @RequestHeader(value = ProductController.SESSION_ID_HEADER, required = false) String sessionId,
+            @RequestParam(defaultValue = "10") int limit) {
+        String viewer = RecentViews.viewerKey(currentUser != null ? currentUser.id() : null, sessionId);
+        List<ProductResponse> products = recommendationService.getRecentViewRecommendations(viewer, limit).stream()
+                .map(ProductResponse::from)
+                .toList();
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
+        return new RecommendationResponse(products);
+    }
 
-        return user.getId();
+    /**
+     * 이 상품과 함께 구매된 상품
+     */
+    @GetMapping("/products/{id}/bought-together")
+    public RecommendationResponse getBoughtTogether(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        List<ProductResponse> products = recommendationService.getBoughtTogether(id, limit).stream()
+                .map(ProductResponse::from)
+                .toList();
+
+        return new RecommendationResponse(products);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.commerceweb.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 커서(키셋) 기반 페이지
+ * <p>
+ * nextCursor가 null이면 마지막 페이지이다.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * limit + 1개를 조회한 결과로 페이지 생성 (남는 1개로 다음 페이지 존재 여부를 판단)
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,15 @@
+package com.commerceweb.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 해석할 수 없거나 정렬 기준이 다른 페이지 커서 (400으로 응답)
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String cursor) {
+        super("잘못된 페이지 커서입니다: " + cursor);
+    }
+}
@@ -0,0 +1,35 @@
+package com.commerceweb.dto;
+
+import com.commerceweb.entity.ProductReviewSummary;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewSummaryDto implements Serializable {
+    private Long productId;
+    private Long reviewCount;
+    private Double averageRating;
+    private Map<Integer, Long> starCounts; // 별점(1~5) → 리뷰 수
+
+    public static ReviewSummaryDto from(ProductReviewSummary summary) {
+        Map<Integer, Long> starCounts = new LinkedHashMap<>();
+        starCounts.put(5, summary.getStar5Count());
+        starCounts.put(4, summary.getStar4Count());
+        starCounts.put(3, summary.getStar3Count());
+        starCounts.put(2, summary.getStar2Count());
+        starCounts.put(1, summary.getStar1Count());
+
+        return ReviewSummaryDto.builder()
+                .productId(summary.getProductId())
+                .reviewCount(summary.getReviewCount())
+                .averageRating(summary.getAverageRating())
+                .starCounts(starCounts)
+                .build();
+    }
+}
@@ -10,11 +10,17 @@ import lombok.Data;
 import lombok.Builder;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // 키셋 페이지네이션용 (정렬 키, id) 인덱스
+        @Index(name = "idx_products_rating_id", columnList = "average_rating, id"),
+        @Index(name = "idx_products_views_id", columnList = "view_count, id"),
+        @Index(name = "idx_products_category_id", columnList = "category, id"),
+        @Index(name = "idx_products_category_rating_id", columnList = "category, average_rating, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Product {
 
     @Id
@@ -40,6 +46,7 @@ public class Product {
     @Column(name = "view_count")
     private Long viewCount = 0L;
 
+    // 평균 평점/평가 수: 평가(Rating) 집계에서만 갱신 (리뷰 별점은 ProductReviewSummary에 따로 집계)
     @Builder.Default
     @Column(name = "average_rating")
     private Double averageRating = 0.0;
@@ -48,6 +55,15 @@ public class Product {
     @Column(name = "rating_count")
     private Long ratingCount = 0L;
 
+    // 평가(Rating) 점수 합계/개수: 평가 시 증분 UPDATE로만 변경 (RatingService, RatingAggregateRepairJob)
+    @Builder.Default
+    @Column(name = "rating_score_sum")
+    private Long ratingScoreSum = 0L;
+
+    @Builder.Default
+    @Column(name = "rating_score_count")
+    private Long ratingScoreCount = 0L;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,53 @@
+package com.commerceweb.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 상품별 리뷰 집계 (리뷰 수, 별점 합계, 1~5점 분포)
+ * <p>
+ * 리뷰 작성/수정/삭제 시 ReviewService가 증분 UPDATE로만 갱신한다.
+ */
+@Entity
+@Table(name = "product_review_summaries")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductReviewSummary {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "star1_count", nullable = false)
+    private long star1Count;
+
+    @Column(name = "star2_count", nullable = false)
+    private long star2Count;
+
+    @Column(name = "star3_count", nullable = false)
+    private long star3Count;
+
+    @Column(name = "star4_count", nullable = false)
+    private long star4Count;
+
+    @Column(name = "star5_count", nullable = false)
+    private long star5Count;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 평균 별점 (소수점 1자리 반올림, 리뷰가 없으면 0)
+     */
+    public double getAverageRating() {
+        return reviewCount > 0 ? Math.round(ratingSum * 10.0 / reviewCount) / 10.0 : 0.0;
+    }
+}
@@ -12,6 +12,9 @@ import lombok.Builder;
 @Entity
 @Table(name = "ratings", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"user_id", "product_id"})
+}, indexes = {
+        // 상품별 평점 집계 검증용 (점수까지 포함해 인덱스만으로 합계 계산)
+        @Index(name = "idx_ratings_product_score", columnList = "product_id, score")
 })
 @Data
 @NoArgsConstructor
@@ -5,6 +5,13 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        // 리뷰 집계 행 최초 생성 시 상품별 별점 합계 계산용
+        @Index(name = "idx_review_product_rating", columnList = "product_id, rating"),
+        // 리뷰 목록 키셋 페이지네이션용 (최신순)
+        @Index(name = "idx_review_created", columnList = "created_at, id"),
+        @Index(name = "idx_review_product_created", columnList = "product_id, created_at, id")
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,7 +38,8 @@ public class Review {
 
     private Integer rating;
 
-    @Column(name = "created_at", updatable = false)
+    // 키셋 정렬 키이므로 NULL 불가 (기존 NULL 행은 기동 시 보정)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
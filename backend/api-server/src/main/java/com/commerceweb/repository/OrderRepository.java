@@ -1,15 +1,17 @@
 package com.commerceweb.repository;
 
 import com.commerceweb.entity.Order;
-import com.commerceweb.entity.User;
 import com.commerceweb.dto.SalesStatDto;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findByUserOrderByOrderDateDesc(User user);
+    // 주문 목록 응답에 상품 이름이 필요하므로 상품을 함께 조회 (N+1 방지)
+    @EntityGraph(attributePaths = "product")
+    List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
 
     @Query("SELECT new com.commerceweb.dto.SalesStatDto(p.name, CAST(SUM(o.totalPrice) AS long), CAST(SUM(o.quantity) AS long), COALESCE(p.averageRating, 0.0)) FROM Order o JOIN o.product p GROUP BY p.name, p.averageRating")
     List<SalesStatDto> getSalesStatistics();
@@ -1,24 +1,27 @@
 package com.commerceweb.repository;
 
 import com.commerceweb.entity.Product;
+import com.commerceweb.service.product.ProductKey;
+import com.commerceweb.service.product.ProductRatingChangedEvent;
+import com.commerceweb.service.product.ProductSearchDocument;
+import com.commerceweb.service.product.ProductTextDocument;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     // ✅ 카테고리와 이름으로 검색 (대소문자 무시)
     List<Product> findByCategoryAndNameContainingIgnoreCase(String category, String name);
 
-    // ✅ 평점 높은 순 정렬
-    List<Product> findAllByOrderByAverageRatingDesc();
-
-    // ✅ 조회수 높은 순 정렬
-    List<Product> findAllByOrderByViewCountDesc();
-
     // ✅ 가격 범위 검색
     List<Product> findByPriceBetween(Double minPrice, Double maxPrice);
 
@@ -34,4 +37,55 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     // ✅ ID 목록으로 상품 조회 (추천 시스템용)
     List<Product> findByIdIn(List<Long> ids);
+
+    // ✅ 검색 인덱스 빌드용 (검색에 필요한 컬럼만, id 순으로 나눠 조회)
+    @Query("SELECT new com.commerceweb.service.product.ProductSearchDocument(p.id, p.name, p.category) " +
+            "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSearchDocument> findSearchDocuments(Long afterId, Pageable pageable);
+
+    // ✅ 유사 상품 색인 빌드용 (텍스트 컬럼만, id 순으로 나눠 조회)
+    @Query("SELECT new com.commerceweb.service.product.ProductTextDocument(p.id, p.name, p.category, p.description) " +
+            "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductTextDocument> findTextDocuments(Long afterId, Pageable pageable);
+
+    // ✅ 순위표 갱신용 (정렬 키만 조회)
+    @Query("SELECT new com.commerceweb.service.product.ProductKey(p.id, p.averageRating, p.viewCount) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductKey> findKeysByIdIn(Collection<Long> ids);
+
+    // ✅ 평가 집계 증분 반영 (합계/개수/평균을 한 번의 원자적 UPDATE로 갱신, 우변은 모두 갱신 전 값)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE products SET " +
+            "rating_score_sum = COALESCE(rating_score_sum, 0) + :sumDelta, " +
+            "rating_score_count = COALESCE(rating_score_count, 0) + :countDelta, " +
+            "rating_count = COALESCE(rating_score_count, 0) + :countDelta, " +
+            "average_rating = CASE WHEN COALESCE(rating_score_count, 0) + :countDelta > 0 " +
+            "THEN CAST(COALESCE(rating_score_sum, 0) + :sumDelta AS DOUBLE PRECISION) " +
+            "/ (COALESCE(rating_score_count, 0) + :countDelta) ELSE 0 END, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :productId", nativeQuery = true)
+    int applyRatingDelta(Long productId, long sumDelta, long countDelta);
+
+    // ✅ 상품 행 잠금 (상품별 1회성 초기화 작업 직렬화용)
+    @Query(value = "SELECT id FROM products WHERE id = :productId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(Long productId);
+
+    // ✅ 평점 변경 이벤트용 현재 집계
+    @Query("SELECT new com.commerceweb.service.product.ProductRatingChangedEvent(p.id, p.averageRating, p.ratingCount) " +
+            "FROM Product p WHERE p.id = :productId")
+    Optional<ProductRatingChangedEvent> findRatingSummary(Long productId);
+
+    // ✅ 조회수 직접 증가 (조회수 버퍼가 가득 찼을 때 사용)
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.viewCount = COALESCE(p.viewCount, 0) + :delta WHERE p.id = :id")
+    int incrementViewCount(Long id, long delta);
+
+    // ✅ 정렬 키 NULL 보정 (키셋 페이지네이션은 정렬 키에 NULL이 없어야 순서가 안정적)
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.viewCount = COALESCE(p.viewCount, 0), p.averageRating = COALESCE(p.averageRating, 0.0) " +
+            "WHERE p.viewCount IS NULL OR p.averageRating IS NULL")
+    int backfillNullSortKeys();
 }
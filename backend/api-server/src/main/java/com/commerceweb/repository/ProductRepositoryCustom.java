@@ -0,0 +1,22 @@
+package com.commerceweb.repository;
+
+import com.commerceweb.service.product.ProductCursor;
+import com.commerceweb.service.product.ProductKey;
+import com.commerceweb.service.product.ProductSort;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * 키셋 페이지 조회: 커서 이후의 상품을 (정렬 키, id) 내림차순으로 최대 limit개 반환
+     * (OFFSET 없이 seek 조건만 사용, 정렬 인덱스만으로 응답할 수 있도록 ID와 정렬 키만 조회)
+     */
+    List<ProductKey> findPage(String category, String name, ProductSort sort, ProductCursor after, int limit);
+
+    /**
+     * 키셋 페이지 조회 (검색 인덱스가 찾은 상품 ID 안에서만)
+     */
+    List<ProductKey> findPageAmong(Collection<Long> ids, ProductSort sort, ProductCursor after, int limit);
+}
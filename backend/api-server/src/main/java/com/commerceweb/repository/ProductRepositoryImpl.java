@@ -0,0 +1,94 @@
+package com.commerceweb.repository;
+
+import com.commerceweb.entity.Product;
+import com.commerceweb.service.product.ProductCursor;
+import com.commerceweb.service.product.ProductKey;
+import com.commerceweb.service.product.ProductSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductKey> findPage(String category, String name, ProductSort sort, ProductCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductKey> query = cb.createQuery(ProductKey.class);
+        Root<Product> product = query.from(Product.class);
+
+        List<Predicate> where = new ArrayList<>();
+        if (category != null) {
+            where.add(cb.equal(product.get("category"), category));
+        }
+        if (name != null) {
+            where.add(cb.like(cb.lower(product.get("name")), "%" + escapeLike(name.toLowerCase()) + "%", '\\'));
+        }
+        return page(cb, query, product, where, sort, after, limit);
+    }
+
+    @Override
+    public List<ProductKey> findPageAmong(Collection<Long> ids, ProductSort sort, ProductCursor after, int limit) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductKey> query = cb.createQuery(ProductKey.class);
+        Root<Product> product = query.from(Product.class);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(product.get("id").in(ids));
+        return page(cb, query, product, where, sort, after, limit);
+    }
+
+    private List<ProductKey> page(CriteriaBuilder cb, CriteriaQuery<ProductKey> query, Root<Product> product,
+                                  List<Predicate> where, ProductSort sort, ProductCursor after, int limit) {
+        Path<Long> id = product.get("id");
+        query.select(cb.construct(ProductKey.class, id, product.get("averageRating"), product.get("viewCount")));
+        switch (sort) {
+            // DB는 관련도를 모르므로 관련도순은 검색 인덱스에서만 처리하고, 여기서는 최신순으로 대체
+            case LATEST, RELEVANCE -> {
+                if (after != null) {
+                    where.add(cb.lessThan(id, after.id()));
+                }
+                query.orderBy(cb.desc(id));
+            }
+            case RATING -> {
+                Path<Double> rating = product.get("averageRating");
+                if (after != null) {
+                    where.add(seek(cb, rating, after.rating(), id, after.id()));
+                }
+                query.orderBy(cb.desc(rating), cb.desc(id));
+            }
+            case VIEWS -> {
+                Path<Long> views = product.get("viewCount");
+                if (after != null) {
+                    where.add(seek(cb, views, after.views(), id, after.id()));
+                }
+                query.orderBy(cb.desc(views), cb.desc(id));
+            }
+        }
+
+        return entityManager.createQuery(query.where(where.toArray(Predicate[]::new)))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // (key, id) < (lastKey, lastId)
+    private static <K extends Comparable<? super K>> Predicate seek(CriteriaBuilder cb, Path<K> key, K lastKey,
+                                                                    Path<Long> id, long lastId) {
+        return cb.or(
+                cb.lessThan(key, lastKey),
+                cb.and(cb.equal(key, lastKey), cb.lessThan(id, lastId)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,39 @@
+package com.commerceweb.repository;
+
+import com.commerceweb.entity.ProductReviewSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ProductReviewSummaryRepository extends JpaRepository<ProductReviewSummary, Long> {
+
+    // ✅ 집계 증분 반영 (행이 없으면 0 반환 → initialize 후 다시 호출)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE product_review_summaries SET " +
+            "review_count = review_count + :countDelta, " +
+            "rating_sum = rating_sum + :sumDelta, " +
+            "star1_count = star1_count + :star1Delta, " +
+            "star2_count = star2_count + :star2Delta, " +
+            "star3_count = star3_count + :star3Delta, " +
+            "star4_count = star4_count + :star4Delta, " +
+            "star5_count = star5_count + :star5Delta, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE product_id = :productId", nativeQuery = true)
+    int applyDelta(Long productId, long countDelta, long sumDelta,
+                   long star1Delta, long star2Delta, long star3Delta, long star4Delta, long star5Delta);
+
+    // ✅ 집계 행 생성 (기존 리뷰로 한 번만 계산, 이미 있으면 무시 — 동시 생성은 호출 측에서 상품 행 잠금으로 직렬화)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO product_review_summaries " +
+            "(product_id, review_count, rating_sum, star1_count, star2_count, star3_count, star4_count, star5_count, updated_at) " +
+            "SELECT :productId, COUNT(rating), COALESCE(SUM(rating), 0), " +
+            "COALESCE(SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END), 0), " +
+            "CURRENT_TIMESTAMP " +
+            "FROM review WHERE product_id = :productId " +
+            "AND NOT EXISTS (SELECT 1 FROM product_review_summaries WHERE product_id = :productId)", nativeQuery = true)
+    int initialize(Long productId);
+}
@@ -3,7 +3,10 @@ package com.commerceweb.repository;
 import com.commerceweb.entity.Rating;
 import com.commerceweb.entity.User;
 import com.commerceweb.entity.Product;
+import com.commerceweb.service.recommendation.UserRating;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -16,13 +19,18 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     // ✅ 사용자의 모든 평가 조회
     List<Rating> findByUserId(Long userId);
 
-    // ✅ 상품의 모든 평가 조회 (평점 재계산용)
+    // ✅ 상품의 모든 평가 조회
     List<Rating> findByProductId(Long productId);
 
     // ✅ 사용자가 평가한 상품 ID 목록
     @Query("SELECT r.product.id FROM Rating r WHERE r.user.id = :userId")
     List<Long> findRatedProductIdsByUserId(Long userId);
 
+    // ✅ 사용자의 평가 (상품 id, 점수만)
+    @Query("SELECT new com.commerceweb.service.recommendation.UserRating(r.product.id, r.score) " +
+            "FROM Rating r WHERE r.user.id = :userId")
+    List<UserRating> findUserRatings(Long userId);
+
     // ✅ 유사 사용자 찾기 (협력 필터링)
     @Query(value = "SELECT r2.user_id, COUNT(*) as common_count " +
             "FROM ratings r1 " +
@@ -35,4 +43,14 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
 
     // ✅ User + Product로 평가 조회
     Optional<Rating> findByUserAndProduct(User user, Product product);
+
+    // ✅ 점수 변경용 조회 (이전 점수를 기준으로 집계 증분을 계산하므로 행 잠금)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rating r WHERE r.user.id = :userId AND r.product.id = :productId")
+    Optional<Rating> findForUpdate(Long userId, Long productId);
+
+    // ✅ 삭제용 조회 (동시 삭제 시 집계가 두 번 빠지지 않도록 행 잠금)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rating r WHERE r.id = :id")
+    Optional<Rating> findByIdForUpdate(Long id);
 }
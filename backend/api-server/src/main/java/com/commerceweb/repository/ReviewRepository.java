@@ -1,16 +1,57 @@
 package com.commerceweb.repository;
 
+import com.commerceweb.dto.ReviewDto;
 import com.commerceweb.entity.Review;
-import com.commerceweb.entity.Product;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
-    // 특정 상품에 달린 리뷰들을 최신순으로 가져오기
-    List<Review> findByProductOrderByCreatedAtDesc(Product product);
-
     // 특정 상품의 리뷰 개수 세기
     long countByProductId(Long productId);
 
     boolean existsByOrderId(Long orderId);
+
+    // 목록 페이지 조회: 상품명/작성자명까지 한 번의 JOIN으로 DTO에 담는다 (연관 엔티티 지연 로딩 없음)
+    String PAGE_SELECT = "SELECT new com.commerceweb.dto.ReviewDto(" +
+            "r.id, p.id, p.name, r.order.id, u.id, u.name, r.content, r.rating, r.createdAt) " +
+            "FROM Review r JOIN r.product p JOIN r.user u ";
+    String AFTER_CURSOR = "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) ";
+    String LATEST_FIRST = "ORDER BY r.createdAt DESC, r.id DESC";
+
+    // 전체 리뷰 최신순 첫 페이지
+    @Query(PAGE_SELECT + LATEST_FIRST)
+    List<ReviewDto> findPage(Pageable pageable);
+
+    // 전체 리뷰 최신순 다음 페이지 (커서 이후)
+    @Query(PAGE_SELECT + "WHERE " + AFTER_CURSOR + LATEST_FIRST)
+    List<ReviewDto> findPageAfter(LocalDateTime createdAt, Long id, Pageable pageable);
+
+    // 상품 리뷰 최신순 첫 페이지
+    @Query(PAGE_SELECT + "WHERE p.id = :productId " + LATEST_FIRST)
+    List<ReviewDto> findPageByProduct(Long productId, Pageable pageable);
+
+    // 상품 리뷰 최신순 다음 페이지 (커서 이후)
+    @Query(PAGE_SELECT + "WHERE p.id = :productId AND " + AFTER_CURSOR + LATEST_FIRST)
+    List<ReviewDto> findPageByProductAfter(Long productId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    // 수정/삭제용 조회 (이전 별점을 기준으로 집계 증분을 계산하므로 행 잠금)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.id = :id")
+    Optional<Review> findByIdForUpdate(Long id);
+
+    // ✅ 작성 시각 NULL 보정 (키셋 페이지네이션은 정렬 키에 NULL이 없어야 순서가 안정적): 주문 시각, 없으면 fallback
+    @Transactional
+    @Modifying
+    @Query("UPDATE Review r SET r.createdAt = COALESCE(" +
+            "(SELECT o.createdAt FROM Order o WHERE o.id = r.order.id), :fallback) WHERE r.createdAt IS NULL")
+    int backfillNullCreatedAt(LocalDateTime fallback);
 }
\ No newline at end of file
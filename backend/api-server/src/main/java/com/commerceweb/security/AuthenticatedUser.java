@@ -0,0 +1,18 @@
+package com.commerceweb.security;
+
+import com.commerceweb.entity.UserRole;
+
+import java.security.Principal;
+
+/**
+ * 요청마다 JWT 클레임으로 한 번 만들어지는 인증 사용자 정보
+ * <p>
+ * 컨트롤러는 {@link CurrentUser}로 주입받아 사용하며, 사용자 조회 쿼리가 필요 없다.
+ */
+public record AuthenticatedUser(Long id, String email, UserRole role) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,19 @@
+package com.commerceweb.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컨트롤러 메서드 파라미터에 현재 로그인한 {@link AuthenticatedUser}를 주입
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+
+    /**
+     * false이면 로그인하지 않은 요청에 예외 대신 null을 주입 (공개 API에서 로그인 여부에 따라 동작이 다를 때)
+     */
+    boolean required() default true;
+}
@@ -1,74 +1,195 @@
 package com.commerceweb.security.jwt;
 
+import com.commerceweb.entity.User;
+import com.commerceweb.entity.UserRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 @Slf4j
 @Component
 public class JwtProvider {
 
-    // ✅ 환경 변수를 읽어오되, 만약 값이 없으면 뒤의 긴 문자열을 기본값으로 사용하도록 강제 통일합니다.
-    @Value("${jwt.secret:my_custom_secret_key_for_commerce_web_project_123456}")
-    private String jwtSecret;
+    // ✅ 인증 필터가 DB 조회 없이 Authentication을 만들 수 있도록 토큰에 담는 클레임
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_ROLE = "role";
+    // 초 단위인 iat와 별도로 밀리초까지 담아, 같은 초에 로그아웃하기 직전에 발급된 토큰도 폐기 판정한다
+    public static final String CLAIM_ISSUED_AT_MILLIS = "iatMs";
+
+    private final long jwtExpirationMs;
+    // 발급/검증/캐시 만료가 함께 쓰는 현재 시각 (epoch millis)
+    private final LongSupplier clock;
+
+    // ✅ 서명 키와 파서는 불변이므로 한 번만 만들어 재사용
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // ✅ 검증된 토큰 캐시 (키: 토큰 SHA-256 digest, 토큰의 exp 시각에 만료)
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
-    @Value("${jwt.expiration:86400000}")
-    private long jwtExpirationMs;
+    // ✅ 환경 변수를 읽어오되, 만약 값이 없으면 뒤의 긴 문자열을 기본값으로 사용하도록 강제 통일합니다.
+    public JwtProvider(@Value("${jwt.secret:my_custom_secret_key_for_commerce_web_project_123456}") String jwtSecret,
+                       @Value("${jwt.expiration:86400000}") long jwtExpirationMs,
+                       @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                       MeterRegistry meterRegistry) {
+        this(jwtSecret, jwtExpirationMs, cacheMaxSize, meterRegistry, System::currentTimeMillis);
+    }
 
-    private SecretKey getSigningKey() {
+    /**
+     * 시각을 주입하는 생성자 (테스트에서 토큰 만료를 기다리지 않고 확인할 때 사용)
+     */
+    JwtProvider(String jwtSecret, long jwtExpirationMs, long cacheMaxSize, MeterRegistry meterRegistry,
+                LongSupplier clock) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.clock = clock;
         // 비밀키 문자열을 바이트 배열로 변환하여 키 객체 생성
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setClock(() -> new Date(clock.getAsLong()))
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.getAsLong()))
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+    }
+
+    /**
+     * 사용자 ID(subject)와 함께 이메일, 권한을 클레임으로 담은 토큰 생성
+     */
+    public String generateToken(User user) {
+        return generateToken(user.getId(), user.getEmail(), user.getRole());
     }
 
-    public String generateToken(String userId) {
-        Date now = new Date();
+    public String generateToken(Long userId, String email, UserRole role) {
+        Date now = new Date(clock.getAsLong());
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
-                .setSubject(userId)
+                .setSubject(String.valueOf(userId))
+                .claim(CLAIM_EMAIL, email)
+                .claim(CLAIM_ROLE, role.name())
                 .setIssuedAt(now)
+                .claim(CLAIM_ISSUED_AT_MILLIS, now.getTime())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * 토큰 검증 (서명 검증 + 클레임 추출을 한 번의 파싱으로 처리)
+     * <p>
+     * 이미 검증한 토큰은 만료 전까지 캐시에서 바로 반환한다. 검증에 실패한 토큰은 캐시하지 않는다.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        VerifiedToken verified = parse(token);
+        if (verified != null) {
+            verifiedTokens.put(key, verified);
+        }
+        return Optional.ofNullable(verified);
+    }
+
     public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    public String extractUserId(String token) {
+        return verify(token).map(VerifiedToken::subject).orElse(null);
+    }
+
+    /**
+     * 캐시를 거치지 않는 단일 파싱 (벤치마크에서 캐시 효과를 분리해 측정할 때도 사용)
+     */
+    VerifiedToken parse(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get(CLAIM_EMAIL, String.class),
+                    claims.get(CLAIM_ROLE, String.class),
+                    issuedAt(claims),
+                    claims.getExpiration());
         } catch (SecurityException | MalformedJwtException e) {
             log.error("잘못된 JWT 서명입니다: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             log.error("만료된 JWT 토큰입니다: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             log.error("지원되지 않는 JWT 토큰입니다: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT 토큰이 비어있습니다: {}", e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("유효하지 않은 JWT 토큰입니다: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 
-    public String extractUserId(String token) {
+    /**
+     * 발급 시각 (밀리초 클레임이 없는 이전 토큰은 초 단위 iat)
+     */
+    private static Date issuedAt(Claims claims) {
+        Long millis = claims.get(CLAIM_ISSUED_AT_MILLIS, Long.class);
+        return millis != null ? new Date(millis) : claims.getIssuedAt();
+    }
+
+    private static String digest(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            return claims.getSubject();
-        } catch (JwtException e) {
-            log.error("토큰에서 사용자 ID를 추출할 수 없습니다: {}", e.getMessage());
-            return null;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 캐시 항목을 토큰의 exp 시각에 만료시키는 정책 (currentTime은 clock 기준 나노초)
+     */
+    private static class ExpireAtTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return 0L;
+            }
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(value.expiresAt().getTime()) - currentTime;
+            return Math.max(remainingNanos, 0L);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
-}
\ No newline at end of file
+}
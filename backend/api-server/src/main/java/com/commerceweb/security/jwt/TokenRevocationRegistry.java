@@ -0,0 +1,112 @@
+package com.commerceweb.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * 토큰 폐기 목록 (L1: 노드별 Caffeine, 원본: Redis)
+ * <p>
+ * 사용자별로 "이 시각까지 발급된 토큰은 무효"라는 기준 시각만 기억한다.
+ * 기준 시각과 발급 시각은 밀리초로 비교하고({@link JwtProvider#CLAIM_ISSUED_AT_MILLIS}), 초 단위 iat만 있는
+ * 이전 토큰은 그 초의 시작 시각으로 보므로 로그아웃과 같은 초에 발급된 토큰도 폐기된다.
+ * <p>
+ * 기준 시각은 Redis에 토큰 만료 시간만큼의 TTL로 저장하므로 재시작이나 다른 노드에서도 유지되고, 만료 뒤에는
+ * 저절로 사라진다. 인증 필터는 매 요청마다 Redis를 조회하지 않도록 L1을 먼저 보고, 로그아웃은 Redis pub/sub으로
+ * 다른 노드의 L1에 기준 시각을 바로 알린다. Redis 장애 시에는 이 노드가 아는 기준 시각만으로 판정한다.
+ */
+@Slf4j
+@Component
+public class TokenRevocationRegistry {
+
+    public static final String INVALIDATION_CHANNEL = "token-revocation:revoke";
+    private static final String KEY_PREFIX = "token-revoked-before:";
+
+    // L1에 "폐기 기준 없음"을 기억하는 값
+    private static final long NO_CUTOFF = Long.MIN_VALUE;
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration cutoffTtl;
+
+    // userId -> 폐기 기준 시각 (epoch millis, 없으면 NO_CUTOFF)
+    private final Cache<Long, Long> local;
+
+    private final Counter remoteErrors;
+
+    public TokenRevocationRegistry(StringRedisTemplate redisTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${jwt.expiration:86400000}") long jwtExpirationMs,
+                                   @Value("${jwt.revocation.local.max-size:100000}") long localMaxSize,
+                                   @Value("${jwt.revocation.local.ttl-seconds:30}") long localTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.cutoffTtl = Duration.ofMillis(jwtExpirationMs);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "jwt.revocation.l1");
+        this.remoteErrors = meterRegistry.counter("jwt.revocation.redis.errors");
+    }
+
+    /**
+     * 지금까지 발급된 해당 사용자의 토큰을 모두 무효화
+     */
+    public void revokeAll(Long userId) {
+        long cutoff = System.currentTimeMillis();
+        remember(userId, cutoff);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + userId, Long.toString(cutoff), cutoffTtl);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId + ":" + cutoff);
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.warn("⚠️ 토큰 폐기 기준 저장 실패 (userId={}, 이 노드에만 적용): {}", userId, e.getMessage());
+        }
+        log.info("🔒 토큰 폐기: userId={}", userId);
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        long cutoff = local.get(userId, this::loadCutoff);
+        if (cutoff == NO_CUTOFF) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() <= cutoff;
+    }
+
+    /**
+     * Redis pub/sub으로 받은 폐기 메시지 처리 ("userId:기준 시각", 자기 자신이 보낸 메시지도 같은 값이므로 무해)
+     */
+    public void onInvalidationMessage(String payload) {
+        int separator = payload.indexOf(':');
+        try {
+            remember(Long.valueOf(payload.substring(0, separator)), Long.parseLong(payload.substring(separator + 1)));
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            log.warn("⚠️ 잘못된 토큰 폐기 메시지: {}", payload);
+        }
+    }
+
+    // 이미 더 늦은 기준 시각을 알고 있으면 유지
+    private void remember(Long userId, long cutoff) {
+        local.asMap().merge(userId, cutoff, Math::max);
+    }
+
+    private long loadCutoff(Long userId) {
+        try {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+            return value == null ? NO_CUTOFF : Long.parseLong(value);
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.debug("Redis 토큰 폐기 기준 조회 실패: {}", e.getMessage());
+            return NO_CUTOFF;
+        }
+    }
+}
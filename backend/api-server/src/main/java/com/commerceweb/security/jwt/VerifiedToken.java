@@ -0,0 +1,19 @@
+package com.commerceweb.security.jwt;
+
+import java.util.Date;
+
+/**
+ * 서명 검증이 끝난 토큰의 클레임
+ * <p>
+ * email/role은 클레임이 없는 이전 형식의 토큰이면 null이다.
+ */
+public record VerifiedToken(String subject, String email, String role, Date issuedAt, Date expiresAt) {
+
+    public Long userId() {
+        return Long.parseLong(subject);
+    }
+
+    public boolean hasIdentityClaims() {
+        return email != null && role != null;
+    }
+}
@@ -3,69 +3,104 @@ package com.commerceweb.service;
 import com.commerceweb.entity.User;
 import com.commerceweb.entity.UserRole;
 import com.commerceweb.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.commerceweb.security.PasswordHashingExecutor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor persistExecutor;
+
+    public AuthService(UserRepository userRepository,
+                       BCryptPasswordEncoder passwordEncoder,
+                       PasswordHashingExecutor hashingExecutor,
+                       TransactionTemplate transactionTemplate,
+                       @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                       Executor persistExecutor) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.persistExecutor = persistExecutor;
+    }
 
     /**
      * ✅ 회원가입 로직 (role 파라미터 추가 완료)
+     * <p>
+     * 비밀번호 해싱만 {@link PasswordHashingExecutor}에서 실행하고, 중복 확인과 저장은 DB 지연이 해싱 스레드를
+     * 붙잡지 않도록 애플리케이션 작업 실행기에서 한 트랜잭션으로 실행한다. 저장까지 끝나면 Future가 완료된다.
      */
-    @Transactional
-    public User signup(String email, String rawPassword, String name, UserRole role) { // ✅ role 인자 추가
+    public CompletableFuture<User> signup(String email, String rawPassword, String name, UserRole role) { // ✅ role 인자 추가
 
-        // 1️⃣ 이메일 중복 확인
+        // 1️⃣ 이메일 중복 확인 (해싱 전에 빨리 거절, 저장 트랜잭션에서 한 번 더 확인)
         if (userRepository.existsByEmail(email)) {
             log.error("회원가입 실패: 이미 존재하는 이메일 -> {}", email);
-            throw new RuntimeException("이미 존재하는 이메일입니다.");
+            return CompletableFuture.failedFuture(new RuntimeException("이미 존재하는 이메일입니다."));
         }
 
-        // 2️⃣ 비밀번호 암호화 (BCrypt)
-        String hashedPassword = passwordEncoder.encode(rawPassword);
-        log.info("비밀번호 암호화 완료");
+        // 2️⃣ 비밀번호 암호화 (BCrypt, 해싱 전용 스레드에서 실행)
+        return hashingExecutor.submit(() -> passwordEncoder.encode(rawPassword))
+                .thenApplyAsync(hashedPassword -> transactionTemplate.execute(status -> {
+                    log.info("비밀번호 암호화 완료");
 
-        // 3️⃣ User 객체 생성
-        User user = new User();
-        user.setEmail(email);
-        user.setPassword(hashedPassword);
-        user.setName(name);
+                    if (userRepository.existsByEmail(email)) {
+                        log.error("회원가입 실패: 이미 존재하는 이메일 -> {}", email);
+                        throw new RuntimeException("이미 존재하는 이메일입니다.");
+                    }
 
-        // 4️⃣ 전달받은 role 설정 (CUSTOMER 또는 SELLER)
-        // ✅ 고정값 CUSTOMER에서 매개변수 role로 변경
-        user.setRole(role != null ? role : UserRole.CUSTOMER);
+                    // 3️⃣ User 객체 생성
+                    User user = new User();
+                    user.setEmail(email);
+                    user.setPassword(hashedPassword);
+                    user.setName(name);
 
-        // 5️⃣ 데이터베이스에 저장
-        User savedUser = userRepository.save(user);
+                    // 4️⃣ 전달받은 role 설정 (CUSTOMER 또는 SELLER)
+                    // ✅ 고정값 CUSTOMER에서 매개변수 role로 변경
+                    user.setRole(role != null ? role : UserRole.CUSTOMER);
 
-        log.info("✅ 회원가입 성공 및 DB 저장 완료: {}, Role: {}", savedUser.getEmail(), savedUser.getRole());
-        return savedUser;
+                    // 5️⃣ 데이터베이스에 저장
+                    User savedUser = userRepository.save(user);
+
+                    log.info("✅ 회원가입 성공 및 DB 저장 완료: {}, Role: {}", savedUser.getEmail(), savedUser.getRole());
+                    return savedUser;
+                }), persistExecutor);
     }
 
     /**
      * ✅ 로그인 로직
+     * <p>
+     * 사용자 조회는 요청 스레드에서, 비밀번호 비교는 해싱 전용 스레드에서 실행한다.
      */
-    @Transactional(readOnly = true)
-    public User login(String email, String rawPassword) {
+    public CompletableFuture<User> login(String email, String rawPassword) {
         // 1️⃣ 사용자 조회
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("존재하지 않는 사용자입니다."));
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("존재하지 않는 사용자입니다."));
+        }
 
         // 2️⃣ 입력한 비밀번호와 저장된 비밀번호 비교
-        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
-            log.warn("❌ 로그인 실패: 비밀번호 불일치 -> {}", email);
-            throw new RuntimeException("비밀번호가 일치하지 않습니다.");
-        }
+        return hashingExecutor.submit(() -> passwordEncoder.matches(rawPassword, user.getPassword()))
+                .thenApply(matches -> {
+                    if (!matches) {
+                        log.warn("❌ 로그인 실패: 비밀번호 불일치 -> {}", email);
+                        throw new RuntimeException("비밀번호가 일치하지 않습니다.");
+                    }
 
-        log.info("✅ 로그인 성공: {}", user.getEmail());
-        return user;
+                    log.info("✅ 로그인 성공: {}", user.getEmail());
+                    return user;
+                });
     }
-}
\ No newline at end of file
+}
@@ -5,7 +5,10 @@ import com.commerceweb.entity.Product;
 import com.commerceweb.entity.User;
 import com.commerceweb.repository.OrderRepository;
 import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.repository.UserRepository;
+import com.commerceweb.service.recommendation.OrderChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,12 +20,17 @@ import java.util.List;
 public class OrderService {
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
-    public Order createOrder(User user, Long productId, Integer quantity) {
+    public Order createOrder(Long userId, Long productId, Integer quantity) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("상품이 존재하지 않습니다."));
 
+        // 사용자는 FK로만 쓰이므로 조회 없이 참조 프록시 사용
+        User user = userRepository.getReferenceById(userId);
+
         Order order = Order.builder()
                 .user(user)
                 .product(product)
@@ -32,26 +40,29 @@ public class OrderService {
                 .status("PAID")               // 명시적 추가
                 .build();
 
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderChangedEvent(saved.getId(), userId, productId, false));
+        return saved;
     }
 
-    public List<Order> getMyOrders(User user) {
-        return orderRepository.findByUserOrderByOrderDateDesc(user);
+    public List<Order> getMyOrders(Long userId) {
+        return orderRepository.findByUserIdOrderByOrderDateDesc(userId);
     }
 
     // ✅ 수정된 로직: 상태 변경이 아닌 실제 DB 삭제
     @Transactional
-    public void cancelOrder(Long orderId, User user) {
+    public void cancelOrder(Long orderId, Long userId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("주문이 없습니다."));
 
         // 본인 주문인지 확인
-        if (!order.getUser().getId().equals(user.getId())) {
+        if (!order.getUser().getId().equals(userId)) {
             throw new IllegalStateException("본인의 주문만 취소할 수 있습니다.");
         }
 
         // ✅ DB에서 실제 데이터 삭제
         orderRepository.delete(order);
+        eventPublisher.publishEvent(new OrderChangedEvent(orderId, userId, order.getProduct().getId(), true));
     }
 
     @Transactional
@@ -1,20 +1,44 @@
 package com.commerceweb.service;
 
+import com.commerceweb.dto.CursorPage;
 import com.commerceweb.entity.Product;
 import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.dto.InvalidCursorException;
+import com.commerceweb.service.product.*;
+import com.commerceweb.service.recommendation.ProductScore;
+import com.commerceweb.service.recommendation.RecentViews;
+import com.commerceweb.service.recommendation.SimilarProductIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // 관련도순이 아닌 검색에서 검색 인덱스 결과를 DB IN 조건으로 넘길 최대 ID 수 (넘으면 LIKE 검색)
+    static final int MAX_INDEXED_IDS = 1_000;
+
     private final ProductRepository productRepository;
+    private final ViewCountBuffer viewCountBuffer;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCache productCache;
+    private final ProductLeaderboard leaderboard;
+    private final CategoryLeaderboard categoryLeaderboard;
+    private final SimilarProductIndex similarProducts;
+    private final RecentViews recentViews;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 모든 상품 조회
@@ -26,38 +50,104 @@ public class ProductService {
     }
 
     /**
-     * 상품 검색 (카테고리 + 이름)
+     * 상품 검색 (카테고리 + 이름, 키셋 페이지네이션)
+     * <p>
+     * 이름 검색은 {@link ProductSearchIndex}에서 처리하고, 정렬을 지정하지 않으면 관련도순으로 응답한다.
+     * 인덱스가 아직 준비되지 않았으면 DB LIKE 검색(최신순)으로 대체한다.
+     *
+     * @param sort null이면 검색어가 있을 때 관련도순, 없을 때 최신순 (다음 페이지는 커서의 정렬을 따름)
      */
     @Transactional(readOnly = true)
-    public List<Product> getProducts(String category, String name) {
-        log.info("🔍 상품 검색: category={}, name={}", category, name);
-
-        if (category != null && !category.isEmpty()) {
-            if (name != null && !name.isEmpty()) {
-                return productRepository.findByCategoryAndNameContainingIgnoreCase(category, name);
-            } else {
-                return productRepository.findByCategory(category);
+    public CursorPage<Product> getProducts(String category, String name, ProductSort sort, String cursor, int size) {
+        String query = emptyToNull(name != null ? name.strip() : null);
+        category = emptyToNull(category);
+
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        ProductCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            after = sort != null ? ProductCursor.decode(cursor, sort) : ProductCursor.decode(cursor);
+            sort = after.sort();
+        }
+        if (sort == null) {
+            sort = query != null ? ProductSort.RELEVANCE : ProductSort.LATEST;
+        }
+        log.info("🔍 상품 검색: category={}, name={}, sort={}", category, query, sort);
+
+        if (query == null && category != null && sort == ProductSort.RATING && after == null) {
+            // 카테고리 평점순 첫 페이지는 카테고리 순위표에서 응답
+            Optional<CursorPage<Product>> page = categoryPage(category, limit);
+            if (page.isPresent()) {
+                return page.get();
+            }
+        }
+
+        boolean indexed = query != null && searchIndex.isReady();
+        if (sort == ProductSort.RELEVANCE) {
+            if (indexed) {
+                return searchByRelevance(category, query, after, limit);
+            }
+            if (after != null) {
+                // 관련도 커서는 검색 인덱스에서만 이어서 조회할 수 있다
+                throw new InvalidCursorException(cursor);
+            }
+            sort = ProductSort.LATEST;
+        }
+
+        // 다음 페이지 존재 여부 확인을 위해 1개 더 조회 (ID와 정렬 키만 조회하고 상품은 캐시에서 채움)
+        List<ProductKey> rows = null;
+        if (indexed) {
+            long[] ids = searchIndex.matchingIds(category, query, MAX_INDEXED_IDS);
+            if (ids != null) {
+                rows = productRepository.findPageAmong(Arrays.stream(ids).boxed().toList(), sort, after, limit + 1);
             }
-        } else if (name != null && !name.isEmpty()) {
-            return productRepository.findByNameContainingIgnoreCase(name);
-        } else {
-            return productRepository.findAll();
         }
+        if (rows == null) {
+            rows = productRepository.findPage(category, query, sort, after, limit + 1);
+        }
+
+        ProductSort pageSort = sort;
+        CursorPage<ProductKey> page = CursorPage.of(rows, limit, key -> ProductCursor.of(pageSort, key).encode());
+        return new CursorPage<>(productCache.getAll(page.items().stream().map(ProductKey::id).toList()),
+                page.nextCursor());
+    }
+
+    private CursorPage<Product> searchByRelevance(String category, String query, ProductCursor after, int limit) {
+        List<SearchHit> hits = searchIndex.search(category, query, after, limit + 1);
+        CursorPage<SearchHit> page = CursorPage.of(hits, limit, hit -> ProductCursor.of(hit).encode());
+
+        // 검색 순위대로 상품 로딩 (인덱스 반영 전에 삭제된 상품은 제외)
+        List<Long> ids = page.items().stream().map(SearchHit::productId).toList();
+        return new CursorPage<>(productCache.getAll(ids), page.nextCursor());
     }
 
     /**
      * 단일 상품 상세 조회 (조회수 증가 포함)
+     * <p>
+     * 상품은 {@link ProductCache}에서 읽으므로 캐시 적중 시 DB 커넥션을 쓰지 않는다.
+     * 조회수는 {@link ViewCountBuffer}에 적재되고 주기적으로 일괄 반영되므로 쓰기 트랜잭션이 필요 없다.
      */
-    @Transactional
     public Product getProduct(Long id) {
+        return getProduct(id, null);
+    }
+
+    /**
+     * 단일 상품 상세 조회 + 방문자의 최근 본 상품 기록
+     *
+     * @param viewer {@link RecentViews#viewerKey} (null이면 기록하지 않음)
+     */
+    public Product getProduct(Long id, String viewer) {
         log.info("🔎 상품 상세 조회: id={}", id);
 
-        Product product = productRepository.findById(id)
+        Product product = productCache.get(id)
                 .orElseThrow(() -> new RuntimeException("상품을 찾을 수 없습니다: " + id));
 
-        // 조회수 1 증가
-        product.setViewCount(product.getViewCount() + 1);
-        productRepository.save(product);
+        // 조회수 1 증가 (write-behind)
+        viewCountBuffer.increment(id);
+
+        // 최근 본 상품 (실시간 추천용, 메모리 링 버퍼)
+        if (viewer != null) {
+            recentViews.record(viewer, id);
+        }
 
         return product;
     }
@@ -68,7 +158,9 @@ public class ProductService {
     @Transactional
     public Product createProduct(Product product) {
         log.info("✨ 새 상품 등록: {}", product.getName());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
     }
 
     /**
@@ -87,7 +179,9 @@ public class ProductService {
         if (updatedProduct.getCategory() != null) product.setCategory(updatedProduct.getCategory());
         if (updatedProduct.getImageUrl() != null) product.setImageUrl(updatedProduct.getImageUrl());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
     }
 
     /**
@@ -97,22 +191,76 @@ public class ProductService {
     public void deleteProduct(Long id) {
         log.info("🗑️ 상품 삭제: id={}", id);
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    /**
+     * 인기 상품 (평점순, 첫 페이지는 순위표에서 응답)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Product> getTopRatedProducts(String cursor, int size) {
+        return leaderboardPage(ProductSort.RATING, cursor, size)
+                .orElseGet(() -> getProducts(null, null, ProductSort.RATING, cursor, size));
     }
 
     /**
-     * 인기 상품 (평점순)
+     * 트렌딩 상품 (조회수순, 첫 페이지는 순위표에서 응답)
      */
     @Transactional(readOnly = true)
-    public List<Product> getTopRatedProducts() {
-        return productRepository.findAllByOrderByAverageRatingDesc();
+    public CursorPage<Product> getTrendingProducts(String cursor, int size) {
+        return leaderboardPage(ProductSort.VIEWS, cursor, size)
+                .orElseGet(() -> getProducts(null, null, ProductSort.VIEWS, cursor, size));
+    }
+
+    // 다음 페이지 커서는 DB 키셋 커서와 같은 형식이므로 두 번째 페이지부터는 DB에서 이어서 조회된다
+    private Optional<CursorPage<Product>> leaderboardPage(ProductSort sort, String cursor, int size) {
+        if (cursor != null && !cursor.isEmpty()) {
+            return Optional.empty();
+        }
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        return leaderboard.top(sort, limit + 1).map(entries -> {
+            CursorPage<ProductLeaderboard.Entry> page = CursorPage.of(entries, limit,
+                    entry -> ProductCursor.of(sort, entry.toKey(sort)).encode());
+            List<Long> ids = page.items().stream().map(ProductLeaderboard.Entry::productId).toList();
+            return new CursorPage<>(productCache.getAll(ids), page.nextCursor());
+        });
+    }
+
+    private Optional<CursorPage<Product>> categoryPage(String category, int limit) {
+        return categoryLeaderboard.top(category, limit + 1).map(entries -> {
+            CursorPage<ProductLeaderboard.Entry> page = CursorPage.of(entries, limit,
+                    entry -> ProductCursor.of(ProductSort.RATING, entry.toKey(ProductSort.RATING)).encode());
+            List<Long> ids = page.items().stream().map(ProductLeaderboard.Entry::productId).toList();
+            return new CursorPage<>(productCache.getAll(ids), page.nextCursor());
+        });
     }
 
     /**
-     * 트렌딩 상품 (조회수순)
+     * 비슷한 상품 (유사 상품 색인에서 찾고, 색인 빌드 전이거나 색인에 없는 상품이면 같은 카테고리의 평점순 상위)
      */
     @Transactional(readOnly = true)
-    public List<Product> getTrendingProducts() {
-        return productRepository.findAllByOrderByViewCountDesc();
+    public List<Product> getSimilarProducts(Long id, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        Optional<List<ProductScore>> similar = similarProducts.similar(id, size);
+        if (similar.isPresent()) {
+            return productCache.getAll(similar.get().stream().map(ProductScore::productId).toList());
+        }
+
+        Product product = productCache.get(id)
+                .orElseThrow(() -> new RuntimeException("상품을 찾을 수 없습니다: " + id));
+        String category = product.getCategory();
+        if (category == null) {
+            return List.of();
+        }
+        // 자기 자신이 포함될 수 있으므로 하나 더 조회
+        List<Long> ids = categoryLeaderboard.top(category, size + 1)
+                .map(entries -> entries.stream().map(ProductLeaderboard.Entry::productId).toList())
+                .orElseGet(() -> productRepository.findPage(category, null, ProductSort.RATING, null, size + 1)
+                        .stream()
+                        .map(ProductKey::id)
+                        .toList());
+        return productCache.getAll(ids.stream().filter(candidate -> !candidate.equals(id)).limit(size).toList());
     }
 
     /**
@@ -130,4 +278,19 @@ public class ProductService {
     public List<Product> getProductsByCategory(String category) {
         return productRepository.findByCategory(category);
     }
+
+    /**
+     * 기동 시 정렬 키(조회수, 평점)가 NULL인 기존 데이터 보정
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizeSortKeys() {
+        int updated = productRepository.backfillNullSortKeys();
+        if (updated > 0) {
+            log.info("🧹 정렬 키 NULL 보정: {}개 상품", updated);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value != null && !value.isEmpty() ? value : null;
+    }
 }
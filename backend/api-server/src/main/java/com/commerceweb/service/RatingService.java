@@ -7,10 +7,12 @@ import com.commerceweb.repository.ProductRepository;
 import com.commerceweb.repository.RatingRepository;
 import com.commerceweb.repository.UserRepository;
 
+import com.commerceweb.service.product.ProductRatingChangedEvent;
+import com.commerceweb.service.recommendation.UserRatingChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,12 +26,12 @@ public class RatingService {
     private final RatingRepository ratingRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 상품 평가 생성 또는 업데이트
      */
     @Transactional
-    @CacheEvict(value = "recommendations", key = "#userId")
     public Rating rateProduct(Long userId, Long productId, Integer score, String review) {
         log.info("⭐ 상품 평가: userId={}, productId={}, score={}", userId, productId, score);
 
@@ -40,11 +42,15 @@ public class RatingService {
                 .orElseThrow(() -> new RuntimeException("상품을 찾을 수 없습니다"));
 
         // 기존 평가 조회
-        Optional<Rating> existingRating = ratingRepository.findByUserAndProduct(user, product);
+        Optional<Rating> existingRating = ratingRepository.findForUpdate(userId, productId);
 
         Rating rating;
+        long sumDelta;
+        long countDelta;
         if (existingRating.isPresent()) {
             rating = existingRating.get();
+            sumDelta = score - rating.getScore();
+            countDelta = 0;
             rating.setScore(score);
             rating.setReview(review);
             log.info("📝 평가 업데이트");
@@ -55,11 +61,14 @@ public class RatingService {
                     .score(score)
                     .review(review)
                     .build();
+            sumDelta = score;
+            countDelta = 1;
             log.info("✨ 새 평가 생성");
         }
 
         Rating savedRating = ratingRepository.save(rating);
-        updateProductRating(product);
+        applyRatingDelta(productId, sumDelta, countDelta);
+        eventPublisher.publishEvent(new UserRatingChangedEvent(userId, productId, score));
 
         return savedRating;
     }
@@ -77,38 +86,27 @@ public class RatingService {
      * 평가 삭제
      */
     @Transactional
-    @CacheEvict(value = "recommendations", key = "#userId")
     public void deleteRating(Long userId, Long ratingId) {
         log.info("🗑️ 평가 삭제");
 
-        Rating rating = ratingRepository.findById(ratingId)
+        Rating rating = ratingRepository.findByIdForUpdate(ratingId)
                 .orElseThrow(() -> new RuntimeException("평가를 찾을 수 없습니다"));
 
-        Product product = rating.getProduct();
-        ratingRepository.deleteById(ratingId);
-        updateProductRating(product);
+        Long productId = rating.getProduct().getId();
+        ratingRepository.delete(rating);
+        ratingRepository.flush();
+        applyRatingDelta(productId, -rating.getScore(), -1);
+        eventPublisher.publishEvent(new UserRatingChangedEvent(rating.getUser().getId(), productId, null));
     }
 
     /**
-     * 상품의 평점 및 평가 수 업데이트
+     * 상품 평점 집계에 증분 반영 (전체 평가를 다시 읽지 않고 O(1) UPDATE 한 번)
      */
-    @Transactional
-    private void updateProductRating(Product product) {
-        java.util.List<Rating> ratings = ratingRepository.findByProductId(product.getId());
-
-        if (ratings.isEmpty()) {
-            product.setAverageRating(0.0);
-            product.setRatingCount(0L);
-        } else {
-            double averageRating = ratings.stream()
-                    .mapToInt(Rating::getScore)
-                    .average()
-                    .orElse(0.0);
-
-            product.setAverageRating(averageRating);
-            product.setRatingCount((long) ratings.size());
+    private void applyRatingDelta(Long productId, long sumDelta, long countDelta) {
+        if (sumDelta == 0 && countDelta == 0) {
+            return;
         }
-
-        productRepository.save(product);
+        productRepository.applyRatingDelta(productId, sumDelta, countDelta);
+        productRepository.findRatingSummary(productId).ifPresent(eventPublisher::publishEvent);
     }
 }
@@ -3,12 +3,20 @@
 package com.commerceweb.service;
 
 import com.commerceweb.entity.Product;
-import com.commerceweb.entity.Rating;
 import com.commerceweb.repository.ProductRepository;
-import com.commerceweb.repository.RatingRepository;
+import com.commerceweb.service.product.CategoryLeaderboard;
+import com.commerceweb.service.product.ProductCache;
+import com.commerceweb.service.product.ProductKey;
+import com.commerceweb.service.product.ProductLeaderboard;
+import com.commerceweb.service.product.ProductSort;
+import com.commerceweb.service.recommendation.CoPurchaseIndex;
+import com.commerceweb.service.recommendation.HybridRecommendationEngine;
+import com.commerceweb.service.recommendation.ProductScore;
+import com.commerceweb.service.recommendation.RecentViewRecommender;
+import com.commerceweb.service.recommendation.RecommendationCache;
+import com.commerceweb.service.recommendation.RecommendationEngines;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,105 +28,89 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RecommendationService {
 
-    private final RatingRepository ratingRepository;
     private final ProductRepository productRepository;
+    private final ProductLeaderboard leaderboard;
+    private final CategoryLeaderboard categoryLeaderboard;
+    private final ProductCache productCache;
+    private final RecommendationCache recommendationCache;
+    private final CoPurchaseIndex coPurchases;
+    private final RecentViewRecommender recentViewRecommender;
+    private final RecommendationEngines engines;
+
+    // 인기 상품 기준 평점 (findHighRatedProducts와 동일)
+    private static final double POPULAR_MIN_RATING = 4.0;
 
     /**
      * 협력 필터링 기반 추천
      * <p>
-     * 알고리즘:
-     * 1. 현재 사용자가 평가한 상품 목록 조회
-     * 2. 같은 상품을 평가한 유사 사용자 찾기
-     * 3. 유사 사용자들이 높게 평가한 상품 중 현재 사용자가 평가하지 않은 상품 추천
+     * 순위는 {@link RecommendationEngines}가 설정으로 고른 주 엔진(기본 {@link HybridRecommendationEngine})으로
+     * 계산하고, 사용자별로 캐시한다.
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "recommendations", key = "#userId")
     public List<Product> getRecommendations(Long userId, int limit) {
-        log.info("🔍 추천 시스템 시작: userId={}", userId);
-
-        // 1. 사용자가 평가한 상품 ID 목록
-        List<Long> ratedProductIds = ratingRepository.findRatedProductIdsByUserId(userId);
-
-        if (ratedProductIds.isEmpty()) {
-            log.info("📌 평가 기록 없음 → 인기 상품 추천");
-            return productRepository.findHighRatedProducts()
-                    .stream()
-                    .limit(limit)
-                    .collect(Collectors.toList());
-        }
-
-        // 2. 유사 사용자 찾기 (공통 평가 상품 개수로 유사도 측정)
-        List<Object[]> similarUsers = ratingRepository.findSimilarUsers(userId, ratedProductIds);
-
-        if (similarUsers.isEmpty()) {
-            log.info("📌 유사 사용자 없음 → 인기 상품 추천");
-            return productRepository.findHighRatedProducts()
-                    .stream()
-                    .limit(limit)
-                    .collect(Collectors.toList());
-        }
-
-        // 3. 유사 사용자들의 평점 수집
-        Map<Long, Double> productScores = new HashMap<>();
-
-        // 상위 5명의 유사 사용자만 사용
-        int similarUserCount = Math.min(5, similarUsers.size());
-
-        for (int i = 0; i < similarUserCount; i++) {
-            Long similarUserId = (Long) similarUsers.get(i)[0];
-
-            List<Rating> ratings = ratingRepository.findByUserId(similarUserId);
-
-            for (Rating rating : ratings) {
-                Long productId = rating.getProduct().getId();
+        // 순위(상품 id)는 사용자별로 한 번 계산해 캐시하고, 상품은 요청마다 한 번의 일괄 조회로 채운다
+        List<Long> productIds = recommendationCache.get(userId, limit, engines::rank);
+        return productCache.getAll(productIds);
+    }
 
-                // 이미 평가한 상품은 제외
-                if (ratedProductIds.contains(productId)) {
-                    continue;
-                }
+    /**
+     * 이 상품과 함께 구매된 상품 (구매 횟수 내림차순)
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getBoughtTogether(Long productId, int limit) {
+        List<Long> productIds = coPurchases.boughtTogether(productId, Math.max(limit, 1)).stream()
+                .map(ProductScore::productId)
+                .toList();
+        return productCache.getAll(productIds);
+    }
 
-                // 가중 평균 계산
-                productScores.merge(
-                        productId,
-                        rating.getScore().doubleValue(),
-                        (oldVal, newVal) -> (oldVal + newVal) / 2
-                );
-            }
+    /**
+     * 최근 본 상품 기반 실시간 추천 (평가가 없는 새 사용자/비로그인 방문자용, 조회 기록이 없으면 인기 상품)
+     *
+     * @param viewer {@link com.commerceweb.service.recommendation.RecentViews#viewerKey} (null이면 인기 상품)
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getRecentViewRecommendations(String viewer, int limit) {
+        int size = Math.max(limit, 1);
+        List<ProductScore> scored = recentViewRecommender.recommend(viewer, size);
+        if (scored.isEmpty()) {
+            log.info("📌 최근 본 상품 없음 → 인기 상품 추천");
+            return popularProducts(size);
         }
-
-        // 4. 점수 순으로 정렬하여 추천
-        List<Long> recommendedProductIds = productScores.entrySet().stream()
-                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        List<Product> recommendations = productRepository.findByIdIn(recommendedProductIds);
-
-        log.info("✅ 추천 완료: {} 개 상품", recommendations.size());
-
-        return recommendations;
+        log.info("👀 최근 본 상품 기반 추천: {} 개 상품", scored.size());
+        return productCache.getAll(scored.stream().map(ProductScore::productId).toList());
     }
 
     /**
-     * 카테고리 기반 추천 (보조 알고리즘)
+     * 카테고리 기반 추천 (보조 알고리즘, 카테고리 순위표에서 응답하고 순위를 보장할 수 없을 때만
+     * DB에서 평점순 상위 limit개만 조회)
      */
     @Transactional(readOnly = true)
     public List<Product> getRecommendationsByCategory(String category, int limit) {
-        return productRepository.findByCategory(category)
-                .stream()
-                .sorted(Comparator.comparing(Product::getAverageRating).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        List<Long> productIds = categoryLeaderboard.top(category, limit)
+                .map(entries -> entries.stream().map(ProductLeaderboard.Entry::productId).toList())
+                .orElseGet(() -> productRepository.findPage(category, null, ProductSort.RATING, null, limit)
+                        .stream()
+                        .map(ProductKey::id)
+                        .toList());
+        return productCache.getAll(productIds);
     }
 
     @Transactional(readOnly = true)
     public List<Product> getPopularProducts(int limit) {
         log.info("🔥 인기 상품 조회");
+        return popularProducts(limit);
+    }
 
-        return productRepository.findHighRatedProducts()
-                .stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+    /**
+     * 평점 4.0 이상 상위 상품 (순위표에서 응답하고, 순위를 보장할 수 없을 때만 DB 조회)
+     */
+    private List<Product> popularProducts(int limit) {
+        return leaderboard.top(ProductSort.RATING, limit, POPULAR_MIN_RATING)
+                .map(entries -> productCache.getAll(entries.stream().map(ProductLeaderboard.Entry::productId).toList()))
+                .orElseGet(() -> productRepository.findHighRatedProducts()
+                        .stream()
+                        .limit(limit)
+                        .collect(Collectors.toList()));
     }
-}
\ No newline at end of file
+}
@@ -1,24 +1,41 @@
 package com.commerceweb.service;
 
+import com.commerceweb.dto.CursorPage;
 import com.commerceweb.dto.ReviewDto;
+import com.commerceweb.dto.ReviewSummaryDto;
 import com.commerceweb.entity.*;
 import com.commerceweb.repository.*;
+import com.commerceweb.service.review.ReviewCursor;
+import com.commerceweb.service.review.ReviewSummaryChangedEvent;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final ProductReviewSummaryRepository summaryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ReviewDto createReview(ReviewDto reviewDto) {
@@ -36,7 +53,12 @@ public class ReviewService {
             throw new RuntimeException("이미 이 주문에 대한 리뷰를 작성하셨습니다.");
         }
 
-        // 4. 리뷰 엔티티 빌드 및 저장
+        validateRating(reviewDto.getRating());
+
+        // 4. 리뷰 집계 증분 반영 (집계 행 초기화가 이번 리뷰를 포함하지 않도록 저장 전에 반영)
+        applySummaryDelta(order.getProduct().getId(), null, reviewDto.getRating());
+
+        // 5. 리뷰 엔티티 빌드 및 저장
         Review review = Review.builder()
                 .order(order)
                 .product(order.getProduct()) // DB 테이블 상 productId 자동 매칭
@@ -47,46 +69,127 @@ public class ReviewService {
 
         reviewRepository.save(review);
 
-        // 5. 상품 평균 별점 업데이트 로직 호출
-        updateProductRating(order.getProduct());
-
         return convertToDto(review);
     }
 
+    /**
+     * 상품 리뷰 목록 (최신순, 키셋 페이지네이션)
+     * <p>
+     * 상품명/작성자명을 JOIN한 DTO 조회 한 번으로 페이지를 만든다. 상품 존재 확인은 첫 페이지가 비었을 때만 한다.
+     */
     @Transactional(readOnly = true)
-    public List<ReviewDto> getReviewsByProduct(Long productId) {
-        // 상품 존재 여부 확인 전용 쿼리
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("상품을 찾을 수 없습니다."));
-
-        return reviewRepository.findByProductOrderByCreatedAtDesc(product)
-                .stream().map(this::convertToDto).collect(Collectors.toList());
+    public CursorPage<ReviewDto> getReviewsByProduct(Long productId, String cursor, int size) {
+        int limit = pageLimit(size);
+        List<ReviewDto> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = reviewRepository.findPageByProduct(productId, PageRequest.ofSize(limit + 1));
+            if (rows.isEmpty() && !productRepository.existsById(productId)) {
+                throw new RuntimeException("상품을 찾을 수 없습니다.");
+            }
+        } else {
+            ReviewCursor after = ReviewCursor.decode(cursor);
+            rows = reviewRepository.findPageByProductAfter(
+                    productId, after.createdAt(), after.id(), PageRequest.ofSize(limit + 1));
+        }
+        return CursorPage.of(rows, limit, review -> ReviewCursor.of(review).encode());
     }
 
-    private void updateProductRating(Product product) {
-        List<Review> reviews = reviewRepository.findByProductOrderByCreatedAtDesc(product);
+    /**
+     * 상품 리뷰 집계 (리뷰 수, 평균 별점, 별점 분포)
+     * <p>
+     * 집계 행이 아직 없는 상품은 기존 리뷰로 한 번 계산해 만든다.
+     */
+    @Transactional
+    @Cacheable(value = "reviewSummaries", key = "#productId")
+    public ReviewSummaryDto getReviewSummary(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new RuntimeException("상품을 찾을 수 없습니다.");
+        }
+        return summaryRepository.findById(productId)
+                .or(() -> {
+                    initializeSummary(productId);
+                    return summaryRepository.findById(productId);
+                })
+                .map(ReviewSummaryDto::from)
+                .orElseThrow(() -> new RuntimeException("리뷰 집계를 만들 수 없습니다."));
+    }
 
-        double average = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
+    /**
+     * 리뷰 집계 캐시 무효화 (커밋 이후에만 지워야 이전 값이 다시 채워지지 않는다)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @CacheEvict(value = "reviewSummaries", key = "#event.productId()")
+    public void onReviewSummaryChanged(ReviewSummaryChangedEvent event) {
+    }
 
-        // 소수점 1자리까지 반올림
-        double roundedAverage = Math.round(average * 10.0) / 10.0;
+    /**
+     * 리뷰 집계에 별점 변경분 반영
+     * (리뷰 전체를 다시 읽지 않고 집계 행 UPDATE 한 번, removed/added가 null이면 해당 쪽 없음)
+     * 상품의 평균 평점/평가 수는 평가(RatingService)만 갱신하므로 여기서는 건드리지 않는다.
+     * <p>
+     * 리뷰 행을 바꾸기 전에 호출해야 한다. 집계 행 UPDATE가 같은 상품의 리뷰 쓰기를 직렬화한다.
+     */
+    private void applySummaryDelta(Long productId, Integer removed, Integer added) {
+        long countDelta = (added != null ? 1 : 0) - (removed != null ? 1 : 0);
+        long sumDelta = (added != null ? added : 0) - (removed != null ? removed : 0);
+        long[] starDeltas = new long[6];
+        if (removed != null && removed >= 1 && removed <= 5) starDeltas[removed]--;
+        if (added != null) starDeltas[added]++;
+
+        if (summaryRepository.applyDelta(productId, countDelta, sumDelta,
+                starDeltas[1], starDeltas[2], starDeltas[3], starDeltas[4], starDeltas[5]) == 0) {
+            // 첫 리뷰 또는 집계 도입 전 상품: 기존 리뷰로 행을 만든 뒤 다시 반영
+            initializeSummary(productId);
+            summaryRepository.applyDelta(productId, countDelta, sumDelta,
+                    starDeltas[1], starDeltas[2], starDeltas[3], starDeltas[4], starDeltas[5]);
+        }
+        eventPublisher.publishEvent(new ReviewSummaryChangedEvent(productId));
+    }
 
-        product.setAverageRating(roundedAverage);
-        product.setRatingCount((long) reviews.size());
+    /**
+     * 집계 행 생성 (상품 행을 잠가 동시에 두 번 만들어지지 않게 한다)
+     */
+    private void initializeSummary(Long productId) {
+        productRepository.lockById(productId)
+                .orElseThrow(() -> new RuntimeException("상품을 찾을 수 없습니다."));
+        summaryRepository.initialize(productId);
+    }
 
-        productRepository.save(product);
+    private void validateRating(Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("별점은 1~5 사이여야 합니다.");
+        }
     }
 
+    /**
+     * 전체 리뷰 목록 (최신순, 키셋 페이지네이션)
+     */
     @Transactional(readOnly = true)
-    public List<ReviewDto> getAllReviews() {
-        // 모든 리뷰를 최신순으로 조회
-        return reviewRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"))
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPage<ReviewDto> getAllReviews(String cursor, int size) {
+        int limit = pageLimit(size);
+        List<ReviewDto> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = reviewRepository.findPage(PageRequest.ofSize(limit + 1));
+        } else {
+            ReviewCursor after = ReviewCursor.decode(cursor);
+            rows = reviewRepository.findPageAfter(after.createdAt(), after.id(), PageRequest.ofSize(limit + 1));
+        }
+        return CursorPage.of(rows, limit, review -> ReviewCursor.of(review).encode());
+    }
+
+    /**
+     * 기동 시 작성 시각이 NULL인 기존 리뷰 보정 (주문 시각, 그것도 없으면 epoch로 가장 오래된 리뷰가 된다)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizeCreatedAt() {
+        int updated = reviewRepository.backfillNullCreatedAt(LocalDateTime.of(1970, 1, 1, 0, 0));
+        if (updated > 0) {
+            log.info("🧹 리뷰 작성 시각 NULL 보정: {}개 리뷰", updated);
+        }
+    }
+
+    private static int pageLimit(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
     }
 
     private ReviewDto convertToDto(Review review) {
@@ -104,20 +207,21 @@ public class ReviewService {
     }
 
     @Transactional
-    public void deleteReview(Long reviewId, User user) {
-        Review review = reviewRepository.findById(reviewId)
+    public void deleteReview(Long reviewId, Long userId) {
+        Review review = reviewRepository.findByIdForUpdate(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("리뷰가 존재하지 않습니다."));
 
-        if (!review.getUser().getId().equals(user.getId())) {
+        if (!review.getUser().getId().equals(userId)) {
             throw new AccessDeniedException("본인의 리뷰만 삭제할 수 있습니다.");
         }
 
+        applySummaryDelta(review.getProduct().getId(), review.getRating(), null);
         reviewRepository.delete(review);
     }
 
     @Transactional
     public ReviewDto updateReview(Long reviewId, String content, Integer rating, Long currentUserId) {
-        Review review = reviewRepository.findById(reviewId)
+        Review review = reviewRepository.findByIdForUpdate(reviewId)
                 .orElseThrow(() -> new RuntimeException("리뷰를 찾을 수 없습니다."));
 
         // ✅ 중요: 리뷰 작성자의 ID와 현재 로그인한 유저의 ID 비교
@@ -125,12 +229,16 @@ public class ReviewService {
             throw new RuntimeException("본인이 작성한 리뷰만 수정할 수 있습니다.");
         }
 
+        validateRating(rating);
+
+        // 별점이 바뀐 경우에만 집계 반영
+        if (!rating.equals(review.getRating())) {
+            applySummaryDelta(review.getProduct().getId(), review.getRating(), rating);
+        }
+
         review.setContent(content);
         review.setRating(rating);
 
-        // 별점 갱신 로직 (기존에 만드신 메서드 활용)
-        updateProductRating(review.getProduct());
-
         return convertToDto(review);
     }
 }
\ No newline at end of file
@@ -0,0 +1,303 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.entity.Product;
+import com.commerceweb.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.commerceweb.service.product.ProductLeaderboard.RANKING;
+
+/**
+ * 카테고리별 평점순 상위 상품 순위표 (카테고리마다 상위 capacity개만 메모리에 유지)
+ * <p>
+ * {@link ProductLeaderboard}와 같은 방식으로 순위표 밖 상품 점수의 상한을 함께 기억해 정확한 구간만 응답한다.
+ * 카테고리 순위표는 처음 조회될 때 DB에서 한 번 채우고, 이후에는 상품 등록/카테고리 변경/삭제
+ * ({@link ProductChangedEvent})와 평점 변경({@link ProductRatingChangedEvent})으로 증분 반영한다.
+ * 동점은 DB 키셋 정렬과 같이 id 내림차순이므로 다음 페이지는 DB 커서로 이어서 조회할 수 있다.
+ * <p>
+ * 카테고리 이름은 요청에서 그대로 오므로 상품이 하나도 없는 카테고리는 순위표를 만들지 않고,
+ * 만든 순위표도 {@code max-categories}개 상한과 마지막 조회 후 {@code expire-minutes} 만료로 내보낸다.
+ */
+@Slf4j
+@Component
+public class CategoryLeaderboard {
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final MeterRegistry meterRegistry;
+    private final int capacity;
+    private final Cache<String, Board> boards;
+    private final Map<Long, String> memberCategories = new ConcurrentHashMap<>();   // 순위표 안 상품 → 카테고리
+
+    public CategoryLeaderboard(ProductRepository productRepository,
+                               ProductCache productCache,
+                               MeterRegistry meterRegistry,
+                               @Value("${product.category-leaderboard.capacity:100}") int capacity,
+                               @Value("${product.category-leaderboard.max-categories:1000}") long maxCategories,
+                               @Value("${product.category-leaderboard.expire-minutes:60}") long expireMinutes) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.meterRegistry = meterRegistry;
+        this.capacity = capacity;
+        this.boards = Caffeine.newBuilder()
+                .maximumSize(maxCategories)
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .<String, Board>removalListener((category, board, cause) -> {
+                    if (board != null && cause.wasEvicted()) {
+                        board.release();
+                    }
+                })
+                .build();
+        Gauge.builder("product.category-leaderboard.categories", boards, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    /**
+     * 카테고리의 평점순 상위 limit개 (정확한 순위를 보장할 수 없거나 순위표를 만들 수 없으면 empty)
+     */
+    public Optional<List<ProductLeaderboard.Entry>> top(String category, int limit) {
+        if (category == null || limit > capacity) {
+            return Optional.empty();
+        }
+        Board board = boards.getIfPresent(category);
+        if (board == null) {
+            board = new Board(category);
+            board.refill();
+            if (!board.isBuilt()) {
+                return Optional.empty();
+            }
+            if (board.isEmpty()) {
+                // 상품이 없는(없는 이름일 수도 있는) 카테고리는 순위표를 두지 않는다
+                return board.snapshot.top(limit, Double.NEGATIVE_INFINITY);
+            }
+            Board existing = boards.asMap().putIfAbsent(category, board);
+            if (existing != null) {
+                board = existing;
+            }
+        }
+        Optional<List<ProductLeaderboard.Entry>> top = board.snapshot.top(limit, Double.NEGATIVE_INFINITY);
+        if (top.isEmpty()) {
+            board.refill();
+            top = board.snapshot.top(limit, Double.NEGATIVE_INFINITY);
+        }
+        return top;
+    }
+
+    /**
+     * 만들어 둔 카테고리 순위표를 주기적으로 다시 채워 누락/경합으로 생긴 오차를 바로잡는다
+     */
+    @Scheduled(initialDelayString = "${product.category-leaderboard.rebuild-interval-ms:600000}",
+            fixedDelayString = "${product.category-leaderboard.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        boards.asMap().forEach((category, board) -> {
+            board.rebuild();
+            if (board.isEmpty()) {
+                // 상품이 모두 빠진 카테고리는 다음 조회 때 다시 판단한다
+                boards.asMap().remove(category, board);
+                board.release();
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(ProductRatingChangedEvent event) {
+        ProductLeaderboard.Entry entry = new ProductLeaderboard.Entry(event.productId(), rating(event.averageRating()));
+        String category = memberCategories.get(event.productId());
+        if (category == null) {
+            // 순위표 밖 상품은 어느 순위표의 상한을 넘을 때만 카테고리를 찾는다
+            if (boards.asMap().values().stream().noneMatch(board -> board.affectedBy(entry))) {
+                return;
+            }
+            category = productCache.get(event.productId()).map(Product::getCategory).orElse(null);
+        }
+        Board board = category != null ? boards.getIfPresent(category) : null;
+        if (board != null) {
+            board.set(entry);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.productId();
+        String previous = memberCategories.get(productId);
+        if (previous != null && !event.deleted() && previous.equals(event.category())) {
+            // 카테고리가 그대로인 수정은 평점도 그대로이므로 순위가 바뀌지 않는다
+            return;
+        }
+        ProductLeaderboard.Entry member = null;
+        if (previous != null) {
+            Board board = boards.getIfPresent(previous);
+            member = board != null ? board.remove(productId) : null;
+        }
+        if (event.deleted() || event.category() == null) {
+            return;
+        }
+
+        Board board = boards.getIfPresent(event.category());
+        if (board == null || !board.isBuilt()) {
+            return;
+        }
+        if (member == null) {
+            // 새 상품은 점수 0으로 들어오고, 순위표 밖에서 옮겨 온 상품은 현재 평점을 읽어 반영
+            List<ProductKey> keys = productRepository.findKeysByIdIn(List.of(productId));
+            if (keys.isEmpty()) {
+                return;
+            }
+            member = entryOf(keys.get(0));
+        }
+        board.set(member);
+    }
+
+    private static ProductLeaderboard.Entry entryOf(ProductKey key) {
+        return new ProductLeaderboard.Entry(key.id(), rating(key.averageRating()));
+    }
+
+    private static double rating(Double averageRating) {
+        return averageRating != null ? averageRating : 0.0;
+    }
+
+    private final class Board {
+        private final String category;
+        private final TreeSet<ProductLeaderboard.Entry> ranked = new TreeSet<>(RANKING);
+        private final Map<Long, ProductLeaderboard.Entry> members = new HashMap<>();
+        private ProductLeaderboard.Entry outsideBest;   // 순위표 밖 상품 점수의 상한 (null이면 밖에 상품이 없음)
+        private boolean built;
+        private volatile ProductLeaderboard.Snapshot snapshot = new ProductLeaderboard.Snapshot(List.of(), 0, false);
+
+        Board(String category) {
+            this.category = category;
+        }
+
+        synchronized boolean isBuilt() {
+            return built;
+        }
+
+        synchronized boolean isEmpty() {
+            return built && members.isEmpty() && outsideBest == null;
+        }
+
+        /**
+         * 순위표를 내보낼 때 상품 → 카테고리 기록을 지운다
+         */
+        synchronized void release() {
+            members.keySet().forEach(productId -> memberCategories.remove(productId, category));
+        }
+
+        /**
+         * 순위표 밖 상품이 이 점수가 되었을 때 이 순위표가 바뀔 수 있는지
+         */
+        synchronized boolean affectedBy(ProductLeaderboard.Entry entry) {
+            return built && outsideBest != null && RANKING.compare(entry, outsideBest) < 0;
+        }
+
+        synchronized void rebuild() {
+            if (!built) {
+                return;
+            }
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.warn("⚠️ 카테고리 순위표 재빌드 실패: category={}, {}", category, e.getMessage());
+            }
+        }
+
+        synchronized void refill() {
+            if (built && snapshot.complete()) {
+                return;
+            }
+            try {
+                if (built) {
+                    meterRegistry.counter("product.category-leaderboard.refills").increment();
+                }
+                reload();
+                built = true;
+            } catch (RuntimeException e) {
+                // 아직 만들지 못했으면 DB 조회로 대체되도록 둔다
+                log.warn("⚠️ 카테고리 순위표 채우기 실패: category={}, {}", category, e.getMessage());
+            }
+        }
+
+        private void reload() {
+            // capacity + 1번째 상품이 순위표 밖 상한이 된다
+            List<ProductKey> rows = productRepository.findPage(category, null, ProductSort.RATING, null, capacity + 1);
+            members.keySet().forEach(productId -> memberCategories.remove(productId, category));
+            ranked.clear();
+            members.clear();
+            outsideBest = null;
+            for (int i = 0; i < rows.size(); i++) {
+                ProductLeaderboard.Entry entry = entryOf(rows.get(i));
+                if (i < capacity) {
+                    add(entry);
+                } else {
+                    outsideBest = entry;
+                }
+            }
+            publish();
+        }
+
+        synchronized void set(ProductLeaderboard.Entry entry) {
+            if (!built) {
+                return;
+            }
+            put(entry);
+            publish();
+        }
+
+        synchronized ProductLeaderboard.Entry remove(Long productId) {
+            ProductLeaderboard.Entry removed = members.remove(productId);
+            if (removed != null) {
+                ranked.remove(removed);
+                memberCategories.remove(productId, category);
+                publish();
+            }
+            return removed;
+        }
+
+        private void put(ProductLeaderboard.Entry entry) {
+            ProductLeaderboard.Entry previous = members.remove(entry.productId());
+            if (previous != null) {
+                ranked.remove(previous);
+            } else if (ranked.size() >= capacity && RANKING.compare(entry, ranked.last()) > 0) {
+                // 순위표가 가득 찼고 꼴찌보다 낮으면 밖에 둔다
+                raiseOutside(entry);
+                return;
+            }
+            add(entry);
+
+            while (ranked.size() > capacity) {
+                ProductLeaderboard.Entry evicted = ranked.pollLast();
+                members.remove(evicted.productId());
+                memberCategories.remove(evicted.productId(), category);
+                raiseOutside(evicted);
+            }
+        }
+
+        private void add(ProductLeaderboard.Entry entry) {
+            ranked.add(entry);
+            members.put(entry.productId(), entry);
+            memberCategories.put(entry.productId(), category);
+        }
+
+        private void raiseOutside(ProductLeaderboard.Entry entry) {
+            if (outsideBest == null || RANKING.compare(entry, outsideBest) < 0) {
+                outsideBest = entry;
+            }
+        }
+
+        private void publish() {
+            int exact = outsideBest == null ? ranked.size() : ranked.headSet(outsideBest).size();
+            snapshot = new ProductLeaderboard.Snapshot(List.copyOf(ranked), exact, outsideBest == null);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.entity.Product;
+import com.commerceweb.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 상품 2단계 read-through 캐시 (L1: 노드별 Caffeine, L2: Redis)
+ * <p>
+ * 조회 순서는 L1 → L2 → DB이며, 아래 단계에서 찾은 상품은 위 단계에 다시 채운다.
+ * 상품 등록/수정/삭제와 평점 변경이 커밋되면 L1/L2에서 지우고 Redis pub/sub으로 다른 노드의 L1도 지우게 한다.
+ * <p>
+ * 무효화는 상품별 버전 키를 올린 뒤 L2를 지운다. DB에서 읽은 상품은 읽기 전에 본 버전이 그대로일 때만
+ * L2에 쓰므로(Lua 비교 후 저장), 다른 노드의 무효화 메시지가 아직 오지 않았어도 낡은 행이 L2에 남지 않는다.
+ * L1은 상품 id별(구간별) 무효화 세대를 비교해, 읽는 사이 그 상품이 무효화되었으면 채우지 않는다.
+ * 조회수는 {@link ViewCountBuffer}가 따로 반영하므로 무효화하지 않고 TTL만큼 늦게 보일 수 있다.
+ * <p>
+ * {@link Product}는 변경 가능한 엔티티이므로 L1에는 영속성 컨텍스트와 끊긴 복사본을 두고, L1에서 꺼낼 때마다
+ * 다시 복사해 돌려준다. 호출자가 받은 상품을 고쳐도 캐시나 다른 호출자에게 보이지 않는다.
+ * <p>
+ * Redis 장애 시에는 L2를 건너뛰고 DB에서 읽는다.
+ */
+@Slf4j
+@Component
+public class ProductCache {
+
+    public static final String INVALIDATION_CHANNEL = "product-cache:invalidate";
+    private static final String KEY_PREFIX = "product:";
+    private static final String VERSION_KEY_PREFIX = "product-version:";
+
+    // 상품 id → 무효화 세대 구간 수 (같은 구간의 상품끼리만 서로의 L1 채우기를 막는다)
+    private static final int GENERATION_STRIPES = 1024;
+
+    // KEYS[1]=상품 키, KEYS[2]=버전 키, ARGV[1]=DB 읽기 전 버전('' = 없음), ARGV[2]=JSON, ARGV[3]=TTL(ms)
+    private static final byte[] WRITE_IF_UNCHANGED = """
+            local current = redis.call('GET', KEYS[2]) or ''
+            if current == ARGV[1] then
+                redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+                return 1
+            end
+            return 0
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static final String L1 = "product.l1";
+    private static final String L2 = "product.l2";
+
+    private final ProductRepository productRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration remoteTtl;
+
+    private final Cache<Long, Product> local;
+
+    // 상품별 무효화 세대: DB/Redis에서 읽는 사이에 그 상품이 무효화되면 읽은 값을 L1에 넣지 않는다
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remotePuts;
+    private final Counter remoteEvictions;
+    private final Counter remoteErrors;
+    private final Counter remoteStaleSkips;
+    private final Counter databaseLoads;
+
+    public ProductCache(ProductRepository productRepository,
+                        StringRedisTemplate redisTemplate,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${product.cache.local.max-size:10000}") long localMaxSize,
+                        @Value("${product.cache.local.ttl-seconds:60}") long localTtlSeconds,
+                        @Value("${product.cache.redis.ttl-seconds:600}") long remoteTtlSeconds) {
+        this.productRepository = productRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.remoteTtl = Duration.ofSeconds(remoteTtlSeconds);
+
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, L1);
+
+        // L1(CaffeineCacheMetrics)과 같은 이름/태그로 기록해 단계별로 비교할 수 있게 한다
+        this.remoteHits = meterRegistry.counter("cache.gets", "cache", L2, "result", "hit");
+        this.remoteMisses = meterRegistry.counter("cache.gets", "cache", L2, "result", "miss");
+        this.remotePuts = meterRegistry.counter("cache.puts", "cache", L2);
+        this.remoteEvictions = meterRegistry.counter("cache.evictions", "cache", L2);
+        this.remoteErrors = meterRegistry.counter("product.cache.redis.errors");
+        this.remoteStaleSkips = meterRegistry.counter("product.cache.redis.stale-skips");
+        this.databaseLoads = meterRegistry.counter("product.cache.db.loads");
+    }
+
+    /**
+     * 단일 상품 조회 (L1 → L2 → DB)
+     */
+    public Optional<Product> get(Long id) {
+        Product cached = local.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        return getAll(List.of(id)).stream().findFirst();
+    }
+
+    /**
+     * 여러 상품을 한 번에 조회 (단계마다 한 번의 일괄 조회, 결과는 ids 순서를 따르고 없는 상품은 빠진다)
+     */
+    public List<Product> getAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> found = new HashMap<>();
+        local.getAllPresent(ids).forEach((id, cached) -> found.put(id, copy(cached)));
+        List<Long> missing = ids.stream().distinct().filter(id -> !found.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return ids.stream().map(found::get).toList();
+        }
+        Map<Long, Long> readGenerations = new HashMap<>();
+        missing.forEach(id -> readGenerations.put(id, generations.get(stripe(id))));
+
+        Map<Long, Product> remote = readRemote(missing);
+        boolean remoteAvailable = remote != null;
+        if (remoteAvailable) {
+            found.putAll(remote);
+            fillLocal(remote.values(), readGenerations);
+            missing = missing.stream().filter(id -> !remote.containsKey(id)).toList();
+        }
+
+        if (!missing.isEmpty()) {
+            // 버전은 DB보다 먼저 읽어야 그 사이의 무효화를 L2 저장 때 알아챈다
+            Map<Long, String> versions = remoteAvailable ? readVersions(missing) : null;
+            List<Product> loaded = productRepository.findAllById(missing);
+            databaseLoads.increment(loaded.size());
+            loaded.forEach(product -> found.put(product.getId(), product));
+            if (versions != null) {
+                writeRemote(loaded, versions);
+            }
+            fillLocal(loaded, readGenerations);
+        }
+
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(ProductRatingChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    /**
+     * 버전을 올리고 L1/L2에서 지운 뒤 다른 노드에 무효화 메시지 발행
+     * (버전을 먼저 올려야 그 전에 DB를 읽은 노드가 지운 뒤에 낡은 값을 다시 쓰지 못한다)
+     */
+    public void invalidate(Long id) {
+        evictLocal(id);
+        try {
+            String versionKey = VERSION_KEY_PREFIX + id;
+            redisTemplate.opsForValue().increment(versionKey);
+            redisTemplate.expire(versionKey, remoteTtl);
+            redisTemplate.delete(KEY_PREFIX + id);
+            remoteEvictions.increment();
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, id.toString());
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.warn("⚠️ 상품 캐시 무효화 전파 실패 (id={}): {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Redis pub/sub으로 받은 무효화 메시지 처리 (자기 자신이 보낸 메시지도 받지만 L1 삭제만 하므로 무해)
+     */
+    public void onInvalidationMessage(String payload) {
+        try {
+            evictLocal(Long.valueOf(payload));
+        } catch (NumberFormatException e) {
+            log.warn("⚠️ 잘못된 상품 캐시 무효화 메시지: {}", payload);
+        }
+    }
+
+    private void evictLocal(Long id) {
+        generations.incrementAndGet(stripe(id));
+        local.invalidate(id);
+    }
+
+    private void fillLocal(Collection<Product> products, Map<Long, Long> readGenerations) {
+        for (Product product : products) {
+            Long readGeneration = readGenerations.get(product.getId());
+            if (readGeneration != null && generations.get(stripe(product.getId())) == readGeneration) {
+                local.put(product.getId(), copy(product));
+            }
+        }
+    }
+
+    private static Product copy(Product product) {
+        return product.toBuilder().build();
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+
+    /**
+     * 상품별 버전 (없으면 '', Redis 장애면 null이고 이때는 L2에 쓰지 않는다)
+     */
+    private Map<Long, String> readVersions(List<Long> ids) {
+        try {
+            List<String> values = redisTemplate.opsForValue()
+                    .multiGet(ids.stream().map(id -> VERSION_KEY_PREFIX + id).toList());
+            if (values == null) {
+                return null;
+            }
+            Map<Long, String> versions = new HashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                versions.put(ids.get(i), values.get(i) != null ? values.get(i) : "");
+            }
+            return versions;
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.debug("Redis 상품 캐시 버전 조회 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * L2 일괄 조회 (Redis 장애면 null)
+     */
+    private Map<Long, Product> readRemote(List<Long> ids) {
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(ids.stream().map(id -> KEY_PREFIX + id).toList());
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.debug("Redis 상품 캐시 조회 실패: {}", e.getMessage());
+            return null;
+        }
+
+        Map<Long, Product> found = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String json = values != null ? values.get(i) : null;
+            Product product = json != null ? deserialize(json) : null;
+            if (product != null) {
+                found.put(ids.get(i), product);
+            }
+        }
+        remoteHits.increment(found.size());
+        remoteMisses.increment(ids.size() - found.size());
+        return found;
+    }
+
+    /**
+     * DB에서 읽은 상품을 읽기 전 버전이 그대로일 때만 L2에 저장
+     */
+    private void writeRemote(List<Product> products, Map<Long, String> versions) {
+        if (products.isEmpty()) {
+            return;
+        }
+        byte[] ttlMillis = Long.toString(remoteTtl.toMillis()).getBytes(StandardCharsets.UTF_8);
+        List<byte[][]> entries = new ArrayList<>();
+        for (Product product : products) {
+            String version = versions.get(product.getId());
+            if (version == null) {
+                continue;
+            }
+            try {
+                entries.add(new byte[][]{
+                        (KEY_PREFIX + product.getId()).getBytes(StandardCharsets.UTF_8),
+                        (VERSION_KEY_PREFIX + product.getId()).getBytes(StandardCharsets.UTF_8),
+                        version.getBytes(StandardCharsets.UTF_8),
+                        objectMapper.writeValueAsBytes(product),
+                        ttlMillis});
+            } catch (JsonProcessingException e) {
+                log.warn("⚠️ 상품 직렬화 실패 (id={}): {}", product.getId(), e.getMessage());
+            }
+        }
+
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                entries.forEach(keysAndArgs -> connection.scriptingCommands()
+                        .eval(WRITE_IF_UNCHANGED, ReturnType.INTEGER, 2, keysAndArgs));
+                return null;
+            });
+            long written = results != null ? results.stream().filter(result -> Long.valueOf(1L).equals(result)).count()
+                    : entries.size();
+            remotePuts.increment(written);
+            remoteStaleSkips.increment(entries.size() - written);
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.debug("Redis 상품 캐시 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    private Product deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, Product.class);
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ 상품 캐시 역직렬화 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.entity.Product;
+
+/**
+ * 상품 등록/수정/삭제 도메인 이벤트
+ * <p>
+ * 커밋 이후에 처리하는 인메모리 인덱스/캐시가 DB를 다시 읽지 않도록 변경된 필드를 함께 싣는다.
+ */
+public record ProductChangedEvent(Long productId, String name, String category, String description, boolean deleted) {
+
+    public ProductChangedEvent(Long productId, String name, String category, boolean deleted) {
+        this(productId, name, category, null, deleted);
+    }
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product.getId(), product.getName(), product.getCategory(),
+                product.getDescription(), false);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null, null, null, true);
+    }
+}
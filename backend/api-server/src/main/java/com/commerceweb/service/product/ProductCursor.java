@@ -0,0 +1,70 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.dto.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 상품 목록 키셋 커서: 마지막으로 받은 상품의 (정렬 키, id)
+ * <p>
+ * 클라이언트에는 Base64 문자열로만 노출되며 정렬 기준이 다른 커서는 거부한다.
+ */
+public record ProductCursor(ProductSort sort, double rating, long views, long score, long id) {
+
+    public static ProductCursor of(ProductSort sort, ProductKey key) {
+        return new ProductCursor(
+                sort,
+                key.averageRating() != null ? key.averageRating() : 0.0,
+                key.viewCount() != null ? key.viewCount() : 0L,
+                0L,
+                key.id());
+    }
+
+    public static ProductCursor of(SearchHit hit) {
+        return new ProductCursor(ProductSort.RELEVANCE, 0.0, 0L, hit.score(), hit.productId());
+    }
+
+    public String encode() {
+        String key = switch (sort) {
+            case LATEST -> "";
+            case RATING -> Double.toString(rating);
+            case VIEWS -> Long.toString(views);
+            case RELEVANCE -> Long.toString(score);
+        };
+        String raw = sort.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor, ProductSort expectedSort) {
+        ProductCursor decoded = decode(cursor);
+        if (decoded.sort() != expectedSort) {
+            throw new InvalidCursorException(cursor);
+        }
+        return decoded;
+    }
+
+    /**
+     * 커서에 담긴 정렬 기준 그대로 해석 (정렬을 지정하지 않은 요청의 다음 페이지용)
+     */
+    public static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new InvalidCursorException(cursor);
+            }
+            ProductSort sort = ProductSort.valueOf(parts[0]);
+            long id = Long.parseLong(parts[2]);
+            return switch (sort) {
+                case LATEST -> new ProductCursor(sort, 0.0, 0L, 0L, id);
+                case RATING -> new ProductCursor(sort, Double.parseDouble(parts[1]), 0L, 0L, id);
+                case VIEWS -> new ProductCursor(sort, 0.0, Long.parseLong(parts[1]), 0L, id);
+                case RELEVANCE -> new ProductCursor(sort, 0.0, 0L, Long.parseLong(parts[1]), id);
+            };
+        } catch (IllegalArgumentException e) {
+            // Base64/숫자 파싱 실패, 알 수 없는 정렬 기준 (InvalidCursorException 포함)
+            throw e instanceof InvalidCursorException invalid ? invalid : new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.commerceweb.service.product;
+
+/**
+ * 목록 페이지 조회 결과: 상품 ID와 키셋 커서에 필요한 정렬 키만 담는다
+ * <p>
+ * 상품 본문은 {@link ProductCache}에서 채운다.
+ */
+public record ProductKey(Long id, Double averageRating, Long viewCount) {
+}
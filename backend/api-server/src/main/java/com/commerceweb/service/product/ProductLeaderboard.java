@@ -0,0 +1,267 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * 평점순/조회수순 상위 상품 순위표 (상품 수와 무관하게 상위 capacity개만 메모리에 유지)
+ * <p>
+ * 순위표 밖 상품 점수의 상한({@code outsideBest})을 함께 기억해, 그보다 높은 항목까지만 정확한 순위로 취급한다.
+ * 순위표 안 상품의 점수가 떨어지거나 삭제되어 정확한 구간이 요청 크기보다 짧아지면 DB에서 다시 채운다.
+ * <p>
+ * 평점은 {@link ProductRatingChangedEvent}, 조회수는 {@link ProductViewsFlushedEvent}로 증분 반영하며
+ * 누락/경합으로 생긴 오차는 주기적인 재빌드로 바로잡는다. 읽기는 불변 스냅샷을 사용하므로 락이 없다.
+ */
+@Slf4j
+@Component
+public class ProductLeaderboard {
+
+    static final Comparator<Entry> RANKING = Comparator.comparingDouble(Entry::score).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::productId).reversed());
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+    private final int capacity;
+    private final Map<ProductSort, Board> boards = new EnumMap<>(ProductSort.class);
+
+    public ProductLeaderboard(ProductRepository productRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${product.leaderboard.capacity:500}") int capacity) {
+        this.productRepository = productRepository;
+        this.meterRegistry = meterRegistry;
+        this.capacity = capacity;
+        boards.put(ProductSort.RATING, new Board(ProductSort.RATING));
+        boards.put(ProductSort.VIEWS, new Board(ProductSort.VIEWS));
+    }
+
+    /**
+     * 순위표 1건 (score는 평점 또는 조회수)
+     */
+    public record Entry(long productId, double score) {
+
+        public ProductKey toKey(ProductSort sort) {
+            return sort == ProductSort.VIEWS
+                    ? new ProductKey(productId, 0.0, (long) score)
+                    : new ProductKey(productId, score, 0L);
+        }
+    }
+
+    /**
+     * 기동 시 전체 빌드, 이후 주기적으로 재빌드
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product.leaderboard.rebuild-interval-ms:600000}",
+            fixedDelayString = "${product.leaderboard.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        boards.values().forEach(Board::rebuild);
+    }
+
+    /**
+     * 상위 limit개 (정확한 순위를 보장할 수 없으면 다시 채운 뒤에도 부족할 때 empty)
+     */
+    public Optional<List<Entry>> top(ProductSort sort, int limit) {
+        return top(sort, limit, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * 점수가 minScore 이상인 상위 limit개
+     */
+    public Optional<List<Entry>> top(ProductSort sort, int limit, double minScore) {
+        Board board = board(sort);
+        Optional<List<Entry>> top = board.snapshot.top(limit, minScore);
+        if (top.isEmpty() && limit <= capacity) {
+            board.refill();
+            top = board.snapshot.top(limit, minScore);
+        }
+        return top;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(ProductRatingChangedEvent event) {
+        board(ProductSort.RATING).set(event.productId(), event.averageRating());
+    }
+
+    /**
+     * 조회수 반영 후 해당 상품들의 현재 조회수를 한 번에 다시 읽어 반영
+     * (순위표 밖 상품의 실제 값을 알아야 상한이 유지되므로 증가량이 아니라 현재 값을 사용)
+     */
+    @EventListener
+    public void onViewsFlushed(ProductViewsFlushedEvent event) {
+        Board board = board(ProductSort.VIEWS);
+        try {
+            for (List<Long> chunk : chunks(new ArrayList<>(event.productIds()))) {
+                board.setAll(productRepository.findKeysByIdIn(chunk));
+            }
+        } catch (RuntimeException e) {
+            // 조회수는 이미 반영되었으므로 순위표만 다음 재빌드까지 늦어진다
+            log.warn("⚠️ 조회수 순위표 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.deleted()) {
+            boards.values().forEach(board -> board.remove(event.productId()));
+            return;
+        }
+        // 새 상품은 점수 0으로 들어오고, 이름 등만 바뀐 상품은 점수가 그대로이므로 현재 값을 읽어 반영
+        List<ProductKey> keys = productRepository.findKeysByIdIn(List.of(event.productId()));
+        boards.values().forEach(board -> board.setAll(keys));
+    }
+
+    private Board board(ProductSort sort) {
+        Board board = boards.get(sort);
+        if (board == null) {
+            throw new IllegalArgumentException("순위표가 없는 정렬 기준입니다: " + sort);
+        }
+        return board;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += 1_000) {
+            chunks.add(ids.subList(from, Math.min(from + 1_000, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 읽기용 불변 스냅샷: 앞의 exact개는 정확한 순위, complete면 순위표 밖 상품이 없음
+     */
+    record Snapshot(List<Entry> entries, int exact, boolean complete) {
+
+        Optional<List<Entry>> top(int limit, double minScore) {
+            List<Entry> result = new ArrayList<>(Math.min(limit, exact));
+            for (int i = 0; i < exact && result.size() < limit; i++) {
+                Entry entry = entries.get(i);
+                if (entry.score() < minScore) {
+                    return Optional.of(result);
+                }
+                result.add(entry);
+            }
+            return result.size() == limit || complete ? Optional.of(result) : Optional.empty();
+        }
+    }
+
+    private final class Board {
+        private final ProductSort sort;
+        private final TreeSet<Entry> ranked = new TreeSet<>(RANKING);
+        private final Map<Long, Entry> members = new HashMap<>();
+        private Entry outsideBest;   // 순위표 밖 상품 점수의 상한 (null이면 밖에 상품이 없음)
+        private boolean built;
+        private volatile Snapshot snapshot = new Snapshot(List.of(), 0, false);
+
+        Board(ProductSort sort) {
+            this.sort = sort;
+        }
+
+        synchronized void rebuild() {
+            long start = System.currentTimeMillis();
+            try {
+                reload();
+                built = true;
+                log.info("🏆 {} 순위표 빌드 완료: {}개 ({}ms)", sort, ranked.size(), System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                log.error("❌ {} 순위표 빌드 실패 (DB 조회로 대체): {}", sort, e.getMessage());
+            }
+        }
+
+        synchronized void refill() {
+            // 아직 빌드 전이면 DB 조회로 대체되도록 둔다
+            if (!built || snapshot.complete()) {
+                return;
+            }
+            meterRegistry.counter("product.leaderboard.refills", "board", sort.name()).increment();
+            reload();
+        }
+
+        private void reload() {
+            // capacity + 1번째 상품이 순위표 밖 상한이 된다
+            List<ProductKey> rows = productRepository.findPage(null, null, sort, null, capacity + 1);
+            ranked.clear();
+            members.clear();
+            outsideBest = null;
+            for (int i = 0; i < rows.size(); i++) {
+                Entry entry = entryOf(rows.get(i));
+                if (i < capacity) {
+                    ranked.add(entry);
+                    members.put(entry.productId(), entry);
+                } else {
+                    outsideBest = entry;
+                }
+            }
+            publish();
+        }
+
+        synchronized void set(Long productId, double score) {
+            if (!built) {
+                return;
+            }
+            put(new Entry(productId, score));
+            publish();
+        }
+
+        synchronized void setAll(List<ProductKey> keys) {
+            if (!built) {
+                return;
+            }
+            keys.forEach(key -> put(entryOf(key)));
+            publish();
+        }
+
+        synchronized void remove(Long productId) {
+            Entry removed = members.remove(productId);
+            if (removed != null) {
+                ranked.remove(removed);
+                publish();
+            }
+        }
+
+        private void put(Entry entry) {
+            Entry previous = members.remove(entry.productId());
+            if (previous != null) {
+                ranked.remove(previous);
+            } else if (ranked.size() >= capacity && RANKING.compare(entry, ranked.last()) > 0) {
+                // 순위표가 가득 찼고 꼴찌보다 낮으면 밖에 둔다
+                raiseOutside(entry);
+                return;
+            }
+            ranked.add(entry);
+            members.put(entry.productId(), entry);
+
+            while (ranked.size() > capacity) {
+                Entry evicted = ranked.pollLast();
+                members.remove(evicted.productId());
+                raiseOutside(evicted);
+            }
+        }
+
+        private void raiseOutside(Entry entry) {
+            if (outsideBest == null || RANKING.compare(entry, outsideBest) < 0) {
+                outsideBest = entry;
+            }
+        }
+
+        private void publish() {
+            int exact = outsideBest == null ? ranked.size() : ranked.headSet(outsideBest).size();
+            snapshot = new Snapshot(List.copyOf(ranked), exact, outsideBest == null);
+        }
+
+        private Entry entryOf(ProductKey key) {
+            double score = sort == ProductSort.VIEWS
+                    ? (key.viewCount() != null ? key.viewCount() : 0L)
+                    : (key.averageRating() != null ? key.averageRating() : 0.0);
+            return new Entry(key.id(), score);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.commerceweb.service.product;
+
+/**
+ * 상품 평점(평균, 평가 수)이 바뀌었을 때 발행되는 이벤트
+ */
+public record ProductRatingChangedEvent(Long productId, double averageRating, long ratingCount) {
+}
@@ -0,0 +1,11 @@
+package com.commerceweb.service.product;
+
+/**
+ * 검색 인덱스에 들어가는 상품 필드 (기동 시 전체 로딩용 JPQL 프로젝션)
+ */
+public record ProductSearchDocument(Long id, String name, String category) {
+
+    public static ProductSearchDocument from(ProductChangedEvent event) {
+        return new ProductSearchDocument(event.productId(), event.name(), event.category());
+    }
+}
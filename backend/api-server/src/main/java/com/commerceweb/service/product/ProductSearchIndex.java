@@ -0,0 +1,455 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 상품 이름/카테고리 trigram 역색인
+ * <p>
+ * {@code LIKE '%검색어%'}는 B-tree 인덱스를 쓰지 못해 상품 수에 비례해 느려지므로,
+ * 검색어의 trigram 포스팅 리스트(정렬된 int 배열)를 교집합해 후보를 좁힌 뒤 실제 부분 문자열 일치만 확인한다.
+ * <p>
+ * 기동 시 한 번 전체를 빌드하고, 이후에는 {@link ProductChangedEvent}로 증분 반영한다.
+ * 수정/삭제된 문서는 기존 번호를 삭제 표시하고 새 번호로 추가하며, 삭제 표시가 많아지면 메모리에서 다시 압축한다.
+ * 빌드가 끝나기 전({@link #isReady()}가 false)에는 호출자가 DB 검색으로 대체해야 한다.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    static final int GRAM = 3;
+    private static final int LOAD_BATCH_SIZE = 5_000;
+
+    // 이름 일치 정도 (클수록 상위)
+    private static final int TIER_EXACT = 5;
+    private static final int TIER_PREFIX = 4;
+    private static final int TIER_WORD = 3;
+    private static final int TIER_CONTAINS = 2;
+    private static final int TIER_CATEGORY = 1;
+
+    private static final Comparator<SearchHit> RANKING =
+            Comparator.comparingLong(SearchHit::score).thenComparingLong(SearchHit::productId);
+
+    private final ProductRepository productRepository;
+    private final Timer searchTimer;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // lock으로 보호
+    private Segment segment = new Segment();
+    private List<ProductChangedEvent> changesDuringBuild;   // 빌드 중 들어온 변경 (빌드 후 재적용)
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.searchTimer = meterRegistry.timer("product.search.index");
+        Gauge.builder("product.search.index.documents", this, ProductSearchIndex::liveDocuments)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 기동 시 전체 빌드 (id 순으로 나눠 읽으며 검색에 필요한 컬럼만 조회)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        withWriteLock(() -> changesDuringBuild = new ArrayList<>());
+        long start = System.currentTimeMillis();
+
+        Segment built = new Segment();
+        try {
+            long afterId = 0L;
+            List<ProductSearchDocument> batch;
+            do {
+                batch = productRepository.findSearchDocuments(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (ProductSearchDocument document : batch) {
+                    built.add(document);
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            withWriteLock(() -> changesDuringBuild = null);
+            log.error("❌ 상품 검색 인덱스 빌드 실패 (DB 검색으로 대체): {}", e.getMessage());
+            return;
+        }
+
+        install(built);
+        log.info("🔤 상품 검색 인덱스 빌드 완료: {}개 상품, {}개 trigram, {}ms",
+                built.liveCount(), built.gramCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 주어진 문서로 인덱스를 채운다 (DB 없이 테스트/벤치마크에서 사용)
+     */
+    void load(Collection<ProductSearchDocument> documents) {
+        Segment built = new Segment();
+        documents.forEach(built::add);
+        install(built);
+    }
+
+    private void install(Segment built) {
+        built.trim();
+        withWriteLock(() -> {
+            if (changesDuringBuild != null) {
+                changesDuringBuild.forEach(built::apply);
+                changesDuringBuild = null;
+            }
+            segment = built;
+            ready = true;
+        });
+    }
+
+    /**
+     * 커밋된 상품 변경을 증분 반영
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        withWriteLock(() -> {
+            if (changesDuringBuild != null) {
+                changesDuringBuild.add(event);
+                return;
+            }
+            segment.apply(event);
+            if (segment.needsCompaction()) {
+                segment = segment.compact();
+            }
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 관련도순 검색: after 커서 이후의 상위 limit개
+     * <p>
+     * 점수는 이름 일치 정도(완전 일치 > 접두 > 단어 시작 > 포함 > 카테고리만 일치)가 우선이고,
+     * 같은 등급이면 이름이 짧을수록 높다.
+     */
+    public List<SearchHit> search(String category, String query, ProductCursor after, int limit) {
+        String q = normalize(query);
+        long afterScore = after != null ? after.score() : Long.MAX_VALUE;
+        long afterId = after != null ? after.id() : Long.MAX_VALUE;
+
+        // 최하위 결과가 맨 위에 오는 크기 limit의 힙
+        PriorityQueue<SearchHit> top = new PriorityQueue<>(limit, RANKING);
+        searchTimer.record(() -> withReadLock(() -> segment.match(category, q, (productId, score) -> {
+            if (score > afterScore || (score == afterScore && productId >= afterId)) {
+                return true;
+            }
+            if (top.size() == limit) {
+                SearchHit lowest = top.peek();
+                if (score < lowest.score() || (score == lowest.score() && productId < lowest.productId())) {
+                    return true;
+                }
+                top.poll();
+            }
+            top.offer(new SearchHit(productId, score));
+            return true;
+        })));
+
+        List<SearchHit> hits = new ArrayList<>(top);
+        hits.sort(RANKING.reversed());
+        return hits;
+    }
+
+    /**
+     * 검색어에 일치하는 모든 상품 ID (max개를 넘으면 null)
+     * <p>
+     * 관련도순이 아닌 정렬에서 DB 조회 대상을 ID 목록으로 좁힐 때 사용한다.
+     */
+    public long[] matchingIds(String category, String query, int max) {
+        String q = normalize(query);
+        List<Long> ids = new ArrayList<>();
+        boolean[] overflow = {false};
+
+        searchTimer.record(() -> withReadLock(() -> segment.match(category, q, (productId, score) -> {
+            if (ids.size() == max) {
+                overflow[0] = true;
+                return false;
+            }
+            ids.add(productId);
+            return true;
+        })));
+        return overflow[0] ? null : ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private double liveDocuments() {
+        lock.readLock().lock();
+        try {
+            return segment.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void withReadLock(Runnable action) {
+        lock.readLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        return text != null ? text.strip().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * 이름 일치 등급 (0이면 trigram은 모두 있지만 실제로는 부분 문자열이 아닌 경우)
+     */
+    static int tier(String name, String category, String q) {
+        if (name.equals(q)) {
+            return TIER_EXACT;
+        }
+        int at = name.indexOf(q);
+        if (at == 0) {
+            return TIER_PREFIX;
+        }
+        if (at > 0) {
+            for (; at >= 0; at = name.indexOf(q, at + 1)) {
+                if (!Character.isLetterOrDigit(name.charAt(at - 1))) {
+                    return TIER_WORD;
+                }
+            }
+            return TIER_CONTAINS;
+        }
+        return category.contains(q) ? TIER_CATEGORY : 0;
+    }
+
+    static long score(int tier, String name) {
+        return ((long) tier << 32) | (Integer.MAX_VALUE - name.length());
+    }
+
+    private static long gramKey(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+
+    @FunctionalInterface
+    private interface MatchConsumer {
+        /**
+         * @return false면 탐색 중단
+         */
+        boolean accept(long productId, long score);
+    }
+
+    /**
+     * 정렬된 문서 번호 목록 (같은 문서의 연속 추가는 한 번만 기록)
+     */
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        // from 이후에서 doc 이상인 첫 위치 (교집합 중에는 위치가 앞으로만 이동하므로 지수 탐색 후 이진 탐색)
+        int seek(int doc, int from) {
+            int low = from;
+            int step = 1;
+            while (low + step < size && docs[low + step] < doc) {
+                low += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(docs, low, Math.min(low + step + 1, size), doc);
+            return found >= 0 ? found : -found - 1;
+        }
+
+        void trim() {
+            if (docs.length != size) {
+                docs = Arrays.copyOf(docs, size);
+            }
+        }
+    }
+
+    /**
+     * 인덱스 본체 (문서 번호는 추가 순서대로 증가하므로 포스팅 리스트는 append만으로 정렬이 유지된다)
+     */
+    private static final class Segment {
+        private final Map<Long, Postings> grams = new HashMap<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final Map<String, String> categoryPool = new HashMap<>();
+        private final BitSet deleted = new BitSet();
+
+        private long[] productIds = new long[1024];
+        private String[] names = new String[1024];          // 소문자 정규화된 이름
+        private String[] categories = new String[1024];     // 원본 카테고리 (필터용)
+        private String[] searchCategories = new String[1024];
+        private int size;
+        private int deletedCount;
+
+        void apply(ProductChangedEvent event) {
+            if (event.deleted()) {
+                remove(event.productId());
+            } else {
+                add(ProductSearchDocument.from(event));
+            }
+        }
+
+        void add(ProductSearchDocument document) {
+            if (document.id() == null) {
+                return;
+            }
+            remove(document.id());
+            ensureCapacity(size + 1);
+
+            int ord = size++;
+            productIds[ord] = document.id();
+            names[ord] = normalize(document.name());
+            categories[ord] = pooled(document.category());
+            searchCategories[ord] = pooled(normalize(document.category()));
+            ordinals.put(document.id(), ord);
+
+            index(names[ord], ord);
+            index(searchCategories[ord], ord);
+        }
+
+        void remove(Long productId) {
+            Integer ord = ordinals.remove(productId);
+            if (ord != null) {
+                deleted.set(ord);
+                deletedCount++;
+                names[ord] = null;
+            }
+        }
+
+        boolean needsCompaction() {
+            return deletedCount > 1024 && deletedCount > size / 4;
+        }
+
+        Segment compact() {
+            Segment compacted = new Segment();
+            for (int ord = deleted.nextClearBit(0); ord < size; ord = deleted.nextClearBit(ord + 1)) {
+                compacted.add(new ProductSearchDocument(productIds[ord], names[ord], categories[ord]));
+            }
+            compacted.trim();
+            return compacted;
+        }
+
+        void match(String category, String q, MatchConsumer consumer) {
+            if (q.length() < GRAM) {
+                // trigram을 만들 수 없는 짧은 검색어는 메모리의 이름을 순회
+                for (int ord = 0; ord < size; ord++) {
+                    if (!visit(ord, category, q, consumer)) {
+                        return;
+                    }
+                }
+                return;
+            }
+
+            Postings[] lists = postingsOf(q);
+            if (lists == null) {
+                return;
+            }
+
+            // 가장 짧은 리스트를 기준으로 나머지 리스트에서 이진 탐색
+            Postings smallest = lists[0];
+            int[] positions = new int[lists.length];
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                int doc = smallest.docs[i];
+                for (int j = 1; j < lists.length; j++) {
+                    int pos = lists[j].seek(doc, positions[j]);
+                    positions[j] = pos;
+                    if (pos == lists[j].size) {
+                        return;
+                    }
+                    if (lists[j].docs[pos] != doc) {
+                        continue candidates;
+                    }
+                }
+                if (!visit(doc, category, q, consumer)) {
+                    return;
+                }
+            }
+        }
+
+        // 검색어의 서로 다른 trigram 포스팅 리스트 (짧은 순, 하나라도 없으면 null)
+        private Postings[] postingsOf(String q) {
+            long[] keys = new long[q.length() - GRAM + 1];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = gramKey(q, i);
+            }
+            keys = Arrays.stream(keys).distinct().toArray();
+
+            Postings[] lists = new Postings[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                lists[i] = grams.get(keys[i]);
+                if (lists[i] == null) {
+                    return null;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(postings -> postings.size));
+            return lists;
+        }
+
+        private boolean visit(int ord, String category, String q, MatchConsumer consumer) {
+            if (deleted.get(ord) || (category != null && !category.equals(categories[ord]))) {
+                return true;
+            }
+            int tier = tier(names[ord], searchCategories[ord], q);
+            return tier == 0 || consumer.accept(productIds[ord], score(tier, names[ord]));
+        }
+
+        private void index(String text, int ord) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                grams.computeIfAbsent(gramKey(text, i), key -> new Postings()).add(ord);
+            }
+        }
+
+        private String pooled(String value) {
+            return value != null ? categoryPool.computeIfAbsent(value, key -> key) : null;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > productIds.length) {
+                int grown = Math.max(capacity, productIds.length + (productIds.length >> 1));
+                productIds = Arrays.copyOf(productIds, grown);
+                names = Arrays.copyOf(names, grown);
+                categories = Arrays.copyOf(categories, grown);
+                searchCategories = Arrays.copyOf(searchCategories, grown);
+            }
+        }
+
+        void trim() {
+            grams.values().forEach(Postings::trim);
+        }
+
+        int liveCount() {
+            return size - deletedCount;
+        }
+
+        int gramCount() {
+            return grams.size();
+        }
+    }
+}
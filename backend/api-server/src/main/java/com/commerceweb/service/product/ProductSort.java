@@ -0,0 +1,11 @@
+package com.commerceweb.service.product;
+
+/**
+ * 상품 목록 정렬 기준 (모든 정렬은 동점일 때 id 내림차순으로 순서를 고정)
+ */
+public enum ProductSort {
+    LATEST,     // 최신 등록순 (id)
+    RATING,     // 평점순 (averageRating, id)
+    VIEWS,      // 조회수순 (viewCount, id)
+    RELEVANCE   // 검색 관련도순 (검색 인덱스 점수, id) - 검색어가 있을 때만 사용
+}
@@ -0,0 +1,11 @@
+package com.commerceweb.service.product;
+
+/**
+ * 유사 상품 색인에 들어가는 상품 텍스트 (기동 시 전체 로딩용 JPQL 프로젝션)
+ */
+public record ProductTextDocument(Long id, String name, String category, String description) {
+
+    public static ProductTextDocument from(ProductChangedEvent event) {
+        return new ProductTextDocument(event.productId(), event.name(), event.category(), event.description());
+    }
+}
@@ -0,0 +1,9 @@
+package com.commerceweb.service.product;
+
+import java.util.Set;
+
+/**
+ * 조회수 버퍼가 DB에 반영한 상품 ID 목록
+ */
+public record ProductViewsFlushedEvent(Set<Long> productIds) {
+}
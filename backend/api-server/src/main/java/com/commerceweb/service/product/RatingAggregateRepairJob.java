@@ -0,0 +1,145 @@
+package com.commerceweb.service.product;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 상품 평가 집계(rating_score_sum/count와 그로부터 정해지는 rating_count/average_rating) 검증 및 보정
+ * <p>
+ * 평가 집계는 {@code RatingService}가 증분 UPDATE로만 유지하므로, 수동 데이터 수정이나 컬럼 추가 직후의 빈 값처럼
+ * 증분 경로를 거치지 않은 변경은 스스로 바로잡히지 않는다. 기동 시와 주기적으로 상품 ID 구간별로 실제 평가 합계와 비교해
+ * 어긋난 상품만 고친다. 평가 수와 평균은 증분 UPDATE와 같은 규칙(평가가 없으면 평균 0)으로 다시 쓴다.
+ * <p>
+ * 보정 UPDATE는 비교할 때 읽은 집계 값이 그대로일 때만 적용(compare-and-set)되므로,
+ * 그 사이 증분 반영이 끼어든 상품은 건너뛰고 다음 실행에서 다시 확인한다.
+ */
+@Slf4j
+@Component
+public class RatingAggregateRepairJob {
+
+    private static final String RANGE_END_SQL =
+            "SELECT MAX(id) FROM (SELECT id FROM products WHERE id > ? ORDER BY id LIMIT ?) chunk";
+
+    // 평균은 증분 UPDATE(ProductRepository.applyRatingDelta)와 같은 식으로 계산해 비교한다
+    private static final String DRIFT_SQL =
+            "SELECT p.id, p.rating_score_sum, p.rating_score_count, " +
+                    "COALESCE(r.score_sum, 0), COALESCE(r.score_count, 0) " +
+                    "FROM products p LEFT JOIN (" +
+                    "SELECT product_id, SUM(score) AS score_sum, COUNT(*) AS score_count FROM ratings " +
+                    "WHERE product_id > ? AND product_id <= ? GROUP BY product_id" +
+                    ") r ON r.product_id = p.id " +
+                    "WHERE p.id > ? AND p.id <= ? AND (" +
+                    "p.rating_score_sum IS NULL OR p.rating_score_count IS NULL " +
+                    "OR p.rating_score_sum <> COALESCE(r.score_sum, 0) " +
+                    "OR p.rating_score_count <> COALESCE(r.score_count, 0) " +
+                    "OR p.rating_count IS DISTINCT FROM COALESCE(r.score_count, 0) " +
+                    "OR p.average_rating IS DISTINCT FROM CASE WHEN COALESCE(r.score_count, 0) > 0 " +
+                    "THEN CAST(r.score_sum AS DOUBLE PRECISION) / r.score_count ELSE 0 END)";
+
+    private static final String REPAIR_SQL =
+            "UPDATE products SET rating_score_sum = ?, rating_score_count = ?, rating_count = ?, average_rating = ? " +
+                    "WHERE id = ? AND rating_score_sum IS NOT DISTINCT FROM ? " +
+                    "AND rating_score_count IS NOT DISTINCT FROM ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    private final Counter repairedCounter;
+
+    public RatingAggregateRepairJob(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${rating.aggregate.repair.chunk-size:5000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.repairedCounter = meterRegistry.counter("rating.aggregate.repaired");
+    }
+
+    /**
+     * 집계가 어긋난 상품 (저장된 값과 실제 평가 합계/개수)
+     */
+    private record Drift(long productId, Long storedSum, Long storedCount, long actualSum, long actualCount) {
+
+        double average() {
+            return actualCount > 0 ? (double) actualSum / actualCount : 0.0;
+        }
+    }
+
+    /**
+     * 전체 상품 검증 (보정한 상품 수 반환)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${rating.aggregate.repair.cron:0 30 4 * * *}")
+    public int repair() {
+        long start = System.currentTimeMillis();
+        int repaired = 0;
+        try {
+            long after = 0;
+            Long end;
+            while ((end = jdbcTemplate.queryForObject(RANGE_END_SQL, Long.class, after, chunkSize)) != null) {
+                repaired += repairRange(after, end);
+                after = end;
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ 평가 집계 검증 실패: {}", e.getMessage());
+        }
+
+        if (repaired > 0) {
+            log.warn("🔧 평가 집계 보정: {}개 상품 ({}ms)", repaired, System.currentTimeMillis() - start);
+        } else {
+            log.info("✅ 평가 집계 검증 완료 ({}ms)", System.currentTimeMillis() - start);
+        }
+        return repaired;
+    }
+
+    private int repairRange(long after, long end) {
+        List<Drift> repaired = transactionTemplate.execute(status -> {
+            List<Drift> drifts = jdbcTemplate.query(DRIFT_SQL, (rs, rowNum) -> new Drift(
+                    rs.getLong(1),
+                    rs.getObject(2, Long.class),
+                    rs.getObject(3, Long.class),
+                    rs.getLong(4),
+                    rs.getLong(5)), after, end, after, end);
+
+            List<Drift> applied = new ArrayList<>(drifts.size());
+            for (Drift drift : drifts) {
+                int updated = jdbcTemplate.update(REPAIR_SQL,
+                        drift.actualSum(), drift.actualCount(), drift.actualCount(), drift.average(),
+                        drift.productId(), drift.storedSum(), drift.storedCount());
+                if (updated > 0) {
+                    applied.add(drift);
+                }
+            }
+            return applied;
+        });
+        if (repaired == null) {
+            return 0;
+        }
+
+        for (Drift drift : repaired) {
+            log.debug("평가 집계 보정: productId={}, sum {} → {}, count {} → {}", drift.productId(),
+                    drift.storedSum(), drift.actualSum(), drift.storedCount(), drift.actualCount());
+            eventPublisher.publishEvent(
+                    new ProductRatingChangedEvent(drift.productId(), drift.average(), drift.actualCount()));
+        }
+        repairedCounter.increment(repaired.size());
+        return repaired.size();
+    }
+}
@@ -0,0 +1,7 @@
+package com.commerceweb.service.product;
+
+/**
+ * 검색 결과 1건: 상품 ID와 관련도 점수 (점수 내림차순, 동점이면 id 내림차순)
+ */
+public record SearchHit(long productId, long score) {
+}
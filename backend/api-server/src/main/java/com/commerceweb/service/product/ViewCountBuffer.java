@@ -0,0 +1,150 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 상품 조회수 write-behind 버퍼
+ * <p>
+ * 상세 조회마다 UPDATE를 날리는 대신 상품 ID별 카운터에 누적해 두고,
+ * 주기적으로 상품당 한 번의 {@code view_count = view_count + ?} 배치 UPDATE로 반영한다.
+ * ConcurrentHashMap의 merge/remove는 키 단위로 원자적이므로 flush 도중 들어온 증가분도 유실되지 않는다.
+ */
+@Slf4j
+@Component
+public class ViewCountBuffer {
+
+    private static final String FLUSH_SQL =
+            "UPDATE products SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicLong pendingViews = new AtomicLong();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate overflowTransaction;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxPendingProducts;
+
+    private final Counter bufferedCounter;
+    private final Counter flushedCounter;
+    private final Counter overflowCounter;
+    private final Timer flushTimer;
+
+    public ViewCountBuffer(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           ProductRepository productRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${product.view-count.max-pending:50000}") int maxPendingProducts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        // 호출자의 (읽기 전용일 수 있는) 트랜잭션에 끼지 않도록 바로 반영은 별도 트랜잭션에서 한다
+        this.overflowTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.overflowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxPendingProducts = maxPendingProducts;
+
+        this.bufferedCounter = meterRegistry.counter("product.views.buffered");
+        this.flushedCounter = meterRegistry.counter("product.views.flushed");
+        this.overflowCounter = meterRegistry.counter("product.views.overflow");
+        this.flushTimer = meterRegistry.timer("product.views.flush");
+        Gauge.builder("product.views.pending", pendingViews, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("product.views.pending.products", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * 조회수 1 증가 (버퍼 적재)
+     * <p>
+     * 버퍼에 쌓인 상품 수가 상한에 도달하면 새 상품은 버퍼에 넣지 않고 바로 DB에 반영한다
+     * (새 트랜잭션에서 실행하고, 실패해도 상품 조회 응답은 실패시키지 않는다).
+     */
+    public void increment(Long productId) {
+        if (pending.size() >= maxPendingProducts && !pending.containsKey(productId)) {
+            overflowCounter.increment();
+            try {
+                overflowTransaction.executeWithoutResult(status -> productRepository.incrementViewCount(productId, 1L));
+            } catch (RuntimeException e) {
+                log.warn("⚠️ 조회수 바로 반영 실패 (productId={}): {}", productId, e.getMessage());
+            }
+            return;
+        }
+        pending.merge(productId, 1L, Long::sum);
+        pendingViews.incrementAndGet();
+        bufferedCounter.increment();
+    }
+
+    /**
+     * 버퍼에 쌓인 조회수를 DB에 일괄 반영
+     */
+    @Scheduled(fixedDelayString = "${product.view-count.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // ID 순으로 정렬해 여러 노드가 동시에 flush해도 락 순서가 같도록 한다
+        Map<Long, Long> batch = new TreeMap<>();
+        for (Long productId : pending.keySet()) {
+            Long count = pending.remove(productId);
+            if (count != null) {
+                batch.put(productId, count);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long total = batch.values().stream().mapToLong(Long::longValue).sum();
+        pendingViews.addAndGet(-total);
+
+        List<Object[]> args = new ArrayList<>(batch.size());
+        batch.forEach((productId, count) -> args.add(new Object[]{count, productId}));
+
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(
+                    status -> jdbcTemplate.batchUpdate(FLUSH_SQL, args)));
+            flushedCounter.increment(total);
+            log.debug("👀 조회수 반영 완료: {}개 상품, {}회", batch.size(), total);
+        } catch (RuntimeException e) {
+            // 트랜잭션이 롤백되었으므로 다음 주기에 다시 반영되도록 버퍼에 되돌린다
+            batch.forEach((productId, count) -> pending.merge(productId, count, Long::sum));
+            pendingViews.addAndGet(total);
+            log.error("❌ 조회수 반영 실패 ({}개 상품): {}", batch.size(), e.getMessage());
+            return;
+        }
+
+        eventPublisher.publishEvent(new ProductViewsFlushedEvent(Set.copyOf(batch.keySet())));
+    }
+
+    /**
+     * 정상 종료 시 남은 조회수 반영
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.info("🛑 종료 전 조회수 버퍼 flush");
+        flush();
+    }
+}
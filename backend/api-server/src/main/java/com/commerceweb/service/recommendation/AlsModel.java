@@ -0,0 +1,256 @@
+package com.commerceweb.service.recommendation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ALS 요인 스냅샷 (파일을 메모리 매핑해 읽기 전용으로 사용)
+ * <p>
+ * 파일 형식 (big-endian):
+ * <pre>
+ * int   magic ("ALS1")
+ * int   형식 버전 ({@value #FORMAT_VERSION})
+ * long  모델 버전 (학습 시각, epoch ms)
+ * int   요인 수 k
+ * int   사용자 수 U
+ * int   상품 수 I
+ * float 전체 평균 평점
+ * long[U] 사용자 id (오름차순), long[I] 상품 id (오름차순)
+ * float[U × k] 사용자 요인, float[I × k] 상품 요인
+ * </pre>
+ * 힙에는 매핑 뷰만 두므로 요인 크기와 관계없이 힙 사용량이 일정하고, 페이지는 OS가 필요할 때 읽는다.
+ */
+public final class AlsModel {
+
+    static final int MAGIC = 0x414C5331;
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final long version;
+    private final int factors;
+    private final float globalMean;
+    private final LongBuffer userIds;
+    private final LongBuffer productIds;
+    private final FloatBuffer userFactors;
+    private final FloatBuffer itemFactors;
+    private final long sizeInBytes;
+
+    private AlsModel(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("ALS 스냅샷 형식이 아닙니다");
+        }
+        this.version = buffer.getLong(8);
+        this.factors = buffer.getInt(16);
+        int userCount = buffer.getInt(20);
+        int itemCount = buffer.getInt(24);
+        this.globalMean = buffer.getFloat(28);
+
+        int position = HEADER_BYTES;
+        this.userIds = buffer.slice(position, userCount * 8).asLongBuffer();
+        position += userCount * 8;
+        this.productIds = buffer.slice(position, itemCount * 8).asLongBuffer();
+        position += itemCount * 8;
+        this.userFactors = buffer.slice(position, userCount * factors * 4).asFloatBuffer();
+        position += userCount * factors * 4;
+        this.itemFactors = buffer.slice(position, itemCount * factors * 4).asFloatBuffer();
+        this.sizeInBytes = buffer.capacity();
+    }
+
+    /**
+     * 스냅샷 파일을 메모리 매핑해 연다 (매핑은 채널을 닫아도 유지된다)
+     */
+    static AlsModel open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new AlsModel(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 학습 결과를 스냅샷 파일로 쓴다 (임시 파일에 다 쓴 뒤 이름을 바꾸므로 읽는 쪽은 완성된 파일만 본다)
+     */
+    static void write(Path file, AlsTrainer.Factors model, long version) {
+        int userCount = model.userIds().length;
+        int itemCount = model.productIds().length;
+        long size = HEADER_BYTES + (userCount + itemCount) * 8L
+                + (model.userFactors().length + (long) model.itemFactors().length) * 4L;
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(version).putInt(model.factors())
+                        .putInt(userCount).putInt(itemCount).putFloat(model.globalMean());
+                buffer.asLongBuffer().put(model.userIds()).put(model.productIds());
+                buffer.position(buffer.position() + (userCount + itemCount) * 8);
+                buffer.asFloatBuffer().put(model.userFactors()).put(model.itemFactors());
+                buffer.force();
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int userCount() {
+        return userIds.capacity();
+    }
+
+    public int productCount() {
+        return productIds.capacity();
+    }
+
+    public long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public boolean contains(long userId) {
+        return indexOf(userIds, userId) >= 0;
+    }
+
+    /**
+     * 예측 평점 (모르는 사용자/상품이면 전체 평균)
+     */
+    public double predict(long userId, long productId) {
+        int user = indexOf(userIds, userId);
+        int item = indexOf(productIds, productId);
+        if (user < 0 || item < 0) {
+            return globalMean;
+        }
+        double score = globalMean;
+        for (int f = 0; f < factors; f++) {
+            score += userFactors.get(user * factors + f) * itemFactors.get(item * factors + f);
+        }
+        return score;
+    }
+
+    /**
+     * 모든 상품의 예측 평점 중 상위 limit개 (이미 평가한 상품 제외, 점수 내림차순 → 상품 id 오름차순)
+     */
+    public List<ProductScore> recommend(long userId, UserRatings rated, int limit) {
+        int user = indexOf(userIds, userId);
+        int itemCount = productIds.capacity();
+        if (user < 0 || limit <= 0) {
+            return List.of();
+        }
+        float[] x = new float[factors];
+        userFactors.get(user * factors, x);
+
+        // 최소 힙 (루트가 현재 limit개 중 가장 낮은 점수)
+        int[] heapItems = new int[Math.min(limit, itemCount)];
+        float[] heapScores = new float[heapItems.length];
+        int heapSize = 0;
+        int next = 0;   // 평가 목록과 상품 id가 모두 오름차순이므로 함께 훑으며 평가한 상품을 건너뛴다
+        for (int item = 0; item < itemCount; item++) {
+            long productId = productIds.get(item);
+            while (next < rated.size() && rated.productId(next) < productId) {
+                next++;
+            }
+            if (next < rated.size() && rated.productId(next) == productId) {
+                continue;
+            }
+            float score = 0f;
+            int offset = item * factors;
+            for (int f = 0; f < factors; f++) {
+                score += x[f] * itemFactors.get(offset + f);
+            }
+            if (heapSize < heapItems.length) {
+                heapItems[heapSize] = item;
+                heapScores[heapSize] = score;
+                siftUp(heapItems, heapScores, heapSize++);
+            } else if (heapItems.length > 0 && score > heapScores[0]) {
+                heapItems[0] = item;
+                heapScores[0] = score;
+                siftDown(heapItems, heapScores, heapSize);
+            }
+        }
+
+        List<ProductScore> result = new ArrayList<>(heapSize);
+        for (int k = heapSize - 1; k >= 0; k--) {
+            result.add(new ProductScore(productIds.get(heapItems[0]), globalMean + heapScores[0]));
+            heapItems[0] = heapItems[k];
+            heapScores[0] = heapScores[k];
+            siftDown(heapItems, heapScores, k);
+        }
+        return result.reversed();
+    }
+
+    private static int indexOf(LongBuffer ids, long id) {
+        int low = 0;
+        int high = ids.capacity() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long value = ids.get(middle);
+            if (value < id) {
+                low = middle + 1;
+            } else if (value > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // a가 b보다 낮은 순위인가 (점수가 낮거나, 같으면 상품 번호가 크면 낮다)
+    private static boolean lower(int[] items, float[] scores, int a, int b) {
+        return scores[a] != scores[b] ? scores[a] < scores[b] : items[a] > items[b];
+    }
+
+    private static void siftUp(int[] items, float[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!lower(items, scores, i, parent)) {
+                return;
+            }
+            swap(items, scores, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] items, float[] scores, int heapSize) {
+        int i = 0;
+        while (true) {
+            int lowest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize && lower(items, scores, left, lowest)) {
+                lowest = left;
+            }
+            if (right < heapSize && lower(items, scores, right, lowest)) {
+                lowest = right;
+            }
+            if (lowest == i) {
+                return;
+            }
+            swap(items, scores, i, lowest);
+            i = lowest;
+        }
+    }
+
+    private static void swap(int[] items, float[] scores, int a, int b) {
+        int item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,127 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * ALS 스냅샷 디렉터리 관리와 서빙 중인 모델 교체
+ * <p>
+ * 스냅샷은 {@code als-<버전>.bin}으로 쓰고, 각 노드는 디렉터리에서 가장 높은 버전을 메모리 매핑해 연다.
+ * 공유 디렉터리를 쓰면 한 노드가 학습한 스냅샷을 다른 노드가 주기적으로 찾아 바꿔 끼운다.
+ * 교체는 참조 하나를 바꾸는 것이므로 요청은 항상 이전 모델이나 새 모델 중 하나만 본다.
+ */
+@Slf4j
+@Component
+public class AlsModelStore {
+
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("als-(\\d+)\\.bin");
+
+    private final Path directory;
+    private final int keepSnapshots;
+
+    private volatile AlsModel model;
+
+    public AlsModelStore(MeterRegistry meterRegistry,
+                         @Value("${recommendation.als.snapshot-dir:./data/als}") String directory,
+                         @Value("${recommendation.als.keep-snapshots:2}") int keepSnapshots) {
+        this.directory = Path.of(directory);
+        this.keepSnapshots = Math.max(1, keepSnapshots);
+        Gauge.builder("recommendation.als.version", this,
+                store -> store.model != null ? store.model.version() : 0).register(meterRegistry);
+        Gauge.builder("recommendation.als.bytes", this,
+                store -> store.model != null ? store.model.sizeInBytes() : 0).register(meterRegistry);
+    }
+
+    /**
+     * 서빙 중인 모델 (스냅샷이 없으면 empty)
+     */
+    public Optional<AlsModel> current() {
+        return Optional.ofNullable(model);
+    }
+
+    /**
+     * 학습 결과를 새 버전 스냅샷으로 쓰고 바로 교체
+     */
+    public void publish(AlsTrainer.Factors factors, long version) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        AlsModel.write(directory.resolve("als-" + version + ".bin"), factors, version);
+        reload();
+        deleteOldSnapshots();
+    }
+
+    /**
+     * 디렉터리에 지금 모델보다 새 스냅샷이 있으면 열어서 교체 (다른 노드가 쓴 스냅샷 반영)
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${recommendation.als.reload-interval-ms:60000}")
+    public synchronized void reload() {
+        Optional<Path> latest = snapshots().stream().findFirst();
+        if (latest.isEmpty()) {
+            return;
+        }
+        long version = versionOf(latest.get());
+        AlsModel current = model;
+        if (current != null && current.version() >= version) {
+            return;
+        }
+        try {
+            AlsModel opened = AlsModel.open(latest.get());
+            model = opened;
+            log.info("🔁 ALS 모델 교체: 버전 {}, 사용자 {}명, 상품 {}개, {}KB", opened.version(),
+                    opened.userCount(), opened.productCount(), opened.sizeInBytes() / 1024);
+        } catch (RuntimeException e) {
+            // 깨진 스냅샷이면 지금 모델로 계속 응답한다
+            log.error("❌ ALS 스냅샷 열기 실패 ({}): {}", latest.get(), e.getMessage());
+        }
+    }
+
+    // 최신 keepSnapshots개만 남긴다 (이미 매핑된 파일은 지워도 매핑이 유지된다)
+    private void deleteOldSnapshots() {
+        List<Path> snapshots = snapshots();
+        for (Path old : snapshots.subList(Math.min(keepSnapshots, snapshots.size()), snapshots.size())) {
+            try {
+                Files.deleteIfExists(old);
+            } catch (IOException e) {
+                log.warn("⚠️ 오래된 ALS 스냅샷 삭제 실패 ({}): {}", old, e.getMessage());
+            }
+        }
+    }
+
+    // 버전 내림차순
+    private List<Path> snapshots() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SNAPSHOT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(AlsModelStore::versionOf).reversed())
+                    .toList();
+        } catch (IOException e) {
+            log.warn("⚠️ ALS 스냅샷 디렉터리 조회 실패 ({}): {}", directory, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static long versionOf(Path file) {
+        Matcher matcher = SNAPSHOT_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,173 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 명시적 평점에 대한 ALS(Alternating Least Squares) 행렬 분해
+ * <p>
+ * 평점을 {@code 전체 평균 + 사용자 요인 · 상품 요인}으로 근사한다. 상품 요인을 고정하고 사용자마다
+ * {@code (YᵀY + λ·n·I) x = Yᵀ(r - μ)}를 풀고, 다시 사용자 요인을 고정하고 상품마다 같은 식을 푸는 것을 반복한다
+ * (λ에 평가 수 n을 곱하는 weighted-λ 정규화). 사용자/상품별 풀이는 서로 독립이므로 fork/join으로 병렬 처리한다.
+ * <p>
+ * 초기값은 상품 번호로 시드를 정하므로 병렬도와 관계없이 같은 결과가 나온다.
+ */
+final class AlsTrainer {
+
+    private AlsTrainer() {
+    }
+
+    /**
+     * 학습 결과 (요인 배열은 행 우선, 행 i의 요인은 {@code [i * factors, (i + 1) * factors)})
+     */
+    record Factors(long[] userIds, long[] productIds, int factors, float globalMean,
+                   float[] userFactors, float[] itemFactors) {
+    }
+
+    static Factors train(RatingSnapshot ratings, int factors, double lambda, int iterations, ForkJoinPool pool) {
+        int userCount = ratings.userCount();
+        int itemCount = ratings.productCount();
+        double sum = 0;
+        for (byte score : ratings.scores) {
+            sum += score;
+        }
+        float mean = ratings.ratingCount() > 0 ? (float) (sum / ratings.ratingCount()) : 0f;
+
+        // 상품별 CSR (사용자 번호, 평균을 뺀 점수)
+        int[] itemOffsets = new int[itemCount + 1];
+        for (int item : ratings.items) {
+            itemOffsets[item + 1]++;
+        }
+        RatingSnapshot.prefixSum(itemOffsets);
+        int[] itemUsers = new int[ratings.ratingCount()];
+        float[] itemValues = new float[ratings.ratingCount()];
+        float[] userValues = new float[ratings.ratingCount()];
+        int[] cursor = Arrays.copyOf(itemOffsets, itemCount);
+        for (int u = 0; u < userCount; u++) {
+            for (int k = ratings.userOffsets[u]; k < ratings.userOffsets[u + 1]; k++) {
+                float value = ratings.scores[k] - mean;
+                userValues[k] = value;
+                itemUsers[cursor[ratings.items[k]]] = u;
+                itemValues[cursor[ratings.items[k]]++] = value;
+            }
+        }
+
+        float[] userFactors = new float[userCount * factors];
+        float[] itemFactors = new float[itemCount * factors];
+        for (int item = 0; item < itemCount; item++) {
+            SplittableRandom random = new SplittableRandom(ratings.productIds[item]);
+            for (int f = 0; f < factors; f++) {
+                itemFactors[item * factors + f] = (float) (random.nextGaussian() * 0.1);
+            }
+        }
+
+        // 풀이용 k×k 행렬과 벡터는 워커 스레드마다 하나씩
+        ThreadLocal<Solver> solvers = ThreadLocal.withInitial(() -> new Solver(factors));
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            pool.submit(() -> IntStream.range(0, userCount).parallel().forEach(u ->
+                    solvers.get().solve(ratings.userOffsets[u], ratings.userOffsets[u + 1], ratings.items, userValues,
+                            itemFactors, userFactors, u, lambda))).join();
+            pool.submit(() -> IntStream.range(0, itemCount).parallel().forEach(item ->
+                    solvers.get().solve(itemOffsets[item], itemOffsets[item + 1], itemUsers, itemValues,
+                            userFactors, itemFactors, item, lambda))).join();
+        }
+        return new Factors(ratings.userIds, ratings.productIds, factors, mean, userFactors, itemFactors);
+    }
+
+    /**
+     * 학습 데이터에 대한 RMSE
+     */
+    static double rmse(RatingSnapshot ratings, Factors model) {
+        int k = model.factors();
+        double squared = 0;
+        for (int u = 0; u < ratings.userCount(); u++) {
+            for (int r = ratings.userOffsets[u]; r < ratings.userOffsets[u + 1]; r++) {
+                double predicted = model.globalMean();
+                int item = ratings.items[r];
+                for (int f = 0; f < k; f++) {
+                    predicted += model.userFactors()[u * k + f] * model.itemFactors()[item * k + f];
+                }
+                squared += (predicted - ratings.scores[r]) * (predicted - ratings.scores[r]);
+            }
+        }
+        return ratings.ratingCount() > 0 ? Math.sqrt(squared / ratings.ratingCount()) : 0;
+    }
+
+    /**
+     * 한 행의 요인 풀이 (정규 방정식을 Cholesky 분해로 푼다)
+     */
+    private static final class Solver {
+        private final int k;
+        private final double[] a;
+        private final double[] b;
+
+        Solver(int k) {
+            this.k = k;
+            this.a = new double[k * k];
+            this.b = new double[k];
+        }
+
+        // 평가 구간 [from, to)의 상대 번호(others)와 점수(values)로, 상대 요인(fixed)을 고정하고 target의 row 행을 푼다
+        void solve(int from, int to, int[] others, float[] values, float[] fixed, float[] target, int row,
+                   double lambda) {
+            int n = to - from;
+            if (n == 0) {
+                Arrays.fill(target, row * k, (row + 1) * k, 0f);
+                return;
+            }
+            Arrays.fill(a, 0);
+            Arrays.fill(b, 0);
+            for (int p = from; p < to; p++) {
+                int offset = others[p] * k;
+                float value = values[p];
+                for (int i = 0; i < k; i++) {
+                    double yi = fixed[offset + i];
+                    b[i] += yi * value;
+                    for (int j = 0; j <= i; j++) {
+                        a[i * k + j] += yi * fixed[offset + j];
+                    }
+                }
+            }
+            for (int i = 0; i < k; i++) {
+                a[i * k + i] += lambda * n;
+            }
+
+            // A = L·Lᵀ (아래 삼각만 사용)
+            for (int j = 0; j < k; j++) {
+                double diagonal = a[j * k + j];
+                for (int m = 0; m < j; m++) {
+                    diagonal -= a[j * k + m] * a[j * k + m];
+                }
+                diagonal = Math.sqrt(diagonal);
+                a[j * k + j] = diagonal;
+                for (int i = j + 1; i < k; i++) {
+                    double value = a[i * k + j];
+                    for (int m = 0; m < j; m++) {
+                        value -= a[i * k + m] * a[j * k + m];
+                    }
+                    a[i * k + j] = value / diagonal;
+                }
+            }
+            // L·z = b, Lᵀ·x = z
+            for (int i = 0; i < k; i++) {
+                double value = b[i];
+                for (int m = 0; m < i; m++) {
+                    value -= a[i * k + m] * b[m];
+                }
+                b[i] = value / a[i * k + i];
+            }
+            for (int i = k - 1; i >= 0; i--) {
+                double value = b[i];
+                for (int m = i + 1; m < k; m++) {
+                    value -= a[m * k + i] * b[m];
+                }
+                b[i] = value / a[i * k + i];
+            }
+            for (int i = 0; i < k; i++) {
+                target[row * k + i] = (float) b[i];
+            }
+        }
+    }
+}
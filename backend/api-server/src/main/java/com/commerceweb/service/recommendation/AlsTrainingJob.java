@@ -0,0 +1,106 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ALS 모델 학습 작업
+ * <p>
+ * 상주 평가 행렬({@link RatingMatrix})의 스냅샷으로 전용 스레드에서 학습하고,
+ * 결과를 {@link AlsModelStore}에 새 버전 스냅샷으로 넘긴다. 학습 중에도 이전 모델로 계속 응답한다.
+ */
+@Slf4j
+@Component
+public class AlsTrainingJob {
+
+    private final RatingMatrix ratingMatrix;
+    private final AlsModelStore store;
+    private final boolean enabled;
+    private final int factors;
+    private final int iterations;
+    private final double lambda;
+    private final ForkJoinPool pool;
+    private final ExecutorService runner;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Timer trainTimer;
+
+    public AlsTrainingJob(RatingMatrix ratingMatrix,
+                          AlsModelStore store,
+                          MeterRegistry meterRegistry,
+                          @Value("${recommendation.als.enabled:true}") boolean enabled,
+                          @Value("${recommendation.als.factors:32}") int factors,
+                          @Value("${recommendation.als.iterations:10}") int iterations,
+                          @Value("${recommendation.als.lambda:0.05}") double lambda,
+                          @Value("${recommendation.als.parallelism:0}") int parallelism) {
+        this.ratingMatrix = ratingMatrix;
+        this.store = store;
+        this.enabled = enabled;
+        this.factors = factors;
+        this.iterations = iterations;
+        this.lambda = lambda;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "als-training");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.trainTimer = meterRegistry.timer("recommendation.als.train");
+    }
+
+    /**
+     * 기동 시와 주기적으로 백그라운드 학습 (이미 학습 중이면 건너뜀)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${recommendation.als.train-interval-ms:21600000}",
+            fixedDelayString = "${recommendation.als.train-interval-ms:21600000}")
+    public void scheduleTraining() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        runner.execute(() -> {
+            try {
+                train();
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    void train() {
+        if (!ratingMatrix.isReady()) {
+            log.warn("⚠️ 평가 행렬 로드 전이라 ALS 학습을 건너뜁니다");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            RatingSnapshot ratings = ratingMatrix.compactedSnapshot();
+            AlsTrainer.Factors trained = trainTimer.record(() ->
+                    AlsTrainer.train(ratings, factors, lambda, iterations, pool));
+            long version = Math.max(start, store.current().map(model -> model.version() + 1).orElse(0L));
+            store.publish(trained, version);
+            log.info("🧮 ALS 학습 완료: 평가 {}건, 사용자 {}명, 상품 {}개, RMSE {} ({}ms)",
+                    ratings.ratingCount(), ratings.userCount(), ratings.productCount(),
+                    String.format("%.3f", AlsTrainer.rmse(ratings, trained)), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("❌ ALS 학습 실패: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 한 상품과 함께 구매된 상품별 횟수 (Space-Saving, 칸 수 고정)
+ * <p>
+ * 칸이 차면 가장 작은 횟수의 상품을 내보내고 그 횟수 + 1로 새 상품을 넣는다.
+ * 따라서 횟수는 실제보다 클 수 있지만, 취소가 없다면 실제 횟수가 (전체 횟수 / 칸 수)보다 큰 상품은 반드시 남는다.
+ * 상품 수와 관계없이 메모리가 칸 수로 고정되고, 갱신은 칸 수만큼의 선형 탐색이다.
+ */
+final class CoPurchaseCounter {
+
+    private final long[] productIds;
+    private final int[] counts;
+    private int size;
+
+    CoPurchaseCounter(int capacity) {
+        this.productIds = new long[capacity];
+        this.counts = new int[capacity];
+    }
+
+    synchronized void increment(long productId) {
+        int slot = indexOf(productId);
+        if (slot >= 0) {
+            counts[slot]++;
+        } else if (size < productIds.length) {
+            productIds[size] = productId;
+            counts[size++] = 1;
+        } else {
+            int lowest = 0;
+            for (int i = 1; i < size; i++) {
+                if (counts[i] < counts[lowest]) {
+                    lowest = i;
+                }
+            }
+            productIds[lowest] = productId;
+            counts[lowest]++;
+        }
+    }
+
+    /**
+     * 구매 취소 반영 (이미 내보낸 상품이면 무시, 0이 되면 칸을 비운다)
+     */
+    synchronized void decrement(long productId) {
+        int slot = indexOf(productId);
+        if (slot < 0) {
+            return;
+        }
+        if (--counts[slot] <= 0) {
+            size--;
+            productIds[slot] = productIds[size];
+            counts[slot] = counts[size];
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 횟수 상위 limit개 (횟수 내림차순 → 상품 id 오름차순)
+     */
+    synchronized List<ProductScore> top(int limit) {
+        List<ProductScore> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new ProductScore(productIds[i], counts[i]));
+        }
+        result.sort(Comparator.comparingDouble(ProductScore::score).reversed()
+                .thenComparingLong(ProductScore::productId));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    // 배열 크기 (바이트, 객체 헤더 제외)
+    long sizeInBytes() {
+        return productIds.length * 8L + counts.length * 4L;
+    }
+
+    private int indexOf(long productId) {
+        for (int i = 0; i < size; i++) {
+            if (productIds[i] == productId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
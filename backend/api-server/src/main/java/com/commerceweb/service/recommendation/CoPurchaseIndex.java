@@ -0,0 +1,292 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "함께 구매한 상품" 집계 (같은 사용자가 구매한 상품 쌍의 횟수)
+ * <p>
+ * 사용자마다 최근 구매한 상품을 최대 history-size개 기억하고, 새 상품을 처음 구매하면 기억하던 상품들과의 쌍을
+ * 양쪽 상품의 {@link CoPurchaseCounter}에 1씩 더한다. 그 상품의 마지막 주문이 취소되면 같은 쌍을 1씩 뺀다.
+ * 주문 한 건의 비용은 (기억하는 상품 수 × 칸 수) 이하이고, 상품별/사용자별 잠금만 쓰므로 주문끼리 서로 막지 않는다.
+ * <p>
+ * 기동 시 주문을 id 순으로 나눠 읽어 다시 만들고, 이후에는 {@link OrderChangedEvent}로 증분 반영한다.
+ * 횟수는 근사값이다 (칸이 찬 상품의 하위 항목, 로드 경계의 드문 중복/누락).
+ */
+@Slf4j
+@Component
+public class CoPurchaseIndex {
+
+    private static final String LOAD_SQL =
+            "SELECT id, buyer_id, product_id FROM orders WHERE id > ? ORDER BY id LIMIT ?";
+    private static final int LOAD_BATCH_SIZE = 50_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int slots;
+    private final int historySize;
+    private final double blendWeight;
+
+    private volatile State state;
+    private volatile boolean ready;
+    private volatile boolean loading;
+
+    // this로 보호
+    private List<OrderChangedEvent> changesDuringLoad;   // 로드 중 들어온 변경 (로드 후 재적용)
+
+    public CoPurchaseIndex(JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${recommendation.co-purchase.top-k:20}") int topK,
+                           @Value("${recommendation.co-purchase.history-size:50}") int historySize,
+                           @Value("${recommendation.co-purchase.blend-weight:0.5}") double blendWeight) {
+        this.jdbcTemplate = jdbcTemplate;
+        // 하위 항목이 자주 바뀌므로 상위 K개가 안정되도록 2배의 칸을 둔다
+        this.slots = topK * 2;
+        this.historySize = historySize;
+        this.blendWeight = blendWeight;
+        this.state = new State();
+        Gauge.builder("recommendation.co-purchase.products", this, index -> index.state.counters.size())
+                .register(meterRegistry);
+        Gauge.builder("recommendation.co-purchase.users", this, index -> index.state.histories.size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 기동 시 전체 로드 (주문을 id 순으로 나눠 읽는다)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        synchronized (this) {
+            changesDuringLoad = new ArrayList<>();
+            loading = true;
+        }
+        long start = System.currentTimeMillis();
+
+        State built = new State();
+        long[] afterId = {0L};
+        try {
+            int[] loaded = {0};
+            do {
+                loaded[0] = 0;
+                jdbcTemplate.query(LOAD_SQL, rs -> {
+                    afterId[0] = rs.getLong(1);
+                    apply(built, rs.getLong(2), rs.getLong(3), false);
+                    loaded[0]++;
+                }, afterId[0], LOAD_BATCH_SIZE);
+            } while (loaded[0] == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringLoad = null;
+                loading = false;
+            }
+            log.error("❌ 함께 구매 집계 로드 실패: {}", e.getMessage());
+            return;
+        }
+
+        install(built, afterId[0]);
+        log.info("🛒 함께 구매 집계 로드 완료: 사용자 {}명, 상품 {}개 ({}ms)",
+                built.histories.size(), built.counters.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 주어진 주문(id 순)으로 집계를 채운다 (DB 없이 테스트/벤치마크에서 사용)
+     */
+    void load(List<OrderChangedEvent> orders) {
+        State built = new State();
+        long lastOrderId = 0L;
+        for (OrderChangedEvent order : orders) {
+            apply(built, order.userId(), order.productId(), order.canceled());
+            lastOrderId = Math.max(lastOrderId, order.orderId());
+        }
+        install(built, lastOrderId);
+    }
+
+    private void install(State built, long lastLoadedOrderId) {
+        synchronized (this) {
+            if (changesDuringLoad != null) {
+                for (OrderChangedEvent event : changesDuringLoad) {
+                    // 스캔이 이미 읽은 주문의 생성은 건너뛴다
+                    if (event.canceled() || event.orderId() == null || event.orderId() > lastLoadedOrderId) {
+                        apply(built, event.userId(), event.productId(), event.canceled());
+                    }
+                }
+                changesDuringLoad = null;
+            }
+            state = built;
+            ready = true;
+            loading = false;
+        }
+    }
+
+    /**
+     * 커밋된 주문 생성/취소를 증분 반영
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (loading) {
+            synchronized (this) {
+                if (changesDuringLoad != null) {
+                    changesDuringLoad.add(event);
+                    return;
+                }
+            }
+        }
+        apply(state, event.userId(), event.productId(), event.canceled());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 사용자 추천에 섞을 때의 가중치 (평가 기반 순위가 1, 0이면 섞지 않는다)
+     */
+    public double blendWeight() {
+        return blendWeight;
+    }
+
+    /**
+     * 이 상품과 함께 구매된 상품 상위 limit개 (점수는 함께 구매한 사용자 수)
+     */
+    public List<ProductScore> boughtTogether(long productId, int limit) {
+        CoPurchaseCounter counter = state.counters.get(productId);
+        return counter != null ? counter.top(limit) : List.of();
+    }
+
+    /**
+     * 사용자가 최근 구매한 상품들과 함께 구매된 상품 상위 limit개 (이미 구매한 상품 제외, 점수는 횟수 합계)
+     */
+    public List<ProductScore> recommend(long userId, int limit) {
+        State current = state;
+        PurchaseHistory history = current.histories.get(userId);
+        if (history == null) {
+            return List.of();
+        }
+        long[] purchased;
+        synchronized (history) {
+            purchased = history.products();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (long productId : purchased) {
+            CoPurchaseCounter counter = current.counters.get(productId);
+            if (counter == null) {
+                continue;
+            }
+            for (ProductScore partner : counter.top(slots)) {
+                scores.merge(partner.productId(), partner.score(), Double::sum);
+            }
+        }
+        for (long productId : purchased) {
+            scores.remove(productId);
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> new ProductScore(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private void apply(State target, long userId, long productId, boolean canceled) {
+        PurchaseHistory history = target.histories.computeIfAbsent(userId, id -> new PurchaseHistory(historySize));
+        long[] partners;
+        synchronized (history) {
+            partners = canceled ? history.remove(productId) : history.add(productId);
+        }
+        for (long partner : partners) {
+            if (canceled) {
+                decrement(target, productId, partner);
+                decrement(target, partner, productId);
+            } else {
+                target.counters.computeIfAbsent(productId, id -> new CoPurchaseCounter(slots)).increment(partner);
+                target.counters.computeIfAbsent(partner, id -> new CoPurchaseCounter(slots)).increment(productId);
+            }
+        }
+    }
+
+    private static void decrement(State target, long productId, long partner) {
+        CoPurchaseCounter counter = target.counters.get(productId);
+        if (counter != null) {
+            counter.decrement(partner);
+        }
+    }
+
+    private static final class State {
+        private final Map<Long, PurchaseHistory> histories = new ConcurrentHashMap<>();
+        private final Map<Long, CoPurchaseCounter> counters = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 한 사용자가 최근 구매한 상품과 상품별 유효 주문 수 (오래된 순, 최대 capacity개)
+     */
+    private static final class PurchaseHistory {
+        private static final long[] NONE = new long[0];
+
+        private final long[] productIds;
+        private final int[] orders;
+        private int size;
+
+        PurchaseHistory(int capacity) {
+            this.productIds = new long[capacity];
+            this.orders = new int[capacity];
+        }
+
+        /**
+         * 주문 추가 (처음 구매한 상품이면 쌍을 이룰 기존 상품들, 아니면 빈 배열)
+         */
+        long[] add(long productId) {
+            int slot = indexOf(productId);
+            if (slot >= 0) {
+                orders[slot]++;
+                return NONE;
+            }
+            long[] partners = products();
+            if (size == productIds.length) {
+                // 가장 오래된 상품은 잊는다 (이미 센 쌍은 그대로 둔다)
+                System.arraycopy(productIds, 1, productIds, 0, size - 1);
+                System.arraycopy(orders, 1, orders, 0, size - 1);
+                size--;
+            }
+            productIds[size] = productId;
+            orders[size++] = 1;
+            return partners;
+        }
+
+        /**
+         * 주문 취소 (그 상품의 마지막 주문이면 쌍을 이루던 나머지 상품들, 아니면 빈 배열)
+         */
+        long[] remove(long productId) {
+            int slot = indexOf(productId);
+            if (slot < 0 || --orders[slot] > 0) {
+                return NONE;
+            }
+            System.arraycopy(productIds, slot + 1, productIds, slot, size - slot - 1);
+            System.arraycopy(orders, slot + 1, orders, slot, size - slot - 1);
+            size--;
+            return products();
+        }
+
+        long[] products() {
+            return Arrays.copyOf(productIds, size);
+        }
+
+        private int indexOf(long productId) {
+            for (int i = 0; i < size; i++) {
+                if (productIds[i] == productId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
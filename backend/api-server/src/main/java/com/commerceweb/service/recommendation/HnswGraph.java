@@ -0,0 +1,464 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 코사인 유사도(정규화된 벡터의 내적) 기준 HNSW 근사 최근접 이웃 그래프
+ * <p>
+ * 노드마다 무작위 최고 층을 정하고(층이 높을수록 지수적으로 드물다), 위층에서 탐욕적으로 진입점을 좁힌 뒤
+ * 0층에서 후보 ef개를 유지하는 best-first 탐색을 한다. ef가 클수록 재현율이 오르고 느려진다.
+ * <p>
+ * 삭제는 번호에 표시만 하고(tombstone) 탐색 경로로는 계속 쓰되 결과에서 뺀다.
+ * 동기화는 하지 않으므로 호출자가 읽기/쓰기 락으로 보호해야 한다.
+ */
+final class HnswGraph {
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private float[] vectors;
+    private long[] productIds;
+    private int[][][] links;     // links[노드][층] = {이웃 수, 이웃...}
+    private int size;
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    // 탐색마다 방문 표시를 지우지 않도록 세대 번호로 표시 (스레드별)
+    private final ThreadLocal<Visited> visited = ThreadLocal.withInitial(Visited::new);
+
+    HnswGraph(int dimensions, int m, int efConstruction, long seed) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1 / Math.log(Math.max(m, 2));
+        this.random = new SplittableRandom(seed);
+        this.vectors = new float[1024 * dimensions];
+        this.productIds = new long[1024];
+        this.links = new int[1024][][];
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    int liveCount() {
+        return size - deletedCount;
+    }
+
+    int deletedCount() {
+        return deletedCount;
+    }
+
+    boolean contains(long productId) {
+        return ordinals.containsKey(productId);
+    }
+
+    /**
+     * 삭제 표시가 많아 다시 만드는 편이 나은가
+     */
+    boolean needsCompaction() {
+        return deletedCount > 1024 && deletedCount > size / 4;
+    }
+
+    /**
+     * 삭제되지 않은 노드의 상품 id와 벡터를 복사해 두고, 호출하면 그것만으로 새 그래프를 만드는 작업 (추가 순서 유지)
+     * <p>
+     * 복사는 호출자의 락 안에서, 새 그래프 생성은 락 밖에서 한다.
+     */
+    Supplier<HnswGraph> compactor(long seed) {
+        int live = liveCount();
+        long[] liveIds = new long[live];
+        float[] liveVectors = new float[live * dimensions];
+        int i = 0;
+        for (int node = deleted.nextClearBit(0); node < size; node = deleted.nextClearBit(node + 1)) {
+            liveIds[i] = productIds[node];
+            System.arraycopy(vectors, node * dimensions, liveVectors, i * dimensions, dimensions);
+            i++;
+        }
+        return () -> {
+            HnswGraph compacted = new HnswGraph(dimensions, m, efConstruction, seed);
+            float[] vector = new float[dimensions];
+            for (int k = 0; k < liveIds.length; k++) {
+                System.arraycopy(liveVectors, k * dimensions, vector, 0, dimensions);
+                compacted.add(liveIds[k], vector);
+            }
+            return compacted;
+        };
+    }
+
+    /**
+     * 상품 벡터 추가 (이미 있으면 기존 노드를 삭제 표시하고 새 노드로 추가)
+     */
+    void add(long productId, float[] vector) {
+        remove(productId);
+        int node = allocate(productId, vector);
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[1 + maxLinks(l)];
+        }
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int entry = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            entry = greedy(vectors, node * dimensions, entry, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            Heap found = searchLayer(vectors, node * dimensions, entry, efConstruction, l, false, Long.MIN_VALUE);
+            int[] nodes = found.drainDescending();
+            int[] selected = selectNeighbours(node * dimensions, nodes, nodes.length, m);
+            System.arraycopy(selected, 0, links[node][l], 1, selected.length);
+            links[node][l][0] = selected.length;
+            for (int neighbour : selected) {
+                connect(neighbour, node, l);
+            }
+            entry = nodes[0];
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    void remove(long productId) {
+        Integer node = ordinals.remove(productId);
+        if (node != null) {
+            deleted.set(node);
+            deletedCount++;
+        }
+    }
+
+    /**
+     * 상품과 가장 비슷한 상품 k개 (자기 자신 제외, 없는 상품이면 null)
+     */
+    List<ProductScore> similar(long productId, int k, int ef) {
+        Integer node = ordinals.get(productId);
+        if (node == null) {
+            return null;
+        }
+        return search(vectors, node * dimensions, k, ef, productId);
+    }
+
+    /**
+     * 질의 벡터와 가장 비슷한 k개 (유사도 내림차순 → 상품 id 오름차순)
+     */
+    List<ProductScore> search(float[] query, int queryOffset, int k, int ef, long excludeId) {
+        if (entryPoint < 0 || k <= 0) {
+            return List.of();
+        }
+        int entry = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            entry = greedy(query, queryOffset, entry, l);
+        }
+        Heap found = searchLayer(query, queryOffset, entry, Math.max(ef, k), 0, true, excludeId);
+        return found.top(k, productIds);
+    }
+
+    /**
+     * 전수 비교 결과 (재현율 측정용)
+     */
+    List<ProductScore> exact(long productId, int k) {
+        Integer node = ordinals.get(productId);
+        if (node == null) {
+            return null;
+        }
+        Heap best = new Heap(k + 1, true);
+        for (int other = deleted.nextClearBit(0); other < size; other = deleted.nextClearBit(other + 1)) {
+            if (other != node) {
+                best.offerBounded(other, similarity(vectors, node * dimensions, other), k, productIds);
+            }
+        }
+        return best.top(k, productIds);
+    }
+
+    private int allocate(long productId, float[] vector) {
+        if (size == productIds.length) {
+            int capacity = size + (size >> 1);
+            productIds = Arrays.copyOf(productIds, capacity);
+            vectors = Arrays.copyOf(vectors, capacity * dimensions);
+            links = Arrays.copyOf(links, capacity);
+        }
+        int node = size++;
+        productIds[node] = productId;
+        System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+        ordinals.put(productId, node);
+        return node;
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? maxM0 : m;
+    }
+
+    private float similarity(float[] query, int queryOffset, int node) {
+        return ProductTextVectors.dot(query, queryOffset, vectors, node * dimensions, dimensions);
+    }
+
+    // 위층 탐욕 탐색: 더 가까운 이웃이 없을 때까지 이동
+    private int greedy(float[] query, int queryOffset, int entry, int level) {
+        int current = entry;
+        float best = similarity(query, queryOffset, current);
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            int[] neighbours = links[current][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                float score = similarity(query, queryOffset, neighbours[i]);
+                if (score > best) {
+                    best = score;
+                    current = neighbours[i];
+                    moved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 한 층에서 best-first 탐색 (결과 힙은 가장 덜 비슷한 노드가 루트)
+     *
+     * @param filter true면 삭제 표시된 노드와 excludeId는 경로로만 쓰고 결과에 넣지 않는다
+     */
+    private Heap searchLayer(float[] query, int queryOffset, int entry, int ef, int level,
+                             boolean filter, long excludeId) {
+        Visited seen = visited.get();
+        seen.reset(size);
+        Heap candidates = new Heap(ef * 2, false);
+        Heap results = new Heap(ef + 1, true);
+
+        float entryScore = similarity(query, queryOffset, entry);
+        seen.mark(entry);
+        candidates.push(entry, entryScore);
+        if (!filter || accepts(entry, excludeId)) {
+            results.push(entry, entryScore);
+        }
+
+        while (candidates.size() > 0) {
+            float score = candidates.rootScore();
+            if (results.size() >= ef && score < results.rootScore()) {
+                break;
+            }
+            int current = candidates.pop();
+            int[] neighbours = links[current][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (!seen.mark(neighbour)) {
+                    continue;
+                }
+                float neighbourScore = similarity(query, queryOffset, neighbour);
+                if (results.size() < ef || neighbourScore > results.rootScore()) {
+                    candidates.push(neighbour, neighbourScore);
+                    if (!filter || accepts(neighbour, excludeId)) {
+                        results.push(neighbour, neighbourScore);
+                        if (results.size() > ef) {
+                            results.pop();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private boolean accepts(int node, long excludeId) {
+        return !deleted.get(node) && productIds[node] != excludeId;
+    }
+
+    /**
+     * 이웃 선택 휴리스틱: 후보(유사도 내림차순)를 차례로 보며, 이미 고른 이웃보다 기준 노드에 더 가까운 후보만 고른다.
+     * 서로 비슷한 후보끼리 몰리지 않아 그래프가 멀리 떨어진 군집으로도 이어진다. 모자라면 버린 후보로 채운다.
+     */
+    private int[] selectNeighbours(int baseOffset, int[] candidates, int count, int limit) {
+        int[] selected = new int[Math.min(limit, count)];
+        int selectedCount = 0;
+        int[] pruned = new int[count];
+        int prunedCount = 0;
+        for (int i = 0; i < count && selectedCount < selected.length; i++) {
+            int candidate = candidates[i];
+            float toBase = ProductTextVectors.dot(vectors, baseOffset, vectors, candidate * dimensions, dimensions);
+            boolean diverse = true;
+            for (int j = 0; j < selectedCount; j++) {
+                if (similarity(vectors, candidate * dimensions, selected[j]) > toBase) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[selectedCount++] = candidate;
+            } else {
+                pruned[prunedCount++] = candidate;
+            }
+        }
+        for (int i = 0; i < prunedCount && selectedCount < selected.length; i++) {
+            selected[selectedCount++] = pruned[i];
+        }
+        return selectedCount == selected.length ? selected : Arrays.copyOf(selected, selectedCount);
+    }
+
+    // 역방향 연결 (자리가 없으면 기존 이웃과 함께 다시 골라 줄인다)
+    private void connect(int node, int neighbour, int level) {
+        int[] list = links[node][level];
+        int count = list[0];
+        if (count < list.length - 1) {
+            list[++count] = neighbour;
+            list[0] = count;
+            return;
+        }
+        Heap candidates = new Heap(count + 1, false);
+        for (int i = 1; i <= count; i++) {
+            candidates.push(list[i], similarity(vectors, node * dimensions, list[i]));
+        }
+        candidates.push(neighbour, similarity(vectors, node * dimensions, neighbour));
+        int[] ordered = new int[candidates.size()];
+        for (int i = 0; i < ordered.length; i++) {
+            ordered[i] = candidates.pop();
+        }
+        int[] selected = selectNeighbours(node * dimensions, ordered, ordered.length, maxLinks(level));
+        System.arraycopy(selected, 0, list, 1, selected.length);
+        list[0] = selected.length;
+    }
+
+    /**
+     * (노드, 유사도) 이진 힙 (lowestFirst면 유사도가 가장 낮은 노드가 루트)
+     */
+    private static final class Heap {
+        private final boolean lowestFirst;
+        private int[] nodes;
+        private float[] scores;
+        private int size;
+
+        Heap(int capacity, boolean lowestFirst) {
+            this.lowestFirst = lowestFirst;
+            this.nodes = new int[Math.max(capacity, 4)];
+            this.scores = new float[nodes.length];
+        }
+
+        int size() {
+            return size;
+        }
+
+        float rootScore() {
+            return scores[0];
+        }
+
+        void push(int node, float score) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(score, scores[parent])) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                scores[i] = scores[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            scores[i] = score;
+        }
+
+        int pop() {
+            int root = nodes[0];
+            int lastNode = nodes[--size];
+            float lastScore = scores[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(scores[child + 1], scores[child])) {
+                    child++;
+                }
+                if (!before(scores[child], lastScore)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                scores[i] = scores[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            scores[i] = lastScore;
+            return root;
+        }
+
+        // 크기 limit을 넘지 않게 추가 (lowestFirst 힙 전용, 같은 유사도면 상품 id가 작은 쪽을 남긴다)
+        void offerBounded(int node, float score, int limit, long[] productIds) {
+            if (size < limit) {
+                push(node, score);
+            } else if (score > scores[0] || (score == scores[0] && productIds[node] < productIds[nodes[0]])) {
+                pop();
+                push(node, score);
+            }
+        }
+
+        // 힙을 비우며 유사도 내림차순 노드 배열로 (lowestFirst 힙 전용)
+        int[] drainDescending() {
+            int[] ordered = new int[size];
+            for (int i = ordered.length - 1; i >= 0; i--) {
+                ordered[i] = pop();
+            }
+            return ordered;
+        }
+
+        // 상위 k개 (유사도 내림차순 → 상품 id 오름차순)
+        List<ProductScore> top(int k, long[] productIds) {
+            List<ProductScore> result = new ArrayList<>(size);
+            while (size > 0) {
+                float score = scores[0];
+                result.add(new ProductScore(productIds[pop()], score));
+            }
+            result.sort(Comparator.comparingDouble(ProductScore::score).reversed()
+                    .thenComparingLong(ProductScore::productId));
+            return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+        }
+
+        private boolean before(float a, float b) {
+            return lowestFirst ? a < b : a > b;
+        }
+    }
+
+    /**
+     * 방문 표시 (세대 번호가 같으면 이번 탐색에서 방문한 노드)
+     */
+    private static final class Visited {
+        private int[] marks = new int[0];
+        private int generation;
+
+        void reset(int size) {
+            if (marks.length < size) {
+                marks = new int[size + (size >> 1)];
+                generation = 0;
+            }
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        // 처음 방문이면 true
+        boolean mark(int node) {
+            if (marks[node] == generation) {
+                return false;
+            }
+            marks[node] = generation;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.commerceweb.service.recommendation;
+
+import com.commerceweb.entity.Rating;
+import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.repository.RatingRepository;
+import com.commerceweb.service.product.ProductLeaderboard;
+import com.commerceweb.service.product.ProductSort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 기본 추천 엔진 ({@value #NAME}): 협력 필터링 순위에 콘텐츠와 함께 구매 순위를 섞는다
+ * <p>
+ * ALS 모델에 사용자가 있으면 사용자 요인과 모든 상품 요인의 내적으로 순위를 매긴다.
+ * 그 다음으로 상품 유사도 모델이 준비되어 있으면 사용자가 좋게 평가한 상품들의 유사 상품 목록을 합산한다
+ * (비용은 사용자의 평가 수 × 이웃 수). 모델 빌드 전에는 아래 유사 사용자 방식으로 응답한다.
+ * 유사 사용자는 평가 행렬이 로드되어 있으면 이웃 사용자 색인에서, 아니면 DB 쿼리로 찾는다.
+ * <p>
+ * 알고리즘 (유사 사용자 방식):
+ * 1. 현재 사용자가 평가한 상품 목록 조회
+ * 2. 같은 상품을 평가한 유사 사용자 찾기
+ * 3. 유사 사용자들이 높게 평가한 상품 중 현재 사용자가 평가하지 않은 상품 추천
+ * <p>
+ * 콘텐츠 색인이 준비되어 있으면 좋아한 상품(없으면 최근 본 상품)과 내용이 비슷한 상품을 섞어
+ * 평가가 없는 새 상품도 순위에 오르게 하고, 평가가 없는 사용자는 콘텐츠 순위를 앞세운다.
+ * 마지막으로 최근 구매한 상품들과 함께 구매된 상품을 순위 기준으로 섞는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HybridRecommendationEngine implements RecommendationEngine {
+
+    public static final String NAME = "hybrid";
+
+    private final RatingRepository ratingRepository;
+    private final ProductRepository productRepository;
+    private final ProductLeaderboard leaderboard;
+    private final ItemSimilarityJob itemSimilarity;
+    private final RatingMatrix ratingMatrix;
+    private final UserNeighbourIndex neighbourIndex;
+    private final AlsModelStore alsModels;
+    private final CoPurchaseIndex coPurchases;
+    private final RecentViews recentViews;
+    private final ProductContentIndex contentIndex;
+
+    // 인기 상품 기준 평점 (findHighRatedProducts와 동일)
+    private static final double POPULAR_MIN_RATING = 4.0;
+
+    // 유사 사용자 방식에서 평점을 모으는 이웃 수
+    private static final int SIMILAR_USER_COUNT = 5;
+
+    // 순위 혼합(reciprocal rank fusion)에서 순위 차이를 완화하는 상수
+    private static final int FUSION_RANK_OFFSET = 60;
+
+    // 콘텐츠 질의에 쓰는 좋아한 상품/최근 본 상품 수와 좋아한 상품 기준 점수 (가중치 = 점수 - 3 → 4점 1, 5점 2)
+    private static final int CONTENT_PROFILE_SIZE = 20;
+    private static final int CONTENT_MIN_SCORE = 4;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * 그림자 실행처럼 트랜잭션 밖에서 불려도 DB 대체 경로가 한 트랜잭션에서 읽도록 읽기 전용 트랜잭션을 건다
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductScore> rank(long userId, int depth) {
+        log.info("🔍 추천 시스템 시작: userId={}", userId);
+        List<ProductScore> ranked = blendContent(userId, rankByRatings(userId, depth), depth);
+
+        List<ProductScore> coPurchased = coPurchases.recommend(userId, depth);
+        if (coPurchased.isEmpty() || coPurchases.blendWeight() <= 0) {
+            return ranked;
+        }
+        UserRatings rated = userRatings(userId);
+        List<ProductScore> unrated = coPurchased.stream()
+                .filter(score -> !rated.contains(score.productId()))
+                .toList();
+        List<ProductScore> blended = fuse(ranked, unrated, coPurchases.blendWeight(), depth);
+        log.info("🛒 함께 구매 상품 {}개를 섞음", unrated.size());
+        return blended;
+    }
+
+    /**
+     * 콘텐츠 기반 순위를 섞는다 (평가가 없는 사용자는 콘텐츠 순위가 먼저, 질의할 상품이 없으면 그대로)
+     */
+    private List<ProductScore> blendContent(long userId, List<ProductScore> ranked, int depth) {
+        if (!contentIndex.isReady() || contentIndex.blendWeight() <= 0) {
+            return ranked;
+        }
+        UserRatings rated = userRatings(userId);
+        List<Long> profile = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (int i = 0; i < rated.size() && profile.size() < CONTENT_PROFILE_SIZE; i++) {
+            if (rated.score(i) >= CONTENT_MIN_SCORE) {
+                profile.add(rated.productId(i));
+                weights.add((double) rated.score(i) - (CONTENT_MIN_SCORE - 1));
+            }
+        }
+        if (profile.isEmpty()) {
+            recentViews.recent(RecentViews.viewerKey(userId, null), CONTENT_PROFILE_SIZE).forEach(view -> {
+                profile.add(view.productId());
+                weights.add(1.0);
+            });
+        }
+        if (profile.isEmpty()) {
+            return ranked;
+        }
+
+        List<ProductScore> content = contentIndex.recommend(
+                profile.stream().mapToLong(Long::longValue).toArray(),
+                weights.stream().mapToDouble(Double::doubleValue).toArray(), depth).stream()
+                .filter(score -> !rated.contains(score.productId()))
+                .toList();
+        if (content.isEmpty()) {
+            return ranked;
+        }
+        if (rated.isEmpty()) {
+            log.info("📝 평가 기록 없음 → 최근 본 상품과 내용이 비슷한 상품 {}개를 앞세움", content.size());
+            return fuse(content, ranked, contentIndex.blendWeight(), depth);
+        }
+        log.info("📝 좋아한 상품과 내용이 비슷한 상품 {}개를 섞음", content.size());
+        return fuse(ranked, content, contentIndex.blendWeight(), depth);
+    }
+
+    /**
+     * 평가 기반 추천 순위 (ALS → 상품 유사도 → 유사 사용자 → 인기 상품)
+     */
+    private List<ProductScore> rankByRatings(long userId, int depth) {
+        Optional<AlsModel> als = alsModels.current().filter(candidate -> candidate.contains(userId));
+        if (als.isPresent()) {
+            List<ProductScore> scored = als.get().recommend(userId, userRatings(userId), depth);
+            if (!scored.isEmpty()) {
+                log.info("✅ 추천 완료 (ALS v{}): {} 개 상품", als.get().version(), scored.size());
+                return scored;
+            }
+        }
+
+        Optional<ItemSimilarityModel> model = itemSimilarity.current();
+        if (model.isPresent()) {
+            return rankBySimilarItems(model.get(), userId, depth);
+        }
+        if (ratingMatrix.isReady()) {
+            return rankBySimilarUsers(userId, depth);
+        }
+
+        // 1. 사용자가 평가한 상품 ID 목록
+        List<Long> ratedProductIds = ratingRepository.findRatedProductIdsByUserId(userId);
+
+        if (ratedProductIds.isEmpty()) {
+            log.info("📌 평가 기록 없음 → 인기 상품 추천");
+            return popularScores(depth);
+        }
+
+        // 2. 유사 사용자 찾기 (공통 평가 상품 개수로 유사도 측정)
+        List<Object[]> similarUsers = ratingRepository.findSimilarUsers(userId, ratedProductIds);
+
+        if (similarUsers.isEmpty()) {
+            log.info("📌 유사 사용자 없음 → 인기 상품 추천");
+            return popularScores(depth);
+        }
+
+        // 3. 유사 사용자들의 평점 수집 (상품별 합계와 개수)
+        Map<Long, double[]> productScores = new HashMap<>();
+
+        // 상위 5명의 유사 사용자만 사용
+        int similarUserCount = Math.min(SIMILAR_USER_COUNT, similarUsers.size());
+
+        for (int i = 0; i < similarUserCount; i++) {
+            Long similarUserId = (Long) similarUsers.get(i)[0];
+
+            List<Rating> ratings = ratingRepository.findByUserId(similarUserId);
+
+            for (Rating rating : ratings) {
+                Long productId = rating.getProduct().getId();
+
+                // 이미 평가한 상품은 제외
+                if (ratedProductIds.contains(productId)) {
+                    continue;
+                }
+
+                // 평균 계산 (합계/개수라 이웃을 보는 순서와 무관)
+                accumulate(productScores, productId, rating.getScore());
+            }
+        }
+
+        // 4. 점수 순으로 정렬하여 추천
+        List<ProductScore> ranked = topScores(means(productScores), depth);
+        log.info("✅ 추천 완료: {} 개 상품", ranked.size());
+        return ranked;
+    }
+
+    /**
+     * 상품 유사도 모델로 추천 (평가가 없거나 후보가 없으면 인기 상품)
+     */
+    private List<ProductScore> rankBySimilarItems(ItemSimilarityModel model, long userId, int depth) {
+        List<ProductScore> scored = model.recommend(userRatings(userId), depth);
+        if (scored.isEmpty()) {
+            log.info("📌 유사 상품 후보 없음 → 인기 상품 추천");
+            return popularScores(depth);
+        }
+        log.info("✅ 추천 완료 (상품 유사도): {} 개 상품", scored.size());
+        return scored;
+    }
+
+    /**
+     * 이웃 사용자 색인과 평가 행렬로 유사 사용자 방식 추천 (DB 조회 없음)
+     */
+    private List<ProductScore> rankBySimilarUsers(long userId, int depth) {
+        UserRatings mine = ratingMatrix.ratingsOf(userId);
+        if (mine.isEmpty()) {
+            log.info("📌 평가 기록 없음 → 인기 상품 추천");
+            return popularScores(depth);
+        }
+
+        List<UserNeighbour> neighbours = neighbourIndex.neighbours(userId, SIMILAR_USER_COUNT);
+        if (neighbours.isEmpty()) {
+            log.info("📌 유사 사용자 없음 → 인기 상품 추천");
+            return popularScores(depth);
+        }
+
+        Map<Long, double[]> productScores = new HashMap<>();
+        for (UserNeighbour neighbour : neighbours) {
+            UserRatings theirs = ratingMatrix.ratingsOf(neighbour.userId());
+            for (int i = 0; i < theirs.size(); i++) {
+                long productId = theirs.productId(i);
+                if (!mine.contains(productId)) {
+                    accumulate(productScores, productId, theirs.score(i));
+                }
+            }
+        }
+
+        List<ProductScore> ranked = topScores(means(productScores), depth);
+        log.info("✅ 추천 완료 (이웃 사용자): {} 개 상품", ranked.size());
+        return ranked;
+    }
+
+    /**
+     * 두 순위를 reciprocal rank fusion으로 합친다: 점수 = 1 / (c + 순위₁) + weight / (c + 순위₂)
+     * <p>
+     * 두 방식의 점수 척도가 달라도 순위만 쓰므로 비교할 수 있다 (같은 점수면 상품 id 오름차순).
+     */
+    static List<ProductScore> fuse(List<ProductScore> primary, List<ProductScore> secondary, double weight, int depth) {
+        Map<Long, Double> fused = new HashMap<>();
+        for (int i = 0; i < primary.size(); i++) {
+            fused.merge(primary.get(i).productId(), 1.0 / (FUSION_RANK_OFFSET + i + 1), Double::sum);
+        }
+        for (int i = 0; i < secondary.size(); i++) {
+            fused.merge(secondary.get(i).productId(), weight / (FUSION_RANK_OFFSET + i + 1), Double::sum);
+        }
+        return topScores(fused, depth);
+    }
+
+    // 상품별 {합계, 개수}에 점수 추가
+    private static void accumulate(Map<Long, double[]> sums, long productId, int score) {
+        double[] sum = sums.computeIfAbsent(productId, id -> new double[2]);
+        sum[0] += score;
+        sum[1]++;
+    }
+
+    private static Map<Long, Double> means(Map<Long, double[]> sums) {
+        Map<Long, Double> means = new HashMap<>(sums.size() * 2);
+        sums.forEach((productId, sum) -> means.put(productId, sum[0] / sum[1]));
+        return means;
+    }
+
+    // 점수 내림차순 → 상품 id 오름차순 상위 depth개
+    private static List<ProductScore> topScores(Map<Long, Double> productScores, int depth) {
+        return productScores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(depth)
+                .map(entry -> new ProductScore(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 사용자의 평가 목록 (상주 평가 행렬에서 읽고, 로드 전이면 DB 조회)
+     */
+    private UserRatings userRatings(Long userId) {
+        if (ratingMatrix.isReady()) {
+            return ratingMatrix.ratingsOf(userId);
+        }
+        List<UserRating> ratings = ratingRepository.findUserRatings(userId);
+        long[] productIds = new long[ratings.size()];
+        int[] scores = new int[ratings.size()];
+        for (int i = 0; i < ratings.size(); i++) {
+            productIds[i] = ratings.get(i).productId();
+            scores[i] = ratings.get(i).score();
+        }
+        return UserRatings.of(productIds, scores);
+    }
+
+    /**
+     * 인기 상품 순위 (점수는 평균 평점)
+     */
+    private List<ProductScore> popularScores(int limit) {
+        return leaderboard.top(ProductSort.RATING, limit, POPULAR_MIN_RATING)
+                .map(entries -> entries.stream()
+                        .map(entry -> new ProductScore(entry.productId(), entry.score()))
+                        .toList())
+                .orElseGet(() -> productRepository.findHighRatedProducts()
+                        .stream()
+                        .limit(limit)
+                        .map(product -> new ProductScore(product.getId(), product.getAverageRating()))
+                        .toList());
+    }
+}
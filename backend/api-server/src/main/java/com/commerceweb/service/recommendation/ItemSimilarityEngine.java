@@ -0,0 +1,51 @@
+package com.commerceweb.service.recommendation;
+
+import com.commerceweb.service.product.ProductLeaderboard;
+import com.commerceweb.service.product.ProductSort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 상품 유사도 모델만 쓰는 가벼운 추천 엔진 ({@value #NAME})
+ * <p>
+ * 상주 평가 행렬의 평가 목록으로 {@link ItemSimilarityModel}의 이웃만 합산하고 ALS, 콘텐츠, 함께 구매 혼합은 하지 않는다.
+ * 모델이나 평가 행렬이 준비되지 않았거나 후보가 없으면 순위표의 인기 상품으로 채운다 (DB 조회 없음).
+ * 기본 엔진({@link HybridRecommendationEngine})과 그림자 모드로 비교하기 위한 후보이다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSimilarityEngine implements RecommendationEngine {
+
+    public static final String NAME = "item-similarity";
+
+    // 인기 상품 기준 평점 (findHighRatedProducts와 동일)
+    private static final double POPULAR_MIN_RATING = 4.0;
+
+    private final ItemSimilarityJob itemSimilarity;
+    private final RatingMatrix ratingMatrix;
+    private final ProductLeaderboard leaderboard;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<ProductScore> rank(long userId, int depth) {
+        Optional<ItemSimilarityModel> model = itemSimilarity.current();
+        if (model.isPresent() && ratingMatrix.isReady()) {
+            List<ProductScore> scored = model.get().recommend(ratingMatrix.ratingsOf(userId), depth);
+            if (!scored.isEmpty()) {
+                return scored;
+            }
+        }
+        return leaderboard.top(ProductSort.RATING, depth, POPULAR_MIN_RATING)
+                .map(entries -> entries.stream()
+                        .map(entry -> new ProductScore(entry.productId(), entry.score()))
+                        .toList())
+                .orElse(List.of());
+    }
+}
@@ -0,0 +1,389 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 상품-상품 유사도 모델 빌드 작업
+ * <p>
+ * 상주 평가 행렬({@link RatingMatrix})의 스냅샷에서 사용자 평균을 뺀 점수(adjusted cosine)로
+ * 상품마다 유사도가 높은 상위 K개 상품을 fork/join으로 병렬 계산한다.
+ * 상품 i의 후보는 i를 평가한 사용자들이 평가한 상품뿐이므로 전체 상품 쌍을 비교하지 않는다.
+ * <p>
+ * 빌드는 전용 스레드에서 돌고, 끝나면 새 모델로 한 번에 교체한다. 첫 빌드가 끝나기 전에는 {@link #current()}가 비어 있다.
+ */
+@Slf4j
+@Component
+public class ItemSimilarityJob {
+
+    // 한 번에 계산하는 상품 수 (fork/join 분할 단위)
+    private static final int ITEMS_PER_TASK = 256;
+
+    private final RatingMatrix ratingMatrix;
+    private final int neighbours;
+    private final int minCoRaters;
+    private final int maxUserRatings;
+    private final ForkJoinPool pool;
+    private final ExecutorService runner;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Timer buildTimer;
+
+    private volatile ItemSimilarityModel model;
+
+    public ItemSimilarityJob(RatingMatrix ratingMatrix,
+                             MeterRegistry meterRegistry,
+                             @Value("${recommendation.similarity.neighbours:50}") int neighbours,
+                             @Value("${recommendation.similarity.min-co-raters:2}") int minCoRaters,
+                             @Value("${recommendation.similarity.max-user-ratings:1000}") int maxUserRatings,
+                             @Value("${recommendation.similarity.parallelism:0}") int parallelism) {
+        this.ratingMatrix = ratingMatrix;
+        this.neighbours = neighbours;
+        this.minCoRaters = minCoRaters;
+        this.maxUserRatings = maxUserRatings;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-similarity");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.buildTimer = meterRegistry.timer("recommendation.similarity.build");
+        Gauge.builder("recommendation.similarity.products", this,
+                job -> job.model != null ? job.model.productCount() : 0).register(meterRegistry);
+        Gauge.builder("recommendation.similarity.bytes", this,
+                job -> job.model != null ? job.model.sizeInBytes() : 0).register(meterRegistry);
+    }
+
+    /**
+     * 현재 모델 (첫 빌드 전이면 empty)
+     */
+    public Optional<ItemSimilarityModel> current() {
+        return Optional.ofNullable(model);
+    }
+
+    /**
+     * 기동 시와 주기적으로 백그라운드 재빌드 (이미 빌드 중이면 건너뜀)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${recommendation.similarity.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${recommendation.similarity.rebuild-interval-ms:3600000}")
+    public void scheduleRebuild() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        runner.execute(() -> {
+            try {
+                rebuild();
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    void rebuild() {
+        if (!ratingMatrix.isReady()) {
+            log.warn("⚠️ 평가 행렬 로드 전이라 상품 유사도 모델 빌드를 건너뜁니다");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            RatingSnapshot ratings = ratingMatrix.compactedSnapshot();
+            ItemSimilarityModel built = buildTimer.record(() ->
+                    compute(ratings, neighbours, minCoRaters, maxUserRatings, pool));
+            model = built;
+            log.info("🧮 상품 유사도 모델 빌드 완료: 평가 {}건, 상품 {}개, 이웃 {}개, {}KB ({}ms)",
+                    ratings.ratingCount(), built.productCount(), built.neighbourCount(),
+                    built.sizeInBytes() / 1024, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            // 이전 모델(없으면 기존 유사 사용자 방식)로 계속 응답한다
+            log.error("❌ 상품 유사도 모델 빌드 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 평가 행렬로 유사도 모델 계산
+     *
+     * @param neighbours     상품별로 남길 유사 상품 수 (K)
+     * @param minCoRaters    두 상품을 함께 평가한 사용자가 이보다 적으면 유사도를 두지 않는다
+     * @param maxUserRatings 평가가 이보다 많은 사용자는 계산에서 뺀다 (비용이 평가 수의 제곱으로 늘고 신호는 약하다)
+     */
+    static ItemSimilarityModel compute(RatingSnapshot ratings, int neighbours, int minCoRaters,
+                                       int maxUserRatings, ForkJoinPool pool) {
+        long[] productIds = ratings.productIds;
+        int itemCount = productIds.length;
+        int userCount = ratings.userCount();
+
+        // 사용자별/상품별 CSR (점수는 사용자 평균을 뺀 값)
+        int[] userOffsets = new int[userCount + 1];
+        int[] itemOffsets = new int[itemCount + 1];
+        for (int user = 0; user < userCount; user++) {
+            int from = ratings.userOffsets[user];
+            int to = ratings.userOffsets[user + 1];
+            if (to - from <= maxUserRatings) {
+                userOffsets[user + 1] = to - from;
+                for (int k = from; k < to; k++) {
+                    itemOffsets[ratings.items[k] + 1]++;
+                }
+            }
+        }
+        RatingSnapshot.prefixSum(userOffsets);
+        RatingSnapshot.prefixSum(itemOffsets);
+        int kept = userOffsets[userCount];
+
+        int[] userItems = new int[kept];
+        float[] userValues = new float[kept];
+        int[] itemUsers = new int[kept];
+        float[] itemValues = new float[kept];
+        int[] itemCursor = Arrays.copyOf(itemOffsets, itemCount);
+        double[] itemNorms = new double[itemCount];
+        for (int user = 0; user < userCount; user++) {
+            int from = ratings.userOffsets[user];
+            int to = ratings.userOffsets[user + 1];
+            if (to - from > maxUserRatings) {
+                continue;
+            }
+            double sum = 0;
+            for (int k = from; k < to; k++) {
+                sum += ratings.scores[k];
+            }
+            double mean = sum / (to - from);
+            int position = userOffsets[user];
+            for (int k = from; k < to; k++) {
+                int item = ratings.items[k];
+                float value = (float) (ratings.scores[k] - mean);
+                userItems[position] = item;
+                userValues[position++] = value;
+                itemUsers[itemCursor[item]] = user;
+                itemValues[itemCursor[item]++] = value;
+                itemNorms[item] += value * value;
+            }
+        }
+        for (int item = 0; item < itemCount; item++) {
+            itemNorms[item] = Math.sqrt(itemNorms[item]);
+        }
+
+        int[][] topItems = new int[itemCount][];
+        float[][] topSimilarities = new float[itemCount][];
+        // 누적 배열은 작업이 아니라 워커 스레드마다 하나씩 만든다
+        ThreadLocal<NeighbourSearch> searches = ThreadLocal.withInitial(() -> new NeighbourSearch(
+                itemCount, neighbours, minCoRaters, userOffsets, userItems, userValues,
+                itemOffsets, itemUsers, itemValues, itemNorms));
+        pool.invoke(new NeighbourTask(0, itemCount, searches, topItems, topSimilarities));
+
+        int[] offsets = new int[itemCount + 1];
+        for (int item = 0; item < itemCount; item++) {
+            offsets[item + 1] = offsets[item] + topItems[item].length;
+        }
+        int[] neighbourItems = new int[offsets[itemCount]];
+        float[] similarities = new float[offsets[itemCount]];
+        for (int item = 0; item < itemCount; item++) {
+            System.arraycopy(topItems[item], 0, neighbourItems, offsets[item], topItems[item].length);
+            System.arraycopy(topSimilarities[item], 0, similarities, offsets[item], topItems[item].length);
+        }
+        return new ItemSimilarityModel(productIds, offsets, neighbourItems, similarities);
+    }
+
+    /**
+     * 상품 구간을 반으로 나눠 병렬 계산
+     */
+    private static final class NeighbourTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final ThreadLocal<NeighbourSearch> searches;
+        private final int[][] topItems;
+        private final float[][] topSimilarities;
+
+        NeighbourTask(int from, int to, ThreadLocal<NeighbourSearch> searches,
+                      int[][] topItems, float[][] topSimilarities) {
+            this.from = from;
+            this.to = to;
+            this.searches = searches;
+            this.topItems = topItems;
+            this.topSimilarities = topSimilarities;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ITEMS_PER_TASK) {
+                searches.get().run(from, to, topItems, topSimilarities);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new NeighbourTask(from, middle, searches, topItems, topSimilarities),
+                    new NeighbourTask(middle, to, searches, topItems, topSimilarities));
+        }
+    }
+
+    /**
+     * 상품별 이웃 계산 (상품 수 크기의 누적 배열을 재사용하고, 건드린 칸만 되돌린다)
+     */
+    private static final class NeighbourSearch {
+        private final int neighbours;
+        private final int minCoRaters;
+        private final int[] userOffsets;
+        private final int[] userItems;
+        private final float[] userValues;
+        private final int[] itemOffsets;
+        private final int[] itemUsers;
+        private final float[] itemValues;
+        private final double[] itemNorms;
+
+        private final float[] dot;
+        private final int[] coRaters;
+        private final int[] touched;
+
+        // 최소 힙 (루트가 현재 K개 중 가장 낮은 유사도)
+        private final int[] heapItems;
+        private final float[] heapSimilarities;
+
+        NeighbourSearch(int itemCount, int neighbours, int minCoRaters,
+                        int[] userOffsets, int[] userItems, float[] userValues,
+                        int[] itemOffsets, int[] itemUsers, float[] itemValues, double[] itemNorms) {
+            this.neighbours = neighbours;
+            this.minCoRaters = minCoRaters;
+            this.userOffsets = userOffsets;
+            this.userItems = userItems;
+            this.userValues = userValues;
+            this.itemOffsets = itemOffsets;
+            this.itemUsers = itemUsers;
+            this.itemValues = itemValues;
+            this.itemNorms = itemNorms;
+            this.dot = new float[itemCount];
+            this.coRaters = new int[itemCount];
+            this.touched = new int[itemCount];
+            this.heapItems = new int[neighbours];
+            this.heapSimilarities = new float[neighbours];
+        }
+
+        void run(int from, int to, int[][] topItems, float[][] topSimilarities) {
+            for (int item = from; item < to; item++) {
+                int heapSize = collect(item);
+                int[] items = new int[heapSize];
+                float[] similarities = new float[heapSize];
+                // 힙에서 가장 낮은 것부터 꺼내 뒤에서부터 채운다 → 유사도 내림차순
+                for (int k = heapSize - 1; k >= 0; k--) {
+                    items[k] = heapItems[0];
+                    similarities[k] = heapSimilarities[0];
+                    heapItems[0] = heapItems[k];
+                    heapSimilarities[0] = heapSimilarities[k];
+                    siftDown(k);
+                }
+                topItems[item] = items;
+                topSimilarities[item] = similarities;
+            }
+        }
+
+        private int collect(int item) {
+            int touchedCount = 0;
+            for (int p = itemOffsets[item]; p < itemOffsets[item + 1]; p++) {
+                int user = itemUsers[p];
+                float value = itemValues[p];
+                for (int q = userOffsets[user]; q < userOffsets[user + 1]; q++) {
+                    int other = userItems[q];
+                    if (other == item) {
+                        continue;
+                    }
+                    if (coRaters[other]++ == 0) {
+                        touched[touchedCount++] = other;
+                    }
+                    dot[other] += value * userValues[q];
+                }
+            }
+
+            int heapSize = 0;
+            double norm = itemNorms[item];
+            for (int t = 0; t < touchedCount; t++) {
+                int other = touched[t];
+                if (coRaters[other] >= minCoRaters && norm > 0 && itemNorms[other] > 0) {
+                    float similarity = (float) (dot[other] / (norm * itemNorms[other]));
+                    if (similarity > 0) {
+                        heapSize = offer(heapSize, other, similarity);
+                    }
+                }
+                dot[other] = 0f;
+                coRaters[other] = 0;
+            }
+            return heapSize;
+        }
+
+        private int offer(int heapSize, int item, float similarity) {
+            if (heapSize < neighbours) {
+                int i = heapSize++;
+                heapItems[i] = item;
+                heapSimilarities[i] = similarity;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (!lower(i, parent)) {
+                        break;
+                    }
+                    swap(i, parent);
+                    i = parent;
+                }
+            } else if (neighbours > 0 && lower(heapSimilarities[0], heapItems[0], similarity, item)) {
+                heapItems[0] = item;
+                heapSimilarities[0] = similarity;
+                siftDown(heapSize);
+            }
+            return heapSize;
+        }
+
+        private void siftDown(int heapSize) {
+            int i = 0;
+            while (true) {
+                int lowest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < heapSize && lower(left, lowest)) {
+                    lowest = left;
+                }
+                if (right < heapSize && lower(right, lowest)) {
+                    lowest = right;
+                }
+                if (lowest == i) {
+                    return;
+                }
+                swap(i, lowest);
+                i = lowest;
+            }
+        }
+
+        private boolean lower(int a, int b) {
+            return lower(heapSimilarities[a], heapItems[a], heapSimilarities[b], heapItems[b]);
+        }
+
+        // 유사도가 낮거나, 같으면 상품 번호가 큰 쪽이 아래 순위 (결과가 계산 순서와 무관하게 결정적)
+        private static boolean lower(float similarityA, int itemA, float similarityB, int itemB) {
+            return similarityA != similarityB ? similarityA < similarityB : itemA > itemB;
+        }
+
+        private void swap(int a, int b) {
+            int item = heapItems[a];
+            heapItems[a] = heapItems[b];
+            heapItems[b] = item;
+            float similarity = heapSimilarities[a];
+            heapSimilarities[a] = heapSimilarities[b];
+            heapSimilarities[b] = similarity;
+        }
+    }
+}
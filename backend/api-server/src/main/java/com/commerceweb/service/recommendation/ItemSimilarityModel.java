@@ -0,0 +1,203 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 상품별 상위 K개 유사 상품 목록 (불변, CSR 형태의 원시 배열)
+ * <p>
+ * 상품 i의 이웃은 {@code neighbours[offsets[i] .. offsets[i + 1])}에 유사도 내림차순으로 들어 있고,
+ * 상품 번호는 {@code productIds}(오름차순) 안의 위치이다.
+ * <p>
+ * 사용자 추천은 사용자가 평가한 상품들의 이웃 목록을 합산하므로 비용이 (평가 수 × K)로 제한된다.
+ */
+public final class ItemSimilarityModel {
+
+    // 이 점수 이상만 "좋아한 상품"으로 보고 이웃을 합산한다 (가중치 = 점수 - 2 → 3점 1, 4점 2, 5점 3)
+    static final int MIN_LIKED_SCORE = 3;
+
+    private final long[] productIds;
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final float[] similarities;
+
+    ItemSimilarityModel(long[] productIds, int[] offsets, int[] neighbours, float[] similarities) {
+        this.productIds = productIds;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.similarities = similarities;
+    }
+
+    public int productCount() {
+        return productIds.length;
+    }
+
+    public int neighbourCount() {
+        return neighbours.length;
+    }
+
+    /**
+     * 모델 배열 크기 (바이트, 객체 헤더 제외)
+     */
+    public long sizeInBytes() {
+        return productIds.length * 8L + offsets.length * 4L + neighbours.length * 4L + similarities.length * 4L;
+    }
+
+    /**
+     * 한 상품의 유사 상품 (유사도 내림차순, 모델에 없는 상품이면 빈 목록)
+     */
+    public List<ProductScore> neighbours(long productId) {
+        int item = Arrays.binarySearch(productIds, productId);
+        if (item < 0) {
+            return List.of();
+        }
+        List<ProductScore> result = new ArrayList<>(offsets[item + 1] - offsets[item]);
+        for (int k = offsets[item]; k < offsets[item + 1]; k++) {
+            result.add(new ProductScore(productIds[neighbours[k]], similarities[k]));
+        }
+        return result;
+    }
+
+    /**
+     * 사용자가 평가한 상품들로 추천 (평가한 상품 제외, 점수 내림차순 → 상품 id 오름차순)
+     * <p>
+     * 평가 목록은 상품 id 오름차순이므로 모델 번호도 오름차순이 되어, 평가 여부를 이진 탐색으로 확인한다.
+     */
+    public List<ProductScore> recommend(UserRatings ratings, int limit) {
+        int[] rated = new int[ratings.size()];
+        int ratedCount = 0;
+        int fanOut = 0;
+        for (int i = 0; i < ratings.size(); i++) {
+            int item = Arrays.binarySearch(productIds, ratings.productId(i));
+            if (item >= 0) {
+                rated[ratedCount++] = item;
+                fanOut += offsets[item + 1] - offsets[item];
+            }
+        }
+        if (fanOut == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        ScoreTable table = new ScoreTable(fanOut);
+        for (int i = 0; i < ratings.size(); i++) {
+            int weight = ratings.score(i) - (MIN_LIKED_SCORE - 1);
+            int item = weight > 0 ? Arrays.binarySearch(productIds, ratings.productId(i)) : -1;
+            if (item < 0) {
+                continue;
+            }
+            for (int k = offsets[item]; k < offsets[item + 1]; k++) {
+                int candidate = neighbours[k];
+                if (Arrays.binarySearch(rated, 0, ratedCount, candidate) < 0) {
+                    table.add(candidate, weight * similarities[k]);
+                }
+            }
+        }
+        return table.top(limit, productIds);
+    }
+
+    /**
+     * 후보 상품 번호 → 누적 점수 (open addressing, 한 번의 추천 동안만 사용)
+     */
+    private static final class ScoreTable {
+        private final int[] keys;
+        private final float[] values;
+        private final int[] order;
+        private int size;
+
+        ScoreTable(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+            keys = new int[capacity];
+            Arrays.fill(keys, -1);
+            values = new float[capacity];
+            order = new int[expected];
+        }
+
+        void add(int key, float value) {
+            int mask = keys.length - 1;
+            int slot = (key * 0x9E3779B9) >>> 1 & mask;
+            while (keys[slot] != -1 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == -1) {
+                keys[slot] = key;
+                order[size++] = slot;
+            }
+            values[slot] += value;
+        }
+
+        /**
+         * 상위 limit개 (크기 limit의 최소 힙으로 선택한 뒤 정렬)
+         */
+        List<ProductScore> top(int limit, long[] productIds) {
+            int[] heap = new int[Math.min(limit, size)];
+            if (heap.length == 0) {
+                return List.of();
+            }
+            int heapSize = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = order[i];
+                if (heapSize < heap.length) {
+                    heap[heapSize] = slot;
+                    siftUp(heap, heapSize++);
+                } else if (ranksAbove(slot, heap[0])) {
+                    heap[0] = slot;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            List<ProductScore> result = new ArrayList<>(heapSize);
+            while (heapSize > 0) {
+                int slot = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize);
+                result.add(new ProductScore(productIds[keys[slot]], values[slot]));
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        // 점수 내림차순, 같으면 상품 번호(= id 순서) 오름차순
+        private boolean ranksAbove(int a, int b) {
+            return values[a] != values[b] ? values[a] > values[b] : keys[a] < keys[b];
+        }
+
+        private void siftUp(int[] heap, int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!ranksAbove(heap[parent], heap[i])) {
+                    return;
+                }
+                swap(heap, parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            int i = 0;
+            while (true) {
+                int lowest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < heapSize && ranksAbove(heap[lowest], heap[left])) {
+                    lowest = left;
+                }
+                if (right < heapSize && ranksAbove(heap[lowest], heap[right])) {
+                    lowest = right;
+                }
+                if (lowest == i) {
+                    return;
+                }
+                swap(heap, i, lowest);
+                i = lowest;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.commerceweb.service.recommendation;
+
+/**
+ * 주문이 생성되거나 취소(삭제)되었을 때 발행되는 이벤트
+ */
+public record OrderChangedEvent(Long orderId, Long userId, Long productId, boolean canceled) {
+}
@@ -0,0 +1,162 @@
+package com.commerceweb.service.recommendation;
+
+import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.service.product.ProductChangedEvent;
+import com.commerceweb.service.product.ProductTextDocument;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 콘텐츠 기반 추천 색인 (상품 이름/카테고리/설명의 TF-IDF 역색인)
+ * <p>
+ * 평가가 없는 사용자와 평가가 없는 새 상품도 추천할 수 있도록, 사용자가 좋게 평가했거나 최근 본 상품들의
+ * TF-IDF 벡터를 더한 질의와 코사인이 높은 상품을 {@link TfIdfIndex}에서 찾는다.
+ * 기동 시 전용 스레드에서 전체를 빌드하고, 이후에는 {@link ProductChangedEvent}로 증분 반영한다
+ * (삭제 표시가 많아지거나 상품 수가 크게 늘면 {@link SimilarProductIndex}와 같이 전용 스레드에서 색인을 다시 만들어 교체한다).
+ * 빌드가 끝나기 전({@link #isReady()}가 false)에는 추천에 섞지 않는다.
+ */
+@Slf4j
+@Component
+public class ProductContentIndex {
+
+    private final double blendWeight;
+    private final RebuildableIndex<TfIdfIndex> index;
+    private final Timer searchTimer;
+
+    public ProductContentIndex(ProductRepository productRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${recommendation.content.max-postings:5000}") int maxPostings,
+                               @Value("${recommendation.content.max-query-terms:32}") int maxQueryTerms,
+                               @Value("${recommendation.content.blend-weight:0.3}") double blendWeight) {
+        this.blendWeight = blendWeight;
+        this.index = new RebuildableIndex<>("product-content", productRepository, new RebuildableIndex.Structure<>() {
+            @Override
+            public TfIdfIndex create() {
+                return new TfIdfIndex(maxPostings, maxQueryTerms);
+            }
+
+            @Override
+            public void add(TfIdfIndex target, ProductTextDocument document) {
+                target.add(document.id(), document.name(), document.category(), document.description());
+            }
+
+            @Override
+            public void remove(TfIdfIndex target, long productId) {
+                target.remove(productId);
+            }
+
+            @Override
+            public boolean needsCompaction(TfIdfIndex content) {
+                return content.needsCompaction();
+            }
+
+            @Override
+            public Supplier<TfIdfIndex> compactor(TfIdfIndex content) {
+                return content.compactor();
+            }
+
+            @Override
+            public void finish(TfIdfIndex built) {
+                built.refreshNorms();
+            }
+        });
+        this.searchTimer = meterRegistry.timer("recommendation.content.search");
+        Gauge.builder("recommendation.content.products", index, content -> content.read(TfIdfIndex::liveCount))
+                .register(meterRegistry);
+        Gauge.builder("recommendation.content.terms", index, content -> content.read(TfIdfIndex::termCount))
+                .register(meterRegistry);
+    }
+
+    /**
+     * 기동 시 백그라운드 전체 빌드 (id 순으로 나눠 읽으며 텍스트 컬럼만 조회)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleBuild() {
+        index.scheduleBuild(this::build);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        index.shutdown();
+    }
+
+    void build() {
+        long start = System.currentTimeMillis();
+        TfIdfIndex built;
+        try {
+            built = index.loadFromDatabase();
+        } catch (RuntimeException e) {
+            log.error("❌ 콘텐츠 색인 빌드 실패 (콘텐츠 기반 추천 없이 응답): {}", e.getMessage());
+            return;
+        }
+        log.info("📝 콘텐츠 색인 빌드 완료: {}개 상품, 단어 {}개, {}ms",
+                built.liveCount(), built.termCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 주어진 문서로 색인을 채운다 (DB 없이 테스트/벤치마크에서 사용)
+     */
+    void load(Collection<ProductTextDocument> documents) {
+        index.load(documents);
+    }
+
+    /**
+     * 커밋된 상품 등록/수정/삭제를 증분 반영 (색인 재구성은 전용 스레드에서 한다)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        index.onProductChanged(event);
+    }
+
+    public boolean isReady() {
+        return index.isReady();
+    }
+
+    /**
+     * 재구성(또는 기동 빌드)이 진행 중인가
+     */
+    boolean isRebuilding() {
+        return index.isBuilding();
+    }
+
+    /**
+     * 사용자 추천에 콘텐츠 순위를 섞는 비중 (0이면 섞지 않음)
+     */
+    public double blendWeight() {
+        return blendWeight;
+    }
+
+    /**
+     * 상품과 내용이 비슷한 상품 상위 limit개 (코사인 내림차순, 빌드 전이거나 색인에 없는 상품이면 empty)
+     */
+    public Optional<List<ProductScore>> similar(long productId, int limit) {
+        if (!index.isReady()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(searchTimer.record(() -> index.read(content -> content.similar(productId, limit))));
+    }
+
+    /**
+     * 여러 상품(가중치)의 내용을 합친 질의와 비슷한 상품 상위 limit개 (질의 상품 제외, 빌드 전이면 빈 목록)
+     */
+    public List<ProductScore> recommend(long[] productIds, double[] weights, int limit) {
+        if (!index.isReady() || productIds.length == 0) {
+            return List.of();
+        }
+        return searchTimer.record(() -> index.read(content -> content.similar(productIds, weights, limit)));
+    }
+}
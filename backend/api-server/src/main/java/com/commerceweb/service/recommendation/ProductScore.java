@@ -0,0 +1,7 @@
+package com.commerceweb.service.recommendation;
+
+/**
+ * 추천 결과 1건 (score가 클수록 상위)
+ */
+public record ProductScore(long productId, double score) {
+}
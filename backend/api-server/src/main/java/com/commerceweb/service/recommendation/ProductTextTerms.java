@@ -0,0 +1,52 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.Locale;
+
+/**
+ * 상품 텍스트(이름, 카테고리, 설명)를 가중치가 붙은 단어로 나누는 토크나이저
+ * <p>
+ * 소문자로 바꾼 글자/숫자 연속을 단어로 보고, 긴 단어는 붙여 쓴 복합어("기계식키보드")도 부분 일치하도록
+ * 글자 trigram을 낮은 가중치로 함께 낸다. {@link ProductTextVectors}와 {@link TfIdfIndex}가 같은 단어를 본다.
+ */
+final class ProductTextTerms {
+
+    private static final float NAME_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float GRAM_WEIGHT = 0.5f;
+    private static final int GRAM = 3;
+
+    /**
+     * 단어 하나 (gram이면 긴 단어의 글자 trigram)
+     */
+    @FunctionalInterface
+    interface Consumer {
+        void accept(String term, boolean gram, float weight);
+    }
+
+    private ProductTextTerms() {
+    }
+
+    static void forEach(String name, String category, String description, Consumer consumer) {
+        forEach(name, NAME_WEIGHT, consumer);
+        forEach(category, CATEGORY_WEIGHT, consumer);
+        forEach(description, DESCRIPTION_WEIGHT, consumer);
+    }
+
+    private static void forEach(String text, float weight, Consumer consumer) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            consumer.accept(word, false, weight);
+            if (word.length() > GRAM) {
+                for (int i = 0; i + GRAM <= word.length(); i++) {
+                    consumer.accept(word.substring(i, i + GRAM), true, weight * GRAM_WEIGHT);
+                }
+            }
+        }
+    }
+}
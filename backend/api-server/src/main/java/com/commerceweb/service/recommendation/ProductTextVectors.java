@@ -0,0 +1,56 @@
+package com.commerceweb.service.recommendation;
+
+/**
+ * 상품 텍스트(이름, 카테고리, 설명)를 고정 차원 벡터로 바꾸는 feature hashing
+ * <p>
+ * {@link ProductTextTerms}의 단어와 긴 단어의 글자 trigram을 해시해 차원에 부호를 붙여 더하고 길이 1로 정규화한다.
+ * 사전이 필요 없으므로 상품이 등록되는 즉시(평가가 하나도 없어도) 벡터를 만들 수 있고, 두 벡터의 내적이 코사인 유사도이다.
+ */
+final class ProductTextVectors {
+
+    private ProductTextVectors() {
+    }
+
+    /**
+     * 텍스트 벡터 (단어가 하나도 없으면 null)
+     */
+    static float[] embed(String name, String category, String description, int dimensions) {
+        float[] vector = new float[dimensions];
+        ProductTextTerms.forEach(name, category, description,
+                (term, gram, weight) -> addFeature(vector, gram ? ~term.hashCode() : term.hashCode(), weight));
+
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    static float dot(float[] a, int aOffset, float[] b, int bOffset, int dimensions) {
+        float sum = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    private static void addFeature(float[] vector, int hash, float weight) {
+        long mixed = mix(hash);
+        int dimension = (int) Long.remainderUnsigned(mixed, vector.length);
+        vector[dimension] += mixed < 0 ? -weight : weight;
+    }
+
+    // 64비트 해시 혼합 (SplitMix64 마무리 단계)
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
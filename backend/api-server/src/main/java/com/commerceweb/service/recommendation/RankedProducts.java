@@ -0,0 +1,42 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 한 사용자의 추천 순위 (상품 id와 점수, 점수 내림차순)
+ *
+ * @param computedAt 계산 시각 (캐시 시계 기준 나노초)
+ */
+public record RankedProducts(long[] productIds, float[] scores, long computedAt) {
+
+    /**
+     * 추천 목록 앞에서 최대 depth개
+     */
+    static RankedProducts of(List<ProductScore> ranked, int depth, long computedAt) {
+        int size = Math.min(ranked.size(), depth);
+        long[] productIds = new long[size];
+        float[] scores = new float[size];
+        for (int i = 0; i < size; i++) {
+            productIds[i] = ranked.get(i).productId();
+            scores[i] = (float) ranked.get(i).score();
+        }
+        return new RankedProducts(productIds, scores, computedAt);
+    }
+
+    public int size() {
+        return productIds.length;
+    }
+
+    /**
+     * 상위 limit개 상품 id
+     */
+    public List<Long> head(int limit) {
+        int size = Math.max(0, Math.min(limit, productIds.length));
+        List<Long> head = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            head.add(productIds[i]);
+        }
+        return head;
+    }
+}
@@ -0,0 +1,309 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 메모리에 상주하는 사용자 × 상품 평가 행렬
+ * <p>
+ * 기동 시 평가를 id 순으로 나눠 읽어 불변 CSR 스냅샷({@link RatingSnapshot})을 만들고,
+ * 이후 평가 변경은 바뀐 사용자의 행만 새로 만들어 덮어쓰기 맵에 둔다.
+ * 덮어쓴 사용자가 많아지면 백그라운드에서 스냅샷에 합쳐 새 스냅샷으로 교체한다.
+ * 덮어쓴 사용자는 상품별로도 따로 모아 두어, 스냅샷 역색인과 함께 "이 상품을 평가한 사용자"를 답한다.
+ * <p>
+ * 로드가 끝나기 전({@link #isReady()}가 false)에는 호출자가 DB 조회로 대체해야 한다.
+ */
+@Slf4j
+@Component
+public class RatingMatrix {
+
+    private static final String LOAD_SQL =
+            "SELECT id, user_id, product_id, score FROM ratings WHERE id > ? ORDER BY id LIMIT ?";
+    private static final int LOAD_BATCH_SIZE = 50_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int compactThreshold;
+    private final ExecutorService compactor;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final Object compactLock = new Object();
+
+    // 스냅샷 이후 바뀐 사용자의 행 (스냅샷보다 우선)
+    private final Map<Long, UserRatings> changedRows = new ConcurrentHashMap<>();
+    // 상품 id → 그 상품을 평가한 덮어쓴 사용자 (changedRows와 같이 this 안에서 갱신)
+    private final Map<Long, Set<Long>> changedRaters = new ConcurrentHashMap<>();
+    private volatile RatingSnapshot snapshot = RatingSnapshot.EMPTY;
+    private volatile boolean ready;
+
+    // this로 보호
+    private List<UserRatingChangedEvent> changesDuringLoad;   // 로드 중 들어온 변경 (로드 후 재적용)
+
+    public RatingMatrix(JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${recommendation.matrix.compact-threshold:10000}") int compactThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.compactThreshold = compactThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rating-matrix-compact");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("recommendation.matrix.ratings", this, matrix -> matrix.snapshot.ratingCount())
+                .register(meterRegistry);
+        Gauge.builder("recommendation.matrix.bytes", this, RatingMatrix::sizeInBytes).register(meterRegistry);
+    }
+
+    /**
+     * 기동 시 전체 로드 (유사도 모델 빌드보다 먼저 실행)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void build() {
+        synchronized (this) {
+            changesDuringLoad = new ArrayList<>();
+        }
+        long start = System.currentTimeMillis();
+
+        RatingTriples triples = new RatingTriples(LOAD_BATCH_SIZE);
+        try {
+            long[] afterId = {0L};
+            int loaded;
+            do {
+                int before = triples.size();
+                jdbcTemplate.query(LOAD_SQL, rs -> {
+                    afterId[0] = rs.getLong(1);
+                    triples.add(rs.getLong(2), rs.getLong(3), rs.getInt(4));
+                }, afterId[0], LOAD_BATCH_SIZE);
+                loaded = triples.size() - before;
+            } while (loaded == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringLoad = null;
+            }
+            log.error("❌ 평가 행렬 로드 실패 (DB 조회로 대체): {}", e.getMessage());
+            return;
+        }
+
+        RatingSnapshot built = load(triples);
+        long bytes = built.sizeInBytes();
+        log.info("🧩 평가 행렬 로드 완료: 평가 {}건, 사용자 {}명, 상품 {}개, {}KB (평가 100만 건당 {}MB, {}ms)",
+                built.ratingCount(), built.userCount(), built.productCount(), bytes / 1024,
+                String.format("%.1f", built.ratingCount() > 0 ? bytes * 1_000_000.0 / built.ratingCount() / (1 << 20) : 0),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 주어진 평가로 행렬을 채운다 (DB 없이 테스트/벤치마크에서 사용)
+     */
+    RatingSnapshot load(RatingTriples triples) {
+        RatingSnapshot built = RatingSnapshot.build(triples);
+        synchronized (this) {
+            changedRows.clear();
+            changedRaters.clear();
+            snapshot = built;
+            ready = true;
+            if (changesDuringLoad != null) {
+                changesDuringLoad.forEach(this::apply);
+                changesDuringLoad = null;
+            }
+        }
+        built.postings();
+        return built;
+    }
+
+    /**
+     * 커밋된 평가 변경을 증분 반영 (바뀐 사용자의 행만 새로 만든다)
+     * <p>
+     * 추천 캐시 무효화보다 먼저 실행해, 무효화 직후 다시 계산한 추천이 이 변경을 보게 한다.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRatingChanged(UserRatingChangedEvent event) {
+        synchronized (this) {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(event);
+                return;
+            }
+            if (!ready) {
+                // 아직 로드 전이면 로드가 DB에서 읽는다
+                return;
+            }
+            apply(event);
+        }
+        if (changedRows.size() >= compactThreshold && compacting.compareAndSet(false, true)) {
+            compactor.execute(() -> {
+                try {
+                    compact();
+                } finally {
+                    compacting.set(false);
+                }
+            });
+        }
+    }
+
+    private void apply(UserRatingChangedEvent event) {
+        Long userId = event.userId();
+        UserRatings before = changedRows.get(userId);
+        if (before == null) {
+            // 처음 덮어쓰는 사용자: 스냅샷 역색인의 항목을 낡은 것으로 표시하고 행 전체를 상품별 목록에 올린다
+            UserRatings after = snapshot.row(userId).with(event.productId(), event.score());
+            changedRows.put(userId, after);
+            snapshot.markChanged(userId);
+            for (int i = 0; i < after.size(); i++) {
+                addRater(after.productId(i), userId);
+            }
+            return;
+        }
+        changedRows.put(userId, before.with(event.productId(), event.score()));
+        if (event.score() != null) {
+            addRater(event.productId(), userId);
+        } else {
+            removeRater(event.productId(), userId);
+        }
+    }
+
+    private void addRater(long productId, Long userId) {
+        changedRaters.computeIfAbsent(productId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+    }
+
+    private void removeRater(long productId, Long userId) {
+        changedRaters.computeIfPresent(productId, (id, users) -> {
+            users.remove(userId);
+            return users.isEmpty() ? null : users;
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 한 사용자의 평가 (상품 id 오름차순, 평가가 없으면 빈 목록)
+     */
+    public UserRatings ratingsOf(long userId) {
+        // 합치기는 스냅샷을 먼저 교체한 뒤 덮어쓴 행을 지우므로, 여기서 행이 없으면 새 스냅샷이 보인다
+        UserRatings changed = changedRows.get(userId);
+        return changed != null ? changed : snapshot.row(userId);
+    }
+
+    RatingSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 스냅샷 이후 행이 바뀐 사용자 중 이 상품을 평가한 사용자 (스냅샷 역색인에서는 이 사용자들을 건너뛴다)
+     */
+    Set<Long> changedRaters(long productId) {
+        return changedRaters.getOrDefault(productId, Set.of());
+    }
+
+    /**
+     * 이 상품을 평가한 사용자 id (스냅샷 이후 바뀐 행 포함, maxRaters명을 넘으면 null)
+     */
+    long[] raters(long productId, int maxRaters) {
+        RatingSnapshot current = snapshot;
+        Set<Long> changed = changedRaters(productId);
+        int item = current.productIndex(productId);
+        int from = 0;
+        int to = 0;
+        RatingSnapshot.Postings postings = null;
+        if (item >= 0) {
+            postings = current.postings();
+            from = postings.offsets()[item];
+            to = postings.offsets()[item + 1];
+        }
+        if (to - from + changed.size() > maxRaters) {
+            return null;
+        }
+
+        long[] raters = new long[to - from + changed.size()];
+        int count = 0;
+        for (int p = from; p < to; p++) {
+            int user = postings.users()[p];
+            // 바뀐 행의 사용자는 스냅샷 역색인 대신 changedRaters로 센다
+            if (!current.isChanged(user)) {
+                raters[count++] = current.userIds[user];
+            }
+        }
+        for (Long userId : changed) {
+            if (count == raters.length) {
+                break;
+            }
+            raters[count++] = userId;
+        }
+        return count == raters.length ? raters : Arrays.copyOf(raters, count);
+    }
+
+    /**
+     * 덮어쓴 행을 모두 합친 스냅샷 (유사도 모델 빌드 입력)
+     */
+    RatingSnapshot compactedSnapshot() {
+        compact();
+        return snapshot;
+    }
+
+    void compact() {
+        synchronized (compactLock) {
+            Map<Long, UserRatings> merging = Map.copyOf(changedRows);
+            if (merging.isEmpty()) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            RatingSnapshot merged = snapshot.merge(merging);
+            merged.postings();
+            synchronized (this) {
+                // 합치는 동안 다시 바뀐 행은 남기고, 새 스냅샷에서도 낡은 것으로 표시한 뒤 교체한다
+                changedRows.forEach((userId, row) -> {
+                    if (merging.get(userId) != row) {
+                        merged.markChanged(userId);
+                    }
+                });
+                snapshot = merged;
+                merging.forEach((userId, row) -> {
+                    if (changedRows.remove(userId, row)) {
+                        for (int i = 0; i < row.size(); i++) {
+                            removeRater(row.productId(i), userId);
+                        }
+                    }
+                });
+            }
+            log.debug("🧩 평가 행렬 합치기: 사용자 {}명 ({}ms)", merging.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 행렬 배열과 덮어쓴 행의 크기 (바이트, 객체 헤더 제외)
+     */
+    public long sizeInBytes() {
+        long bytes = snapshot.sizeInBytes();
+        for (UserRatings row : changedRows.values()) {
+            bytes += row.ownedBytes();
+        }
+        return bytes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+}
@@ -0,0 +1,260 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.LongStream;
+
+/**
+ * 사용자 × 상품 평가 행렬 (불변, 사용자별 CSR)
+ * <p>
+ * 사용자 u의 평가는 {@code items/scores[userOffsets[u] .. userOffsets[u + 1])}에 상품 번호 오름차순으로 들어 있다.
+ * 사용자/상품 번호는 각각 {@code userIds}, {@code productIds}(오름차순) 안의 위치이므로
+ * 평가 한 건은 상품 번호(int) + 점수(byte) 5바이트만 차지한다.
+ * <p>
+ * 상품별 평가 사용자 목록(역색인)은 이웃 사용자 검색이 처음 필요로 할 때 만들며 평가 한 건당 4바이트가 더 든다.
+ */
+final class RatingSnapshot {
+
+    static final RatingSnapshot EMPTY = new RatingSnapshot(new long[0], new int[1], new int[0], new byte[0], new long[0]);
+
+    final long[] userIds;
+    final int[] userOffsets;
+    final int[] items;
+    final byte[] scores;
+    final long[] productIds;
+
+    // 스냅샷 이후 행이 바뀐 사용자 (역색인에서 이 사용자의 항목은 낡았으므로 건너뛴다)
+    private final AtomicLongArray changedUsers;
+    private volatile Postings postings;
+
+    private RatingSnapshot(long[] userIds, int[] userOffsets, int[] items, byte[] scores, long[] productIds) {
+        this.userIds = userIds;
+        this.userOffsets = userOffsets;
+        this.items = items;
+        this.scores = scores;
+        this.productIds = productIds;
+        this.changedUsers = new AtomicLongArray((userIds.length + 63) >>> 6);
+    }
+
+    /**
+     * 상품별 평가 사용자 (상품 p의 사용자 번호는 {@code users[offsets[p] .. offsets[p + 1])}, 오름차순)
+     */
+    record Postings(int[] offsets, int[] users) {
+    }
+
+    /**
+     * 순서 없는 평가 목록으로 만든다 (같은 사용자/상품이 여러 번 있으면 하나만 남긴다)
+     */
+    static RatingSnapshot build(RatingTriples triples) {
+        int n = triples.size();
+        long[] productIds = distinctSorted(triples, true);
+        long[] userIds = distinctSorted(triples, false);
+        int userCount = userIds.length;
+
+        int[] userOffsets = new int[userCount + 1];
+        int[] userOf = new int[n];
+        for (int r = 0; r < n; r++) {
+            userOf[r] = Arrays.binarySearch(userIds, triples.userId(r));
+            userOffsets[userOf[r] + 1]++;
+        }
+        prefixSum(userOffsets);
+
+        // 행 안에서는 (상품 번호, 점수)를 한 long에 담아 정렬
+        long[] packed = new long[n];
+        int[] cursor = Arrays.copyOf(userOffsets, userCount);
+        for (int r = 0; r < n; r++) {
+            int item = Arrays.binarySearch(productIds, triples.productId(r));
+            packed[cursor[userOf[r]]++] = (long) item << 8 | triples.score(r);
+        }
+
+        int[] items = new int[n];
+        byte[] scores = new byte[n];
+        int size = 0;
+        int rowStart = 0;
+        for (int u = 0; u < userCount; u++) {
+            Arrays.sort(packed, userOffsets[u], userOffsets[u + 1]);
+            int start = size;
+            for (int p = rowStart; p < userOffsets[u + 1]; p++) {
+                int item = (int) (packed[p] >>> 8);
+                if (size > start && items[size - 1] == item) {
+                    continue;
+                }
+                items[size] = item;
+                scores[size++] = (byte) (packed[p] & 0xFF);
+            }
+            rowStart = userOffsets[u + 1];
+            userOffsets[u] = start;
+        }
+        userOffsets[userCount] = size;
+        return new RatingSnapshot(userIds, userOffsets,
+                size == n ? items : Arrays.copyOf(items, size), size == n ? scores : Arrays.copyOf(scores, size),
+                productIds);
+    }
+
+    /**
+     * 바뀐 사용자 행을 반영한 새 행렬 (빈 행인 사용자는 빠진다)
+     */
+    RatingSnapshot merge(Map<Long, UserRatings> changedRows) {
+        long[] changedUsers = changedRows.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] userIds = union(this.userIds, changedUsers);
+        long[] productIds = union(this.productIds, changedRows.values().stream()
+                .flatMapToLong(row -> LongStream.range(0, row.size()).map(i -> row.productId((int) i)))
+                .sorted().distinct().toArray());
+
+        int[] remap = new int[this.productIds.length];
+        for (int item = 0; item < remap.length; item++) {
+            remap[item] = Arrays.binarySearch(productIds, this.productIds[item]);
+        }
+
+        int total = 0;
+        for (long userId : userIds) {
+            total += rowLength(userId, changedRows);
+        }
+        int[] userOffsets = new int[userIds.length + 1];
+        int[] items = new int[total];
+        byte[] scores = new byte[total];
+        int users = 0;
+        int size = 0;
+        for (long userId : userIds) {
+            UserRatings changed = changedRows.get(userId);
+            int start = size;
+            if (changed != null) {
+                for (int i = 0; i < changed.size(); i++) {
+                    items[size] = Arrays.binarySearch(productIds, changed.productId(i));
+                    scores[size++] = (byte) changed.score(i);
+                }
+            } else {
+                int u = Arrays.binarySearch(this.userIds, userId);
+                for (int k = this.userOffsets[u]; k < this.userOffsets[u + 1]; k++) {
+                    items[size] = remap[this.items[k]];
+                    scores[size++] = this.scores[k];
+                }
+            }
+            if (size > start) {
+                userIds[users] = userId;
+                userOffsets[users++] = start;
+            }
+        }
+        userOffsets[users] = size;
+        return new RatingSnapshot(users == userIds.length ? userIds : Arrays.copyOf(userIds, users),
+                Arrays.copyOf(userOffsets, users + 1), items, scores, productIds);
+    }
+
+    private int rowLength(long userId, Map<Long, UserRatings> changedRows) {
+        UserRatings changed = changedRows.get(userId);
+        if (changed != null) {
+            return changed.size();
+        }
+        int u = Arrays.binarySearch(this.userIds, userId);
+        return userOffsets[u + 1] - userOffsets[u];
+    }
+
+    UserRatings row(long userId) {
+        int u = Arrays.binarySearch(userIds, userId);
+        if (u < 0) {
+            return UserRatings.EMPTY;
+        }
+        return new UserRatings(productIds, items, scores, userOffsets[u], userOffsets[u + 1]);
+    }
+
+    Postings postings() {
+        Postings built = postings;
+        if (built == null) {
+            synchronized (this) {
+                built = postings;
+                if (built == null) {
+                    built = buildPostings();
+                    postings = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    private Postings buildPostings() {
+        int[] offsets = new int[productIds.length + 1];
+        for (int item : items) {
+            offsets[item + 1]++;
+        }
+        prefixSum(offsets);
+        int[] users = new int[items.length];
+        int[] cursor = Arrays.copyOf(offsets, productIds.length);
+        for (int u = 0; u < userIds.length; u++) {
+            for (int k = userOffsets[u]; k < userOffsets[u + 1]; k++) {
+                users[cursor[items[k]]++] = u;
+            }
+        }
+        return new Postings(offsets, users);
+    }
+
+    void markChanged(long userId) {
+        int u = Arrays.binarySearch(userIds, userId);
+        if (u >= 0) {
+            changedUsers.getAndUpdate(u >>> 6, word -> word | 1L << u);
+        }
+    }
+
+    boolean isChanged(int u) {
+        return (changedUsers.get(u >>> 6) & 1L << u) != 0;
+    }
+
+    int userIndex(long userId) {
+        return Arrays.binarySearch(userIds, userId);
+    }
+
+    int productIndex(long productId) {
+        return Arrays.binarySearch(productIds, productId);
+    }
+
+    int userCount() {
+        return userIds.length;
+    }
+
+    int productCount() {
+        return productIds.length;
+    }
+
+    int ratingCount() {
+        return items.length;
+    }
+
+    /**
+     * 배열 크기 (바이트, 객체 헤더 제외)
+     */
+    long sizeInBytes() {
+        Postings built = postings;
+        long postingBytes = built != null ? built.offsets().length * 4L + built.users().length * 4L : 0L;
+        return userIds.length * 8L + userOffsets.length * 4L + items.length * 5L + productIds.length * 8L
+                + changedUsers.length() * 8L + postingBytes;
+    }
+
+    private static long[] distinctSorted(RatingTriples triples, boolean products) {
+        long[] ids = new long[triples.size()];
+        for (int r = 0; r < ids.length; r++) {
+            ids[r] = products ? triples.productId(r) : triples.userId(r);
+        }
+        return Arrays.stream(ids).sorted().distinct().toArray();
+    }
+
+    // 두 오름차순 배열의 합집합 (중복 제거)
+    private static long[] union(long[] a, long[] b) {
+        long[] result = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length || j < b.length) {
+            long next = j == b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+            if (size == 0 || result[size - 1] != next) {
+                result[size++] = next;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    static void prefixSum(int[] offsets) {
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * (사용자, 상품, 점수) 평가 목록을 원시 배열로 모으는 버퍼 (행마다 객체를 만들지 않는다)
+ */
+final class RatingTriples {
+
+    private long[] userIds;
+    private long[] productIds;
+    private byte[] scores;
+    private int size;
+
+    RatingTriples(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        this.userIds = new long[capacity];
+        this.productIds = new long[capacity];
+        this.scores = new byte[capacity];
+    }
+
+    void add(long userId, long productId, int score) {
+        if (size == userIds.length) {
+            int capacity = userIds.length + (userIds.length >> 1);
+            userIds = Arrays.copyOf(userIds, capacity);
+            productIds = Arrays.copyOf(productIds, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+        }
+        userIds[size] = userId;
+        productIds[size] = productId;
+        scores[size] = (byte) score;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long userId(int i) {
+        return userIds[i];
+    }
+
+    long productId(int i) {
+        return productIds[i];
+    }
+
+    int score(int i) {
+        return scores[i];
+    }
+}
@@ -0,0 +1,210 @@
+package com.commerceweb.service.recommendation;
+
+import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.service.product.ProductChangedEvent;
+import com.commerceweb.service.product.ProductTextDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 상품 텍스트로 만드는 메모리 색인의 빌드/증분 반영/재구성을 맡는 보관소
+ * <p>
+ * 전체 빌드와 재구성(삭제 표시 정리)은 전용 스레드에서 락 없이 새 색인을 만들고, 그동안 들어온 상품 변경을
+ * 모아 두었다가 쓰기 락 안에서 새 색인에 다시 적용한 뒤 교체한다. 재구성 중에도 변경은 현재 색인에 바로
+ * 반영되므로 읽기와 상품 수정 요청은 재구성을 기다리지 않는다.
+ */
+@Slf4j
+final class RebuildableIndex<T> {
+
+    private static final int LOAD_BATCH_SIZE = 5_000;
+
+    /**
+     * 색인 자료구조별 동작 (동기화는 이 클래스가 한다)
+     */
+    interface Structure<T> {
+
+        T create();
+
+        void add(T target, ProductTextDocument document);
+
+        void remove(T target, long productId);
+
+        boolean needsCompaction(T index);
+
+        /**
+         * 락 안에서 살아 있는 항목을 복사하고, 락 밖에서 새 색인을 만드는 작업을 돌려준다
+         */
+        Supplier<T> compactor(T index);
+
+        /**
+         * 새로 만든 색인을 교체하기 전 마무리 (락 밖)
+         */
+        default void finish(T built) {
+        }
+    }
+
+    private final String name;
+    private final ProductRepository productRepository;
+    private final Structure<T> structure;
+    private final ExecutorService runner;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // lock으로 보호
+    private T index;
+    private List<ProductChangedEvent> changesDuringBuild;   // 빌드/재구성 중 들어온 변경 (교체 전 재적용)
+    private volatile boolean ready;
+
+    RebuildableIndex(String name, ProductRepository productRepository, Structure<T> structure) {
+        this.name = name;
+        this.productRepository = productRepository;
+        this.structure = structure;
+        this.index = structure.create();
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-build");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 전용 스레드에서 전체 빌드를 예약 (빌드 작업은 {@link #loadFromDatabase()}를 부른다)
+     */
+    void scheduleBuild(Runnable build) {
+        write(() -> changesDuringBuild = new ArrayList<>());
+        runner.execute(build);
+    }
+
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * id 순으로 나눠 읽으며 텍스트 컬럼만 조회해 새 색인을 만들고 교체 (실패하면 모아 둔 변경을 버리고 예외)
+     */
+    T loadFromDatabase() {
+        T built = structure.create();
+        try {
+            long afterId = 0L;
+            List<ProductTextDocument> batch;
+            do {
+                batch = productRepository.findTextDocuments(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                batch.forEach(document -> add(built, document));
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            write(() -> changesDuringBuild = null);
+            throw e;
+        }
+        install(built);
+        return built;
+    }
+
+    /**
+     * 주어진 문서로 색인을 채운다 (DB 없이 테스트/벤치마크에서 사용)
+     */
+    void load(Collection<ProductTextDocument> documents) {
+        T built = structure.create();
+        documents.forEach(document -> add(built, document));
+        install(built);
+    }
+
+    private void install(T built) {
+        structure.finish(built);
+        write(() -> {
+            if (changesDuringBuild != null) {
+                changesDuringBuild.forEach(event -> apply(built, event));
+                changesDuringBuild = null;
+            }
+            index = built;
+            ready = true;
+        });
+    }
+
+    /**
+     * 상품 변경을 반영하고, 삭제 표시가 많아졌으면 재구성을 예약
+     */
+    void onProductChanged(ProductChangedEvent event) {
+        write(() -> {
+            if (changesDuringBuild != null) {
+                changesDuringBuild.add(event);
+            }
+            if (!ready) {
+                return;
+            }
+            apply(index, event);
+            if (changesDuringBuild == null && structure.needsCompaction(index)) {
+                Supplier<T> compactor = structure.compactor(index);
+                changesDuringBuild = new ArrayList<>();
+                runner.execute(() -> compact(compactor));
+            }
+        });
+    }
+
+    private void compact(Supplier<T> compactor) {
+        long start = System.currentTimeMillis();
+        T compacted;
+        try {
+            compacted = compactor.get();
+        } catch (RuntimeException e) {
+            write(() -> changesDuringBuild = null);
+            log.warn("⚠️ {} 재구성 실패 (기존 색인 유지): {}", name, e.getMessage());
+            return;
+        }
+        install(compacted);
+        log.info("🧹 {} 재구성 완료: {}ms", name, System.currentTimeMillis() - start);
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 빌드/재구성이 진행 중인가
+     */
+    boolean isBuilding() {
+        return read(current -> changesDuringBuild != null);
+    }
+
+    <R> R read(Function<T, R> action) {
+        lock.readLock().lock();
+        try {
+            return action.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(T target, ProductChangedEvent event) {
+        if (event.deleted()) {
+            structure.remove(target, event.productId());
+        } else {
+            add(target, ProductTextDocument.from(event));
+        }
+    }
+
+    private void add(T target, ProductTextDocument document) {
+        if (document.id() != null) {
+            structure.add(target, document);
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
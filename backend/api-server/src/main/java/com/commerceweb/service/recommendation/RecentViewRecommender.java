@@ -0,0 +1,89 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 최근 본 상품으로 실시간 추천 (상품 간 유사도, 평가 기록 없음)
+ * <p>
+ * 방문자의 최근 {@code lookback}개 조회마다 유사 상품 목록을 가져와 유사도 × 최근성 가중치로 합산한다.
+ * 가중치는 조회 후 {@code half-life-minutes}가 지날 때마다 절반이 된다. 유사 상품은 평가 기반
+ * {@link ItemSimilarityModel}에서 먼저 찾고, 모델에 없는 상품(평가가 적은 새 상품 등)은 이름/설명 기반
+ * {@link SimilarProductIndex}에서 찾는다. 비용은 (lookback × 이웃 수)로 제한되고 DB를 조회하지 않는다.
+ */
+@Component
+public class RecentViewRecommender {
+
+    // 조회한 상품 하나에서 가져올 텍스트 유사 상품 수 (상품 유사도 모델의 이웃 수와 비슷하게)
+    private static final int TEXT_NEIGHBOURS = 20;
+
+    private final RecentViews recentViews;
+    private final ItemSimilarityJob itemSimilarity;
+    private final SimilarProductIndex similarProducts;
+    private final int lookback;
+    private final double halfLifeMillis;
+    private final Timer recommendTimer;
+
+    public RecentViewRecommender(RecentViews recentViews,
+                                 ItemSimilarityJob itemSimilarity,
+                                 SimilarProductIndex similarProducts,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${recommendation.recent-views.lookback:10}") int lookback,
+                                 @Value("${recommendation.recent-views.half-life-minutes:30}") double halfLifeMinutes) {
+        this.recentViews = recentViews;
+        this.itemSimilarity = itemSimilarity;
+        this.similarProducts = similarProducts;
+        this.lookback = Math.max(lookback, 1);
+        this.halfLifeMillis = Math.max(halfLifeMinutes, 0.01) * 60_000;
+        this.recommendTimer = meterRegistry.timer("recommendation.recent-views.recommend");
+    }
+
+    /**
+     * 방문자의 최근 조회 기반 추천 상위 limit개 (본 상품 제외, 점수 내림차순 → 상품 id 오름차순)
+     * <p>
+     * 조회 기록이 없거나 유사 상품을 찾지 못하면 빈 목록이다.
+     */
+    public List<ProductScore> recommend(String viewer, int limit) {
+        if (viewer == null || limit <= 0) {
+            return List.of();
+        }
+        return recommendTimer.record(() -> score(recentViews.recent(viewer, lookback), limit));
+    }
+
+    private List<ProductScore> score(List<RecentViews.RecentView> views, int limit) {
+        if (views.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> viewed = new HashSet<>(views.size() * 2);
+        views.forEach(view -> viewed.add(view.productId()));
+
+        Optional<ItemSimilarityModel> model = itemSimilarity.current();
+        long now = recentViews.now();
+        Map<Long, Double> scores = new HashMap<>();
+        for (RecentViews.RecentView view : views) {
+            double weight = Math.pow(0.5, Math.max(now - view.viewedAtMillis(), 0) / halfLifeMillis);
+            for (ProductScore neighbour : neighbours(model, view.productId())) {
+                if (!viewed.contains(neighbour.productId())) {
+                    scores.merge(neighbour.productId(), weight * neighbour.score(), Double::sum);
+                }
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> new ProductScore(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private List<ProductScore> neighbours(Optional<ItemSimilarityModel> model, long productId) {
+        List<ProductScore> neighbours = model.map(candidate -> candidate.neighbours(productId)).orElse(List.of());
+        if (!neighbours.isEmpty()) {
+            return neighbours;
+        }
+        return similarProducts.similar(productId, TEXT_NEIGHBOURS).orElse(List.of());
+    }
+}
@@ -0,0 +1,144 @@
+package com.commerceweb.service.recommendation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * 사용자/세션별 최근 본 상품 (상품 상세 조회 스트림)
+ * <p>
+ * 방문자마다 {@code size}칸짜리 고정 링 버퍼에 (상품 id, 조회 시각)을 덮어쓰므로 방문자 한 명의 메모리는
+ * 조회 수와 무관하고, 방문자 수는 Caffeine의 {@code max-viewers} 상한과 마지막 조회 후 {@code expire-minutes}
+ * 만료로 제한된다. 기록은 칸 번호를 원자적으로 하나 늘리고 두 칸을 쓰는 것이 전부라 상세 조회 경로에서
+ * 락을 잡지 않는다 (같은 방문자의 동시 조회가 겹치면 읽는 쪽이 잠깐 어긋난 칸을 볼 수 있지만 추천에는 무해하다).
+ * <p>
+ * 방문자 키는 로그인 사용자면 {@code u:<userId>}, 아니면 클라이언트가 보낸 세션 id로 {@code s:<sessionId>}이다.
+ */
+@Component
+public class RecentViews {
+
+    private static final String CACHE_NAME = "recentViews";
+    private static final int MAX_SESSION_ID_LENGTH = 64;
+    private static final Pattern SESSION_ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final int size;
+    private final LongSupplier clock;
+    private final Cache<String, ViewRing> viewers;
+    private final Counter recorded;
+
+    public RecentViews(MeterRegistry meterRegistry,
+                       @Value("${recommendation.recent-views.size:20}") int size,
+                       @Value("${recommendation.recent-views.max-viewers:50000}") long maxViewers,
+                       @Value("${recommendation.recent-views.expire-minutes:30}") long expireMinutes) {
+        this(meterRegistry, size, maxViewers, expireMinutes, System::currentTimeMillis);
+    }
+
+    RecentViews(MeterRegistry meterRegistry, int size, long maxViewers, long expireMinutes, LongSupplier clock) {
+        this.size = Math.max(size, 1);
+        this.clock = clock;
+        this.viewers = Caffeine.newBuilder()
+                .maximumSize(maxViewers)
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, viewers, CACHE_NAME);
+        this.recorded = meterRegistry.counter("recommendation.recent-views.recorded");
+    }
+
+    /**
+     * 방문자 키 (로그인 사용자 우선, 세션 id는 형식이 맞을 때만 쓰고 둘 다 없으면 null)
+     */
+    public static String viewerKey(Long userId, String sessionId) {
+        if (userId != null) {
+            return "u:" + userId;
+        }
+        if (sessionId == null || sessionId.isEmpty() || sessionId.length() > MAX_SESSION_ID_LENGTH
+                || !SESSION_ID.matcher(sessionId).matches()) {
+            return null;
+        }
+        return "s:" + sessionId;
+    }
+
+    /**
+     * 상품 조회 기록 (직전에 본 상품을 다시 보면 새 칸을 쓰지 않고 시각만 갱신)
+     */
+    public void record(String viewer, long productId) {
+        viewers.get(viewer, key -> new ViewRing(size)).add(productId, clock.getAsLong());
+        recorded.increment();
+    }
+
+    /**
+     * 최근 본 상품 최대 limit개 (최근 순, 같은 상품은 마지막 조회 한 번만)
+     */
+    public List<RecentView> recent(String viewer, int limit) {
+        ViewRing ring = viewers.getIfPresent(viewer);
+        return ring != null ? ring.snapshot(limit) : List.of();
+    }
+
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * 최근 본 상품 하나
+     */
+    public record RecentView(long productId, long viewedAtMillis) {
+    }
+
+    /**
+     * 고정 크기 링 버퍼 (cursor는 지금까지 쓴 칸 수, 빈 칸은 상품 id 0)
+     */
+    private static final class ViewRing {
+        private final AtomicLongArray products;
+        private final AtomicLongArray times;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        ViewRing(int size) {
+            this.products = new AtomicLongArray(size);
+            this.times = new AtomicLongArray(size);
+        }
+
+        void add(long productId, long now) {
+            int last = cursor.get() - 1;
+            if (last >= 0 && products.get(slot(last)) == productId) {
+                times.set(slot(last), now);
+                return;
+            }
+            int slot = slot(cursor.getAndIncrement());
+            products.set(slot, productId);
+            times.set(slot, now);
+        }
+
+        List<RecentView> snapshot(int limit) {
+            int end = cursor.get();
+            int count = Math.min(end, products.length());
+            List<RecentView> views = new ArrayList<>(Math.min(count, Math.max(limit, 0)));
+            Set<Long> seen = new HashSet<>();
+            for (int i = end - 1; i >= end - count && views.size() < limit; i--) {
+                long productId = products.get(slot(i));
+                if (productId != 0 && seen.add(productId)) {
+                    views.add(new RecentView(productId, times.get(slot(i))));
+                }
+            }
+            return views;
+        }
+
+        private int slot(int position) {
+            return Math.floorMod(position, products.length());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.commerceweb.service.recommendation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * 사용자별 추천 순위 캐시 (노드별 Caffeine, 상품 id와 점수만 저장)
+ * <p>
+ * 사용자마다 상위 {@value #DEPTH}개를 한 번 계산해 두고, 요청한 개수만큼 앞에서 잘라 돌려준다.
+ * 같은 사용자의 동시 미스는 한 번만 계산하고 나머지는 그 결과를 기다린다.
+ * 계산한 지 refresh-seconds가 지난 항목은 기존 값을 바로 돌려주면서 백그라운드에서 한 번 다시 계산한다.
+ * <p>
+ * 평가가 바뀌면 그 사용자 항목을 지우고 Redis pub/sub으로 다른 노드에도 지우게 한다.
+ */
+@Slf4j
+@Component
+public class RecommendationCache {
+
+    public static final String INVALIDATION_CHANNEL = "recommendation-cache:invalidate";
+
+    // 사용자마다 미리 계산해 두는 순위 수 (요청 개수의 상한)
+    public static final int DEPTH = 100;
+
+    private static final String CACHE_NAME = "recommendations";
+
+    private final Cache<Long, RankedProducts> entries;
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final StringRedisTemplate redisTemplate;
+    private final Executor refresher;
+    private final LongSupplier clock;
+    private final long refreshAfterNanos;
+    private final Counter refreshes;
+
+    @Autowired
+    public RecommendationCache(StringRedisTemplate redisTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${recommendation.cache.max-size:100000}") long maxSize,
+                               @Value("${recommendation.cache.expire-seconds:1800}") long expireSeconds,
+                               @Value("${recommendation.cache.refresh-seconds:300}") long refreshSeconds) {
+        this(redisTemplate, meterRegistry, maxSize, expireSeconds, refreshSeconds,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "recommendation-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }), System::nanoTime);
+    }
+
+    RecommendationCache(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+                        long maxSize, long expireSeconds, long refreshSeconds,
+                        Executor refresher, LongSupplier clock) {
+        this.redisTemplate = redisTemplate;
+        this.refresher = refresher;
+        this.clock = clock;
+        this.refreshAfterNanos = Duration.ofSeconds(refreshSeconds).toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(expireSeconds))
+                .ticker(clock::getAsLong)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME);
+        this.refreshes = meterRegistry.counter("recommendation.cache.refreshes");
+    }
+
+    /**
+     * 사용자의 추천 상품 id 상위 limit개 (없으면 ranker로 상위 {@value #DEPTH}개를 계산해 저장)
+     *
+     * @param ranker 사용자 id → 점수 내림차순 추천 목록
+     */
+    public List<Long> get(long userId, int limit, LongFunction<List<ProductScore>> ranker) {
+        RankedProducts ranked = entries.get(userId, id -> rank(id, ranker));
+        if (clock.getAsLong() - ranked.computedAt() >= refreshAfterNanos) {
+            refreshAhead(userId, ranked, ranker);
+        }
+        return ranked.head(limit);
+    }
+
+    private void refreshAhead(long userId, RankedProducts stale, LongFunction<List<ProductScore>> ranker) {
+        if (!refreshing.add(userId)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    // 그 사이 무효화되었으면(항목이 바뀌었으면) 덮어쓰지 않는다
+                    entries.asMap().replace(userId, stale, rank(userId, ranker));
+                    refreshes.increment();
+                } catch (RuntimeException e) {
+                    log.warn("⚠️ 추천 미리 갱신 실패 (userId={}): {}", userId, e.getMessage());
+                } finally {
+                    refreshing.remove(userId);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(userId);
+            log.warn("⚠️ 추천 미리 갱신 예약 실패 (userId={}): {}", userId, e.getMessage());
+        }
+    }
+
+    private RankedProducts rank(long userId, LongFunction<List<ProductScore>> ranker) {
+        return RankedProducts.of(ranker.apply(userId), DEPTH, clock.getAsLong());
+    }
+
+    /**
+     * 이 사용자의 순위가 캐시에 있는지
+     */
+    public boolean contains(long userId) {
+        return entries.getIfPresent(userId) != null;
+    }
+
+    /**
+     * 캐시에 있는 사용자의 순위를 지금 다시 계산해 바꾼다 (없거나 계산 중 무효화되었으면 false)
+     */
+    public boolean recompute(long userId, LongFunction<List<ProductScore>> ranker) {
+        RankedProducts current = entries.getIfPresent(userId);
+        return current != null && entries.asMap().replace(userId, current, rank(userId, ranker));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(UserRatingChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    /**
+     * 로컬에서 지우고 다른 노드에 무효화 메시지 발행
+     */
+    public void invalidate(Long userId) {
+        entries.invalidate(userId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId.toString());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 추천 캐시 무효화 전파 실패 (userId={}): {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Redis pub/sub으로 받은 무효화 메시지 처리 (자기 자신이 보낸 메시지도 받지만 로컬 삭제만 하므로 무해)
+     */
+    public void onInvalidationMessage(String payload) {
+        try {
+            entries.invalidate(Long.valueOf(payload));
+        } catch (NumberFormatException e) {
+            log.warn("⚠️ 잘못된 추천 캐시 무효화 메시지: {}", payload);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.List;
+
+/**
+ * 추천 엔진 SPI: 사용자 한 명의 추천 순위를 계산하는 알고리즘 하나
+ * <p>
+ * 구현체를 빈으로 등록하면 {@link RecommendationEngines}가 이름으로 찾아
+ * {@code recommendation.engine.primary}(응답에 쓰는 엔진)나 {@code recommendation.engine.shadow}(비교용으로
+ * 표본 요청에만 백그라운드에서 돌리는 엔진)로 쓴다. 캐시는 거치지 않는다.
+ */
+public interface RecommendationEngine {
+
+    /**
+     * 설정과 지표 태그에 쓰는 엔진 이름
+     */
+    String name();
+
+    /**
+     * 추천 순위 상위 depth개 (점수 내림차순, 후보가 없으면 엔진이 알아서 인기 상품 등으로 채운다)
+     */
+    List<ProductScore> rank(long userId, int depth);
+}
@@ -0,0 +1,154 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.DoubleSupplier;
+
+/**
+ * 설정으로 고른 주 추천 엔진으로 순위를 계산하고, 후보 엔진을 그림자 모드로 비교한다
+ * <p>
+ * {@code recommendation.engine.primary} 엔진의 결과만 응답(캐시)에 쓴다. {@code recommendation.engine.shadow}를
+ * 지정하면 순위 계산 중 {@code shadow-sample-rate} 비율만 골라 같은 사용자를 후보 엔진으로도 계산하는데,
+ * 응답 경로를 막지 않도록 전용 스레드의 제한된 큐에 넘기고 큐가 차면 버린다.
+ * <p>
+ * 엔진별 지연은 {@code recommendation.engine.latency} 히스토그램(engine, role 태그)에, 두 결과 상위
+ * {@value #OVERLAP_DEPTH}개가 겹치는 비율은 {@code recommendation.engine.shadow.overlap}에 남기므로
+ * 지표를 보고 주 엔진을 바꿀 수 있다.
+ */
+@Slf4j
+@Component
+public class RecommendationEngines implements RecommendationRanker {
+
+    // 결과 겹침을 비교하는 상위 개수 (화면에 보이는 추천 수 수준)
+    static final int OVERLAP_DEPTH = 10;
+
+    private final RecommendationEngine primary;
+    private final RecommendationEngine shadow;
+    private final double shadowSampleRate;
+    private final Executor shadowRunner;
+    private final DoubleSupplier sampler;
+    private final Timer primaryTimer;
+    private final Timer shadowTimer;
+    private final DistributionSummary overlap;
+    private final Counter shadowDropped;
+    private final Counter shadowErrors;
+
+    public RecommendationEngines(List<RecommendationEngine> engines,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${recommendation.engine.primary:hybrid}") String primary,
+                                 @Value("${recommendation.engine.shadow:}") String shadow,
+                                 @Value("${recommendation.engine.shadow-sample-rate:0.05}") double shadowSampleRate,
+                                 @Value("${recommendation.engine.shadow-queue-size:100}") int shadowQueueSize) {
+        this(engines, meterRegistry, primary, shadow, shadowSampleRate,
+                new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(Math.max(shadowQueueSize, 1)), runnable -> {
+                    Thread thread = new Thread(runnable, "recommendation-shadow");
+                    thread.setDaemon(true);
+                    return thread;
+                }), () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RecommendationEngines(List<RecommendationEngine> engines, MeterRegistry meterRegistry, String primary,
+                          String shadow, double shadowSampleRate, Executor shadowRunner, DoubleSupplier sampler) {
+        Map<String, RecommendationEngine> byName = new HashMap<>();
+        for (RecommendationEngine engine : engines) {
+            if (byName.put(engine.name(), engine) != null) {
+                throw new IllegalStateException("추천 엔진 이름이 중복됩니다: " + engine.name());
+            }
+        }
+        this.primary = find(byName, primary);
+        this.shadow = shadow == null || shadow.isBlank() ? null : find(byName, shadow);
+        if (this.shadow == this.primary) {
+            throw new IllegalStateException("그림자 엔진은 주 엔진과 달라야 합니다: " + shadow);
+        }
+        this.shadowSampleRate = this.shadow != null ? shadowSampleRate : 0;
+        this.shadowRunner = shadowRunner;
+        this.sampler = sampler;
+
+        this.primaryTimer = latencyTimer(meterRegistry, this.primary, "primary");
+        this.shadowTimer = this.shadow != null ? latencyTimer(meterRegistry, this.shadow, "shadow") : null;
+        this.overlap = DistributionSummary.builder("recommendation.engine.shadow.overlap")
+                .tag("primary", this.primary.name())
+                .tag("shadow", this.shadow != null ? this.shadow.name() : "none")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.shadowDropped = meterRegistry.counter("recommendation.engine.shadow.dropped");
+        this.shadowErrors = meterRegistry.counter("recommendation.engine.shadow.errors");
+        log.info("🧩 추천 엔진: 주 엔진 {}, 그림자 엔진 {} (표본 비율 {})", this.primary.name(),
+                this.shadow != null ? this.shadow.name() : "없음", this.shadowSampleRate);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (shadowRunner instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 주 엔진의 추천 순위 상위 {@link RecommendationCache#DEPTH}개 (표본 요청이면 그림자 비교를 예약)
+     */
+    @Override
+    public List<ProductScore> rank(long userId) {
+        List<ProductScore> ranked = primaryTimer.record(() -> primary.rank(userId, RecommendationCache.DEPTH));
+        if (shadowSampleRate > 0 && sampler.getAsDouble() < shadowSampleRate) {
+            try {
+                shadowRunner.execute(() -> compare(userId, ranked));
+            } catch (RejectedExecutionException e) {
+                shadowDropped.increment();
+            }
+        }
+        return ranked;
+    }
+
+    private void compare(long userId, List<ProductScore> primaryRanked) {
+        List<ProductScore> shadowRanked;
+        try {
+            shadowRanked = shadowTimer.record(() -> shadow.rank(userId, RecommendationCache.DEPTH));
+        } catch (RuntimeException e) {
+            shadowErrors.increment();
+            log.warn("⚠️ 그림자 추천 엔진 실패 (engine={}, userId={}): {}", shadow.name(), userId, e.getMessage());
+            return;
+        }
+        int depth = Math.min(OVERLAP_DEPTH, primaryRanked.size());
+        if (depth > 0) {
+            overlap.record(overlap(primaryRanked, shadowRanked, depth));
+        }
+    }
+
+    /**
+     * 두 순위의 상위 depth개 중 겹치는 상품 비율 (0 ~ 1)
+     */
+    static double overlap(List<ProductScore> primary, List<ProductScore> shadow, int depth) {
+        Set<Long> top = new HashSet<>();
+        primary.stream().limit(depth).forEach(score -> top.add(score.productId()));
+        long shared = shadow.stream().limit(depth).filter(score -> top.contains(score.productId())).count();
+        return (double) shared / depth;
+    }
+
+    private static RecommendationEngine find(Map<String, RecommendationEngine> engines, String name) {
+        RecommendationEngine engine = engines.get(name);
+        if (engine == null) {
+            throw new IllegalStateException(
+                    "알 수 없는 추천 엔진: " + name + " (사용 가능: " + new TreeSet<>(engines.keySet()) + ")");
+        }
+        return engine;
+    }
+
+    private static Timer latencyTimer(MeterRegistry meterRegistry, RecommendationEngine engine, String role) {
+        return Timer.builder("recommendation.engine.latency")
+                .tag("engine", engine.name())
+                .tag("role", role)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
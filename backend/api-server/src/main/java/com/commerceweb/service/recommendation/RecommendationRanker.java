@@ -0,0 +1,17 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.List;
+
+/**
+ * 사용자 한 명의 추천 순위 계산 (캐시를 거치지 않는다)
+ * <p>
+ * {@link RecommendationRecomputer}가 캐시된 순위를 백그라운드에서 다시 계산할 때 쓴다.
+ */
+@FunctionalInterface
+public interface RecommendationRanker {
+
+    /**
+     * 추천 순위 상위 {@link RecommendationCache#DEPTH}개 (점수 내림차순)
+     */
+    List<ProductScore> rank(long userId);
+}
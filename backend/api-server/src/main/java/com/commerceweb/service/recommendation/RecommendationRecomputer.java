@@ -0,0 +1,185 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 다른 사용자의 평가로 영향을 받은 사용자의 캐시된 추천을 백그라운드에서 다시 계산한다
+ * <p>
+ * 평가한 본인의 캐시는 {@link RecommendationCache}가 바로 지우지만, 같은 상품을 평가한 사용자들은
+ * 이웃/유사 상품이 바뀌어도 refresh-seconds가 지날 때까지 예전 순위를 받는다. 그래서 평가 이벤트로
+ * 바뀐 상품을 모아 두었다가(dirty set), 주기마다 그 상품의 평가자 중 캐시에 순위가 있는 사용자만 골라
+ * 한 번씩 다시 계산한다. 평가자가 {@code max-fan-out}명을 넘는 인기 상품은 평가 하나로 순위가 거의
+ * 바뀌지 않으므로 펼치지 않고 미리 갱신에 맡긴다.
+ * <p>
+ * 다시 계산은 batch-size명씩 전용 풀에서 병렬로 하고, 배치 사이에 쉬어 계산 스레드가 바쁜 시간의 비율을
+ * {@code cpu-budget} 이하로 유지한다 (요청 처리 스레드와 CPU를 나눠 쓰기 위함).
+ */
+@Slf4j
+@Component
+public class RecommendationRecomputer {
+
+    private final RatingMatrix ratingMatrix;
+    private final RecommendationCache recommendationCache;
+    private final RecommendationRanker ranker;
+    private final boolean enabled;
+    private final int maxFanOut;
+    private final int batchSize;
+    private final double cpuBudget;
+    private final ForkJoinPool pool;
+    private final ExecutorService runner;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Set<Long> dirtyProducts = ConcurrentHashMap.newKeySet();
+    private final Counter recomputed;
+    private final Counter hotProducts;
+    private final Timer passTimer;
+
+    public RecommendationRecomputer(RatingMatrix ratingMatrix,
+                                    RecommendationCache recommendationCache,
+                                    RecommendationRanker ranker,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${recommendation.recompute.enabled:true}") boolean enabled,
+                                    @Value("${recommendation.recompute.max-fan-out:500}") int maxFanOut,
+                                    @Value("${recommendation.recompute.batch-size:100}") int batchSize,
+                                    @Value("${recommendation.recompute.cpu-budget:0.25}") double cpuBudget,
+                                    @Value("${recommendation.recompute.parallelism:0}") int parallelism) {
+        this.ratingMatrix = ratingMatrix;
+        this.recommendationCache = recommendationCache;
+        this.ranker = ranker;
+        this.enabled = enabled;
+        this.maxFanOut = maxFanOut;
+        this.batchSize = Math.max(batchSize, 1);
+        this.cpuBudget = Math.min(Math.max(cpuBudget, 0.01), 1.0);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-recompute");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.recomputed = meterRegistry.counter("recommendation.recompute.users");
+        this.hotProducts = meterRegistry.counter("recommendation.recompute.hot-products");
+        this.passTimer = meterRegistry.timer("recommendation.recompute.pass");
+        Gauge.builder("recommendation.recompute.dirty-products", dirtyProducts, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * 평가가 바뀐 상품을 다음 주기에 펼칠 대상으로 표시
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(UserRatingChangedEvent event) {
+        if (enabled) {
+            dirtyProducts.add(event.productId());
+        }
+    }
+
+    /**
+     * 주기적으로 백그라운드 다시 계산 (이전 주기가 끝나지 않았으면 건너뜀)
+     */
+    @Scheduled(initialDelayString = "${recommendation.recompute.interval-ms:30000}",
+            fixedDelayString = "${recommendation.recompute.interval-ms:30000}")
+    public void scheduleRecompute() {
+        if (!enabled || dirtyProducts.isEmpty() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        runner.execute(() -> {
+            try {
+                recomputeDirty();
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * 표시된 상품을 펼쳐 영향받은 사용자의 순위를 다시 계산하고, 다시 계산한 사용자 수를 돌려준다
+     */
+    int recomputeDirty() {
+        if (!ratingMatrix.isReady()) {
+            // 평가자를 알 수 없으므로 표시는 남겨 두고 다음 주기에 다시 시도한다
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<Long> users = affectedUsers();
+        int done = 0;
+        try {
+            for (int from = 0; from < users.size(); from += batchSize) {
+                List<Long> batch = users.subList(from, Math.min(from + batchSize, users.size()));
+                long batchStart = System.nanoTime();
+                done += pool.submit(() -> (int) batch.parallelStream().filter(this::recompute).count()).join();
+                if (from + batchSize < users.size()) {
+                    pause(System.nanoTime() - batchStart);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        passTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (done > 0) {
+            log.info("♻️ 추천 다시 계산: 사용자 {}명 ({}ms)", done, (System.nanoTime() - start) / 1_000_000);
+        }
+        return done;
+    }
+
+    // 표시된 상품마다 평가자 중 캐시에 순위가 있는 사용자 (여러 상품에 걸쳐도 한 번만)
+    private List<Long> affectedUsers() {
+        Set<Long> users = new LinkedHashSet<>();
+        for (Iterator<Long> it = dirtyProducts.iterator(); it.hasNext(); ) {
+            Long productId = it.next();
+            it.remove();
+            long[] raters = ratingMatrix.raters(productId, maxFanOut);
+            if (raters == null) {
+                hotProducts.increment();
+                continue;
+            }
+            for (long rater : raters) {
+                if (recommendationCache.contains(rater)) {
+                    users.add(rater);
+                }
+            }
+        }
+        return new ArrayList<>(users);
+    }
+
+    private boolean recompute(long userId) {
+        try {
+            if (recommendationCache.recompute(userId, ranker::rank)) {
+                recomputed.increment();
+                return true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 추천 다시 계산 실패 (userId={}): {}", userId, e.getMessage());
+        }
+        return false;
+    }
+
+    // 바쁜 시간 / (바쁜 시간 + 쉬는 시간) = cpu-budget
+    private void pause(long busyNanos) throws InterruptedException {
+        long idleNanos = (long) (busyNanos * (1 - cpuBudget) / cpuBudget);
+        if (idleNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(idleNanos);
+        }
+    }
+}
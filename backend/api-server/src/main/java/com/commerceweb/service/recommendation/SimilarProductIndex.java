@@ -0,0 +1,164 @@
+package com.commerceweb.service.recommendation;
+
+import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.service.product.ProductChangedEvent;
+import com.commerceweb.service.product.ProductTextDocument;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 유사 상품 근사 최근접 이웃 색인 (상품 텍스트 벡터의 HNSW 그래프)
+ * <p>
+ * 상품 이름/카테고리/설명을 {@link ProductTextVectors}로 벡터화하므로 평가가 없는 새 상품도 등록 즉시 색인된다.
+ * 기동 시 전용 스레드에서 전체를 빌드하고, 이후에는 {@link ProductChangedEvent}로 증분 반영한다
+ * (수정은 기존 노드를 삭제 표시하고 새 노드로 추가, 삭제 표시가 많아지면 전용 스레드에서 그래프를 다시 만들어 교체한다).
+ * 빌드가 끝나기 전({@link #isReady()}가 false)에는 호출자가 다른 방식으로 대체해야 한다.
+ */
+@Slf4j
+@Component
+public class SimilarProductIndex {
+
+    private static final long SEED = 42L;
+
+    private final int dimensions;
+    private final int m;
+    private final int efSearch;
+    private final RebuildableIndex<HnswGraph> index;
+    private final Timer searchTimer;
+
+    public SimilarProductIndex(ProductRepository productRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${recommendation.similar-products.dimensions:256}") int dimensions,
+                               @Value("${recommendation.similar-products.m:16}") int m,
+                               @Value("${recommendation.similar-products.ef-construction:100}") int efConstruction,
+                               @Value("${recommendation.similar-products.ef-search:64}") int efSearch) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.efSearch = efSearch;
+        this.index = new RebuildableIndex<>("similar-products", productRepository, new RebuildableIndex.Structure<>() {
+            @Override
+            public HnswGraph create() {
+                return new HnswGraph(dimensions, m, efConstruction, SEED);
+            }
+
+            @Override
+            public void add(HnswGraph target, ProductTextDocument document) {
+                float[] vector = ProductTextVectors.embed(document.name(), document.category(),
+                        document.description(), dimensions);
+                if (vector != null) {
+                    target.add(document.id(), vector);
+                } else {
+                    target.remove(document.id());
+                }
+            }
+
+            @Override
+            public void remove(HnswGraph target, long productId) {
+                target.remove(productId);
+            }
+
+            @Override
+            public boolean needsCompaction(HnswGraph graph) {
+                return graph.needsCompaction();
+            }
+
+            @Override
+            public Supplier<HnswGraph> compactor(HnswGraph graph) {
+                return graph.compactor(SEED);
+            }
+        });
+        this.searchTimer = meterRegistry.timer("recommendation.similar-products.search");
+        Gauge.builder("recommendation.similar-products.nodes", index, nodes -> nodes.read(HnswGraph::liveCount))
+                .register(meterRegistry);
+    }
+
+    /**
+     * 기동 시 백그라운드 전체 빌드 (id 순으로 나눠 읽으며 텍스트 컬럼만 조회)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleBuild() {
+        index.scheduleBuild(this::build);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        index.shutdown();
+    }
+
+    void build() {
+        long start = System.currentTimeMillis();
+        HnswGraph built;
+        try {
+            built = index.loadFromDatabase();
+        } catch (RuntimeException e) {
+            log.error("❌ 유사 상품 색인 빌드 실패 (카테고리 기반으로 대체): {}", e.getMessage());
+            return;
+        }
+        log.info("🧭 유사 상품 색인 빌드 완료: {}개 상품, {}차원, M={}, {}ms",
+                built.liveCount(), dimensions, m, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 주어진 문서로 색인을 채운다 (DB 없이 테스트/벤치마크에서 사용)
+     */
+    void load(Collection<ProductTextDocument> documents) {
+        index.load(documents);
+    }
+
+    /**
+     * 커밋된 상품 변경을 증분 반영 (그래프 재구성은 전용 스레드에서 하므로 요청 스레드를 막지 않는다)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        index.onProductChanged(event);
+    }
+
+    public boolean isReady() {
+        return index.isReady();
+    }
+
+    /**
+     * 재구성(또는 기동 빌드)이 진행 중인가
+     */
+    boolean isRebuilding() {
+        return index.isBuilding();
+    }
+
+    /**
+     * 상품과 비슷한 상품 상위 limit개 (유사도 내림차순, 빌드 전이거나 색인에 없는 상품이면 empty)
+     */
+    public Optional<List<ProductScore>> similar(long productId, int limit) {
+        return similar(productId, limit, efSearch);
+    }
+
+    /**
+     * ef(탐색 후보 수)를 지정한 검색 (클수록 재현율이 오르고 느려진다)
+     */
+    Optional<List<ProductScore>> similar(long productId, int limit, int ef) {
+        if (!index.isReady()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(searchTimer.record(() -> index.read(graph -> graph.similar(productId, limit, ef))));
+    }
+
+    /**
+     * 전수 비교 결과 (재현율 측정용)
+     */
+    Optional<List<ProductScore>> exact(long productId, int limit) {
+        return Optional.ofNullable(index.read(graph -> graph.exact(productId, limit)));
+    }
+}
@@ -0,0 +1,331 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 상품 텍스트의 희소 TF-IDF 벡터와 역색인 (코사인 유사도 검색)
+ * <p>
+ * 상품마다 단어 번호와 단어 가중치(필드 가중치를 더한 tf의 log1p)를 원시 배열로 두고, 단어마다
+ * (상품 번호, 가중치) posting 목록을 둔다. idf는 검색할 때 현재 문서 수로 계산하므로 상품이 추가되어도
+ * 다른 상품의 벡터를 고칠 필요가 없다. 문서 길이(정규화 값)만 추가할 때의 idf로 계산해 두고
+ * {@link #refreshNorms()}(일괄 로드 후, 다시 만들 때)에서 갱신한다.
+ * <p>
+ * 검색은 질의 단어 중 posting이 {@code maxPostings}를 넘는 흔한 단어와 다른 상품에 없는 단어를 빼고,
+ * 남은 단어를 기여 상한(질의 가중치 × idf) 순으로 {@code maxQueryTerms}개만 역색인에서 훑는다
+ * (점수는 빠진 단어만큼 낮아질 수 있다).
+ * <p>
+ * 삭제는 번호에 표시만 하고 posting은 남긴 채 결과에서 뺀다.
+ * 동기화는 하지 않으므로 호출자가 읽기/쓰기 락으로 보호해야 한다.
+ */
+final class TfIdfIndex {
+
+    // 단어와 글자 trigram이 같은 사전에서 겹치지 않도록 trigram 앞에 붙인다 (단어에는 글자/숫자만 있다)
+    private static final String GRAM_PREFIX = "#";
+
+    // 점수 내림차순 → 상품 id 오름차순
+    private static final Comparator<ProductScore> RANKING =
+            Comparator.comparingDouble(ProductScore::score).reversed().thenComparingLong(ProductScore::productId);
+
+    private final int maxPostings;
+    private final int maxQueryTerms;
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    // 단어 번호별
+    private String[] terms = new String[1024];
+    private int[] documentFrequency = new int[1024];
+    private int[][] postingDocuments = new int[1024][];
+    private float[][] postingWeights = new float[1024][];
+    private int[] postingSizes = new int[1024];
+    private int termCount;
+
+    // 상품 번호별
+    private long[] productIds = new long[1024];
+    private int[][] documentTerms = new int[1024][];
+    private float[][] documentWeights = new float[1024][];
+    private float[] norms = new float[1024];
+    private int size;
+    private int deletedCount;
+    private int normedLiveCount;
+
+    // 검색마다 점수 배열을 새로 만들지 않도록 스레드별로 재사용
+    private final ThreadLocal<Accumulator> accumulators = ThreadLocal.withInitial(Accumulator::new);
+
+    TfIdfIndex(int maxPostings, int maxQueryTerms) {
+        this.maxPostings = Math.max(maxPostings, 1);
+        this.maxQueryTerms = Math.max(maxQueryTerms, 1);
+    }
+
+    int liveCount() {
+        return size - deletedCount;
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    boolean contains(long productId) {
+        return ordinals.containsKey(productId);
+    }
+
+    /**
+     * 삭제 표시가 많거나 문서 수가 문서 길이를 계산할 때의 두 배를 넘어 다시 만드는 편이 나은가
+     */
+    boolean needsCompaction() {
+        return (deletedCount > 1024 && deletedCount > size / 4)
+                || (liveCount() > 1024 && liveCount() > normedLiveCount * 2);
+    }
+
+    /**
+     * 상품 텍스트로 벡터를 만들어 추가 (이미 있으면 교체, 단어가 하나도 없으면 삭제만 하고 false)
+     */
+    boolean add(long productId, String name, String category, String description) {
+        Map<String, float[]> counts = new LinkedHashMap<>();
+        ProductTextTerms.forEach(name, category, description, (term, gram, weight) ->
+                counts.computeIfAbsent(gram ? GRAM_PREFIX + term : term, key -> new float[1])[0] += weight);
+
+        remove(productId);
+        if (counts.isEmpty()) {
+            return false;
+        }
+        String[] vectorTerms = new String[counts.size()];
+        float[] weights = new float[counts.size()];
+        int i = 0;
+        for (Map.Entry<String, float[]> entry : counts.entrySet()) {
+            vectorTerms[i] = entry.getKey();
+            weights[i++] = (float) Math.log1p(entry.getValue()[0]);
+        }
+        int document = append(productId, vectorTerms, weights);
+        norms[document] = norm(document);
+        return true;
+    }
+
+    boolean remove(long productId) {
+        Integer document = ordinals.remove(productId);
+        if (document == null) {
+            return false;
+        }
+        deleted.set(document);
+        deletedCount++;
+        for (int term : documentTerms[document]) {
+            documentFrequency[term]--;
+        }
+        return true;
+    }
+
+    /**
+     * 모든 상품의 문서 길이를 현재 idf로 다시 계산
+     */
+    void refreshNorms() {
+        for (int document = deleted.nextClearBit(0); document < size; document = deleted.nextClearBit(document + 1)) {
+            norms[document] = norm(document);
+        }
+        normedLiveCount = liveCount();
+    }
+
+    /**
+     * 삭제되지 않은 상품의 벡터를 복사해 두고, 호출하면 그것만으로 새 색인을 만드는 작업 (추가 순서 유지, 문서 길이 갱신)
+     * <p>
+     * 복사는 호출자의 락 안에서, 새 색인 생성은 락 밖에서 한다 (상품별 가중치 배열은 바뀌지 않으므로 공유한다).
+     */
+    Supplier<TfIdfIndex> compactor() {
+        int live = liveCount();
+        long[] liveIds = new long[live];
+        String[][] liveTerms = new String[live][];
+        float[][] liveWeights = new float[live][];
+        int i = 0;
+        for (int document = deleted.nextClearBit(0); document < size; document = deleted.nextClearBit(document + 1)) {
+            int[] ids = documentTerms[document];
+            String[] vectorTerms = new String[ids.length];
+            for (int k = 0; k < ids.length; k++) {
+                vectorTerms[k] = terms[ids[k]];
+            }
+            liveIds[i] = productIds[document];
+            liveTerms[i] = vectorTerms;
+            liveWeights[i++] = documentWeights[document];
+        }
+        return () -> {
+            TfIdfIndex compacted = new TfIdfIndex(maxPostings, maxQueryTerms);
+            for (int k = 0; k < liveIds.length; k++) {
+                compacted.append(liveIds[k], liveTerms[k], liveWeights[k]);
+            }
+            compacted.refreshNorms();
+            return compacted;
+        };
+    }
+
+    /**
+     * 한 상품과 비슷한 상품 (색인에 없는 상품이면 null)
+     */
+    List<ProductScore> similar(long productId, int limit) {
+        if (!ordinals.containsKey(productId)) {
+            return null;
+        }
+        return similar(new long[]{productId}, new double[]{1.0}, limit);
+    }
+
+    /**
+     * 여러 상품의 정규화된 벡터를 가중치로 더한 질의와 비슷한 상품 (질의 상품 제외, 코사인 내림차순 → 상품 id 오름차순)
+     */
+    List<ProductScore> similar(long[] queryProducts, double[] queryWeights, int limit) {
+        Map<Integer, Double> query = new HashMap<>();
+        Set<Integer> excluded = new HashSet<>();
+        for (int i = 0; i < queryProducts.length; i++) {
+            Integer document = ordinals.get(queryProducts[i]);
+            if (document == null || norms[document] == 0) {
+                continue;
+            }
+            excluded.add(document);
+            int[] ids = documentTerms[document];
+            float[] weights = documentWeights[document];
+            for (int k = 0; k < ids.length; k++) {
+                query.merge(ids[k], queryWeights[i] * weights[k] * idf(ids[k]) / norms[document], Double::sum);
+            }
+        }
+        double queryNorm = Math.sqrt(query.values().stream().mapToDouble(weight -> weight * weight).sum());
+        if (queryNorm == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        // 흔한 단어와 질의 상품에만 있는 단어(df 1)는 빼고 기여 상한이 큰 단어부터 maxQueryTerms개만 훑는다
+        List<Map.Entry<Integer, Double>> pruned = query.entrySet().stream()
+                .filter(entry -> documentFrequency[entry.getKey()] > 1
+                        && documentFrequency[entry.getKey()] <= maxPostings)
+                .sorted(Comparator.comparingDouble((Map.Entry<Integer, Double> entry) ->
+                        entry.getValue() * idf(entry.getKey())).reversed())
+                .limit(maxQueryTerms)
+                .toList();
+
+        Accumulator accumulator = accumulators.get();
+        accumulator.reset(size);
+        for (Map.Entry<Integer, Double> entry : pruned) {
+            int term = entry.getKey();
+            float factor = (float) (entry.getValue() * idf(term));
+            int[] documents = postingDocuments[term];
+            float[] weights = postingWeights[term];
+            for (int p = 0; p < postingSizes[term]; p++) {
+                if (!deleted.get(documents[p])) {
+                    accumulator.add(documents[p], factor * weights[p]);
+                }
+            }
+        }
+        return accumulator.top(limit, excluded, queryNorm);
+    }
+
+    private int append(long productId, String[] vectorTerms, float[] weights) {
+        if (size == productIds.length) {
+            int capacity = size * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            documentTerms = Arrays.copyOf(documentTerms, capacity);
+            documentWeights = Arrays.copyOf(documentWeights, capacity);
+            norms = Arrays.copyOf(norms, capacity);
+        }
+        int document = size++;
+        int[] ids = new int[vectorTerms.length];
+        for (int k = 0; k < vectorTerms.length; k++) {
+            ids[k] = termId(vectorTerms[k]);
+            documentFrequency[ids[k]]++;
+            addPosting(ids[k], document, weights[k]);
+        }
+        productIds[document] = productId;
+        documentTerms[document] = ids;
+        documentWeights[document] = weights;
+        ordinals.put(productId, document);
+        return document;
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id != null) {
+            return id;
+        }
+        if (termCount == terms.length) {
+            int capacity = termCount * 2;
+            terms = Arrays.copyOf(terms, capacity);
+            documentFrequency = Arrays.copyOf(documentFrequency, capacity);
+            postingDocuments = Arrays.copyOf(postingDocuments, capacity);
+            postingWeights = Arrays.copyOf(postingWeights, capacity);
+            postingSizes = Arrays.copyOf(postingSizes, capacity);
+        }
+        terms[termCount] = term;
+        postingDocuments[termCount] = new int[4];
+        postingWeights[termCount] = new float[4];
+        termIds.put(term, termCount);
+        return termCount++;
+    }
+
+    private void addPosting(int term, int document, float weight) {
+        int postings = postingSizes[term];
+        if (postings == postingDocuments[term].length) {
+            postingDocuments[term] = Arrays.copyOf(postingDocuments[term], postings * 2);
+            postingWeights[term] = Arrays.copyOf(postingWeights[term], postings * 2);
+        }
+        postingDocuments[term][postings] = document;
+        postingWeights[term][postings] = weight;
+        postingSizes[term] = postings + 1;
+    }
+
+    // 평활화한 idf: ln((N + 1) / (df + 1)) + 1
+    private double idf(int term) {
+        return Math.log((liveCount() + 1.0) / (documentFrequency[term] + 1.0)) + 1;
+    }
+
+    private float norm(int document) {
+        int[] ids = documentTerms[document];
+        float[] weights = documentWeights[document];
+        double sum = 0;
+        for (int k = 0; k < ids.length; k++) {
+            double weight = weights[k] * idf(ids[k]);
+            sum += weight * weight;
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    /**
+     * 상품 번호 → 누적 내적 (건드린 번호만 기록해 다음 검색 전에 그만큼만 지운다)
+     */
+    private final class Accumulator {
+        private float[] scores = new float[0];
+        private int[] touched = new int[64];
+        private int touchedCount;
+
+        void reset(int capacity) {
+            if (scores.length < capacity) {
+                scores = new float[Math.max(capacity, scores.length * 2)];
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0f;
+            }
+            touchedCount = 0;
+        }
+
+        void add(int document, float value) {
+            if (scores[document] == 0f) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = document;
+            }
+            scores[document] += value;
+        }
+
+        List<ProductScore> top(int limit, Set<Integer> excluded, double queryNorm) {
+            PriorityQueue<ProductScore> heap = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (int i = 0; i < touchedCount; i++) {
+                int document = touched[i];
+                if (excluded.contains(document) || norms[document] == 0) {
+                    continue;
+                }
+                heap.add(new ProductScore(productIds[document], scores[document] / (queryNorm * norms[document])));
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            List<ProductScore> result = new ArrayList<>(heap);
+            result.sort(RANKING);
+            return result;
+        }
+    }
+}
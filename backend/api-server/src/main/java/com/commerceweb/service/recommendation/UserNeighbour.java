@@ -0,0 +1,7 @@
+package com.commerceweb.service.recommendation;
+
+/**
+ * 이웃 사용자 (함께 평가한 상품 수와 Jaccard 유사도)
+ */
+public record UserNeighbour(long userId, int overlap, double similarity) {
+}
@@ -0,0 +1,207 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 이웃 사용자 검색 (평가 행렬의 상품 → 사용자 역색인 사용)
+ * <p>
+ * 1. 사용자가 평가한 상품마다 그 상품을 평가한 사용자를 세어 후보를 모은다.
+ *    평가자가 {@code max-fan-out}명을 넘는 인기 상품은 건너뛴다 (누구와도 겹쳐 비용만 크고 신호는 약하다).
+ * 2. 센 횟수 상위 (K × {@value #CANDIDATE_FACTOR})명만 남기고, 이들의 행과 정확히 교집합을 구해
+ *    Jaccard 유사도(겹친 수 / 합집합 크기) 상위 K명을 고른다. 겹친 상품이 {@code min-overlap}개 미만이면 버린다.
+ * <p>
+ * 평가 변경은 평가 행렬이 증분 반영하므로 이 색인은 따로 갱신할 것이 없다.
+ */
+@Component
+public class UserNeighbourIndex {
+
+    static final int CANDIDATE_FACTOR = 4;
+
+    private static final Comparator<UserNeighbour> RANKING = Comparator
+            .comparingDouble(UserNeighbour::similarity)
+            .thenComparingInt(UserNeighbour::overlap)
+            .thenComparing(Comparator.comparingLong(UserNeighbour::userId).reversed());
+
+    private final RatingMatrix ratingMatrix;
+    private final int maxFanOut;
+    private final int minOverlap;
+    private final Timer lookupTimer;
+
+    // 사용자 번호별 누적 배열 (스레드마다 하나, 건드린 칸만 되돌린다)
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(0));
+
+    public UserNeighbourIndex(RatingMatrix ratingMatrix,
+                              MeterRegistry meterRegistry,
+                              @Value("${recommendation.neighbours.max-fan-out:2000}") int maxFanOut,
+                              @Value("${recommendation.neighbours.min-overlap:2}") int minOverlap) {
+        this.ratingMatrix = ratingMatrix;
+        this.maxFanOut = maxFanOut;
+        this.minOverlap = Math.max(minOverlap, 1);
+        this.lookupTimer = meterRegistry.timer("recommendation.neighbours.lookup");
+    }
+
+    /**
+     * 이웃 사용자 상위 k명 (유사도 내림차순 → 겹친 수 내림차순 → 사용자 id 오름차순)
+     */
+    public List<UserNeighbour> neighbours(long userId, int k) {
+        return lookupTimer.record(() -> search(userId, k));
+    }
+
+    private List<UserNeighbour> search(long userId, int k) {
+        UserRatings mine = ratingMatrix.ratingsOf(userId);
+        if (mine.isEmpty() || k <= 0) {
+            return List.of();
+        }
+        RatingSnapshot snapshot = ratingMatrix.snapshot();
+        RatingSnapshot.Postings postings = snapshot.postings();
+        Scratch counts = scratch(snapshot.userCount());
+        int self = snapshot.userIndex(userId);
+
+        // 1. 후보 세기 (건너뛴 인기 상품 수만큼은 나중에 더 겹칠 수 있다)
+        int skipped = 0;
+        int touchedCount = 0;
+        Map<Long, Integer> changedCounts = null;
+        for (int i = 0; i < mine.size(); i++) {
+            long productId = mine.productId(i);
+            int item = snapshot.productIndex(productId);
+            if (item >= 0) {
+                int from = postings.offsets()[item];
+                int to = postings.offsets()[item + 1];
+                if (to - from > maxFanOut) {
+                    skipped++;
+                    continue;
+                }
+                for (int p = from; p < to; p++) {
+                    int user = postings.users()[p];
+                    if (user == self || snapshot.isChanged(user)) {
+                        continue;
+                    }
+                    if (counts.values[user]++ == 0) {
+                        counts.touched[touchedCount++] = user;
+                    }
+                }
+            }
+            for (Long rater : ratingMatrix.changedRaters(productId)) {
+                if (rater != userId) {
+                    if (changedCounts == null) {
+                        changedCounts = new HashMap<>();
+                    }
+                    changedCounts.merge(rater, 1, Integer::sum);
+                }
+            }
+        }
+
+        // 2. 센 횟수 상위 후보만 남긴다 (횟수별 개수로 기준선을 정한다)
+        int limit = k * CANDIDATE_FACTOR;
+        int minCount = Math.max(minOverlap - skipped, 1);
+        int[] histogram = new int[mine.size() + 1];
+        for (int t = 0; t < touchedCount; t++) {
+            histogram[counts.values[counts.touched[t]]]++;
+        }
+        if (changedCounts != null) {
+            changedCounts.values().forEach(count -> histogram[count]++);
+        }
+        int threshold = minCount;
+        int tiesLeft = limit;
+        int above = 0;
+        for (int count = mine.size(); count >= minCount; count--) {
+            if (above + histogram[count] >= limit) {
+                threshold = count;
+                tiesLeft = limit - above;
+                break;
+            }
+            above += histogram[count];
+        }
+
+        long[] candidates = new long[limit];
+        int candidateCount = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int user = counts.touched[t];
+            int count = counts.values[user];
+            counts.values[user] = 0;
+            if (count > threshold || (count == threshold && tiesLeft-- > 0)) {
+                candidates[candidateCount++] = snapshot.userIds[user];
+            }
+        }
+        if (changedCounts != null) {
+            for (Map.Entry<Long, Integer> entry : changedCounts.entrySet()) {
+                int count = entry.getValue();
+                if (count > threshold || (count == threshold && tiesLeft-- > 0)) {
+                    candidates[candidateCount++] = entry.getKey();
+                }
+            }
+        }
+
+        // 3. 후보의 행과 정확히 교집합을 구해 상위 k명
+        PriorityQueue<UserNeighbour> top = new PriorityQueue<>(k, RANKING);
+        for (int c = 0; c < candidateCount; c++) {
+            UserRatings theirs = ratingMatrix.ratingsOf(candidates[c]);
+            int overlap = overlap(mine, theirs);
+            if (overlap < minOverlap) {
+                continue;
+            }
+            UserNeighbour neighbour = new UserNeighbour(candidates[c], overlap,
+                    (double) overlap / (mine.size() + theirs.size() - overlap));
+            if (top.size() < k) {
+                top.offer(neighbour);
+            } else if (RANKING.compare(neighbour, top.peek()) > 0) {
+                top.poll();
+                top.offer(neighbour);
+            }
+        }
+
+        List<UserNeighbour> result = new ArrayList<>(top);
+        result.sort(RANKING.reversed());
+        return result;
+    }
+
+    // 두 정렬된 평가 목록의 교집합 크기
+    static int overlap(UserRatings a, UserRatings b) {
+        int i = 0;
+        int j = 0;
+        int overlap = 0;
+        while (i < a.size() && j < b.size()) {
+            long left = a.productId(i);
+            long right = b.productId(j);
+            if (left == right) {
+                overlap++;
+                i++;
+                j++;
+            } else if (left < right) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return overlap;
+    }
+
+    private Scratch scratch(int userCount) {
+        Scratch current = scratch.get();
+        if (current.values.length < userCount) {
+            current = new Scratch(userCount);
+            scratch.set(current);
+        }
+        return current;
+    }
+
+    private static final class Scratch {
+        final int[] values;
+        final int[] touched;
+
+        Scratch(int userCount) {
+            this.values = new int[userCount];
+            this.touched = new int[userCount];
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.commerceweb.service.recommendation;
+
+/**
+ * 사용자 평가 1건 (추천 계산용으로 상품 id와 점수만)
+ */
+public record UserRating(Long productId, Integer score) {
+}
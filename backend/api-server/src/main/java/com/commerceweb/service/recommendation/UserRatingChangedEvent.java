@@ -0,0 +1,7 @@
+package com.commerceweb.service.recommendation;
+
+/**
+ * 사용자의 상품 평가가 생성/변경/삭제되었을 때 발행되는 이벤트 (삭제면 score가 null)
+ */
+public record UserRatingChangedEvent(Long userId, Long productId, Integer score) {
+}
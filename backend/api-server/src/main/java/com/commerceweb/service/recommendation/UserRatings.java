@@ -0,0 +1,133 @@
+package com.commerceweb.service.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * 한 사용자의 평가 목록 (상품 id 오름차순, 읽기 전용)
+ * <p>
+ * 평가 행렬의 한 행을 복사하지 않고 가리키므로 평가마다 객체를 만들지 않는다.
+ * 상품 번호 배열({@code items})이 있으면 {@code productIds}는 번호 → id 표이고, 없으면 행의 상품 id 자체이다.
+ */
+public final class UserRatings {
+
+    static final UserRatings EMPTY = new UserRatings(new long[0], null, new byte[0], 0, 0);
+
+    private final long[] productIds;
+    private final int[] items;
+    private final byte[] scores;
+    private final int from;
+    private final int to;
+
+    UserRatings(long[] productIds, int[] items, byte[] scores, int from, int to) {
+        this.productIds = productIds;
+        this.items = items;
+        this.scores = scores;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * 순서 없는 (상품 id, 점수) 배열로 만든다 (같은 상품이 여러 번 있으면 마지막 점수)
+     */
+    public static UserRatings of(long[] productIds, int[] scores) {
+        // 상품 id와 점수(1~5, 3비트)를 한 long에 담아 정렬
+        long[] packed = new long[productIds.length];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = productIds[i] << 3 | scores[i];
+        }
+        Arrays.sort(packed);
+
+        long[] ids = new long[packed.length];
+        byte[] values = new byte[packed.length];
+        int size = 0;
+        for (long value : packed) {
+            long productId = value >>> 3;
+            if (size > 0 && ids[size - 1] == productId) {
+                size--;
+            }
+            ids[size] = productId;
+            values[size++] = (byte) (value & 7);
+        }
+        return new UserRatings(ids, null, values, 0, size);
+    }
+
+    public int size() {
+        return to - from;
+    }
+
+    public boolean isEmpty() {
+        return to == from;
+    }
+
+    public long productId(int i) {
+        return items != null ? productIds[items[from + i]] : productIds[from + i];
+    }
+
+    public int score(int i) {
+        return scores[from + i];
+    }
+
+    public boolean contains(long productId) {
+        return indexOf(productId) >= 0;
+    }
+
+    /**
+     * 상품 위치 (없으면 {@code -(삽입 위치) - 1})
+     */
+    public int indexOf(long productId) {
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long id = productId(middle);
+            if (id < productId) {
+                low = middle + 1;
+            } else if (id > productId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * 한 상품의 점수를 바꾼 새 목록 (score가 null이면 삭제, 이 목록은 바뀌지 않는다)
+     */
+    UserRatings with(long productId, Integer score) {
+        int size = size();
+        int position = indexOf(productId);
+        if (score == null && position < 0) {
+            return this;
+        }
+        int insertAt = position >= 0 ? position : -position - 1;
+        int newSize = score == null ? size - 1 : position >= 0 ? size : size + 1;
+
+        long[] ids = new long[newSize];
+        byte[] values = new byte[newSize];
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == insertAt && score != null) {
+                ids[j] = productId;
+                values[j++] = score.byteValue();
+            }
+            if (i == position) {
+                continue;
+            }
+            ids[j] = productId(i);
+            values[j++] = scores[from + i];
+        }
+        if (insertAt == size && score != null) {
+            ids[j] = productId;
+            values[j] = score.byteValue();
+        }
+        return new UserRatings(ids, null, values, 0, newSize);
+    }
+
+    /**
+     * 행이 따로 가진 배열 크기 (행렬 배열을 가리키는 행이면 0)
+     */
+    long ownedBytes() {
+        return items != null ? 0L : productIds.length * 8L + scores.length;
+    }
+}
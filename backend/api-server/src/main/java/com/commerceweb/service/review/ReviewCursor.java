@@ -0,0 +1,45 @@
+package com.commerceweb.service.review;
+
+import com.commerceweb.dto.InvalidCursorException;
+import com.commerceweb.dto.ReviewDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 리뷰 목록 키셋 커서: 마지막으로 받은 리뷰의 (작성 시각, id)
+ * <p>
+ * 클라이언트에는 Base64 문자열로만 노출된다. 작성 시각은 NOT NULL이다 ({@code ReviewService#normalizeCreatedAt}).
+ */
+public record ReviewCursor(LocalDateTime createdAt, long id) {
+
+    public ReviewCursor {
+        if (createdAt == null) {
+            throw new IllegalArgumentException("작성 시각이 없는 리뷰는 커서가 될 수 없습니다.");
+        }
+    }
+
+    public static ReviewCursor of(ReviewDto review) {
+        return new ReviewCursor(review.getCreatedAt(), review.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReviewCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new InvalidCursorException(cursor);
+            }
+            return new ReviewCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.commerceweb.service.review;
+
+/**
+ * 상품의 리뷰 집계(리뷰 수, 별점 합계/분포)가 바뀌었을 때 발행되는 이벤트
+ */
+public record ReviewSummaryChangedEvent(Long productId) {
+}
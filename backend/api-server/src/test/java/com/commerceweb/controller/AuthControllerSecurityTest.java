@@ -0,0 +1,89 @@
+package com.commerceweb.controller;
+
+import com.commerceweb.config.SecurityConfig;
+import com.commerceweb.security.jwt.JwtProvider;
+import com.commerceweb.security.jwt.TokenRevocationRegistry;
+import com.commerceweb.security.jwt.VerifiedToken;
+import com.commerceweb.service.AuthService;
+import com.commerceweb.service.ReviewService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest({AuthController.class, ReviewController.class})
+@Import(SecurityConfig.class)
+@DisplayName("인증이 필요한 요청의 401 응답 테스트")
+class AuthControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @MockitoBean
+    private ReviewService reviewService;
+
+    @MockitoBean
+    private JwtProvider jwtProvider;
+
+    @MockitoBean
+    private TokenRevocationRegistry revocationRegistry;
+
+    @Test
+    @DisplayName("토큰 없이 로그아웃하면 401이고 아무것도 폐기하지 않는다")
+    void testLogoutWithoutToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout"))
+                .andExpect(status().isUnauthorized());
+
+        verify(revocationRegistry, never()).revokeAll(any());
+    }
+
+    @Test
+    @DisplayName("유효하지 않은 토큰으로 로그아웃해도 401이다")
+    void testLogoutWithInvalidToken() throws Exception {
+        when(jwtProvider.verify("broken")).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer broken"))
+                .andExpect(status().isUnauthorized());
+
+        verify(revocationRegistry, never()).revokeAll(any());
+    }
+
+    @Test
+    @DisplayName("유효한 토큰으로 로그아웃하면 그 사용자의 토큰을 폐기한다")
+    void testLogoutWithToken() throws Exception {
+        Date now = new Date();
+        when(jwtProvider.verify("valid")).thenReturn(Optional.of(new VerifiedToken(
+                "7", "user@test.com", "CUSTOMER", now, new Date(now.getTime() + 60_000))));
+
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer valid"))
+                .andExpect(status().isOk());
+
+        verify(revocationRegistry).revokeAll(7L);
+    }
+
+    @Test
+    @DisplayName("공개 경로에서도 로그인이 필요한 @CurrentUser 파라미터가 비어 있으면 401이다")
+    void testRequiredCurrentUserOnPermittedPath() throws Exception {
+        mockMvc.perform(post("/api/reviews")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderId\":1,\"content\":\"좋아요\",\"rating\":5}"))
+                .andExpect(status().isUnauthorized());
+
+        verify(reviewService, never()).createReview(any());
+    }
+}
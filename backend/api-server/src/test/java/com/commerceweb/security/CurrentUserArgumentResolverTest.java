@@ -0,0 +1,94 @@
+package com.commerceweb.security;
+
+import com.commerceweb.entity.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("@CurrentUser 파라미터 주입 테스트")
+class CurrentUserArgumentResolverTest {
+
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+
+    @SuppressWarnings("unused")
+    private static class Handlers {
+
+        void required(@CurrentUser AuthenticatedUser user) {
+        }
+
+        void optional(@CurrentUser(required = false) AuthenticatedUser user) {
+        }
+
+        void unannotated(AuthenticatedUser user) {
+        }
+
+        void wrongType(@CurrentUser String user) {
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("@CurrentUser가 붙은 AuthenticatedUser 파라미터만 처리한다")
+    void testSupportsParameter() throws NoSuchMethodException {
+        assertTrue(resolver.supportsParameter(parameter("required")));
+        assertTrue(resolver.supportsParameter(parameter("optional")));
+        assertFalse(resolver.supportsParameter(parameter("unannotated")));
+        assertFalse(resolver.supportsParameter(parameter("wrongType", String.class)));
+    }
+
+    @Test
+    @DisplayName("인증된 요청이면 SecurityContext의 사용자를 주입한다")
+    void testResolvesAuthenticatedUser() throws Exception {
+        AuthenticatedUser user = new AuthenticatedUser(7L, "user@test.com", UserRole.CUSTOMER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+        assertSame(user, resolve("required"));
+        assertSame(user, resolve("optional"));
+    }
+
+    @Test
+    @DisplayName("인증 정보가 없으면 필수 파라미터는 인증 예외, 선택 파라미터는 null")
+    void testMissingPrincipal() throws Exception {
+        assertThrows(AuthenticationCredentialsNotFoundException.class, () -> resolve("required"));
+        assertNull(resolve("optional"));
+    }
+
+    @Test
+    @DisplayName("익명 인증은 로그인하지 않은 요청으로 본다")
+    void testAnonymousPrincipal() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+        assertThrows(AuthenticationCredentialsNotFoundException.class, () -> resolve("required"));
+        assertNull(resolve("optional"));
+    }
+
+    private Object resolve(String handler) throws Exception {
+        return resolver.resolveArgument(parameter(handler), null, null, null);
+    }
+
+    private static MethodParameter parameter(String handler) throws NoSuchMethodException {
+        return parameter(handler, AuthenticatedUser.class);
+    }
+
+    private static MethodParameter parameter(String handler, Class<?> type) throws NoSuchMethodException {
+        Method method = Handlers.class.getDeclaredMethod(handler, type);
+        return new MethodParameter(method, 0);
+    }
+}
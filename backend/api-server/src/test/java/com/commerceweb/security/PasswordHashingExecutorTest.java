@@ -0,0 +1,51 @@
+package com.commerceweb.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("비밀번호 해싱 실행기 테스트")
+class PasswordHashingExecutorTest {
+
+    @Test
+    @DisplayName("대기열이 가득 차면 기다리지 않고 즉시 거절한다")
+    void testRejectsWhenSaturated() throws Exception {
+        // Given: 스레드 1개, 대기열 1개
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = executor.submit(() -> {
+            await(release);
+            return "first";
+        });
+        CompletableFuture<String> queued = executor.submit(() -> "second");
+
+        // When
+        CompletableFuture<String> rejected = executor.submit(() -> "third");
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(HashingCapacityExceededException.class, e.getCause());
+        assertEquals(1.0, meterRegistry.counter("auth.hashing.rejected").count());
+
+        release.countDown();
+        assertEquals("first", running.get());
+        assertEquals("second", queued.get());
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
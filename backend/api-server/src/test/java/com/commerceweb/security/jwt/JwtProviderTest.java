@@ -1,6 +1,7 @@
 package com.commerceweb.security.jwt;
 
 import com.commerceweb.BackendApplication;
+import com.commerceweb.entity.UserRole;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -16,7 +17,7 @@ public class JwtProviderTest {
     @Test
     public void testGenerateToken() {
         // 1️⃣ 토큰 생성 (수정: Role 인자 추가)
-        String token = jwtProvider.generateToken("user@example.com");
+        String token = jwtProvider.generateToken(1L, "user@example.com", UserRole.CUSTOMER);
 
         // 2️⃣ 토큰이 null이 아닌지 확인
         assertNotNull(token, "Token should not be null");
@@ -30,7 +31,7 @@ public class JwtProviderTest {
     @Test
     public void testValidateToken() {
         // 1️⃣ 토큰 생성 (수정: Role 인자 추가)
-        String token = jwtProvider.generateToken("user@example.com");
+        String token = jwtProvider.generateToken(1L, "user@example.com", UserRole.CUSTOMER);
 
         // 2️⃣ 토큰 검증
         boolean isValid = jwtProvider.validateToken(token);
@@ -43,8 +44,8 @@ public class JwtProviderTest {
     @Test
     public void testExtractUserId() {
         // 1️⃣ 토큰 생성 (수정: Role 인자 추가)
-        String userId = "user@example.com";
-        String token = jwtProvider.generateToken(userId);
+        String userId = "1";
+        String token = jwtProvider.generateToken(Long.valueOf(userId), "user@example.com", UserRole.CUSTOMER);
 
         // 2️⃣ userId 추출
         String extractedUserId = jwtProvider.extractUserId(token);
@@ -0,0 +1,68 @@
+package com.commerceweb.security.jwt;
+
+import com.commerceweb.entity.UserRole;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 1건당 JWT 인증 비용 비교
+ * <p>
+ * 실행: ./mvnw -Pbenchmark test -DskipTests -Dbenchmark=JwtVerificationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "my_custom_secret_key_for_commerce_web_project_123456";
+
+    private JwtProvider jwtProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtProvider = new JwtProvider(SECRET, 86_400_000L, 10_000L, new SimpleMeterRegistry());
+        token = jwtProvider.generateToken(1L, "user@example.com", UserRole.CUSTOMER);
+    }
+
+    /**
+     * 변경 전: 요청마다 키를 만들고 validateToken + extractUserId로 두 번 파싱
+     */
+    @Benchmark
+    public String legacyValidateThenExtract() {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    /**
+     * 미리 만든 파서로 한 번만 파싱 (캐시 미스와 같은 비용)
+     */
+    @Benchmark
+    public VerifiedToken singleParse() {
+        return jwtProvider.parse(token);
+    }
+
+    /**
+     * 검증된 토큰 캐시 적중
+     */
+    @Benchmark
+    public VerifiedToken cachedVerify() {
+        return jwtProvider.verify(token).orElseThrow();
+    }
+}
@@ -0,0 +1,111 @@
+package com.commerceweb.security.jwt;
+
+import com.commerceweb.config.JwtAuthenticationFilter;
+import com.commerceweb.entity.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("JWT 검증 캐시 테스트")
+class JwtVerificationCacheTest {
+
+    private static final long EXPIRATION_MS = 60_000L;
+
+    // 초 단위로 잘리는 exp와 맞도록 초의 시작에서 출발
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis() / 1000 * 1000 - 1000);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtProvider jwtProvider = new JwtProvider(
+            "test_secret_key_for_jwt_verification_cache_0123456789", EXPIRATION_MS, 100, meterRegistry, now::get);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("캐시된 토큰도 exp가 지나면 검증에 실패한다")
+    void testCachedTokenExpires() {
+        String token = jwtProvider.generateToken(7L, "user@test.com", UserRole.CUSTOMER);
+        assertTrue(jwtProvider.verify(token).isPresent());
+
+        now.addAndGet(EXPIRATION_MS - 1000);
+        assertTrue(jwtProvider.verify(token).isPresent());
+        assertEquals(1.0, cacheGets("hit"));
+
+        now.addAndGet(1001);
+        assertTrue(jwtProvider.verify(token).isEmpty());
+        assertFalse(jwtProvider.validateToken(token));
+    }
+
+    @Test
+    @DisplayName("캐시된 뒤 폐기된 토큰은 캐시에서 검증되어도 인증 필터가 거부한다")
+    void testRevokedAfterCaching() throws Exception {
+        TokenRevocationRegistry registry = registry();
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtProvider, registry);
+        String token = jwtProvider.generateToken(7L, "user@test.com", UserRole.CUSTOMER);
+
+        assertNotNull(authenticate(filter, token));
+
+        registry.revokeAll(7L);
+
+        assertNull(authenticate(filter, token));
+        // 두 번째 요청의 서명 검증은 캐시에서 응답했다
+        assertEquals(1.0, cacheGets("hit"));
+    }
+
+    @Test
+    @DisplayName("서명은 그대로 두고 클레임만 바꾼 토큰은 캐시에 걸리지 않고 거부된다")
+    void testTamperedTokenMissesCache() {
+        String token = jwtProvider.generateToken(7L, "user@test.com", UserRole.CUSTOMER);
+        assertTrue(jwtProvider.verify(token).isPresent());
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("CUSTOMER", "ADMIN");
+        String tampered = parts[0] + "."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + "." + parts[2];
+
+        assertTrue(jwtProvider.verify(tampered).isEmpty());
+        assertTrue(jwtProvider.verify(tampered).isEmpty());
+        assertEquals(0.0, cacheGets("hit"));
+        assertEquals(3.0, cacheGets("miss"));
+        // 원래 토큰은 계속 캐시에서 검증된다
+        assertEquals("CUSTOMER", jwtProvider.verify(token).orElseThrow().role());
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/my");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TokenRevocationRegistry registry() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        return new TokenRevocationRegistry(redisTemplate, new SimpleMeterRegistry(), EXPIRATION_MS, 100, 30);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tags("cache", "jwt.verified", "result", result)
+                .functionCounter().count();
+    }
+}
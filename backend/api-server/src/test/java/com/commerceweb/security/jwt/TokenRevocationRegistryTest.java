@@ -0,0 +1,121 @@
+package com.commerceweb.security.jwt;
+
+import com.commerceweb.entity.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("토큰 폐기 목록 테스트")
+class TokenRevocationRegistryTest {
+
+    private static final long EXPIRATION_MS = 86_400_000L;
+
+    private final JwtProvider jwtProvider = new JwtProvider(
+            "test_secret_key_for_token_revocation_registry_0123456789", EXPIRATION_MS, 100, new SimpleMeterRegistry());
+
+    // 노드들이 함께 쓰는 Redis
+    private final Map<String, String> redis = new HashMap<>();
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        registry = node();
+    }
+
+    private TokenRevocationRegistry node() {
+        return new TokenRevocationRegistry(redisTemplate, new SimpleMeterRegistry(), EXPIRATION_MS, 100, 30);
+    }
+
+    @Test
+    @DisplayName("로그아웃 직전에 발급된 토큰은 같은 초라도 폐기되고, 로그아웃 뒤 발급된 토큰은 유효하다")
+    void testRevokesTokensIssuedEarlierInSameSecond() throws InterruptedException {
+        VerifiedToken before = jwtProvider.verify(jwtProvider.generateToken(1L, "a@test.com", UserRole.CUSTOMER))
+                .orElseThrow();
+        assertFalse(registry.isRevoked(1L, before.issuedAt()));
+
+        registry.revokeAll(1L);
+        Thread.sleep(2);
+        VerifiedToken after = jwtProvider.verify(jwtProvider.generateToken(1L, "a@test.com", UserRole.CUSTOMER))
+                .orElseThrow();
+
+        assertTrue(registry.isRevoked(1L, before.issuedAt()));
+        assertFalse(registry.isRevoked(1L, after.issuedAt()));
+        assertFalse(registry.isRevoked(2L, before.issuedAt()));
+    }
+
+    @Test
+    @DisplayName("밀리초 클레임이 없는 이전 토큰은 로그아웃과 같은 초에 발급되었으면 폐기된다")
+    void testLegacySecondPrecisionTokens() {
+        registry.revokeAll(1L);
+        long secondStart = System.currentTimeMillis() / 1000 * 1000;
+
+        assertTrue(registry.isRevoked(1L, new Date(secondStart)));
+        assertTrue(registry.isRevoked(1L, null));
+    }
+
+    @Test
+    @DisplayName("폐기 기준은 토큰 만료 시간을 TTL로 Redis에 남아, 재시작한 노드도 폐기된 토큰을 거부한다")
+    void testCutoffSurvivesRestart() {
+        Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+        registry.revokeAll(1L);
+
+        verify(valueOperations).set(eq("token-revoked-before:1"), anyString(), eq(Duration.ofMillis(EXPIRATION_MS)));
+        assertTrue(node().isRevoked(1L, issuedAt));
+        assertFalse(node().isRevoked(2L, issuedAt));
+    }
+
+    @Test
+    @DisplayName("다른 노드의 폐기 메시지는 로컬 캐시에 바로 반영되어, 이미 캐시된 '폐기 없음'도 덮어쓴다")
+    void testPubSubUpdatesOtherNodes() {
+        Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+        TokenRevocationRegistry other = node();
+        assertFalse(other.isRevoked(1L, issuedAt));
+
+        registry.revokeAll(1L);
+        verify(redisTemplate).convertAndSend(eq(TokenRevocationRegistry.INVALIDATION_CHANNEL), startsWith("1:"));
+        String payload = "1:" + redis.get("token-revoked-before:1");
+        other.onInvalidationMessage(payload);
+
+        assertTrue(other.isRevoked(1L, issuedAt));
+        // 잘못된 메시지는 무시
+        other.onInvalidationMessage("garbage");
+        other.onInvalidationMessage("1:abc");
+        assertTrue(other.isRevoked(1L, issuedAt));
+    }
+
+    @Test
+    @DisplayName("Redis 장애 시에도 이 노드에서 한 로그아웃은 적용되고, 조회 실패는 폐기 없음으로 본다")
+    void testRedisFailureFallsBackToLocal() {
+        when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        doThrow(new RedisConnectionFailureException("down"))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+
+        registry.revokeAll(1L);
+
+        assertTrue(registry.isRevoked(1L, issuedAt));
+        assertFalse(registry.isRevoked(2L, issuedAt));
+    }
+}
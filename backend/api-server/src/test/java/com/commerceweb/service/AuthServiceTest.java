@@ -0,0 +1,81 @@
+package com.commerceweb.service;
+
+import com.commerceweb.entity.User;
+import com.commerceweb.entity.UserRole;
+import com.commerceweb.repository.UserRepository;
+import com.commerceweb.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("회원가입/로그인 서비스 테스트")
+class AuthServiceTest {
+
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private PasswordHashingExecutor hashingExecutor;
+    private ExecutorService persistExecutor;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        hashingExecutor = new PasswordHashingExecutor(1, 1, new SimpleMeterRegistry());
+        persistExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "persist"));
+        authService = new AuthService(userRepository, new BCryptPasswordEncoder(4), hashingExecutor,
+                transactionTemplate, persistExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+        persistExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("해싱 스레드는 해싱만 하고, 중복 확인과 저장은 별도 실행기의 트랜잭션에서 한다")
+    void testSignupPersistsOffHashingThread() throws Exception {
+        AtomicReference<String> savingThread = new AtomicReference<>();
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            savingThread.set(Thread.currentThread().getName());
+            return invocation.getArgument(0);
+        });
+
+        User user = authService.signup("new@test.com", "password", "신규", null).get();
+
+        assertEquals(UserRole.CUSTOMER, user.getRole());
+        assertNotEquals("password", user.getPassword());
+        assertEquals("persist", savingThread.get());
+        verify(transactionTemplate).execute(any());
+        verify(userRepository, times(2)).existsByEmail("new@test.com");
+    }
+
+    @Test
+    @DisplayName("해싱하는 사이 같은 이메일이 가입되면 저장하지 않고 실패한다")
+    void testSignupRechecksEmailInTransaction() {
+        when(userRepository.existsByEmail("dup@test.com")).thenReturn(false, true);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> authService.signup("dup@test.com", "password", "중복", UserRole.SELLER).get());
+
+        assertEquals("이미 존재하는 이메일입니다.", e.getCause().getMessage());
+        verify(userRepository, never()).save(any());
+    }
+}
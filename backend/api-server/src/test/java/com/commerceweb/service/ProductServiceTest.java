@@ -1,17 +1,32 @@
 package com.commerceweb.service;
 
+import com.commerceweb.dto.CursorPage;
 import com.commerceweb.entity.Product;
 import com.commerceweb.entity.Rating;
 import com.commerceweb.entity.User;
 import com.commerceweb.repository.ProductRepository;
 import com.commerceweb.repository.RatingRepository;
 import com.commerceweb.repository.UserRepository;
+import com.commerceweb.service.product.CategoryLeaderboard;
+import com.commerceweb.service.product.ProductCache;
+import com.commerceweb.service.product.ProductChangedEvent;
+import com.commerceweb.service.product.ProductCursor;
+import com.commerceweb.service.product.ProductKey;
+import com.commerceweb.service.product.ProductLeaderboard;
+import com.commerceweb.service.product.ProductSearchIndex;
+import com.commerceweb.service.product.ProductSort;
+import com.commerceweb.service.product.SearchHit;
+import com.commerceweb.service.product.ViewCountBuffer;
+import com.commerceweb.service.recommendation.ProductScore;
+import com.commerceweb.service.recommendation.RecentViews;
+import com.commerceweb.service.recommendation.SimilarProductIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +42,30 @@ class ProductServiceTest {
     @Mock
     private RatingRepository ratingRepository;
 
+    @Mock
+    private ViewCountBuffer viewCountBuffer;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductLeaderboard leaderboard;
+
+    @Mock
+    private CategoryLeaderboard categoryLeaderboard;
+
+    @Mock
+    private SimilarProductIndex similarProducts;
+
+    @Mock
+    private RecentViews recentViews;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService;
 
@@ -63,7 +102,7 @@ class ProductServiceTest {
     }
 
     @Test
-    @DisplayName("상품 ID로 조회하면 조회수가 1 증가한다")
+    @DisplayName("상품 ID로 조회하면 조회수 증가가 버퍼에 기록된다")
     void testGetProductIncreasesViewCount() {
         // Given
         Long productId = 1L;
@@ -74,14 +113,32 @@ class ProductServiceTest {
                 .averageRating(4.0)
                 .build();
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productCache.get(productId)).thenReturn(Optional.of(product));
 
         // When
         Product result = productService.getProduct(productId);
 
         // Then
-        assertEquals(6L, result.getViewCount());
-        verify(productRepository, times(1)).save(product);
+        assertEquals(5L, result.getViewCount());
+        verify(viewCountBuffer, times(1)).increment(productId);
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("방문자 키와 함께 상세 조회하면 최근 본 상품에 기록되고, 키가 없으면 기록하지 않는다")
+    void testGetProductRecordsRecentView() {
+        // Given
+        Product product = Product.builder().id(3L).name("Viewed").build();
+        when(productCache.get(3L)).thenReturn(Optional.of(product));
+
+        // When
+        productService.getProduct(3L, "u:1");
+        productService.getProduct(3L);
+
+        // Then
+        verify(recentViews, times(1)).record("u:1", 3L);
+        verifyNoMoreInteractions(recentViews);
+        verify(viewCountBuffer, times(2)).increment(3L);
     }
 
     @Test
@@ -94,16 +151,137 @@ class ProductServiceTest {
                 .averageRating(4.8)
                 .build();
 
-        when(productRepository.findAllByOrderByAverageRatingDesc())
-                .thenReturn(List.of(topProduct));
+        when(productRepository.findPage(null, null, ProductSort.RATING, null, 11))
+                .thenReturn(List.of(new ProductKey(1L, 4.8, 0L)));
+        when(productCache.getAll(List.of(1L))).thenReturn(List.of(topProduct));
 
         // When
-        List<Product> products = productService.getTopRatedProducts();
+        CursorPage<Product> page = productService.getTopRatedProducts(null, 10);
 
         // Then
+        List<Product> products = page.items();
         assertEquals(1, products.size());
         assertEquals(4.8, products.get(0).getAverageRating());
-        verify(productRepository, times(1)).findAllByOrderByAverageRatingDesc();
+        assertNull(page.nextCursor());
+        verify(productRepository, times(1)).findPage(null, null, ProductSort.RATING, null, 11);
+    }
+
+    @Test
+    @DisplayName("트렌딩 첫 페이지는 순위표에서 응답하고 다음 페이지 커서는 DB 키셋 커서와 같다")
+    void testTrendingFirstPageFromLeaderboard() {
+        // Given
+        Product first = Product.builder().id(3L).name("A").viewCount(30L).build();
+        Product second = Product.builder().id(1L).name("B").viewCount(20L).build();
+
+        when(leaderboard.top(ProductSort.VIEWS, 3)).thenReturn(Optional.of(List.of(
+                new ProductLeaderboard.Entry(3L, 30), new ProductLeaderboard.Entry(1L, 20),
+                new ProductLeaderboard.Entry(2L, 10))));
+        when(productCache.getAll(List.of(3L, 1L))).thenReturn(List.of(first, second));
+
+        // When
+        CursorPage<Product> page = productService.getTrendingProducts(null, 2);
+
+        // Then
+        assertEquals(List.of(first, second), page.items());
+        ProductCursor next = ProductCursor.decode(page.nextCursor(), ProductSort.VIEWS);
+        assertEquals(20L, next.views());
+        assertEquals(1L, next.id());
+        verify(productRepository, never()).findPage(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("카테고리 평점순 첫 페이지는 카테고리 순위표에서 응답한다")
+    void testCategoryRatingFirstPageFromLeaderboard() {
+        // Given
+        Product first = Product.builder().id(5L).name("A").category("패션").averageRating(4.5).build();
+
+        when(categoryLeaderboard.top("패션", 2)).thenReturn(Optional.of(List.of(
+                new ProductLeaderboard.Entry(5L, 4.5), new ProductLeaderboard.Entry(2L, 4.0))));
+        when(productCache.getAll(List.of(5L))).thenReturn(List.of(first));
+
+        // When
+        CursorPage<Product> page = productService.getProducts("패션", null, ProductSort.RATING, null, 1);
+
+        // Then
+        assertEquals(List.of(first), page.items());
+        ProductCursor next = ProductCursor.decode(page.nextCursor(), ProductSort.RATING);
+        assertEquals(4.5, next.rating());
+        assertEquals(5L, next.id());
+        verify(productRepository, never()).findPage(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("페이지 크기보다 많으면 마지막 상품 기준의 다음 커서를 반환한다")
+    void testGetProductsReturnsNextCursor() {
+        // Given
+        Product first = Product.builder().id(3L).name("A").viewCount(30L).build();
+        Product second = Product.builder().id(2L).name("B").viewCount(20L).build();
+
+        when(productRepository.findPage(null, null, ProductSort.VIEWS, null, 3))
+                .thenReturn(List.of(new ProductKey(3L, 0.0, 30L), new ProductKey(2L, 0.0, 20L),
+                        new ProductKey(1L, 0.0, 20L)));
+        when(productCache.getAll(List.of(3L, 2L))).thenReturn(List.of(first, second));
+
+        // When
+        CursorPage<Product> page = productService.getProducts(null, "", ProductSort.VIEWS, null, 2);
+
+        // Then
+        assertEquals(List.of(first, second), page.items());
+        ProductCursor next = ProductCursor.decode(page.nextCursor(), ProductSort.VIEWS);
+        assertEquals(20L, next.views());
+        assertEquals(2L, next.id());
+    }
+
+    @Test
+    @DisplayName("검색어가 있으면 검색 인덱스의 관련도순으로 상품을 반환한다")
+    void testSearchByRelevance() {
+        // Given
+        Product exact = Product.builder().id(1L).name("키보드").build();
+        Product partial = Product.builder().id(2L).name("무선 키보드").build();
+
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search(null, "키보드", null, 3))
+                .thenReturn(List.of(new SearchHit(1L, 30L), new SearchHit(2L, 20L), new SearchHit(3L, 10L)));
+        when(productCache.getAll(List.of(1L, 2L))).thenReturn(List.of(exact, partial));
+
+        // When
+        CursorPage<Product> page = productService.getProducts(null, " 키보드 ", null, null, 2);
+
+        // Then
+        assertEquals(List.of(exact, partial), page.items());
+        ProductCursor next = ProductCursor.decode(page.nextCursor(), ProductSort.RELEVANCE);
+        assertEquals(20L, next.score());
+        assertEquals(2L, next.id());
+        verify(productRepository, never()).findPage(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("검색 인덱스가 준비되지 않았으면 DB 검색으로 대체한다")
+    void testSearchFallsBackToDatabase() {
+        // Given
+        when(searchIndex.isReady()).thenReturn(false);
+        when(productRepository.findPage(null, "키보드", ProductSort.LATEST, null, 11)).thenReturn(List.of());
+
+        // When
+        CursorPage<Product> page = productService.getProducts(null, "키보드", null, null, 10);
+
+        // Then
+        assertTrue(page.items().isEmpty());
+        verify(searchIndex, never()).search(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("상품을 등록하면 변경 이벤트를 발행한다")
+    void testCreateProductPublishesEvent() {
+        // Given
+        Product product = Product.builder().id(7L).name("새 상품").category("전자제품").build();
+        when(productRepository.save(product)).thenReturn(product);
+
+        // When
+        productService.createProduct(product);
+
+        // Then
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(7L, "새 상품", "전자제품", false));
     }
 
     @Test
@@ -129,4 +307,65 @@ class ProductServiceTest {
         assertEquals(30000.0, products.get(0).getPrice());
         verify(productRepository, times(1)).findByPriceBetween(minPrice, maxPrice);
     }
+
+    @Test
+    @DisplayName("비슷한 상품은 유사 상품 색인 순서대로 캐시에서 채운다")
+    void testSimilarProductsFromIndex() {
+        // Given
+        Product product3 = Product.builder().id(3L).build();
+        Product product9 = Product.builder().id(9L).build();
+        when(similarProducts.similar(1L, 2)).thenReturn(Optional.of(List.of(
+                new ProductScore(9L, 0.9), new ProductScore(3L, 0.7))));
+        when(productCache.getAll(List.of(9L, 3L))).thenReturn(List.of(product9, product3));
+
+        // When
+        List<Product> similar = productService.getSimilarProducts(1L, 2);
+
+        // Then
+        assertEquals(List.of(product9, product3), similar);
+        verify(productRepository, never()).findByCategory(any());
+    }
+
+    @Test
+    @DisplayName("유사 상품 색인이 준비되지 않았으면 같은 카테고리의 평점순 상위 상품을 자신을 빼고 돌려준다")
+    void testSimilarProductsFallbackToCategory() {
+        // Given
+        Product product = Product.builder().id(1L).category("전자제품").averageRating(4.0).build();
+        Product low = Product.builder().id(2L).category("전자제품").averageRating(3.0).build();
+        Product high = Product.builder().id(3L).category("전자제품").averageRating(4.5).build();
+        when(similarProducts.similar(1L, 2)).thenReturn(Optional.empty());
+        when(productCache.get(1L)).thenReturn(Optional.of(product));
+        when(categoryLeaderboard.top("전자제품", 3)).thenReturn(Optional.of(List.of(
+                new ProductLeaderboard.Entry(3L, 4.5), new ProductLeaderboard.Entry(1L, 4.0),
+                new ProductLeaderboard.Entry(2L, 3.0))));
+        when(productCache.getAll(List.of(3L, 2L))).thenReturn(List.of(high, low));
+
+        // When
+        List<Product> similar = productService.getSimilarProducts(1L, 2);
+
+        // Then
+        assertEquals(List.of(high, low), similar);
+        verify(productRepository, never()).findByCategory(any());
+    }
+
+    @Test
+    @DisplayName("카테고리 순위표를 쓸 수 없으면 DB에서 평점순 상위 개수만 조회한다")
+    void testSimilarProductsFallbackQueryIsBounded() {
+        // Given
+        Product product = Product.builder().id(1L).category("전자제품").averageRating(4.0).build();
+        Product high = Product.builder().id(3L).category("전자제품").averageRating(4.5).build();
+        when(similarProducts.similar(1L, 1)).thenReturn(Optional.empty());
+        when(productCache.get(1L)).thenReturn(Optional.of(product));
+        when(categoryLeaderboard.top("전자제품", 2)).thenReturn(Optional.empty());
+        when(productRepository.findPage("전자제품", null, ProductSort.RATING, null, 2))
+                .thenReturn(List.of(new ProductKey(3L, 4.5, 0L), new ProductKey(1L, 4.0, 0L)));
+        when(productCache.getAll(List.of(3L))).thenReturn(List.of(high));
+
+        // When
+        List<Product> similar = productService.getSimilarProducts(1L, 1);
+
+        // Then
+        assertEquals(List.of(high), similar);
+        verify(productRepository, never()).findByCategory(any());
+    }
 }
@@ -0,0 +1,169 @@
+package com.commerceweb.service;
+
+import com.commerceweb.entity.Product;
+import com.commerceweb.entity.User;
+import com.commerceweb.entity.UserRole;
+import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.repository.RatingRepository;
+import com.commerceweb.repository.UserRepository;
+import com.commerceweb.service.product.RatingAggregateRepairJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 평가 집계 증분 반영 테스트 (인메모리 H2, 실제 트랜잭션/행 잠금 사용)
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rating_aggregate;MODE=PostgreSQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import({RatingService.class, RatingAggregateRepairJob.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("평가 집계 동시성 테스트")
+class RatingServiceConcurrencyTest {
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private RatingAggregateRepairJob repairJob;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        ratingRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("여러 사용자가 동시에 평가해도 합계/개수/평균이 정확하다")
+    void testConcurrentRatings() throws Exception {
+        Product product = newProduct();
+        List<User> users = newUsers(40);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            Long userId = users.get(i).getId();
+            int score = i % 5 + 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return ratingService.rateProduct(userId, product.getId(), score, null);
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // 1~5점을 8번씩: 합계 120, 개수 40
+        Product saved = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(120L, saved.getRatingScoreSum());
+        assertEquals(40L, saved.getRatingScoreCount());
+        assertEquals(40L, saved.getRatingCount());
+        assertEquals(3.0, saved.getAverageRating(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("점수 변경과 삭제는 이전 점수와의 차이만 반영한다")
+    void testUpdateAndDelete() {
+        Product product = newProduct();
+        List<User> users = newUsers(2);
+
+        ratingService.rateProduct(users.get(0).getId(), product.getId(), 2, null);
+        Long ratingId = ratingService.rateProduct(users.get(1).getId(), product.getId(), 4, null).getId();
+        ratingService.rateProduct(users.get(0).getId(), product.getId(), 5, null);
+
+        Product rated = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(9L, rated.getRatingScoreSum());
+        assertEquals(2L, rated.getRatingCount());
+        assertEquals(4.5, rated.getAverageRating(), 1e-9);
+
+        ratingService.deleteRating(users.get(1).getId(), ratingId);
+
+        Product deleted = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(5L, deleted.getRatingScoreSum());
+        assertEquals(1L, deleted.getRatingCount());
+        assertEquals(5.0, deleted.getAverageRating(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("증분 경로를 거치지 않고 어긋난 집계는 보정 작업이 바로잡는다")
+    void testRepair() {
+        Product product = newProduct();
+        List<User> users = newUsers(3);
+        for (int i = 0; i < users.size(); i++) {
+            ratingService.rateProduct(users.get(i).getId(), product.getId(), i + 3, null);
+        }
+        jdbcTemplate.update("UPDATE products SET rating_score_sum = NULL, rating_score_count = NULL, " +
+                "average_rating = 0, rating_count = 0 WHERE id = ?", product.getId());
+        // 평가가 없는데 평균/개수가 남은 상품은 증분 UPDATE와 같이 0으로 맞춘다
+        Product unrated = newProduct();
+        jdbcTemplate.update("UPDATE products SET average_rating = 4.5, rating_count = 2 WHERE id = ?", unrated.getId());
+
+        assertEquals(2, repairJob.repair());
+        assertEquals(0, repairJob.repair());
+
+        Product repaired = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(12L, repaired.getRatingScoreSum());
+        assertEquals(3L, repaired.getRatingScoreCount());
+        assertEquals(3L, repaired.getRatingCount());
+        assertEquals(4.0, repaired.getAverageRating(), 1e-9);
+
+        Product cleared = productRepository.findById(unrated.getId()).orElseThrow();
+        assertEquals(0L, cleared.getRatingCount());
+        assertEquals(0.0, cleared.getAverageRating(), 1e-9);
+    }
+
+    private Product newProduct() {
+        return productRepository.save(Product.builder().name("키보드").price(10_000.0).category("전자제품").build());
+    }
+
+    private List<User> newUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(userRepository.save(User.builder()
+                    .email("user" + i + "@test.com")
+                    .password("password")
+                    .name("사용자" + i)
+                    .role(UserRole.CUSTOMER)
+                    .build()));
+        }
+        return users;
+    }
+}
@@ -4,17 +4,41 @@ import com.commerceweb.entity.Product;
 import com.commerceweb.entity.Rating;
 import com.commerceweb.repository.ProductRepository;
 import com.commerceweb.repository.RatingRepository;
+import com.commerceweb.service.product.CategoryLeaderboard;
+import com.commerceweb.service.product.ProductCache;
+import com.commerceweb.service.product.ProductKey;
+import com.commerceweb.service.product.ProductLeaderboard;
+import com.commerceweb.service.product.ProductSort;
+import com.commerceweb.service.recommendation.AlsModel;
+import com.commerceweb.service.recommendation.AlsModelStore;
+import com.commerceweb.service.recommendation.CoPurchaseIndex;
+import com.commerceweb.service.recommendation.HybridRecommendationEngine;
+import com.commerceweb.service.recommendation.ItemSimilarityJob;
+import com.commerceweb.service.recommendation.ItemSimilarityModel;
+import com.commerceweb.service.recommendation.ProductContentIndex;
+import com.commerceweb.service.recommendation.ProductScore;
+import com.commerceweb.service.recommendation.RatingMatrix;
+import com.commerceweb.service.recommendation.RecentViewRecommender;
+import com.commerceweb.service.recommendation.RecentViews;
+import com.commerceweb.service.recommendation.RecommendationCache;
+import com.commerceweb.service.recommendation.RecommendationEngines;
+import com.commerceweb.service.recommendation.UserNeighbour;
+import com.commerceweb.service.recommendation.UserNeighbourIndex;
+import com.commerceweb.service.recommendation.UserRatings;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @DisplayName("추천 서비스 테스트")
 class RecommendationServiceTest {
@@ -25,12 +49,56 @@ class RecommendationServiceTest {
     @Mock
     private ProductRepository productRepository;
 
-    @InjectMocks
+    @Mock
+    private ProductLeaderboard leaderboard;
+
+    @Mock
+    private CategoryLeaderboard categoryLeaderboard;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ItemSimilarityJob itemSimilarity;
+
+    @Mock
+    private RatingMatrix ratingMatrix;
+
+    @Mock
+    private UserNeighbourIndex neighbourIndex;
+
+    @Mock
+    private AlsModelStore alsModels;
+
+    @Mock
+    private CoPurchaseIndex coPurchases;
+
+    @Mock
+    private RecentViewRecommender recentViewRecommender;
+
+    @Mock
+    private RecentViews recentViews;
+
+    @Mock
+    private ProductContentIndex contentIndex;
+
+    @Spy
+    private RecommendationCache recommendationCache =
+            new RecommendationCache(mock(StringRedisTemplate.class), new SimpleMeterRegistry(), 100, 1800, 300);
+
     private RecommendationService recommendationService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // 순위 계산은 기본 엔진을 주 엔진으로 (그림자 비교 없이) 거친다
+        HybridRecommendationEngine engine = new HybridRecommendationEngine(ratingRepository, productRepository,
+                leaderboard, itemSimilarity, ratingMatrix, neighbourIndex, alsModels, coPurchases, recentViews,
+                contentIndex);
+        RecommendationEngines engines = new RecommendationEngines(List.of(engine), new SimpleMeterRegistry(),
+                HybridRecommendationEngine.NAME, "", 0.05, 100);
+        recommendationService = new RecommendationService(productRepository, leaderboard, categoryLeaderboard,
+                productCache, recommendationCache, coPurchases, recentViewRecommender, engines);
     }
 
     @Test
@@ -53,6 +121,7 @@ class RecommendationServiceTest {
 
         when(productRepository.findHighRatedProducts())
                 .thenReturn(List.of(popularProduct));
+        when(productCache.getAll(List.of(1L))).thenReturn(List.of(popularProduct));
 
         // When
         List<Product> recommendations = recommendationService.getRecommendations(userId, limit);
@@ -95,7 +164,7 @@ class RecommendationServiceTest {
                 .thenReturn(List.of(rating1, rating4, rating5));
 
         // 추천 상품 반환 (상품5가 더 높은 평점)
-        when(productRepository.findByIdIn(List.of(5L, 4L)))
+        when(productCache.getAll(List.of(5L, 4L)))
                 .thenReturn(List.of(product5, product4));
 
         // When
@@ -131,8 +200,9 @@ class RecommendationServiceTest {
                 .averageRating(4.3)
                 .build();
 
-        when(productRepository.findByCategory(category))
-                .thenReturn(List.of(product1, product2));
+        when(productRepository.findPage(category, null, ProductSort.RATING, null, limit))
+                .thenReturn(List.of(new ProductKey(1L, 4.7, 0L), new ProductKey(2L, 4.3, 0L)));
+        when(productCache.getAll(List.of(1L, 2L))).thenReturn(List.of(product1, product2));
 
         // When
         List<Product> recommendations = recommendationService.getRecommendationsByCategory(category, limit);
@@ -140,7 +210,43 @@ class RecommendationServiceTest {
         // Then
         assertEquals(2, recommendations.size());
         assertEquals(4.7, recommendations.get(0).getAverageRating());
-        verify(productRepository, times(1)).findByCategory(category);
+        verify(productRepository, times(1)).findPage(category, null, ProductSort.RATING, null, limit);
+    }
+
+    @Test
+    @DisplayName("카테고리 추천은 카테고리 순위표에서 응답하고 DB를 조회하지 않는다")
+    void testCategoryRecommendationsFromLeaderboard() {
+        // Given
+        Product top = Product.builder().id(7L).category("electronics").averageRating(4.9).build();
+        Product next = Product.builder().id(3L).category("electronics").averageRating(4.1).build();
+        when(categoryLeaderboard.top("electronics", 2)).thenReturn(Optional.of(List.of(
+                new ProductLeaderboard.Entry(7L, 4.9), new ProductLeaderboard.Entry(3L, 4.1))));
+        when(productCache.getAll(List.of(7L, 3L))).thenReturn(List.of(top, next));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendationsByCategory("electronics", 2);
+
+        // Then
+        assertEquals(List.of(top, next), recommendations);
+        verify(productRepository, never()).findPage(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("순위표 없이 DB로 대체할 때도 카테고리 전체를 읽지 않고 평점순 상위 limit개만 조회한다")
+    void testCategoryRecommendationsFallbackIsBounded() {
+        // Given
+        Product rated = Product.builder().id(2L).category("books").averageRating(3.0).build();
+        when(categoryLeaderboard.top("books", 5)).thenReturn(Optional.empty());
+        when(productRepository.findPage("books", null, ProductSort.RATING, null, 5))
+                .thenReturn(List.of(new ProductKey(2L, 3.0, 0L)));
+        when(productCache.getAll(List.of(2L))).thenReturn(List.of(rated));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendationsByCategory("books", 5);
+
+        // Then
+        assertEquals(List.of(rated), recommendations);
+        verify(productRepository, never()).findByCategory(any());
     }
 
     @Test
@@ -167,6 +273,7 @@ class RecommendationServiceTest {
 
         when(productRepository.findHighRatedProducts())
                 .thenReturn(List.of(fallbackProduct));
+        when(productCache.getAll(List.of(5L))).thenReturn(List.of(fallbackProduct));
 
         // When
         List<Product> recommendations = recommendationService.getRecommendations(userId, limit);
@@ -176,4 +283,235 @@ class RecommendationServiceTest {
         assertEquals("Popular Fallback", recommendations.get(0).getName());
         verify(ratingRepository, times(1)).findSimilarUsers(eq(userId), eq(List.of(1L, 2L)));
     }
+
+    @Test
+    @DisplayName("인기 상품은 순위표가 준비되어 있으면 DB를 조회하지 않는다")
+    void testPopularProductsFromLeaderboard() {
+        // Given
+        Product first = Product.builder().id(7L).name("First").averageRating(4.9).build();
+        Product second = Product.builder().id(3L).name("Second").averageRating(4.5).build();
+
+        when(leaderboard.top(ProductSort.RATING, 2, 4.0)).thenReturn(Optional.of(List.of(
+                new ProductLeaderboard.Entry(7L, 4.9), new ProductLeaderboard.Entry(3L, 4.5))));
+        when(productCache.getAll(List.of(7L, 3L))).thenReturn(List.of(first, second));
+
+        // When
+        List<Product> popular = recommendationService.getPopularProducts(2);
+
+        // Then
+        assertEquals(List.of(first, second), popular);
+        verify(productRepository, never()).findHighRatedProducts();
+    }
+
+    @Test
+    @DisplayName("최근 본 상품이 있으면 실시간 추천 순서대로, 없으면 인기 상품으로 응답한다")
+    void testRecentViewRecommendations() {
+        // Given
+        Product product5 = Product.builder().id(5L).name("Five").build();
+        Product product2 = Product.builder().id(2L).name("Two").build();
+        Product popular = Product.builder().id(7L).name("Popular").averageRating(4.9).build();
+        when(recentViewRecommender.recommend("s:abc", 2))
+                .thenReturn(List.of(new ProductScore(5L, 0.9), new ProductScore(2L, 0.4)));
+        when(recentViewRecommender.recommend(null, 2)).thenReturn(List.of());
+        when(productCache.getAll(List.of(5L, 2L))).thenReturn(List.of(product5, product2));
+        when(leaderboard.top(ProductSort.RATING, 2, 4.0))
+                .thenReturn(Optional.of(List.of(new ProductLeaderboard.Entry(7L, 4.9))));
+        when(productCache.getAll(List.of(7L))).thenReturn(List.of(popular));
+
+        // When & Then
+        assertEquals(List.of(product5, product2), recommendationService.getRecentViewRecommendations("s:abc", 2));
+        assertEquals(List.of(popular), recommendationService.getRecentViewRecommendations(null, 2));
+        verifyNoInteractions(ratingRepository);
+    }
+
+    @Test
+    @DisplayName("상품 유사도 모델이 준비되어 있으면 평가 행렬과 모델만으로 모델 순서대로 추천한다")
+    void testRecommendationsFromItemSimilarityModel() {
+        // Given
+        Long userId = 1L;
+        ItemSimilarityModel model = mock(ItemSimilarityModel.class);
+        when(itemSimilarity.current()).thenReturn(Optional.of(model));
+        UserRatings ratings = UserRatings.of(new long[]{1L, 2L}, new int[]{5, 4});
+        when(ratingMatrix.isReady()).thenReturn(true);
+        when(ratingMatrix.ratingsOf(userId)).thenReturn(ratings);
+        when(model.recommend(ratings, RecommendationCache.DEPTH))
+                .thenReturn(List.of(new ProductScore(9L, 2.5), new ProductScore(4L, 1.0)));
+
+        Product product9 = Product.builder().id(9L).name("Nine").build();
+        Product product4 = Product.builder().id(4L).name("Four").build();
+        when(productCache.getAll(List.of(9L, 4L))).thenReturn(List.of(product9, product4));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 3);
+
+        // Then
+        assertEquals(List.of(product9, product4), recommendations);
+        verify(ratingRepository, never()).findSimilarUsers(any(), any());
+        verify(ratingRepository, never()).findByUserId(any());
+        verify(ratingRepository, never()).findUserRatings(any());
+    }
+
+    @Test
+    @DisplayName("평가가 없는 사용자는 최근 본 상품과 내용이 비슷한 상품을 인기 상품보다 앞세운다")
+    void testColdStartRecommendationsFromContent() {
+        // Given
+        Long userId = 1L;
+        when(itemSimilarity.current()).thenReturn(Optional.empty());
+        when(ratingMatrix.isReady()).thenReturn(true);
+        when(ratingMatrix.ratingsOf(userId)).thenReturn(UserRatings.of(new long[0], new int[0]));
+        when(leaderboard.top(ProductSort.RATING, RecommendationCache.DEPTH, 4.0))
+                .thenReturn(Optional.of(List.of(new ProductLeaderboard.Entry(7L, 4.9))));
+        when(contentIndex.isReady()).thenReturn(true);
+        when(contentIndex.blendWeight()).thenReturn(0.3);
+        when(recentViews.recent("u:1", 20)).thenReturn(List.of(
+                new RecentViews.RecentView(3L, 2_000), new RecentViews.RecentView(4L, 1_000)));
+        when(contentIndex.recommend(new long[]{3L, 4L}, new double[]{1.0, 1.0}, RecommendationCache.DEPTH))
+                .thenReturn(List.of(new ProductScore(9L, 0.8), new ProductScore(5L, 0.6)));
+
+        Product product9 = Product.builder().id(9L).name("New Nine").ratingCount(0L).build();
+        Product product5 = Product.builder().id(5L).name("Five").build();
+        Product product7 = Product.builder().id(7L).name("Popular").build();
+        when(productCache.getAll(List.of(9L, 5L, 7L))).thenReturn(List.of(product9, product5, product7));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 3);
+
+        // Then
+        assertEquals(List.of(product9, product5, product7), recommendations);
+        verifyNoInteractions(ratingRepository);
+    }
+
+    @Test
+    @DisplayName("평가 행렬이 로드되어 있으면 이웃 사용자 색인으로 유사 사용자를 찾고 DB를 조회하지 않는다")
+    void testRecommendationsFromNeighbourIndex() {
+        // Given
+        Long userId = 1L;
+        when(itemSimilarity.current()).thenReturn(Optional.empty());
+        when(ratingMatrix.isReady()).thenReturn(true);
+        when(ratingMatrix.ratingsOf(userId)).thenReturn(UserRatings.of(new long[]{1L, 2L}, new int[]{5, 4}));
+        when(neighbourIndex.neighbours(userId, 5)).thenReturn(List.of(
+                new UserNeighbour(2L, 2, 0.5), new UserNeighbour(3L, 2, 0.4)));
+        when(ratingMatrix.ratingsOf(2L)).thenReturn(UserRatings.of(new long[]{1L, 2L, 7L, 8L}, new int[]{5, 4, 3, 5}));
+        when(ratingMatrix.ratingsOf(3L)).thenReturn(UserRatings.of(new long[]{1L, 7L}, new int[]{4, 5}));
+
+        Product product8 = Product.builder().id(8L).name("Eight").build();
+        Product product7 = Product.builder().id(7L).name("Seven").build();
+        when(productCache.getAll(List.of(8L, 7L))).thenReturn(List.of(product8, product7));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 10);
+
+        // Then: 8은 5점, 7은 (3 + 5) / 2 = 4점, 이미 평가한 1/2는 제외
+        assertEquals(List.of(product8, product7), recommendations);
+        verify(ratingRepository, never()).findSimilarUsers(any(), any());
+        verify(ratingRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    @DisplayName("추천 순위는 사용자별로 한 번 계산하고 요청한 개수만큼 잘라 상품을 채운다")
+    void testRankOnceAndSliceByLimit() {
+        // Given
+        Long userId = 1L;
+        when(ratingRepository.findRatedProductIdsByUserId(userId)).thenReturn(List.of(1L));
+        List<Object[]> similarUsers = new ArrayList<>();
+        similarUsers.add(new Object[]{2L, 1});
+        when(ratingRepository.findSimilarUsers(eq(userId), eq(List.of(1L)))).thenReturn(similarUsers);
+        when(ratingRepository.findByUserId(2L)).thenReturn(List.of(
+                Rating.builder().product(Product.builder().id(4L).build()).score(4).build(),
+                Rating.builder().product(Product.builder().id(5L).build()).score(5).build()));
+
+        Product product5 = Product.builder().id(5L).build();
+        Product product4 = Product.builder().id(4L).build();
+        when(productCache.getAll(List.of(5L))).thenReturn(List.of(product5));
+        when(productCache.getAll(List.of(5L, 4L))).thenReturn(List.of(product5, product4));
+
+        // When
+        List<Product> top1 = recommendationService.getRecommendations(userId, 1);
+        List<Product> top20 = recommendationService.getRecommendations(userId, 20);
+
+        // Then
+        assertEquals(List.of(product5), top1);
+        assertEquals(List.of(product5, product4), top20);
+        verify(ratingRepository, times(1)).findSimilarUsers(any(), any());
+    }
+
+    @Test
+    @DisplayName("이웃 평점은 보는 순서와 관계없이 산술 평균으로 합친다")
+    void testNeighbourScoresAreOrderIndependentMeans() {
+        // Given
+        Long userId = 1L;
+        when(itemSimilarity.current()).thenReturn(Optional.empty());
+        when(ratingMatrix.isReady()).thenReturn(true);
+        when(ratingMatrix.ratingsOf(userId)).thenReturn(UserRatings.of(new long[]{1L, 2L}, new int[]{5, 4}));
+        when(neighbourIndex.neighbours(userId, 5)).thenReturn(List.of(
+                new UserNeighbour(2L, 2, 0.6), new UserNeighbour(3L, 2, 0.5), new UserNeighbour(4L, 2, 0.4)));
+        when(ratingMatrix.ratingsOf(2L)).thenReturn(UserRatings.of(new long[]{1L, 7L}, new int[]{5, 5}));
+        when(ratingMatrix.ratingsOf(3L)).thenReturn(UserRatings.of(new long[]{2L, 7L}, new int[]{4, 5}));
+        when(ratingMatrix.ratingsOf(4L)).thenReturn(UserRatings.of(new long[]{7L, 9L}, new int[]{2, 4}));
+
+        Product product7 = Product.builder().id(7L).build();
+        Product product9 = Product.builder().id(9L).build();
+        when(productCache.getAll(List.of(7L, 9L))).thenReturn(List.of(product7, product9));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 10);
+
+        // Then: 7은 (5 + 5 + 2) / 3 = 4점으로 9(4점)와 같아 id 순 (이전 방식이면 ((5 + 5) / 2 + 2) / 2 = 3.5점)
+        assertEquals(List.of(product7, product9), recommendations);
+    }
+
+    @Test
+    @DisplayName("ALS 모델에 있는 사용자는 모델 점수로 추천하고 다른 방식은 쓰지 않는다")
+    void testRecommendationsFromAlsModel() {
+        // Given
+        Long userId = 1L;
+        UserRatings rated = UserRatings.of(new long[]{1L}, new int[]{5});
+        AlsModel model = mock(AlsModel.class);
+        when(alsModels.current()).thenReturn(Optional.of(model));
+        when(model.contains(userId)).thenReturn(true);
+        when(ratingMatrix.isReady()).thenReturn(true);
+        when(ratingMatrix.ratingsOf(userId)).thenReturn(rated);
+        when(model.recommend(userId, rated, RecommendationCache.DEPTH)).thenReturn(List.of(
+                new ProductScore(6L, 4.7), new ProductScore(3L, 4.1)));
+
+        Product product6 = Product.builder().id(6L).build();
+        Product product3 = Product.builder().id(3L).build();
+        when(productCache.getAll(List.of(6L, 3L))).thenReturn(List.of(product6, product3));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 10);
+
+        // Then
+        assertEquals(List.of(product6, product3), recommendations);
+        verify(itemSimilarity, never()).current();
+        verify(neighbourIndex, never()).neighbours(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("함께 구매한 상품을 순위 기준으로 섞고, 평가한 상품은 섞지 않는다")
+    void testBlendsCoPurchasedProducts() {
+        // Given: 평가 기반 순위 [5, 6], 함께 구매 순위 [7, 6, 1(평가함)]
+        Long userId = 1L;
+        ItemSimilarityModel model = mock(ItemSimilarityModel.class);
+        UserRatings rated = UserRatings.of(new long[]{1L}, new int[]{5});
+        when(itemSimilarity.current()).thenReturn(Optional.of(model));
+        when(ratingMatrix.isReady()).thenReturn(true);
+        when(ratingMatrix.ratingsOf(userId)).thenReturn(rated);
+        when(model.recommend(rated, RecommendationCache.DEPTH)).thenReturn(List.of(
+                new ProductScore(5L, 3.0), new ProductScore(6L, 2.0)));
+        when(coPurchases.recommend(userId, RecommendationCache.DEPTH)).thenReturn(List.of(
+                new ProductScore(7L, 9), new ProductScore(6L, 4), new ProductScore(1L, 2)));
+        when(coPurchases.blendWeight()).thenReturn(0.5);
+
+        Product product5 = Product.builder().id(5L).build();
+        Product product6 = Product.builder().id(6L).build();
+        Product product7 = Product.builder().id(7L).build();
+        when(productCache.getAll(List.of(6L, 5L, 7L))).thenReturn(List.of(product6, product5, product7));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 10);
+
+        // Then: 6 = 1/62 + 0.5/62, 5 = 1/61, 7 = 0.5/61
+        assertEquals(List.of(product6, product5, product7), recommendations);
+    }
 }
@@ -0,0 +1,183 @@
+package com.commerceweb.service;
+
+import com.commerceweb.dto.CursorPage;
+import com.commerceweb.dto.InvalidCursorException;
+import com.commerceweb.dto.ReviewDto;
+import com.commerceweb.entity.*;
+import com.commerceweb.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 리뷰 목록 키셋 페이지네이션 테스트 (인메모리 H2, Hibernate 통계로 쿼리 수 확인)
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:review_pagination;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import(ReviewService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("리뷰 목록 페이지네이션 테스트")
+class ReviewPaginationTest {
+
+    private static final int REVIEWS = 60;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            users.add(userRepository.save(User.builder()
+                    .email("reviewer" + i + "@test.com").password("password").name("리뷰어" + i)
+                    .role(UserRole.CUSTOMER).build()));
+            products.add(productRepository.save(Product.builder()
+                    .name("상품" + i).price(10_000.0).category("전자제품").build()));
+        }
+        for (int i = 0; i < REVIEWS; i++) {
+            User user = users.get(i % 3);
+            Product product = products.get(i % 3);
+            Order order = orderRepository.save(Order.builder()
+                    .user(user).product(product).quantity(1).totalPrice(10_000L).build());
+            reviewRepository.save(Review.builder()
+                    .order(order).product(product).user(user).content("리뷰 " + i).rating(i % 5 + 1).build());
+        }
+        // 작성 시각이 같은 리뷰가 여러 페이지에 걸치도록 일부를 같은 시각으로 맞춘다
+        jdbcTemplate.update("UPDATE review SET created_at = ? WHERE MOD(id, 4) = 0", LocalDateTime.of(2025, 1, 1, 12, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("전체 리뷰를 (작성 시각, id) 내림차순으로 빠짐없이 한 번씩 넘긴다")
+    void testGlobalPagesCoverAllReviewsInOrder() {
+        List<ReviewDto> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ReviewDto> page = reviewService.getAllReviews(cursor, 7);
+            all.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(REVIEWS, all.size());
+        assertEquals(REVIEWS, all.stream().map(ReviewDto::getId).distinct().count());
+        assertEquals(all.stream().sorted(Comparator.comparing(ReviewDto::getCreatedAt)
+                .thenComparing(ReviewDto::getId).reversed()).toList(), all);
+        assertTrue(all.stream().allMatch(review -> review.getProductName() != null && review.getUserName() != null));
+    }
+
+    @Test
+    @DisplayName("작성 시각이 없는 이전 리뷰는 기동 시 보정되어 목록에서 빠지지 않고, 빈 커서는 첫 페이지로 본다")
+    void testBackfillsReviewsWithoutCreatedAt() {
+        // 컬럼이 NOT NULL이 되기 전의 기존 데이터를 흉내 낸다
+        jdbcTemplate.execute("ALTER TABLE review ALTER COLUMN created_at SET NULL");
+        int legacy = jdbcTemplate.update("UPDATE review SET created_at = NULL WHERE MOD(id, 7) = 3");
+        assertTrue(legacy > 0);
+
+        reviewService.normalizeCreatedAt();
+
+        List<ReviewDto> all = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPage<ReviewDto> page = reviewService.getAllReviews(cursor, 4);
+            all.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(REVIEWS, all.size());
+        assertEquals(REVIEWS, all.stream().map(ReviewDto::getId).distinct().count());
+        assertTrue(all.stream().allMatch(review -> review.getCreatedAt() != null));
+        assertEquals(reviewService.getReviewsByProduct(products.get(0).getId(), null, 5).items(),
+                reviewService.getReviewsByProduct(products.get(0).getId(), "", 5).items());
+    }
+
+    @Test
+    @DisplayName("페이지 크기와 관계없이 페이지마다 쿼리는 한 번만 실행된다")
+    void testSingleQueryPerPage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int size : new int[]{5, 40}) {
+            String cursor = null;
+            for (int pageNumber = 0; pageNumber < 2; pageNumber++) {
+                statistics.clear();
+                CursorPage<ReviewDto> global = reviewService.getAllReviews(cursor, size);
+                assertEquals(1, statistics.getPrepareStatementCount(), "전체 리뷰 size=" + size);
+                cursor = global.nextCursor();
+
+                statistics.clear();
+                CursorPage<ReviewDto> byProduct = reviewService.getReviewsByProduct(products.get(0).getId(), null, size);
+                assertEquals(1, statistics.getPrepareStatementCount(), "상품 리뷰 size=" + size);
+                assertFalse(byProduct.items().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("상품 리뷰는 해당 상품 것만 넘기고, 없는 상품과 잘못된 커서는 거절한다")
+    void testProductPagesAndErrors() {
+        Long productId = products.get(1).getId();
+        CursorPage<ReviewDto> first = reviewService.getReviewsByProduct(productId, null, 15);
+        CursorPage<ReviewDto> second = reviewService.getReviewsByProduct(productId, first.nextCursor(), 15);
+
+        assertEquals(15, first.items().size());
+        assertEquals(5, second.items().size());
+        assertNull(second.nextCursor());
+        assertTrue(second.items().stream().allMatch(review -> review.getProductId().equals(productId)));
+
+        assertThrows(RuntimeException.class, () -> reviewService.getReviewsByProduct(-1L, null, 10));
+        assertThrows(InvalidCursorException.class, () -> reviewService.getAllReviews("not-a-cursor", 10));
+    }
+}
@@ -0,0 +1,142 @@
+package com.commerceweb.service;
+
+import com.commerceweb.dto.ReviewDto;
+import com.commerceweb.dto.ReviewSummaryDto;
+import com.commerceweb.entity.*;
+import com.commerceweb.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 리뷰 집계 증분 반영 테스트 (인메모리 H2)
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:review_summary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReviewService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("리뷰 집계 테스트")
+class ReviewSummaryTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ProductReviewSummaryRepository summaryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("reviewer@test.com").password("password").name("리뷰어").role(UserRole.CUSTOMER).build());
+        product = productRepository.save(Product.builder().name("키보드").price(10_000.0).category("전자제품").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        summaryRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("리뷰 작성/수정/삭제가 리뷰 수, 평균 별점, 별점 분포에 반영된다")
+    void testCreateUpdateDelete() {
+        review(5);
+        Long reviewId = review(2);
+        review(4);
+
+        ReviewSummaryDto created = reviewService.getReviewSummary(product.getId());
+        assertEquals(3L, created.getReviewCount());
+        assertEquals(3.7, created.getAverageRating());
+        assertEquals(Map.of(5, 1L, 4, 1L, 3, 0L, 2, 1L, 1, 0L), created.getStarCounts());
+
+        reviewService.updateReview(reviewId, "다시 써보니 괜찮아요", 3, user.getId());
+        ReviewSummaryDto updated = reviewService.getReviewSummary(product.getId());
+        assertEquals(4.0, updated.getAverageRating());
+        assertEquals(0L, updated.getStarCounts().get(2));
+        assertEquals(1L, updated.getStarCounts().get(3));
+
+        reviewService.deleteReview(reviewId, user.getId());
+        ReviewSummaryDto deleted = reviewService.getReviewSummary(product.getId());
+        assertEquals(2L, deleted.getReviewCount());
+        assertEquals(4.5, deleted.getAverageRating());
+
+        // 상품의 평균 평점/평가 수는 평가(Rating) 집계 소관이므로 리뷰로 바뀌지 않는다
+        Product saved = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(0.0, saved.getAverageRating());
+        assertEquals(0L, saved.getRatingCount());
+    }
+
+    @Test
+    @DisplayName("집계 도입 전에 작성된 리뷰는 첫 조회 때 한 번 계산해 집계를 만든다")
+    void testInitializeFromExistingReviews() {
+        for (int rating : new int[]{1, 3, 3}) {
+            Order order = order();
+            reviewRepository.save(Review.builder()
+                    .order(order).product(product).user(user).content("기존 리뷰").rating(rating).build());
+        }
+
+        ReviewSummaryDto summary = reviewService.getReviewSummary(product.getId());
+        assertEquals(3L, summary.getReviewCount());
+        assertEquals(2L, summary.getStarCounts().get(3));
+
+        // 이후 리뷰는 증분으로 반영
+        review(5);
+        ReviewSummaryDto incremented = reviewService.getReviewSummary(product.getId());
+        assertEquals(4L, incremented.getReviewCount());
+        assertEquals(3.0, incremented.getAverageRating());
+    }
+
+    @Test
+    @DisplayName("별점이 1~5 범위를 벗어나면 거절한다")
+    void testInvalidRating() {
+        Order order = order();
+        ReviewDto reviewDto = ReviewDto.builder()
+                .orderId(order.getId()).userId(user.getId()).content("별점 없음").rating(6).build();
+
+        assertThrows(IllegalArgumentException.class, () -> reviewService.createReview(reviewDto));
+    }
+
+    private Long review(int rating) {
+        Order order = order();
+        return reviewService.createReview(ReviewDto.builder()
+                .orderId(order.getId()).userId(user.getId()).content("좋아요").rating(rating).build()).getId();
+    }
+
+    private Order order() {
+        return orderRepository.save(Order.builder().user(user).product(product).quantity(1).totalPrice(10_000L).build());
+    }
+}
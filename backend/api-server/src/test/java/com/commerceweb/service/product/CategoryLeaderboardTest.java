@@ -0,0 +1,170 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.entity.Product;
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("카테고리 순위표 테스트")
+class CategoryLeaderboardTest {
+
+    private static final String[] CATEGORIES = {"전자제품", "패션", "생활"};
+
+    // DB 역할을 하는 상품 목록 (id → 평점, id → 카테고리)
+    private final Map<Long, Double> ratings = new HashMap<>();
+    private final Map<Long, String> categories = new HashMap<>();
+    private ProductRepository productRepository;
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        productCache = mock(ProductCache.class);
+        when(productRepository.findPage(anyString(), isNull(), eq(ProductSort.RATING), isNull(), anyInt()))
+                .thenAnswer(invocation -> sorted(invocation.getArgument(0)).stream()
+                        .limit(invocation.<Integer>getArgument(4))
+                        .map(id -> new ProductKey(id, ratings.get(id), 0L))
+                        .toList());
+        when(productRepository.findKeysByIdIn(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .filter(ratings::containsKey)
+                        .map(id -> new ProductKey(id, ratings.get(id), 0L))
+                        .toList());
+        when(productCache.get(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            return Optional.ofNullable(categories.get(id))
+                    .map(category -> Product.builder().id(id).category(category).build());
+        });
+    }
+
+    @Test
+    @DisplayName("처음 조회할 때 한 번만 DB에서 채우고 이후에는 메모리에서 응답한다")
+    void testLoadsOncePerCategory() {
+        for (long id = 1; id <= 30; id++) {
+            put(id, CATEGORIES[(int) (id % 3)], id % 7 / 2.0);
+        }
+        CategoryLeaderboard leaderboard = newLeaderboard(5);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected("패션", 5), ids(leaderboard.top("패션", 5)));
+            assertEquals(expected("생활", 3), ids(leaderboard.top("생활", 3)));
+        }
+        verify(productRepository, times(1)).findPage("패션", null, ProductSort.RATING, null, 6);
+        verify(productRepository, times(1)).findPage("생활", null, ProductSort.RATING, null, 6);
+
+        // 순위표보다 큰 요청은 DB 조회로 대체
+        assertTrue(leaderboard.top("패션", 6).isEmpty());
+        assertEquals(List.of(), ids(leaderboard.top("없는 카테고리", 5)));
+    }
+
+    @Test
+    @DisplayName("상품이 없는 카테고리 이름은 순위표를 만들지 않아 실제 카테고리 자리를 차지하지 못한다")
+    void testIgnoresEmptyCategories() {
+        for (long id = 1; id <= 6; id++) {
+            put(id, "패션", id);
+        }
+        CategoryLeaderboard leaderboard = new CategoryLeaderboard(
+                productRepository, productCache, new SimpleMeterRegistry(), 3, 1, 60);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(List.of(), ids(leaderboard.top("없는 카테고리" + i, 3)));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals(List.of(6L, 5L, 4L), ids(leaderboard.top("패션", 3)));
+        }
+        verify(productRepository, times(1)).findPage("패션", null, ProductSort.RATING, null, 4);
+
+        // 주기 재빌드는 만들어 둔 순위표만 다시 읽는다
+        clearInvocations(productRepository);
+        leaderboard.rebuild();
+        verify(productRepository, times(1)).findPage(anyString(), isNull(), eq(ProductSort.RATING), isNull(), anyInt());
+    }
+
+    @Test
+    @DisplayName("상품 등록, 카테고리 변경, 삭제를 반영한다")
+    void testProductChanges() {
+        for (long id = 1; id <= 6; id++) {
+            put(id, id <= 3 ? "전자제품" : "패션", id);
+        }
+        CategoryLeaderboard leaderboard = newLeaderboard(3);
+        assertEquals(List.of(3L, 2L, 1L), ids(leaderboard.top("전자제품", 3)));
+        assertEquals(List.of(6L, 5L, 4L), ids(leaderboard.top("패션", 3)));
+
+        // 새 상품은 평점 0으로 꼴찌에 들어온다
+        put(7L, "전자제품", 0.0);
+        leaderboard.onProductChanged(new ProductChangedEvent(7L, "새 상품", "전자제품", false));
+        assertEquals(List.of(3L, 2L, 1L), ids(leaderboard.top("전자제품", 3)));
+
+        // 1위 상품을 다른 카테고리로 옮기면 평점 그대로 옮겨 간다
+        put(6L, "전자제품", 6.0);
+        leaderboard.onProductChanged(new ProductChangedEvent(6L, "옮긴 상품", "전자제품", false));
+        assertEquals(List.of(6L, 3L, 2L), ids(leaderboard.top("전자제품", 3)));
+        assertEquals(List.of(5L, 4L), ids(leaderboard.top("패션", 3)));
+
+        ratings.remove(3L);
+        categories.remove(3L);
+        leaderboard.onProductChanged(ProductChangedEvent.deleted(3L));
+        assertEquals(List.of(6L, 2L, 1L), ids(leaderboard.top("전자제품", 3)));
+    }
+
+    @Test
+    @DisplayName("임의의 평점 변경과 카테고리 이동이 이어져도 항상 DB 정렬 결과와 같다")
+    void testRandomUpdatesMatchDatabase() {
+        Random random = new Random(11);
+        for (long id = 1; id <= 300; id++) {
+            put(id, CATEGORIES[random.nextInt(CATEGORIES.length)], random.nextInt(50) / 10.0);
+        }
+        CategoryLeaderboard leaderboard = newLeaderboard(20);
+        for (String category : CATEGORIES) {
+            leaderboard.top(category, 10);
+        }
+
+        for (int i = 0; i < 3_000; i++) {
+            long id = 1 + random.nextInt(300);
+            if (random.nextInt(10) == 0) {
+                put(id, CATEGORIES[random.nextInt(CATEGORIES.length)], ratings.get(id));
+                leaderboard.onProductChanged(new ProductChangedEvent(id, "상품" + id, categories.get(id), false));
+            } else {
+                put(id, categories.get(id), random.nextInt(50) / 10.0);
+                leaderboard.onRatingChanged(new ProductRatingChangedEvent(id, ratings.get(id), 1L));
+            }
+            for (String category : CATEGORIES) {
+                assertEquals(expected(category, 10), ids(leaderboard.top(category, 10)), "category=" + category);
+            }
+        }
+    }
+
+    private CategoryLeaderboard newLeaderboard(int capacity) {
+        return new CategoryLeaderboard(productRepository, productCache, new SimpleMeterRegistry(), capacity, 100, 60);
+    }
+
+    private void put(long id, String category, double rating) {
+        ratings.put(id, rating);
+        categories.put(id, category);
+    }
+
+    // DB 키셋 정렬: 평점 내림차순, 같으면 id 내림차순
+    private List<Long> sorted(String category) {
+        return categories.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(category))
+                .map(Map.Entry::getKey)
+                .sorted(Comparator.comparing((Long id) -> ratings.get(id)).thenComparing(id -> id).reversed())
+                .toList();
+    }
+
+    private List<Long> expected(String category, int limit) {
+        return sorted(category).stream().limit(limit).toList();
+    }
+
+    private static List<Long> ids(Optional<List<ProductLeaderboard.Entry>> entries) {
+        return entries.orElseThrow().stream().map(ProductLeaderboard.Entry::productId).toList();
+    }
+}
@@ -0,0 +1,187 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.entity.Product;
+import com.commerceweb.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("상품 2단계 캐시 테스트")
+class ProductCacheTest {
+
+    private ProductRepository productRepository;
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        // Redis에 아무것도 없는 상태
+        when(valueOperations.multiGet(anyList()))
+                .thenAnswer(invocation -> Arrays.asList(new String[invocation.<List<?>>getArgument(0).size()]));
+
+        cache = new ProductCache(productRepository, redisTemplate, objectMapper, meterRegistry, 100, 60, 600);
+    }
+
+    @Test
+    @DisplayName("DB에서 읽은 상품은 Redis와 로컬 캐시에 채워지고 다음 조회는 로컬에서 응답한다")
+    void testReadThrough() {
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product(1L, "키보드")));
+
+        assertEquals("키보드", cache.get(1L).orElseThrow().getName());
+        assertEquals("키보드", cache.get(1L).orElseThrow().getName());
+
+        verify(productRepository, times(1)).findAllById(any());
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "product.l2", "result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("Redis에 있는 상품은 DB를 조회하지 않는다")
+    void testRemoteHit() throws Exception {
+        String json = objectMapper.writeValueAsString(product(2L, "마우스"));
+        when(valueOperations.multiGet(List.of("product:2"))).thenReturn(List.of(json));
+
+        assertEquals("마우스", cache.get(2L).orElseThrow().getName());
+
+        verify(productRepository, never()).findAllById(any());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "product.l2", "result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("여러 상품 조회는 요청 순서를 유지하고 없는 상품은 제외한다")
+    void testGetAllKeepsOrder() {
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product(1L, "키보드")));
+        cache.get(1L);
+        when(productRepository.findAllById(List.of(3L, 2L, 4L)))
+                .thenReturn(List.of(product(2L, "마우스"), product(3L, "모니터")));
+
+        List<Product> products = cache.getAll(List.of(3L, 1L, 2L, 4L));
+
+        assertEquals(List.of(3L, 1L, 2L), products.stream().map(Product::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Redis 장애 시 DB에서 읽는다")
+    void testRedisFailureFallsBackToDatabase() {
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product(1L, "키보드")));
+
+        assertTrue(cache.get(1L).isPresent());
+        assertEquals(1.0, meterRegistry.get("product.cache.redis.errors").counter().count());
+    }
+
+    @Test
+    @DisplayName("상품이 변경되면 양쪽 캐시에서 지우고 다른 노드에 무효화를 발행한다")
+    void testInvalidateOnChange() {
+        when(productRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(product(1L, "키보드")))
+                .thenReturn(List.of(product(1L, "무선 키보드")));
+        cache.get(1L);
+
+        cache.onProductChanged(new ProductChangedEvent(1L, "무선 키보드", null, false));
+
+        verify(redisTemplate).delete("product:1");
+        verify(redisTemplate).convertAndSend(ProductCache.INVALIDATION_CHANNEL, "1");
+        assertEquals("무선 키보드", cache.get(1L).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("DB를 읽는 사이 다른 노드가 무효화해 버전이 바뀌면 읽은 값을 Redis에 쓰지 않는다")
+    void testSkipsRemoteWriteWhenVersionChanged() {
+        when(valueOperations.multiGet(List.of("product-version:1"))).thenReturn(Arrays.asList("3"));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product(1L, "키보드")));
+        // 파이프라인 결과 0 = Lua 스크립트가 버전 불일치로 저장하지 않음
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(0L));
+
+        assertTrue(cache.get(1L).isPresent());
+
+        assertEquals(0.0, meterRegistry.get("cache.puts").tags("cache", "product.l2").counter().count());
+        assertEquals(1.0, meterRegistry.get("product.cache.redis.stale-skips").counter().count());
+    }
+
+    @Test
+    @DisplayName("무효화는 버전을 먼저 올리고 Redis에서 지운다")
+    void testInvalidateBumpsVersionBeforeDelete() {
+        cache.invalidate(1L);
+
+        var order = inOrder(valueOperations, redisTemplate);
+        order.verify(valueOperations).increment("product-version:1");
+        order.verify(redisTemplate).delete("product:1");
+    }
+
+    @Test
+    @DisplayName("한 상품의 무효화는 다른 상품의 로컬 캐시 채우기를 막지 않는다")
+    void testInvalidationIsPerProduct() {
+        when(productRepository.findAllById(List.of(1L))).thenAnswer(invocation -> {
+            // DB를 읽는 사이 다른 상품의 평점이 바뀐다
+            cache.onInvalidationMessage("2");
+            return List.of(product(1L, "키보드"));
+        });
+
+        cache.get(1L);
+        cache.get(1L);
+
+        verify(productRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("다른 노드의 무효화 메시지를 받으면 로컬 캐시만 지운다")
+    void testInvalidationMessage() {
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product(1L, "키보드")));
+        cache.get(1L);
+
+        cache.onInvalidationMessage("1");
+        cache.get(1L);
+
+        verify(productRepository, times(2)).findAllById(any());
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("호출자가 받은 상품을 고쳐도 로컬 캐시의 상품은 바뀌지 않는다")
+    void testCallersGetIndependentCopies() {
+        Product loaded = product(1L, "키보드");
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(loaded));
+
+        Product first = cache.get(1L).orElseThrow();
+        // DB에서 읽은 엔티티를 고쳐도 로컬 캐시에는 복사본이 들어 있다
+        loaded.setName("DB에서 고친 이름");
+        first.setPrice(1.0);
+        Product second = cache.get(1L).orElseThrow();
+        second.setName("호출자가 고친 이름");
+        Product third = cache.getAll(List.of(1L)).get(0);
+
+        assertNotSame(second, third);
+        assertEquals("키보드", third.getName());
+        assertEquals(10_000.0, third.getPrice());
+        verify(productRepository, times(1)).findAllById(any());
+    }
+
+    private static Product product(Long id, String name) {
+        return Product.builder().id(id).name(name).price(10_000.0).category("전자제품").build();
+    }
+}
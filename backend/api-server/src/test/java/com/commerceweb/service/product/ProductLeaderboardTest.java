@@ -0,0 +1,146 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("상품 순위표 테스트")
+class ProductLeaderboardTest {
+
+    // DB 역할을 하는 상품 목록 (id → 평점, 조회수)
+    private final Map<Long, ProductKey> catalog = new HashMap<>();
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findPage(isNull(), isNull(), any(), isNull(), anyInt())).thenAnswer(invocation ->
+                sorted(invocation.getArgument(2)).stream().limit(invocation.<Integer>getArgument(4)).toList());
+        when(productRepository.findKeysByIdIn(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .map(catalog::get).filter(Objects::nonNull).toList());
+    }
+
+    @Test
+    @DisplayName("기동 시 DB에서 상위 상품을 읽어 순위를 만든다")
+    void testRebuild() {
+        for (long id = 1; id <= 20; id++) {
+            catalog.put(id, new ProductKey(id, id % 5 + 0.5, id * 10));
+        }
+        ProductLeaderboard leaderboard = newLeaderboard(5);
+
+        assertEquals(expected(ProductSort.RATING, 3), ids(leaderboard.top(ProductSort.RATING, 3)));
+        assertEquals(expected(ProductSort.VIEWS, 5), ids(leaderboard.top(ProductSort.VIEWS, 5)));
+    }
+
+    @Test
+    @DisplayName("평점이 오른 상품은 순위표에 들어오고, 떨어진 상품 때문에 순위가 불확실하면 다시 채운다")
+    void testRatingChanges() {
+        for (long id = 1; id <= 20; id++) {
+            catalog.put(id, new ProductKey(id, (double) id / 10, 0L));
+        }
+        ProductLeaderboard leaderboard = newLeaderboard(3);
+
+        // 순위표 밖 상품(1번)이 1위로 상승
+        rate(leaderboard, 1L, 5.0);
+        assertEquals(List.of(1L, 20L, 19L), ids(leaderboard.top(ProductSort.RATING, 3)));
+        verify(productRepository, times(1)).findPage(null, null, ProductSort.RATING, null, 4);
+
+        // 순위표 안 상품(20번)이 꼴찌로 하락 → 정확한 구간이 줄어 DB에서 다시 채움
+        rate(leaderboard, 20L, 0.0);
+        assertEquals(List.of(1L, 19L, 18L), ids(leaderboard.top(ProductSort.RATING, 3)));
+        verify(productRepository, times(2)).findPage(null, null, ProductSort.RATING, null, 4);
+    }
+
+    @Test
+    @DisplayName("조회수 반영 이벤트를 받으면 현재 조회수를 다시 읽어 순위를 갱신한다")
+    void testViewsFlushed() {
+        for (long id = 1; id <= 10; id++) {
+            catalog.put(id, new ProductKey(id, 0.0, id));
+        }
+        ProductLeaderboard leaderboard = newLeaderboard(3);
+
+        catalog.put(2L, new ProductKey(2L, 0.0, 100L));
+        catalog.put(9L, new ProductKey(9L, 0.0, 50L));
+        leaderboard.onViewsFlushed(new ProductViewsFlushedEvent(Set.of(2L, 9L)));
+
+        assertEquals(List.of(2L, 9L, 10L), ids(leaderboard.top(ProductSort.VIEWS, 3)));
+    }
+
+    @Test
+    @DisplayName("최소 점수 조건을 적용하고 상품이 적으면 있는 만큼 반환한다")
+    void testMinScoreAndSmallCatalog() {
+        catalog.put(1L, new ProductKey(1L, 4.8, 0L));
+        catalog.put(2L, new ProductKey(2L, 3.0, 0L));
+        catalog.put(3L, new ProductKey(3L, 4.1, 0L));
+        ProductLeaderboard leaderboard = newLeaderboard(10);
+
+        assertEquals(List.of(1L, 3L), ids(leaderboard.top(ProductSort.RATING, 5, 4.0)));
+        assertEquals(List.of(1L, 3L, 2L), ids(leaderboard.top(ProductSort.RATING, 5)));
+    }
+
+    @Test
+    @DisplayName("상품이 삭제되면 순위표에서 빠진다")
+    void testProductDeleted() {
+        for (long id = 1; id <= 10; id++) {
+            catalog.put(id, new ProductKey(id, (double) id, 0L));
+        }
+        ProductLeaderboard leaderboard = newLeaderboard(5);
+
+        catalog.remove(10L);
+        leaderboard.onProductChanged(ProductChangedEvent.deleted(10L));
+
+        assertEquals(List.of(9L, 8L, 7L), ids(leaderboard.top(ProductSort.RATING, 3)));
+    }
+
+    @Test
+    @DisplayName("임의의 평점 변경이 이어져도 항상 DB 정렬 결과와 같다")
+    void testRandomUpdatesMatchDatabase() {
+        Random random = new Random(7);
+        for (long id = 1; id <= 200; id++) {
+            catalog.put(id, new ProductKey(id, random.nextInt(50) / 10.0, 0L));
+        }
+        ProductLeaderboard leaderboard = newLeaderboard(20);
+
+        for (int i = 0; i < 2_000; i++) {
+            rate(leaderboard, 1L + random.nextInt(200), random.nextInt(50) / 10.0);
+            assertEquals(expected(ProductSort.RATING, 10), ids(leaderboard.top(ProductSort.RATING, 10)));
+        }
+    }
+
+    private ProductLeaderboard newLeaderboard(int capacity) {
+        ProductLeaderboard leaderboard = new ProductLeaderboard(productRepository, new SimpleMeterRegistry(), capacity);
+        leaderboard.rebuild();
+        return leaderboard;
+    }
+
+    private void rate(ProductLeaderboard leaderboard, Long productId, double rating) {
+        catalog.put(productId, new ProductKey(productId, rating, catalog.get(productId).viewCount()));
+        leaderboard.onRatingChanged(new ProductRatingChangedEvent(productId, rating, 1L));
+    }
+
+    private List<ProductKey> sorted(ProductSort sort) {
+        Comparator<ProductKey> bySort = sort == ProductSort.VIEWS
+                ? Comparator.comparing(ProductKey::viewCount)
+                : Comparator.comparing(ProductKey::averageRating);
+        return catalog.values().stream()
+                .sorted(bySort.thenComparing(ProductKey::id).reversed())
+                .toList();
+    }
+
+    private List<Long> expected(ProductSort sort, int limit) {
+        return sorted(sort).stream().limit(limit).map(ProductKey::id).toList();
+    }
+
+    private static List<Long> ids(Optional<List<ProductLeaderboard.Entry>> entries) {
+        return entries.orElseThrow().stream().map(ProductLeaderboard.Entry::productId).toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * 상품 이름 검색 비용 비교: {@code LOWER(name) LIKE '%검색어%'} (인메모리 H2) vs trigram 검색 인덱스
+ * <p>
+ * 두 방식 모두 첫 페이지(51건)만 가져온다. H2는 PostgreSQL과 같이 선행 와일드카드 LIKE에 인덱스를 쓰지 못하므로
+ * 일치하는 상품이 드문 검색어일수록 테이블 전체를 훑는다.
+ * <p>
+ * 실행: ./mvnw -Pbenchmark test -DskipTests -Dbenchmark=ProductSearchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductSearchBenchmark {
+
+    private static final String[] BRANDS = {"삼성", "애플", "LG", "소니", "나이키", "아디다스", "샤오미", "로지텍", "무인양품", "다이슨"};
+    private static final String[] ADJECTIVES = {"울트라", "프로", "미니", "슬림", "무선", "스마트", "프리미엄", "베이직"};
+    private static final String[] NOUNS = {"노트북", "이어폰", "키보드", "마우스", "모니터", "운동화", "백팩", "케이스", "충전기", "스피커"};
+    private static final String[] CATEGORIES = {"전자제품", "패션", "생활", "스포츠"};
+
+    private static final int PAGE = 51;
+
+    @Param({"100000", "1000000"})
+    private int products;
+
+    // 흔한 검색어 (약 1/80 일치) / 드문 검색어 (모델 번호까지 지정)
+    @Param({"무선 키보드", "키보드 x4821"})
+    private String query;
+
+    private ProductSearchIndex index;
+    private Connection connection;
+    private PreparedStatement likeStatement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        List<ProductSearchDocument> documents = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " X" + (1000 + random.nextInt(9000));
+            documents.add(new ProductSearchDocument(id, name, CATEGORIES[random.nextInt(CATEGORIES.length)]));
+        }
+
+        index = new ProductSearchIndex(mock(ProductRepository.class), new SimpleMeterRegistry());
+        index.load(documents);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:product_search_bench;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255), category VARCHAR(50))");
+            statement.execute("CREATE INDEX idx_products_name ON products (name)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO products VALUES (?, ?, ?)")) {
+            for (ProductSearchDocument document : documents) {
+                insert.setLong(1, document.id());
+                insert.setString(2, document.name());
+                insert.setString(3, document.category());
+                insert.addBatch();
+                if (document.id() % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        // 변경 전 경로: ProductRepositoryImpl.findPage의 이름 조건 + 최신순 첫 페이지
+        likeStatement = connection.prepareStatement(
+                "SELECT id, name, category FROM products WHERE LOWER(name) LIKE ? ORDER BY id DESC LIMIT " + PAGE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> likeScan() throws SQLException {
+        likeStatement.setString(1, "%" + query.toLowerCase(Locale.ROOT) + "%");
+        List<Long> ids = new ArrayList<>(PAGE);
+        try (ResultSet resultSet = likeStatement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public List<SearchHit> trigramIndex() {
+        return index.search(null, query, null, PAGE);
+    }
+}
@@ -0,0 +1,115 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("상품 검색 인덱스 테스트")
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(mock(ProductRepository.class), new SimpleMeterRegistry());
+        index.load(List.of(
+                new ProductSearchDocument(1L, "무선 키보드 K380", "전자제품"),
+                new ProductSearchDocument(2L, "키보드", "전자제품"),
+                new ProductSearchDocument(3L, "키보드 손목 받침대", "생활"),
+                new ProductSearchDocument(4L, "기계식키보드", "전자제품"),
+                new ProductSearchDocument(5L, "Wireless Mouse", "전자제품"),
+                new ProductSearchDocument(6L, "러닝화", "패션")));
+    }
+
+    @Test
+    @DisplayName("완전 일치 > 접두 > 단어 시작 > 포함 순으로 정렬한다")
+    void testRanking() {
+        List<SearchHit> hits = index.search(null, "키보드", null, 10);
+
+        assertEquals(List.of(2L, 3L, 1L, 4L), ids(hits));
+    }
+
+    @Test
+    @DisplayName("대소문자를 구분하지 않고 부분 문자열로 검색한다")
+    void testCaseInsensitiveSubstring() {
+        assertEquals(List.of(5L), ids(index.search(null, "less MOU", null, 10)));
+        // 연속된 부분 문자열이 아니면 제외
+        assertTrue(index.search(null, "키보드 K381", null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("trigram보다 짧은 검색어와 카테고리 일치도 찾는다")
+    void testShortQueryAndCategory() {
+        assertEquals(List.of(6L), ids(index.search(null, "러닝", null, 10)));
+        // 이름에는 없고 카테고리에만 있는 검색어
+        assertEquals(List.of(6L), ids(index.search(null, "패션", null, 10)));
+    }
+
+    @Test
+    @DisplayName("카테고리 필터를 적용한다")
+    void testCategoryFilter() {
+        assertEquals(List.of(2L, 1L, 4L), ids(index.search("전자제품", "키보드", null, 10)));
+    }
+
+    @Test
+    @DisplayName("커서 이후의 결과만 이어서 반환한다")
+    void testCursorPaging() {
+        List<Long> paged = new ArrayList<>();
+        ProductCursor after = null;
+        List<SearchHit> page;
+        do {
+            page = index.search(null, "키보드", after, 2);
+            paged.addAll(ids(page));
+            after = page.isEmpty() ? null : ProductCursor.of(page.get(page.size() - 1));
+        } while (page.size() == 2);
+
+        assertEquals(List.of(2L, 3L, 1L, 4L), paged);
+    }
+
+    @Test
+    @DisplayName("상품 수정/삭제를 증분 반영한다")
+    void testIncrementalUpdates() {
+        index.onProductChanged(new ProductChangedEvent(2L, "블루투스 스피커", "전자제품", false));
+        index.onProductChanged(ProductChangedEvent.deleted(3L));
+        index.onProductChanged(new ProductChangedEvent(7L, "접이식 키보드", "전자제품", false));
+
+        assertEquals(List.of(7L, 1L, 4L), ids(index.search(null, "키보드", null, 10)));
+        assertEquals(List.of(2L), ids(index.search(null, "스피커", null, 10)));
+    }
+
+    @Test
+    @DisplayName("삭제 표시가 많아지면 압축한 뒤에도 같은 결과를 반환한다")
+    void testCompaction() {
+        List<ProductSearchDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 4_000; id++) {
+            documents.add(new ProductSearchDocument(id, "상품 " + id, "생활"));
+        }
+        index.load(documents);
+        for (long id = 1; id <= 2_000; id++) {
+            index.onProductChanged(ProductChangedEvent.deleted(id));
+        }
+
+        assertEquals(List.of(3999L), ids(index.search(null, "상품 3999", null, 10)));
+        assertTrue(index.search(null, "상품 1999", null, 10).isEmpty());
+        assertEquals(2_000, index.matchingIds(null, "상품", 5_000).length);
+    }
+
+    @Test
+    @DisplayName("일치하는 ID가 상한을 넘으면 null을 반환한다")
+    void testMatchingIdsLimit() {
+        assertEquals(4, index.matchingIds(null, "키보드", 4).length);
+        assertNull(index.matchingIds(null, "키보드", 3));
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::productId).toList();
+    }
+}
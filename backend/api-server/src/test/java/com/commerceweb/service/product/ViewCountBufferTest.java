@@ -0,0 +1,165 @@
+package com.commerceweb.service.product;
+
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("조회수 버퍼 테스트")
+class ViewCountBufferTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductRepository productRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
+    private Map<Long, Long> flushed;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        productRepository = mock(ProductRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        flushed = new ConcurrentHashMap<>();
+
+        // batchUpdate로 전달된 (증가량, 상품 ID)를 누적
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            for (Object[] row : args) {
+                flushed.merge((Long) row[1], (Long) row[0], Long::sum);
+            }
+            return new int[args.size()];
+        });
+    }
+
+    private ViewCountBuffer newBuffer(int maxPending) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new ViewCountBuffer(jdbcTemplate, transactionTemplate, productRepository, eventPublisher,
+                meterRegistry, maxPending);
+    }
+
+    @Test
+    @DisplayName("같은 상품의 조회수는 flush 시 한 번의 UPDATE로 합쳐진다")
+    void testFlushMergesIncrements() {
+        // Given
+        ViewCountBuffer buffer = newBuffer(100);
+        buffer.increment(1L);
+        buffer.increment(1L);
+        buffer.increment(2L);
+
+        // When
+        buffer.flush();
+
+        // Then
+        assertEquals(Map.of(1L, 2L, 2L, 1L), flushed);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        assertEquals(3.0, meterRegistry.counter("product.views.flushed").count());
+        verify(eventPublisher).publishEvent(new ProductViewsFlushedEvent(Set.of(1L, 2L)));
+    }
+
+    @Test
+    @DisplayName("flush와 동시에 들어온 조회수도 유실되지 않는다")
+    void testConcurrentIncrementsAreNotLost() throws Exception {
+        // Given
+        ViewCountBuffer buffer = newBuffer(1_000);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    buffer.increment((long) (i % 10));
+                }
+                done.countDown();
+            });
+        }
+        while (!done.await(1, TimeUnit.MILLISECONDS)) {
+            buffer.flush();
+        }
+        buffer.flush();
+        executor.shutdown();
+
+        // Then
+        long total = flushed.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals((long) threads * perThread, total);
+    }
+
+    @Test
+    @DisplayName("DB 반영에 실패하면 다음 flush에서 다시 반영된다")
+    void testFailedFlushIsRetried() {
+        // Given
+        ViewCountBuffer buffer = newBuffer(100);
+        buffer.increment(1L);
+        doThrow(new RuntimeException("db down")).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        // When
+        buffer.flush();
+        reset(jdbcTemplate);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            args.forEach(row -> flushed.merge((Long) row[1], (Long) row[0], Long::sum));
+            return new int[args.size()];
+        });
+        buffer.flush();
+
+        // Then
+        assertEquals(Map.of(1L, 1L), flushed);
+        verify(eventPublisher, times(1)).publishEvent(any(ProductViewsFlushedEvent.class));
+    }
+
+    @Test
+    @DisplayName("버퍼가 가득 차면 새 상품의 조회수는 바로 DB에 반영된다")
+    void testOverflowWritesThrough() {
+        // Given
+        ViewCountBuffer buffer = newBuffer(1);
+        buffer.increment(1L);
+
+        // When
+        buffer.increment(2L);
+        buffer.increment(1L);
+
+        // Then
+        verify(productRepository, times(1)).incrementViewCount(2L, 1L);
+        buffer.flush();
+        assertEquals(Map.of(1L, 2L), flushed);
+    }
+
+    @Test
+    @DisplayName("버퍼가 가득 찼을 때의 바로 반영은 호출자의 읽기 전용 트랜잭션이 아닌 새 트랜잭션에서 실행된다")
+    void testOverflowRunsInNewTransaction() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ViewCountBuffer buffer = new ViewCountBuffer(jdbcTemplate, new TransactionTemplate(transactionManager),
+                productRepository, eventPublisher, meterRegistry, 1);
+        buffer.increment(1L);
+        when(productRepository.incrementViewCount(2L, 1L)).thenThrow(new IllegalStateException("DB 오류"));
+
+        // 바로 반영이 실패해도 조회는 실패하지 않는다
+        assertDoesNotThrow(() -> buffer.increment(2L));
+
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW
+                        && !definition.isReadOnly()));
+    }
+}
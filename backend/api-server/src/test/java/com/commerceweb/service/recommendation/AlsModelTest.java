@@ -0,0 +1,138 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ALS 모델 테스트")
+class AlsModelTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("저차원 구조가 있는 평가는 전체 평균보다 훨씬 작은 오차로 복원한다")
+    void testFitsLowRankRatings() {
+        RatingTriples triples = lowRankRatings(new Random(3), 400, 200, 0.1);
+        RatingSnapshot ratings = RatingSnapshot.build(triples);
+
+        AlsTrainer.Factors model = AlsTrainer.train(ratings, 8, 0.05, 10, pool);
+
+        double baseline = AlsTrainer.rmse(ratings, AlsTrainer.train(ratings, 1, 1e6, 1, pool));
+        double rmse = AlsTrainer.rmse(ratings, model);
+        assertTrue(rmse < baseline * 0.6, "rmse=" + rmse + ", baseline=" + baseline);
+    }
+
+    @Test
+    @DisplayName("병렬도와 관계없이 같은 요인이 나온다")
+    void testDeterministicAcrossParallelism() {
+        RatingSnapshot ratings = RatingSnapshot.build(lowRankRatings(new Random(7), 200, 100, 0.1));
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            AlsTrainer.Factors sequential = AlsTrainer.train(ratings, 8, 0.05, 5, single);
+            AlsTrainer.Factors parallel = AlsTrainer.train(ratings, 8, 0.05, 5, pool);
+
+            assertArrayEquals(sequential.userFactors(), parallel.userFactors());
+            assertArrayEquals(sequential.itemFactors(), parallel.itemFactors());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("스냅샷 파일로 쓰고 매핑해 읽은 추천은 평가한 상품을 빼고 예측 점수 내림차순이다")
+    void testSnapshotRoundTrip() {
+        RatingSnapshot ratings = RatingSnapshot.build(lowRankRatings(new Random(5), 150, 80, 0.15));
+        AlsTrainer.Factors factors = AlsTrainer.train(ratings, 6, 0.05, 5, pool);
+        Path file = directory.resolve("als-1.bin");
+
+        AlsModel.write(file, factors, 1L);
+        AlsModel model = AlsModel.open(file);
+
+        assertEquals(1L, model.version());
+        assertEquals(ratings.userCount(), model.userCount());
+        assertEquals(ratings.productCount(), model.productCount());
+        assertFalse(model.contains(-1L));
+
+        long userId = ratings.userIds[0];
+        UserRatings rated = ratings.row(userId);
+        List<ProductScore> recommended = model.recommend(userId, rated, 20);
+
+        List<ProductScore> expected = new ArrayList<>();
+        for (long productId : ratings.productIds) {
+            if (!rated.contains(productId)) {
+                expected.add(new ProductScore(productId, model.predict(userId, productId)));
+            }
+        }
+        expected.sort(Comparator.comparingDouble(ProductScore::score).reversed()
+                .thenComparingLong(ProductScore::productId));
+        assertEquals(expected.subList(0, 20).stream().map(ProductScore::productId).toList(),
+                recommended.stream().map(ProductScore::productId).toList());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(expected.get(i).score(), recommended.get(i).score(), 1e-4);
+        }
+    }
+
+    @Test
+    @DisplayName("새 버전 스냅샷을 쓰면 모델을 교체하고 오래된 스냅샷은 지운다")
+    void testStoreSwapsToNewerSnapshot() throws Exception {
+        RatingSnapshot ratings = RatingSnapshot.build(lowRankRatings(new Random(9), 50, 30, 0.2));
+        AlsModelStore store = new AlsModelStore(new SimpleMeterRegistry(), directory.toString(), 2);
+        assertTrue(store.current().isEmpty());
+
+        for (long version = 1; version <= 3; version++) {
+            store.publish(AlsTrainer.train(ratings, 4, 0.05, 2, pool), version);
+            assertEquals(version, store.current().orElseThrow().version());
+        }
+
+        try (var files = Files.list(directory)) {
+            assertEquals(Set.of("als-2.bin", "als-3.bin"),
+                    new HashSet<>(files.map(file -> file.getFileName().toString()).toList()));
+        }
+
+        // 다른 노드가 쓴 더 새로운 스냅샷은 주기적 reload로 반영한다
+        AlsModel.write(directory.resolve("als-10.bin"), AlsTrainer.train(ratings, 4, 0.05, 2, pool), 10L);
+        store.reload();
+        assertEquals(10L, store.current().orElseThrow().version());
+    }
+
+    // 사용자/상품마다 숨은 2차원 취향을 두고 1~5점으로 반올림한 평가
+    private static RatingTriples lowRankRatings(Random random, int users, int products, double density) {
+        double[][] userTaste = new double[users][2];
+        double[][] itemTaste = new double[products][2];
+        for (double[] taste : userTaste) {
+            taste[0] = random.nextGaussian();
+            taste[1] = random.nextGaussian();
+        }
+        for (double[] taste : itemTaste) {
+            taste[0] = random.nextGaussian();
+            taste[1] = random.nextGaussian();
+        }
+        RatingTriples triples = new RatingTriples(users * products / 8);
+        for (int u = 0; u < users; u++) {
+            for (int i = 0; i < products; i++) {
+                if (random.nextDouble() < density) {
+                    double value = 3 + userTaste[u][0] * itemTaste[i][0] + userTaste[u][1] * itemTaste[i][1];
+                    triples.add(u + 1, i + 1, (int) Math.max(1, Math.min(5, Math.round(value))));
+                }
+            }
+        }
+        return triples;
+    }
+}
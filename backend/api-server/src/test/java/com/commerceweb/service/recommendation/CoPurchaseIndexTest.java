@@ -0,0 +1,138 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("함께 구매 집계 테스트")
+class CoPurchaseIndexTest {
+
+    private CoPurchaseIndex newIndex(int topK, int historySize) {
+        return new CoPurchaseIndex(mock(JdbcTemplate.class), new SimpleMeterRegistry(), topK, historySize, 0.5);
+    }
+
+    @Test
+    @DisplayName("같은 사용자가 구매한 상품 쌍을 사용자당 한 번씩 세고, 마지막 주문이 취소되면 뺀다")
+    void testCountsPairsAndCancels() {
+        CoPurchaseIndex index = newIndex(10, 50);
+        index.load(List.of(
+                placed(1, 1L, 10L), placed(2, 1L, 20L), placed(3, 1L, 30L),
+                placed(4, 2L, 10L), placed(5, 2L, 20L),
+                placed(6, 2L, 20L)));   // 같은 상품 재구매는 쌍을 다시 세지 않는다
+
+        assertEquals(List.of(new ProductScore(20L, 2), new ProductScore(30L, 1)), index.boughtTogether(10L, 10));
+
+        // 상품 20의 주문이 두 건이므로 한 건 취소로는 그대로
+        index.onOrderChanged(new OrderChangedEvent(6L, 2L, 20L, true));
+        assertEquals(2.0, index.boughtTogether(10L, 10).get(0).score());
+
+        index.onOrderChanged(new OrderChangedEvent(5L, 2L, 20L, true));
+        assertEquals(List.of(new ProductScore(20L, 1), new ProductScore(30L, 1)), index.boughtTogether(10L, 10));
+
+        index.onOrderChanged(new OrderChangedEvent(7L, 3L, 30L, false));
+        index.onOrderChanged(new OrderChangedEvent(8L, 3L, 10L, false));
+        assertEquals(List.of(new ProductScore(30L, 2), new ProductScore(20L, 1)), index.boughtTogether(10L, 10));
+    }
+
+    @Test
+    @DisplayName("사용자 추천은 구매한 상품들의 함께 구매 횟수를 합산하고 이미 구매한 상품은 뺀다")
+    void testRecommend() {
+        CoPurchaseIndex index = newIndex(10, 50);
+        index.load(List.of(
+                placed(1, 1L, 10L), placed(2, 1L, 20L), placed(3, 1L, 40L),
+                placed(4, 2L, 10L), placed(5, 2L, 20L), placed(6, 2L, 30L),
+                placed(7, 3L, 10L), placed(8, 3L, 30L),
+                placed(9, 4L, 10L)));
+
+        // 사용자 4는 10만 구매: 20(2명) > 30(2명, id 순) > 40(1명)
+        assertEquals(List.of(20L, 30L, 40L), ids(index.recommend(4L, 10)));
+        assertEquals(List.of(30L), ids(index.recommend(1L, 10)));
+        assertTrue(index.recommend(99L, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("상품별 칸 수가 고정되어 있어도 자주 함께 구매된 상위 K개는 남고 횟수 오차는 (전체 / 칸 수) 이내이다")
+    void testHeavyHittersSurviveBoundedCounters() {
+        int topK = 5;
+        CoPurchaseIndex index = newIndex(topK, 3);
+        Random random = new Random(3);
+        List<OrderChangedEvent> orders = new ArrayList<>();
+        Map<Long, Integer> exact = new HashMap<>();
+        int users = 3_000;
+        long orderId = 1;
+        for (long user = 1; user <= users; user++) {
+            // 상품 1 다음에 인기 상품(100~104) 하나, 또는 긴 꼬리의 상품 하나
+            long partner = random.nextInt(3) > 0 ? 100 + random.nextInt(topK) : 1_000 + random.nextInt(5_000);
+            orders.add(placed(orderId++, user, 1L));
+            orders.add(placed(orderId++, user, partner));
+            exact.merge(partner, 1, Integer::sum);
+        }
+        index.load(orders);
+
+        List<ProductScore> top = index.boughtTogether(1L, topK);
+        assertEquals(Set.of(100L, 101L, 102L, 103L, 104L), new HashSet<>(ids(top)));
+        for (ProductScore score : top) {
+            int count = exact.get(score.productId());
+            assertTrue(score.score() >= count && score.score() <= count + users / (topK * 2.0),
+                    "productId=" + score.productId() + ", estimate=" + score.score() + ", exact=" + count);
+        }
+    }
+
+    @Test
+    @DisplayName("동시 주문을 순차 반영과 같은 횟수로 센다")
+    void testConcurrentOrders() throws Exception {
+        CoPurchaseIndex concurrent = newIndex(50, 50);
+        CoPurchaseIndex sequential = newIndex(50, 50);
+        concurrent.load(List.of());
+        sequential.load(List.of());
+
+        List<OrderChangedEvent> orders = new ArrayList<>();
+        Random random = new Random(9);
+        for (long user = 1; user <= 200; user++) {
+            for (int i = 0; i < 5; i++) {
+                orders.add(placed(orders.size() + 1, user, 1 + random.nextInt(30)));
+            }
+        }
+        orders.forEach(sequential::onOrderChanged);
+
+        // 사용자별 순서는 지키고 사용자끼리는 동시에
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long user = 1; user <= 200; user++) {
+                long buyer = user;
+                futures.add(executor.submit(() -> orders.stream()
+                        .filter(order -> order.userId() == buyer)
+                        .forEach(concurrent::onOrderChanged)));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (long productId = 1; productId <= 30; productId++) {
+            assertEquals(sequential.boughtTogether(productId, 100), concurrent.boughtTogether(productId, 100),
+                    "productId=" + productId);
+        }
+    }
+
+    private static OrderChangedEvent placed(long orderId, long userId, long productId) {
+        return new OrderChangedEvent(orderId, userId, productId, false);
+    }
+
+    private static List<Long> ids(List<ProductScore> scores) {
+        return scores.stream().map(ProductScore::productId).toList();
+    }
+}
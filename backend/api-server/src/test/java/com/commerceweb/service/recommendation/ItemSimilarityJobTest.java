@@ -0,0 +1,148 @@
+package com.commerceweb.service.recommendation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("상품 유사도 모델 테스트")
+class ItemSimilarityJobTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("상품별 이웃은 전수 비교한 adjusted cosine 상위 K개와 같다")
+    void testMatchesBruteForce() {
+        RatingTriples triples = randomRatings(new Random(11), 300, 120, 0.08);
+        int k = 10;
+
+        ItemSimilarityModel model = ItemSimilarityJob.compute(RatingSnapshot.build(triples), k, 2, Integer.MAX_VALUE, pool);
+
+        Map<Long, Map<Long, Double>> expected = bruteForce(triples, 2);
+        for (long productId = 1; productId <= 120; productId++) {
+            List<ProductScore> neighbours = model.neighbours(productId);
+            List<Map.Entry<Long, Double>> top = expected.getOrDefault(productId, Map.of()).entrySet().stream()
+                    .filter(entry -> entry.getValue() > 0)
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(k)
+                    .toList();
+
+            assertEquals(top.size(), neighbours.size(), "productId=" + productId);
+            for (int i = 0; i < top.size(); i++) {
+                assertEquals(top.get(i).getValue(), neighbours.get(i).score(), 1e-4, "productId=" + productId);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("병렬도와 관계없이 같은 모델이 나온다")
+    void testDeterministicAcrossParallelism() {
+        RatingTriples triples = randomRatings(new Random(5), 500, 800, 0.02);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            ItemSimilarityModel sequential = ItemSimilarityJob.compute(RatingSnapshot.build(triples), 20, 2, Integer.MAX_VALUE, single);
+            ItemSimilarityModel parallel = ItemSimilarityJob.compute(RatingSnapshot.build(triples), 20, 2, Integer.MAX_VALUE, pool);
+
+            for (long productId = 1; productId <= 800; productId++) {
+                assertEquals(sequential.neighbours(productId), parallel.neighbours(productId));
+            }
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("좋게 평가한 상품의 이웃을 가중 합산하고 이미 평가한 상품은 제외한다")
+    void testRecommend() {
+        RatingTriples triples = new RatingTriples(16);
+        // 상품 1을 좋아하는 사용자는 2도 좋아하고 3은 싫어한다, 4는 1과 무관
+        for (long user = 1; user <= 4; user++) {
+            triples.add(user, 1L, 5);
+            triples.add(user, 2L, 5);
+            triples.add(user, 3L, 1);
+        }
+        triples.add(5L, 4L, 5);
+        triples.add(5L, 1L, 1);
+        triples.add(6L, 4L, 4);
+        triples.add(6L, 1L, 2);
+        ItemSimilarityModel model = ItemSimilarityJob.compute(RatingSnapshot.build(triples), 10, 2, Integer.MAX_VALUE, pool);
+
+        List<ProductScore> recommended = model.recommend(UserRatings.of(new long[]{1L}, new int[]{5}), 10);
+        assertEquals(List.of(2L), recommended.stream().map(ProductScore::productId).toList());
+
+        // 이미 평가한 상품과 싫어한 상품(2점 이하)은 이웃을 합산하지 않는다
+        assertTrue(model.recommend(UserRatings.of(new long[]{1L, 2L}, new int[]{5, 5}), 10).isEmpty());
+        assertTrue(model.recommend(UserRatings.of(new long[]{1L}, new int[]{2}), 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("평가가 너무 많은 사용자는 유사도 계산에서 빠진다")
+    void testMaxUserRatings() {
+        RatingTriples triples = new RatingTriples(16);
+        for (long product = 1; product <= 5; product++) {
+            triples.add(1L, product, product % 2 == 0 ? 5 : 1);
+            triples.add(2L, product, product % 2 == 0 ? 5 : 1);
+        }
+
+        assertFalse(ItemSimilarityJob.compute(RatingSnapshot.build(triples), 10, 2, 5, pool).neighbours(2L).isEmpty());
+        assertTrue(ItemSimilarityJob.compute(RatingSnapshot.build(triples), 10, 2, 4, pool).neighbours(2L).isEmpty());
+    }
+
+    private static RatingTriples randomRatings(Random random, int users, int products, double density) {
+        RatingTriples triples = new RatingTriples(1024);
+        for (long user = 1; user <= users; user++) {
+            for (long product = 1; product <= products; product++) {
+                if (random.nextDouble() < density) {
+                    triples.add(user, product, 1 + random.nextInt(5));
+                }
+            }
+        }
+        return triples;
+    }
+
+    private static Map<Long, Map<Long, Double>> bruteForce(RatingTriples triples, int minCoRaters) {
+        Map<Long, Map<Long, Integer>> byUser = new HashMap<>();
+        for (int r = 0; r < triples.size(); r++) {
+            byUser.computeIfAbsent(triples.userId(r), id -> new HashMap<>()).put(triples.productId(r), triples.score(r));
+        }
+        Map<Long, Map<Long, Double>> centered = new HashMap<>();   // 상품 → (사용자 → 평균을 뺀 점수)
+        byUser.forEach((user, ratings) -> {
+            double mean = ratings.values().stream().mapToInt(Integer::intValue).average().orElse(0);
+            ratings.forEach((product, score) ->
+                    centered.computeIfAbsent(product, id -> new HashMap<>()).put(user, (double) (float) (score - mean)));
+        });
+
+        Map<Long, Map<Long, Double>> similarities = new HashMap<>();
+        for (Long a : centered.keySet()) {
+            for (Long b : centered.keySet()) {
+                if (a.equals(b)) {
+                    continue;
+                }
+                double dot = 0;
+                int co = 0;
+                for (Map.Entry<Long, Double> entry : centered.get(a).entrySet()) {
+                    Double other = centered.get(b).get(entry.getKey());
+                    if (other != null) {
+                        dot += entry.getValue() * other;
+                        co++;
+                    }
+                }
+                double normA = Math.sqrt(centered.get(a).values().stream().mapToDouble(v -> v * v).sum());
+                double normB = Math.sqrt(centered.get(b).values().stream().mapToDouble(v -> v * v).sum());
+                if (co >= minCoRaters && normA > 0 && normB > 0) {
+                    similarities.computeIfAbsent(a, id -> new HashMap<>()).put(b, dot / (normA * normB));
+                }
+            }
+        }
+        return similarities;
+    }
+}
@@ -0,0 +1,116 @@
+package com.commerceweb.service.recommendation;
+
+import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.service.product.ProductChangedEvent;
+import com.commerceweb.service.product.ProductTextDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("콘텐츠 색인 테스트")
+class ProductContentIndexTest {
+
+    private ProductContentIndex newIndex(int maxPostings, int maxQueryTerms) {
+        return new ProductContentIndex(mock(ProductRepository.class), new SimpleMeterRegistry(),
+                maxPostings, maxQueryTerms, 0.3);
+    }
+
+    private static List<ProductTextDocument> catalog() {
+        return List.of(
+                new ProductTextDocument(1L, "무선 기계식 키보드", "전자제품", "저소음 적축 텐키리스 키보드"),
+                new ProductTextDocument(2L, "블루투스 키보드", "전자제품", "무선 텐키리스 배열"),
+                new ProductTextDocument(3L, "경량 러닝화", "패션", "쿠셔닝 좋은 마라톤 운동화"),
+                new ProductTextDocument(4L, "진공 보온 텀블러", "생활", "스테인리스 대용량"),
+                new ProductTextDocument(5L, "게이밍 모니터", "전자제품", "고주사율 패널"),
+                new ProductTextDocument(6L, "트레일 러닝화", "패션", "접지력 좋은 밑창"));
+    }
+
+    private static List<Long> ids(List<ProductScore> scores) {
+        return scores.stream().map(ProductScore::productId).toList();
+    }
+
+    @Test
+    @DisplayName("드문 단어를 많이 공유하는 상품이 코사인이 높고, 흔한 카테고리만 같은 상품은 뒤로 간다")
+    void testRanksByTfIdfCosine() {
+        ProductContentIndex index = newIndex(5_000, 32);
+        index.load(catalog());
+
+        List<ProductScore> similar = index.similar(1L, 3).orElseThrow();
+
+        assertEquals(List.of(2L, 5L), ids(similar));
+        assertTrue(similar.get(0).score() > similar.get(1).score());
+        assertTrue(similar.get(0).score() <= 1.0 + 1e-6);
+        assertTrue(index.similar(99L, 3).isEmpty());
+
+        // 여러 상품을 합친 질의는 질의 상품을 빼고 양쪽과 비슷한 상품을 찾는다
+        assertEquals(List.of(6L, 2L), ids(index.recommend(new long[]{1L, 3L}, new double[]{1.0, 2.0}, 2)));
+    }
+
+    @Test
+    @DisplayName("상품 등록/수정/삭제를 증분 반영하므로 평가가 없는 새 상품도 바로 추천된다")
+    void testIncrementalUpdates() {
+        ProductContentIndex index = newIndex(5_000, 32);
+        index.load(catalog());
+
+        index.onProductChanged(new ProductChangedEvent(7L, "텐키리스 기계식 키보드", "전자제품", "저소음 적축", false));
+        assertEquals(7L, index.similar(1L, 1).orElseThrow().get(0).productId());
+
+        // 수정: 키보드 → 러닝화
+        index.onProductChanged(new ProductChangedEvent(7L, "쿠셔닝 러닝화", "패션", "마라톤 운동화", false));
+        assertFalse(ids(index.similar(1L, 5).orElseThrow()).contains(7L));
+        assertEquals(7L, index.similar(3L, 1).orElseThrow().get(0).productId());
+
+        index.onProductChanged(ProductChangedEvent.deleted(7L));
+        assertFalse(ids(index.similar(3L, 5).orElseThrow()).contains(7L));
+        assertTrue(index.similar(7L, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("삭제 표시가 많아지면 전용 스레드에서 색인을 다시 만들고, 그동안 들어온 변경도 잃지 않는다")
+    void testCompactsInBackground() throws InterruptedException {
+        List<ProductTextDocument> documents = new ArrayList<>(catalog());
+        for (long id = 100; id < 3_100; id++) {
+            documents.add(new ProductTextDocument(id, "기본 상품 " + id, "생활", "대량 등록 상품"));
+        }
+        ProductContentIndex index = newIndex(5_000, 32);
+        index.load(documents);
+
+        boolean rebuilding = false;
+        for (long id = 100; id < 1_600; id++) {
+            index.onProductChanged(ProductChangedEvent.deleted(id));
+            rebuilding |= index.isRebuilding();
+        }
+        index.onProductChanged(new ProductChangedEvent(7L, "텐키리스 기계식 키보드", "전자제품", "저소음 적축", false));
+        assertTrue(rebuilding, "재구성이 예약되지 않음");
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (index.isRebuilding() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(index.isRebuilding());
+        assertEquals(7L, index.similar(1L, 1).orElseThrow().get(0).productId());
+        assertTrue(index.similar(1_000L, 3).isEmpty());
+        assertTrue(index.similar(2_000L, 3).isPresent());
+        index.shutdown();
+    }
+
+    @Test
+    @DisplayName("posting이 max-postings를 넘는 흔한 단어와 기여가 작은 단어는 훑지 않는다")
+    void testPrunesCommonAndLowWeightTerms() {
+        // 상품 1의 단어 중 '전자제품'(3개)만 공유하는 상품 5는 posting 2개 이하만 훑으면 후보가 되지 않는다
+        ProductContentIndex pruned = newIndex(2, 32);
+        pruned.load(catalog());
+        assertEquals(List.of(2L), ids(pruned.similar(1L, 3).orElseThrow()));
+
+        // 질의 단어를 하나만 훑으면 (상품 1에만 있는 단어를 빼고) 기여 상한이 가장 큰 단어를 공유하는 상품만 후보가 된다
+        ProductContentIndex narrow = newIndex(5_000, 1);
+        narrow.load(catalog());
+        assertEquals(List.of(2L), ids(narrow.similar(1L, 3).orElseThrow()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("평가 행렬 테스트")
+class RatingMatrixTest {
+
+    private final RatingMatrix matrix = new RatingMatrix(null, new SimpleMeterRegistry(), 50);
+
+    @AfterEach
+    void tearDown() {
+        matrix.shutdown();
+    }
+
+    @Test
+    @DisplayName("평가 생성/변경/삭제를 증분 반영하고, 합친 뒤에도 같은 행을 돌려준다")
+    void testIncrementalUpdates() {
+        Random random = new Random(3);
+        Map<Long, TreeMap<Long, Integer>> expected = new HashMap<>();
+        RatingTriples triples = new RatingTriples(1024);
+        for (long user = 1; user <= 200; user++) {
+            for (long product = 1; product <= 100; product++) {
+                if (random.nextDouble() < 0.1) {
+                    int score = 1 + random.nextInt(5);
+                    triples.add(user, product, score);
+                    expected.computeIfAbsent(user, id -> new TreeMap<>()).put(product, score);
+                }
+            }
+        }
+        matrix.load(triples);
+        assertRows(expected);
+
+        for (int i = 0; i < 2_000; i++) {
+            // 새 사용자(201~220)와 새 상품(101~110)도 섞는다
+            long user = 1 + random.nextInt(220);
+            long product = 1 + random.nextInt(110);
+            Integer score = random.nextInt(4) == 0 ? null : 1 + random.nextInt(5);
+            matrix.onRatingChanged(new UserRatingChangedEvent(user, product, score));
+            TreeMap<Long, Integer> row = expected.computeIfAbsent(user, id -> new TreeMap<>());
+            if (score == null) {
+                row.remove(product);
+            } else {
+                row.put(product, score);
+            }
+            if (i % 500 == 0) {
+                assertRows(expected);
+                matrix.compact();
+            }
+        }
+        assertRows(expected);
+        matrix.compact();
+        assertRows(expected);
+    }
+
+    @Test
+    @DisplayName("평가 한 건은 행(상품 번호 + 점수 5바이트)과 역색인(사용자 번호 4바이트)을 합쳐 약 9바이트를 차지한다")
+    void testFootprint() {
+        Random random = new Random(7);
+        RatingTriples triples = new RatingTriples(1 << 20);
+        for (int i = 0; i < 1_000_000; i++) {
+            triples.add(1 + random.nextInt(50_000), 1 + random.nextInt(20_000), 1 + random.nextInt(5));
+        }
+
+        RatingSnapshot snapshot = matrix.load(triples);
+
+        // 중복 (사용자, 상품) 쌍은 하나로 합쳐진다
+        assertTrue(snapshot.ratingCount() > 990_000);
+        double bytesPerRating = (double) matrix.sizeInBytes() / snapshot.ratingCount();
+        assertTrue(bytesPerRating < 10, "bytes/rating=" + bytesPerRating);
+    }
+
+    private void assertRows(Map<Long, TreeMap<Long, Integer>> expected) {
+        expected.forEach((userId, row) -> {
+            UserRatings ratings = matrix.ratingsOf(userId);
+            assertEquals(row.size(), ratings.size(), "userId=" + userId);
+            int i = 0;
+            for (Map.Entry<Long, Integer> entry : row.entrySet()) {
+                assertEquals(entry.getKey(), ratings.productId(i));
+                assertEquals(entry.getValue(), ratings.score(i));
+                assertTrue(ratings.contains(entry.getKey()));
+                i++;
+            }
+            assertFalse(ratings.contains(1_000L));
+        });
+    }
+}
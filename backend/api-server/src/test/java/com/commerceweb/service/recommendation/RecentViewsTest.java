@@ -0,0 +1,95 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("최근 본 상품 테스트")
+class RecentViewsTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final RecentViews recentViews = new RecentViews(new SimpleMeterRegistry(), 4, 100, 30, clock::get);
+
+    @Test
+    @DisplayName("방문자마다 최근 size개만 최근 순으로 남기고, 같은 상품은 마지막 조회 한 번만 돌려준다")
+    void testRingBufferKeepsLatestViews() {
+        for (long productId : new long[]{1, 2, 3, 2, 4, 5}) {
+            clock.addAndGet(1_000);
+            recentViews.record("u:1", productId);
+        }
+        recentViews.record("s:other", 9L);
+
+        // 칸 4개: 3, 2, 4, 5 (1과 첫 번째 2는 덮어써짐)
+        assertEquals(List.of(
+                new RecentViews.RecentView(5L, 7_000),
+                new RecentViews.RecentView(4L, 6_000),
+                new RecentViews.RecentView(2L, 5_000),
+                new RecentViews.RecentView(3L, 4_000)), recentViews.recent("u:1", 10));
+        assertEquals(List.of(5L, 4L), recentViews.recent("u:1", 2).stream()
+                .map(RecentViews.RecentView::productId).toList());
+        assertEquals(List.of(), recentViews.recent("u:unknown", 10));
+    }
+
+    @Test
+    @DisplayName("직전에 본 상품을 다시 보면 새 칸을 쓰지 않고 시각만 갱신한다")
+    void testRepeatedViewRefreshesTime() {
+        recentViews.record("u:1", 1L);
+        recentViews.record("u:1", 2L);
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(1_000);
+            recentViews.record("u:1", 2L);
+        }
+
+        assertEquals(List.of(new RecentViews.RecentView(2L, 11_000), new RecentViews.RecentView(1L, 1_000)),
+                recentViews.recent("u:1", 10));
+    }
+
+    @Test
+    @DisplayName("로그인 사용자가 세션보다 우선하고, 형식이 맞지 않는 세션 id는 쓰지 않는다")
+    void testViewerKey() {
+        assertEquals("u:7", RecentViews.viewerKey(7L, "abc"));
+        assertEquals("s:abc-123_X", RecentViews.viewerKey(null, "abc-123_X"));
+        assertNull(RecentViews.viewerKey(null, null));
+        assertNull(RecentViews.viewerKey(null, ""));
+        assertNull(RecentViews.viewerKey(null, "a b"));
+        assertNull(RecentViews.viewerKey(null, "x".repeat(65)));
+    }
+
+    @Test
+    @DisplayName("최근 조회마다 유사 상품을 최근성 가중치로 합산하고, 모델에 없는 상품은 텍스트 유사 상품을 쓴다")
+    void testRecommendFromRecentViews() {
+        // 상품 1 → 10(0.9), 11(0.5) / 상품 2 → 11(0.8), 1(0.7) / 상품 3은 모델에 없음
+        ItemSimilarityModel model = new ItemSimilarityModel(new long[]{1, 2, 10, 11},
+                new int[]{0, 2, 4, 4, 4}, new int[]{2, 3, 3, 0}, new float[]{0.9f, 0.5f, 0.8f, 0.7f});
+        ItemSimilarityJob itemSimilarity = mock(ItemSimilarityJob.class);
+        when(itemSimilarity.current()).thenReturn(Optional.of(model));
+        SimilarProductIndex similarProducts = mock(SimilarProductIndex.class);
+        when(similarProducts.similar(3L, 20)).thenReturn(Optional.of(List.of(
+                new ProductScore(12L, 0.6), new ProductScore(1L, 0.4))));
+        RecentViewRecommender recommender = new RecentViewRecommender(recentViews, itemSimilarity, similarProducts,
+                new SimpleMeterRegistry(), 10, 1);
+
+        // 상품 1은 반감기(1분) 전에, 상품 2와 3은 지금 봤다
+        recentViews.record("s:abc", 1L);
+        clock.addAndGet(60_000);
+        recentViews.record("s:abc", 2L);
+        recentViews.record("s:abc", 3L);
+
+        List<ProductScore> scores = recommender.recommend("s:abc", 10);
+
+        // 11 = 0.5 × 0.5 + 0.8, 12 = 0.6, 10 = 0.9 × 0.5 (본 상품 1은 제외)
+        assertEquals(List.of(11L, 12L, 10L), scores.stream().map(ProductScore::productId).toList());
+        assertEquals(1.05, scores.get(0).score(), 1e-6);
+        assertEquals(0.45, scores.get(2).score(), 1e-6);
+        assertEquals(List.of(), recommender.recommend("s:nobody", 10));
+        assertEquals(List.of(), recommender.recommend(null, 10));
+    }
+}
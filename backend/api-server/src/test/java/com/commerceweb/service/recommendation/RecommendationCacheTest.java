@@ -0,0 +1,126 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("추천 캐시 테스트")
+class RecommendationCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+    private StringRedisTemplate redisTemplate;
+    private RecommendationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        cache = new RecommendationCache(redisTemplate, new SimpleMeterRegistry(), 100, 1800, 300,
+                pendingRefreshes::add, now::get);
+    }
+
+    @Test
+    @DisplayName("상위 100개를 한 번 계산해 두고 요청한 개수만큼 잘라 준다")
+    void testSlices() {
+        AtomicInteger calls = new AtomicInteger();
+        List<ProductScore> ranked = new ArrayList<>();
+        for (long id = 1; id <= 150; id++) {
+            ranked.add(new ProductScore(id, 200 - id));
+        }
+
+        assertEquals(List.of(1L, 2L, 3L), cache.get(7L, 3, id -> {
+            calls.incrementAndGet();
+            return ranked;
+        }));
+        List<Long> all = cache.get(7L, 500, id -> {
+            calls.incrementAndGet();
+            return ranked;
+        });
+
+        assertEquals(1, calls.get());
+        assertEquals(RecommendationCache.DEPTH, all.size());
+        assertEquals(100L, all.get(99));
+    }
+
+    @Test
+    @DisplayName("같은 사용자의 동시 미스는 한 번만 계산한다")
+    void testCoalescesConcurrentMisses() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> cache.get(7L, 5, id -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return List.of(new ProductScore(42L, 1.0));
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<List<Long>> future : futures) {
+                assertEquals(List.of(42L), future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("갱신 시점이 지나면 기존 값으로 응답하면서 백그라운드에서 한 번만 다시 계산한다")
+    void testRefreshAhead() {
+        AtomicInteger version = new AtomicInteger();
+        cache.get(7L, 5, id -> List.of(new ProductScore(version.incrementAndGet(), 1.0)));
+
+        now.addAndGet(Duration.ofSeconds(301).toNanos());
+        assertEquals(List.of(1L), cache.get(7L, 5, id -> List.of(new ProductScore(version.incrementAndGet(), 1.0))));
+        assertEquals(List.of(1L), cache.get(7L, 5, id -> List.of(new ProductScore(version.incrementAndGet(), 1.0))));
+        assertEquals(1, pendingRefreshes.size());
+        assertEquals(1, version.get());
+
+        pendingRefreshes.remove(0).run();
+        assertEquals(List.of(2L), cache.get(7L, 5, id -> List.of(new ProductScore(version.incrementAndGet(), 1.0))));
+        assertTrue(pendingRefreshes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("평가가 바뀐 사용자는 지우고 다른 노드에도 알린다, 무효화 후 끝난 미리 갱신은 버린다")
+    void testInvalidation() {
+        AtomicInteger version = new AtomicInteger();
+        cache.get(7L, 5, id -> List.of(new ProductScore(version.incrementAndGet(), 1.0)));
+        now.addAndGet(Duration.ofSeconds(301).toNanos());
+        cache.get(7L, 5, id -> List.of(new ProductScore(version.incrementAndGet(), 1.0)));
+
+        cache.onRatingChanged(new UserRatingChangedEvent(7L, 3L, 5));
+        verify(redisTemplate).convertAndSend(RecommendationCache.INVALIDATION_CHANNEL, "7");
+
+        assertEquals(List.of(2L), cache.get(7L, 5, id -> List.of(new ProductScore(version.incrementAndGet(), 1.0))));
+        pendingRefreshes.remove(0).run();   // 무효화 전에 예약된 갱신
+        assertEquals(List.of(2L), cache.get(7L, 5, id -> List.of(new ProductScore(version.incrementAndGet(), 1.0))));
+
+        cache.onInvalidationMessage("7");
+        assertEquals(List.of(4L), cache.get(7L, 5, id -> List.of(new ProductScore(version.incrementAndGet(), 1.0))));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("추천 엔진 선택/그림자 비교 테스트")
+class RecommendationEnginesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static RecommendationEngine engine(String name, long... productIds) {
+        return new RecommendationEngine() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<ProductScore> rank(long userId, int depth) {
+                List<ProductScore> ranked = new ArrayList<>();
+                for (int i = 0; i < productIds.length; i++) {
+                    ranked.add(new ProductScore(productIds[i], productIds.length - i));
+                }
+                return ranked;
+            }
+        };
+    }
+
+    private static RecommendationEngine failing(String name) {
+        return new RecommendationEngine() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<ProductScore> rank(long userId, int depth) {
+                throw new IllegalStateException("모델 없음");
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("설정한 주 엔진의 순위만 돌려주고, 표본 요청은 그림자 엔진의 지연과 상위 결과 겹침을 기록한다")
+    void testPrimaryAndSampledShadow() {
+        List<Runnable> scheduled = new ArrayList<>();
+        double[] sample = {0.01};
+        RecommendationEngines engines = new RecommendationEngines(
+                List.of(engine("hybrid", 1, 2, 3, 4), engine("fast", 3, 1, 9, 8)), meterRegistry,
+                "hybrid", "fast", 0.05, scheduled::add, () -> sample[0]);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), engines.rank(7L).stream().map(ProductScore::productId).toList());
+        sample[0] = 0.5;
+        engines.rank(8L);
+
+        // 표본에 든 첫 요청만 예약되고, 응답 경로에서는 그림자 엔진을 돌리지 않는다
+        assertEquals(1, scheduled.size());
+        assertEquals(0, meterRegistry.get("recommendation.engine.latency").tag("engine", "fast").timer().count());
+        assertEquals(2, meterRegistry.get("recommendation.engine.latency").tag("engine", "hybrid").timer().count());
+
+        scheduled.get(0).run();
+        assertEquals(1, meterRegistry.get("recommendation.engine.latency").tag("role", "shadow").timer().count());
+        // 상위 4개 중 1, 3이 겹침
+        assertEquals(0.5, meterRegistry.get("recommendation.engine.shadow.overlap").summary().mean(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("그림자 엔진이 실패하거나 큐가 차도 주 엔진 응답에는 영향이 없다")
+    void testShadowFailuresAreIsolated() {
+        Executor full = runnable -> {
+            throw new RejectedExecutionException("큐가 찼습니다");
+        };
+        RecommendationEngines dropping = new RecommendationEngines(
+                List.of(engine("hybrid", 1, 2), failing("broken")), meterRegistry, "hybrid", "broken", 1.0,
+                full, () -> 0.0);
+        assertEquals(2, dropping.rank(1L).size());
+        assertEquals(1.0, meterRegistry.counter("recommendation.engine.shadow.dropped").count());
+
+        RecommendationEngines failingShadow = new RecommendationEngines(
+                List.of(engine("hybrid", 1, 2), failing("broken")), meterRegistry, "hybrid", "broken", 1.0,
+                Runnable::run, () -> 0.0);
+        assertEquals(2, failingShadow.rank(1L).size());
+        assertEquals(1.0, meterRegistry.counter("recommendation.engine.shadow.errors").count());
+    }
+
+    @Test
+    @DisplayName("알 수 없는 엔진 이름이나 주 엔진과 같은 그림자 엔진은 기동 시 거부한다")
+    void testRejectsInvalidConfiguration() {
+        List<RecommendationEngine> available = List.of(engine("hybrid", 1), engine("fast", 2));
+
+        assertThrows(IllegalStateException.class, () -> new RecommendationEngines(available, meterRegistry,
+                "missing", "", 0.05, Runnable::run, () -> 0.0));
+        assertThrows(IllegalStateException.class, () -> new RecommendationEngines(available, meterRegistry,
+                "hybrid", "hybrid", 0.05, Runnable::run, () -> 0.0));
+        assertThrows(IllegalStateException.class, () -> new RecommendationEngines(
+                List.of(engine("hybrid", 1), engine("hybrid", 2)), meterRegistry, "hybrid", "", 0.05,
+                Runnable::run, () -> 0.0));
+    }
+}
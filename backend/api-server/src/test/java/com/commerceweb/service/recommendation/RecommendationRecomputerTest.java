@@ -0,0 +1,101 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("추천 다시 계산 테스트")
+class RecommendationRecomputerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RatingMatrix matrix = new RatingMatrix(null, meterRegistry, 1_000);
+    private final RecommendationCache cache = new RecommendationCache(mock(StringRedisTemplate.class), meterRegistry,
+            100, 1_800, 300, Runnable::run, System::nanoTime);
+
+    // 사용자별 계산 횟수 (순위 점수로 돌려줘 다시 계산되었는지 볼 수 있게 한다)
+    private final Map<Long, AtomicInteger> ranked = new ConcurrentHashMap<>();
+    private final RecommendationRanker ranker = userId -> List.of(
+            new ProductScore(999L, ranked.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet()));
+
+    private RecommendationRecomputer recomputer;
+
+    @BeforeEach
+    void setUp() {
+        // 상품 10: 사용자 1~4, 상품 11: 사용자 1~2, 상품 20: 사용자 5, 상품 30: 사용자 1~6 (인기 상품)
+        RatingTriples triples = new RatingTriples(64);
+        for (long user = 1; user <= 6; user++) {
+            if (user <= 4) {
+                triples.add(user, 10L, 4);
+            }
+            if (user <= 2) {
+                triples.add(user, 11L, 3);
+            }
+            triples.add(user, 30L, 5);
+        }
+        triples.add(5L, 20L, 5);
+        matrix.load(triples);
+        recomputer = new RecommendationRecomputer(matrix, cache, ranker, meterRegistry, true, 5, 2, 1.0, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recomputer.shutdown();
+        matrix.shutdown();
+        cache.shutdown();
+    }
+
+    @Test
+    @DisplayName("같은 상품을 평가한 사용자 중 캐시에 순위가 있는 사용자만 한 번씩 다시 계산한다")
+    void testRecomputesCachedRatersOfDirtyProducts() {
+        for (long user : new long[]{1, 2, 3, 5}) {
+            cache.get(user, 10, ranker::rank);
+        }
+
+        // 사용자 4가 상품 10과 11을 평가 → 사용자 1, 2, 3 (4는 캐시에 없고, 5는 관계없음)
+        rate(4L, 10L, 1);
+        rate(4L, 11L, 5);
+
+        assertEquals(3, recomputer.recomputeDirty());
+        assertEquals(2, ranked.get(1L).get());
+        assertEquals(2, ranked.get(2L).get());
+        assertEquals(2, ranked.get(3L).get());
+        assertEquals(1, ranked.get(5L).get());
+        assertFalse(ranked.containsKey(4L));
+        assertEquals(List.of(999L), cache.get(1L, 10, id -> fail("다시 계산한 순위가 캐시에 있어야 한다")));
+
+        // 표시는 한 번 펼치면 비워진다
+        assertEquals(0, recomputer.recomputeDirty());
+    }
+
+    @Test
+    @DisplayName("평가자가 max-fan-out명을 넘는 인기 상품은 펼치지 않는다")
+    void testHotProductDoesNotFanOut() {
+        for (long user = 1; user <= 5; user++) {
+            cache.get(user, 10, ranker::rank);
+        }
+
+        rate(6L, 30L, 1);
+
+        assertEquals(0, recomputer.recomputeDirty());
+        assertTrue(ranked.values().stream().allMatch(count -> count.get() == 1));
+        assertEquals(1.0, meterRegistry.counter("recommendation.recompute.hot-products").count());
+    }
+
+    private void rate(Long userId, Long productId, int score) {
+        UserRatingChangedEvent event = new UserRatingChangedEvent(userId, productId, score);
+        matrix.onRatingChanged(event);
+        cache.onRatingChanged(event);
+        recomputer.onRatingChanged(event);
+    }
+}
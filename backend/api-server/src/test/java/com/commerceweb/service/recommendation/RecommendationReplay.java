@@ -0,0 +1,91 @@
+package com.commerceweb.service.recommendation;
+
+import org.hibernate.stat.Statistics;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * 추천 방식 하나를 평가 대상 사용자들에게 차례로 호출하며 지연, 호출당 쿼리 수, 할당량, precision/recall@K를 잰다
+ * <p>
+ * 쿼리 수는 Hibernate 통계(JPA 리포지토리)로 세므로 {@code hibernate.generate_statistics=true}가 필요하다.
+ * 할당량은 호출한 스레드의 할당 바이트이므로 백그라운드 스레드(미리 갱신 등)의 할당은 빠진다.
+ */
+final class RecommendationReplay {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * 추천 방식: 사용자 id → 상위 limit개 상품 id
+     */
+    @FunctionalInterface
+    interface Engine {
+        List<Long> recommend(long userId, int limit);
+    }
+
+    record Result(String engine, int calls, long p50Nanos, long p99Nanos, double queriesPerCall,
+                  double bytesPerCall, double precision, double recall) {
+
+        @Override
+        public String toString() {
+            return String.format("%-28s 호출 %5d  p50 %8.3fms  p99 %8.3fms  쿼리 %5.2f/호출  할당 %8.1fKB/호출  " +
+                            "precision@K %.4f  recall@K %.4f",
+                    engine, calls, p50Nanos / 1e6, p99Nanos / 1e6, queriesPerCall, bytesPerCall / 1024,
+                    precision, recall);
+        }
+    }
+
+    private RecommendationReplay() {
+    }
+
+    /**
+     * @param heldOut 평가 대상 사용자 → 정답 상품 (정답이 없는 사용자는 지연/쿼리만 재고 품질 평균에서 뺀다)
+     * @param warmup  JIT 워밍업으로 먼저 호출할 사용자 수 (측정에서 제외)
+     */
+    static Result run(String name, Engine engine, Map<Long, Set<Long>> heldOut, int k, int warmup,
+                      Statistics statistics) {
+        List<Long> userIds = new ArrayList<>(new TreeSet<>(heldOut.keySet()));
+        for (int i = 0; i < Math.min(warmup, userIds.size()); i++) {
+            engine.recommend(userIds.get(i), k);
+        }
+
+        long[] nanos = new long[userIds.size()];
+        long queries = 0;
+        long bytes = 0;
+        double precision = 0;
+        double recall = 0;
+        int judged = 0;
+        for (int i = 0; i < userIds.size(); i++) {
+            long userId = userIds.get(i);
+            statistics.clear();
+            long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            List<Long> recommended = engine.recommend(userId, k);
+            nanos[i] = System.nanoTime() - start;
+            bytes += THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            queries += statistics.getPrepareStatementCount();
+
+            Set<Long> relevant = heldOut.get(userId);
+            if (!relevant.isEmpty()) {
+                long hits = recommended.stream().limit(k).filter(relevant::contains).count();
+                precision += (double) hits / k;
+                recall += (double) hits / relevant.size();
+                judged++;
+            }
+        }
+        int calls = userIds.size();
+        return new Result(name, calls, percentile(nanos, 0.5), percentile(nanos, 0.99),
+                calls > 0 ? (double) queries / calls : 0, calls > 0 ? (double) bytes / calls : 0,
+                judged > 0 ? precision / judged : 0, judged > 0 ? recall / judged : 0);
+    }
+
+    static long percentile(long[] nanos, double p) {
+        if (nanos.length == 0) {
+            return 0;
+        }
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(p * sorted.length) - 1))];
+    }
+}
@@ -0,0 +1,231 @@
+package com.commerceweb.service.recommendation;
+
+import com.commerceweb.entity.Product;
+import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.repository.RatingRepository;
+import com.commerceweb.service.RecommendationService;
+import com.commerceweb.service.product.CategoryLeaderboard;
+import com.commerceweb.service.product.ProductCache;
+import com.commerceweb.service.product.ProductLeaderboard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 추천 재현 벤치마크 (인메모리 H2, 합성 데이터, 외부 서비스 없음)
+ * <p>
+ * {@link SyntheticRatings}로 만든 사용자/상품/평가를 넣고, {@link RecommendationService}가 쓰는 방식을
+ * DB 유사 사용자 → 평가 행렬 이웃 → 상품 유사도 → ALS → 콘텐츠 혼합 순으로 켜 가며 같은 사용자들에게 재현한다.
+ * 수십 초가 걸리므로 기본 테스트에서는 빠지고(@Tag("replay")) replay 프로필로 실행하며, 시스템 속성으로 크기를 키울 수 있다:
+ * <pre>
+ * ./mvnw -Preplay test -Dreplay.users=1000000 -Dreplay.products=100000
+ * </pre>
+ * (replay.max-ratings-per-user, replay.sample-users, replay.k, replay.seed도 바꿀 수 있다)
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:recommendation_replay;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.commerceweb=WARN",
+        "logging.level.com.commerceweb.service.recommendation.RecommendationReplayTest=INFO",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration({JdbcTemplateAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+@Tag("replay")
+@DisplayName("추천 재현 벤치마크")
+class RecommendationReplayTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // 기동 이벤트로 빈 DB에서 모델이 만들어지지 않도록 추천 구성 요소는 직접 만든다 (설정 기본값 사용, Redis 없음)
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @TempDir
+    private Path alsSnapshots;
+    private RecommendationCache recommendationCache;
+    private RatingMatrix ratingMatrix;
+    private ItemSimilarityJob itemSimilarity;
+    private AlsTrainingJob alsTraining;
+    private ProductLeaderboard leaderboard;
+    private ProductContentIndex contentIndex;
+    private RecommendationEngines engines;
+    private boolean shadowing;
+    private RecommendationService recommendationService;
+
+    @BeforeEach
+    void setUp() {
+        ProductCache productCache = new ProductCache(productRepository, redisTemplate, objectMapper, meterRegistry,
+                10_000, 60, 600);
+        leaderboard = new ProductLeaderboard(productRepository, meterRegistry, 500);
+        ratingMatrix = new RatingMatrix(jdbcTemplate, meterRegistry, 10_000);
+        itemSimilarity = new ItemSimilarityJob(ratingMatrix, meterRegistry, 50, 2, 1_000, 0);
+        AlsModelStore alsModels = new AlsModelStore(meterRegistry, alsSnapshots.toString(), 2);
+        alsTraining = new AlsTrainingJob(ratingMatrix, alsModels, meterRegistry, true, 32, 10, 0.05, 0);
+        recommendationCache = new RecommendationCache(redisTemplate, meterRegistry, 100_000, 1_800, 300);
+        contentIndex = new ProductContentIndex(productRepository, meterRegistry, 5_000, 32, 0.3);
+        RecentViews recentViews = new RecentViews(meterRegistry, 20, 50_000, 30);
+        HybridRecommendationEngine hybrid = new HybridRecommendationEngine(ratingRepository, productRepository,
+                leaderboard, itemSimilarity, ratingMatrix, new UserNeighbourIndex(ratingMatrix, meterRegistry, 2_000, 2),
+                alsModels, new CoPurchaseIndex(jdbcTemplate, meterRegistry, 20, 50, 0.5), recentViews, contentIndex);
+        // shadowing인 동안만 모든 순위 계산을 상품 유사도 엔진과 (같은 스레드에서) 그림자 비교한다
+        engines = new RecommendationEngines(
+                List.of(hybrid, new ItemSimilarityEngine(itemSimilarity, ratingMatrix, leaderboard)), meterRegistry,
+                HybridRecommendationEngine.NAME, ItemSimilarityEngine.NAME, 1.0, Runnable::run,
+                () -> shadowing ? 0.0 : 1.0);
+        recommendationService = new RecommendationService(productRepository, leaderboard,
+                new CategoryLeaderboard(productRepository, productCache, meterRegistry, 100, 1_000, 60), productCache,
+                recommendationCache, new CoPurchaseIndex(jdbcTemplate, meterRegistry, 20, 50, 0.5),
+                new RecentViewRecommender(recentViews, itemSimilarity,
+                        new SimilarProductIndex(productRepository, meterRegistry, 256, 16, 100, 64), meterRegistry,
+                        10, 30),
+                engines);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recommendationCache.shutdown();
+        ratingMatrix.shutdown();
+        itemSimilarity.shutdown();
+        alsTraining.shutdown();
+        contentIndex.shutdown();
+        engines.shutdown();
+    }
+
+    @Test
+    @DisplayName("합성 데이터로 추천 방식별 지연, 호출당 쿼리 수, 할당량, precision/recall@K를 비교한다")
+    void testReplay() {
+        int users = Integer.getInteger("replay.users", 3_000);
+        int products = Integer.getInteger("replay.products", 600);
+        int k = Integer.getInteger("replay.k", 10);
+        long start = System.currentTimeMillis();
+        SyntheticRatings data = SyntheticRatings.insert(jdbcTemplate, users, products,
+                Integer.getInteger("replay.max-ratings-per-user", 200),
+                Integer.getInteger("replay.sample-users", 200),
+                Long.getLong("replay.seed", 42L));
+        log.info("✅ 합성 데이터: 사용자 {}명, 상품 {}개, 평가 {}건, 평가 대상 {}명 ({}ms)",
+                data.users(), data.products(), data.ratings(), data.heldOut().size(),
+                System.currentTimeMillis() - start);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        int warmup = Math.min(50, data.heldOut().size() / 5);
+        List<RecommendationReplay.Result> results = new ArrayList<>();
+
+        leaderboard.rebuild();
+        results.add(RecommendationReplay.run("인기 상품 (순위표)",
+                (userId, limit) -> ids(recommendationService.getPopularProducts(limit)),
+                data.heldOut(), k, warmup, statistics));
+
+        // 평가 행렬 로드 전: DB 쿼리로 유사 사용자 방식
+        results.add(RecommendationReplay.run("유사 사용자 (DB)", this::uncached, data.heldOut(), k, warmup, statistics));
+
+        ratingMatrix.build();
+        results.add(RecommendationReplay.run("유사 사용자 (평가 행렬)", this::uncached, data.heldOut(), k, warmup,
+                statistics));
+
+        itemSimilarity.rebuild();
+        assertTrue(itemSimilarity.current().isPresent());
+        results.add(RecommendationReplay.run("상품 유사도", this::uncached, data.heldOut(), k, warmup, statistics));
+
+        alsTraining.train();
+        results.add(RecommendationReplay.run("ALS", this::uncached, data.heldOut(), k, warmup, statistics));
+        results.add(RecommendationReplay.run("ALS (추천 캐시 적중)",
+                (userId, limit) -> ids(recommendationService.getRecommendations(userId, limit)),
+                data.heldOut(), k, warmup, statistics));
+
+        contentIndex.build();
+        assertTrue(contentIndex.isReady());
+        results.add(RecommendationReplay.run("ALS + 콘텐츠 (TF-IDF)", this::uncached, data.heldOut(), k, warmup,
+                statistics));
+
+        // 그림자 비교는 응답 스레드에서 돌려 (실서비스에서는 전용 스레드) 지연에 후보 엔진 시간이 더해진다
+        shadowing = true;
+        results.add(RecommendationReplay.run("ALS + 콘텐츠 (그림자 비교)", this::uncached, data.heldOut(), k, warmup,
+                statistics));
+        shadowing = false;
+
+        results.forEach(result -> log.info("✅ {}", result));
+        logShadowComparison();
+
+        RecommendationReplay.Result popular = results.get(0);
+        RecommendationReplay.Result database = results.get(1);
+        for (RecommendationReplay.Result result : results.subList(2, results.size())) {
+            // 평가 행렬 이후의 방식은 순위 계산에 DB를 쓰지 않는다 (상품 본문 일괄 조회 최대 1회)
+            assertTrue(result.queriesPerCall() <= 1.0, result.toString());
+            assertTrue(result.queriesPerCall() < database.queriesPerCall(), result.toString());
+        }
+        // 선호 카테고리를 아는 개인화 추천이 모두에게 같은 인기 상품보다 정답을 더 맞힌다
+        assertTrue(results.get(3).precision() > popular.precision(), results.get(3).toString());
+        assertTrue(results.get(4).precision() > popular.precision(), results.get(4).toString());
+    }
+
+    // 그림자 모드로 모은 엔진별 지연과 상위 결과 겹침
+    private void logShadowComparison() {
+        for (String role : new String[]{"primary", "shadow"}) {
+            // 주 엔진 지연은 모든 단계에 걸쳐 쌓인 값이다
+            Timer timer = meterRegistry.get("recommendation.engine.latency").tag("role", role).timer();
+            log.info(String.format("✅ 엔진 %-16s %-7s 호출 %5d  평균 %8.3fms  최대 %8.3fms", timer.getId().getTag("engine"),
+                    role, timer.count(), timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS)));
+        }
+        DistributionSummary overlap = meterRegistry.get("recommendation.engine.shadow.overlap").summary();
+        log.info(String.format("✅ 그림자 비교 %d회, 상위 %d개 평균 겹침 %.3f", overlap.count(),
+                RecommendationEngines.OVERLAP_DEPTH, overlap.mean()));
+        assertTrue(overlap.count() > 0);
+    }
+
+    // 사용자별 순위 캐시를 비워 매번 순위를 새로 계산하게 한다
+    private List<Long> uncached(long userId, int limit) {
+        recommendationCache.invalidate(userId);
+        return ids(recommendationService.getRecommendations(userId, limit));
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
@@ -0,0 +1,201 @@
+package com.commerceweb.service.recommendation;
+
+import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.service.product.ProductChangedEvent;
+import com.commerceweb.service.product.ProductTextDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("유사 상품 색인 테스트")
+class SimilarProductIndexTest {
+
+    private static final String[][] VOCABULARY = {
+            {"키보드", "무선", "기계식", "블루투스", "텐키리스", "저소음", "청축", "적축", "키캡", "배열"},
+            {"러닝화", "운동화", "쿠셔닝", "경량", "메쉬", "발볼", "마라톤", "트레일", "밑창", "통기성"},
+            {"텀블러", "보온", "보냉", "스테인리스", "머그", "진공", "뚜껑", "휴대용", "대용량", "빨대"},
+            {"모니터", "게이밍", "주사율", "해상도", "패널", "커브드", "스탠드", "응답속도", "와이드", "베젤"},
+            {"백팩", "노트북", "수납", "방수", "가방", "지퍼", "등판", "어깨끈", "여행", "캐리어"},
+    };
+    private static final String[] CATEGORIES = {"전자제품", "패션", "생활", "전자제품", "패션"};
+
+    private SimilarProductIndex newIndex() {
+        return new SimilarProductIndex(mock(ProductRepository.class), new SimpleMeterRegistry(), 256, 16, 100, 64);
+    }
+
+    @Test
+    @DisplayName("이름/카테고리/설명이 비슷한 상품을 먼저 찾고 자기 자신은 뺀다")
+    void testFindsTextuallySimilarProducts() {
+        SimilarProductIndex index = newIndex();
+        index.load(List.of(
+                new ProductTextDocument(1L, "무선 기계식 키보드", "전자제품", "저소음 적축 텐키리스 키보드"),
+                new ProductTextDocument(2L, "블루투스 키보드", "전자제품", "무선 텐키리스 배열"),
+                new ProductTextDocument(3L, "경량 러닝화", "패션", "쿠셔닝 좋은 마라톤 운동화"),
+                new ProductTextDocument(4L, "진공 보온 텀블러", "생활", "스테인리스 대용량"),
+                new ProductTextDocument(5L, "기계식키보드 키캡", "전자제품", "청축 키캡 세트")));
+
+        List<ProductScore> similar = index.similar(1L, 2).orElseThrow();
+
+        assertEquals(2, similar.size());
+        assertEquals(Set.of(2L, 5L), Set.of(similar.get(0).productId(), similar.get(1).productId()));
+        assertTrue(similar.get(0).score() >= similar.get(1).score());
+        assertTrue(index.similar(99L, 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("상품 등록/수정/삭제를 증분 반영하고 삭제된 상품은 결과에서 뺀다")
+    void testIncrementalUpdates() {
+        SimilarProductIndex index = newIndex();
+        index.load(List.of(
+                new ProductTextDocument(1L, "무선 키보드", "전자제품", "블루투스 키보드"),
+                new ProductTextDocument(2L, "경량 러닝화", "패션", "쿠셔닝 운동화"),
+                new ProductTextDocument(3L, "보온 텀블러", "생활", "스테인리스 머그")));
+        assertNotEquals(3L, index.similar(1L, 1).orElseThrow().get(0).productId());
+
+        // 새 상품은 평가 없이도 바로 유사 상품이 된다
+        index.onProductChanged(new ProductChangedEvent(4L, "블루투스 무선 키보드", "전자제품", "무선 키보드", false));
+        assertEquals(4L, index.similar(1L, 1).orElseThrow().get(0).productId());
+
+        // 텀블러를 키보드로 바꾸면 이웃도 바뀐다
+        index.onProductChanged(new ProductChangedEvent(3L, "무선 키보드 케이스", "전자제품", "블루투스 키보드 보관", false));
+        assertTrue(index.similar(1L, 2).orElseThrow().stream().anyMatch(score -> score.productId() == 3L));
+
+        index.onProductChanged(ProductChangedEvent.deleted(4L));
+        assertTrue(index.similar(1L, 10).orElseThrow().stream().noneMatch(score -> score.productId() == 4L));
+        assertTrue(index.similar(4L, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("삭제 표시가 많아지면 전용 스레드에서 그래프를 다시 만들고, 그동안 들어온 변경도 잃지 않는다")
+    void testCompactsInBackground() throws InterruptedException {
+        Random random = new Random(23);
+        List<ProductTextDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 3_000; id++) {
+            documents.add(randomDocument(random, id));
+        }
+        SimilarProductIndex index = newIndex();
+        index.load(documents);
+
+        // 상품 1~1,500을 지운다 (1,025번째 삭제부터 재구성이 예약된다)
+        boolean rebuilding = false;
+        for (long id = 1; id <= 1_500; id++) {
+            index.onProductChanged(ProductChangedEvent.deleted(id));
+            rebuilding |= index.isRebuilding();
+        }
+        // 재구성 중에 들어온 변경도 현재 그래프에 바로 보인다
+        index.onProductChanged(new ProductChangedEvent(5_000L, "무선 기계식 키보드", "전자제품", "텐키리스 키보드", false));
+        assertTrue(index.similar(5_000L, 5).isPresent());
+        assertTrue(rebuilding, "재구성이 예약되지 않음");
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (index.isRebuilding() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(index.isRebuilding());
+        assertTrue(index.similar(1_000L, 5).isEmpty());
+        assertTrue(index.similar(5_000L, 5).isPresent());
+        assertTrue(index.similar(2_000L, 10).orElseThrow().stream().allMatch(score -> score.productId() > 1_500L));
+        index.shutdown();
+    }
+
+    @Test
+    @DisplayName("벤치마크: 전수 비교 대비 recall@10과 p99 지연")
+    void testRecallAndLatencyAgainstBruteForce() {
+        int products = 5_000;
+        int queries = 300;
+        Random random = new Random(17);
+        List<ProductTextDocument> documents = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            documents.add(randomDocument(random, id));
+        }
+        SimilarProductIndex index = newIndex();
+        long buildStart = System.nanoTime();
+        index.load(documents);
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        long[] queryIds = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            queryIds[i] = 1 + random.nextInt(products);
+        }
+        // JIT 워밍업
+        for (long queryId : queryIds) {
+            index.similar(queryId, 10, 64);
+            index.exact(queryId, 10);
+        }
+
+        List<Set<Long>> expected = new ArrayList<>();
+        long[] bruteNanos = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            long start = System.nanoTime();
+            List<ProductScore> exact = index.exact(queryIds[i], 10).orElseThrow();
+            bruteNanos[i] = System.nanoTime() - start;
+            expected.add(ids(exact));
+        }
+
+        double defaultRecall = 0;
+        long defaultP50 = 0;
+        for (int ef : new int[]{16, 64, 200}) {
+            int hits = 0;
+            long[] nanos = new long[queries];
+            for (int i = 0; i < queries; i++) {
+                long start = System.nanoTime();
+                List<ProductScore> found = index.similar(queryIds[i], 10, ef).orElseThrow();
+                nanos[i] = System.nanoTime() - start;
+                Set<Long> foundIds = ids(found);
+                foundIds.retainAll(expected.get(i));
+                hits += foundIds.size();
+            }
+            double recall = hits / (queries * 10.0);
+            System.out.printf("✅ HNSW ef=%d: recall@10 %.3f, p50 %.3fms, p99 %.3fms%n",
+                    ef, recall, percentile(nanos, 0.5) / 1e6, percentile(nanos, 0.99) / 1e6);
+            if (ef == 64) {
+                defaultRecall = recall;
+                defaultP50 = percentile(nanos, 0.5);
+            }
+        }
+        System.out.printf("✅ 전수 비교: p50 %.3fms, p99 %.3fms (상품 %d개, 빌드 %dms)%n",
+                percentile(bruteNanos, 0.5) / 1e6, percentile(bruteNanos, 0.99) / 1e6, products, buildMillis);
+
+        // p99는 스케줄러 지연(수 ms)에 좌우되므로 출력만 하고, 비교는 p50으로 한다
+        assertTrue(defaultRecall >= 0.9, "recall@10=" + defaultRecall);
+        assertTrue(defaultP50 < percentile(bruteNanos, 0.5), "HNSW p50이 전수 비교보다 느림");
+    }
+
+    // 주제 하나의 어휘를 주로 쓰고 가끔 다른 주제 단어가 섞인 상품 텍스트
+    private static ProductTextDocument randomDocument(Random random, long id) {
+        int topic = random.nextInt(VOCABULARY.length);
+        StringBuilder name = new StringBuilder();
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            name.append(word(random, topic)).append(' ');
+        }
+        for (int i = 0; i < 8; i++) {
+            int from = random.nextInt(10) == 0 ? random.nextInt(VOCABULARY.length) : topic;
+            description.append(word(random, from)).append(' ');
+        }
+        return new ProductTextDocument(id, name.toString(), CATEGORIES[topic], description.toString());
+    }
+
+    private static String word(Random random, int topic) {
+        // 흔한 단어가 더 자주 나오도록 앞쪽 단어에 치우친 분포
+        int index = (int) Math.min(VOCABULARY[topic].length - 1, Math.abs(random.nextGaussian()) * 4);
+        return VOCABULARY[topic][index] + (random.nextInt(3) == 0 ? random.nextInt(50) : "");
+    }
+
+    private static Set<Long> ids(List<ProductScore> scores) {
+        Set<Long> ids = new HashSet<>();
+        scores.forEach(score -> ids.add(score.productId()));
+        return ids;
+    }
+
+    private static long percentile(long[] nanos, double p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+}
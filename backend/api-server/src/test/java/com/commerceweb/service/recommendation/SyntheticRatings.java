@@ -0,0 +1,221 @@
+package com.commerceweb.service.recommendation;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 추천 재현(replay)용 합성 데이터: 사용자, 상품, 멱법칙 분포 평가
+ * <p>
+ * 상품 인기도는 Zipf 분포, 사용자별 평가 수는 Pareto 분포를 따른다. 사용자마다 선호 카테고리가 있어
+ * 평가의 대부분을 그 카테고리에서 고르고 높게 주므로, 개인화 추천이 인기 상품보다 나은지 잴 수 있다.
+ * 평가 일부는 DB에 넣지 않고 남겨 두었다가 precision/recall@K의 정답(4점 이상)으로 쓴다.
+ * <p>
+ * 평가는 사용자 단위로 만들자마자 DB에 일괄 INSERT하고, 메모리에는 평가 대상 사용자의 정답과
+ * 상품별 평점 합계만 남기므로 100만 사용자 규모도 생성할 수 있다.
+ */
+final class SyntheticRatings {
+
+    private static final String[] CATEGORIES = {"전자제품", "패션", "생활", "스포츠", "도서", "식품", "뷰티", "완구"};
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int MIN_RATINGS_PER_USER = 3;
+    private static final double PARETO_ALPHA = 1.5;
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final double PREFERRED_CATEGORY_RATE = 0.7;
+    private static final double HOLD_OUT_RATE = 0.2;
+    private static final int RELEVANT_MIN_SCORE = 4;
+
+    private final int users;
+    private final int products;
+    private final long ratings;
+    private final Map<Long, Set<Long>> heldOut;   // 평가 대상 사용자 → 남겨 둔 4점 이상 상품
+
+    private SyntheticRatings(int users, int products, long ratings, Map<Long, Set<Long>> heldOut) {
+        this.users = users;
+        this.products = products;
+        this.ratings = ratings;
+        this.heldOut = heldOut;
+    }
+
+    /**
+     * 합성 데이터를 만들어 DB(users, products, ratings)에 넣는다
+     *
+     * @param maxRatingsPerUser Pareto 분포의 상한 (헤비 유저 한 명의 평가 수)
+     * @param sampleUsers       precision/recall을 잴 사용자 수 (사용자 전체에 고르게 뽑는다)
+     */
+    static SyntheticRatings insert(JdbcTemplate jdbcTemplate, int users, int products, int maxRatingsPerUser,
+                                   int sampleUsers, long seed) {
+        Random random = new Random(seed);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // 상품: 카테고리와 품질(-0.5 ~ 0.5)을 정하고, 카테고리 안/전체의 인기도 순서를 섞는다
+        int[] categoryOf = new int[products + 1];
+        double[] quality = new double[products + 1];
+        List<Object[]> productRows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int id = 1; id <= products; id++) {
+            categoryOf[id] = random.nextInt(CATEGORIES.length);
+            quality[id] = random.nextDouble() - 0.5;
+            productRows.add(new Object[]{(long) id, "상품 " + id, 10_000.0, CATEGORIES[categoryOf[id]], now, now});
+            if (productRows.size() == INSERT_BATCH_SIZE) {
+                insertProducts(jdbcTemplate, productRows);
+            }
+        }
+        insertProducts(jdbcTemplate, productRows);
+        ZipfSampler global = new ZipfSampler(shuffledIds(products, random));
+        ZipfSampler[] byCategory = new ZipfSampler[CATEGORIES.length];
+        for (int category = 0; category < CATEGORIES.length; category++) {
+            int c = category;
+            byCategory[category] = new ZipfSampler(Arrays.stream(shuffledIds(products, random))
+                    .filter(id -> categoryOf[id] == c).toArray());
+        }
+
+        // 사용자와 평가
+        long sampleStride = Math.max(1, users / Math.max(sampleUsers, 1));
+        Map<Long, Set<Long>> heldOut = new HashMap<>();
+        long[] scoreSums = new long[products + 1];
+        int[] scoreCounts = new int[products + 1];
+        List<Object[]> userRows = new ArrayList<>(INSERT_BATCH_SIZE);
+        List<Object[]> ratingRows = new ArrayList<>(INSERT_BATCH_SIZE);
+        long ratingId = 0;
+        int cap = Math.min(maxRatingsPerUser, products / 2);
+        for (long userId = 1; userId <= users; userId++) {
+            userRows.add(new Object[]{userId, "replay" + userId + "@test.com", "password", "사용자" + userId, now, now});
+            if (userRows.size() == INSERT_BATCH_SIZE) {
+                insertUsers(jdbcTemplate, userRows);
+            }
+
+            int preferred = random.nextInt(CATEGORIES.length);
+            int count = (int) Math.min(cap, MIN_RATINGS_PER_USER / Math.pow(1 - random.nextDouble(), 1 / PARETO_ALPHA));
+            boolean sampled = userId % sampleStride == 0 && heldOut.size() < sampleUsers;
+            Set<Long> rated = new HashSet<>();
+            Set<Long> relevant = new HashSet<>();
+            for (int attempt = 0; rated.size() < count && attempt < count * 10; attempt++) {
+                boolean inPreferred = random.nextDouble() < PREFERRED_CATEGORY_RATE && !byCategory[preferred].isEmpty();
+                long productId = (inPreferred ? byCategory[preferred] : global).sample(random);
+                if (!rated.add(productId)) {
+                    continue;
+                }
+                double affinity = categoryOf[(int) productId] == preferred ? 1.5 : -0.5;
+                int score = (int) Math.max(1, Math.min(5,
+                        Math.round(3 + affinity + quality[(int) productId] + random.nextGaussian() * 0.7)));
+
+                if (sampled && random.nextDouble() < HOLD_OUT_RATE) {
+                    if (score >= RELEVANT_MIN_SCORE) {
+                        relevant.add(productId);
+                    }
+                    continue;
+                }
+                ratingRows.add(new Object[]{++ratingId, userId, productId, score, now, now});
+                scoreSums[(int) productId] += score;
+                scoreCounts[(int) productId]++;
+                if (ratingRows.size() == INSERT_BATCH_SIZE) {
+                    // 평가의 외래 키가 가리킬 사용자를 먼저 넣는다
+                    insertUsers(jdbcTemplate, userRows);
+                    insertRatings(jdbcTemplate, ratingRows);
+                }
+            }
+            if (sampled) {
+                heldOut.put(userId, relevant);
+            }
+        }
+        insertUsers(jdbcTemplate, userRows);
+        insertRatings(jdbcTemplate, ratingRows);
+
+        // 상품 평점 집계 (인기 상품/순위표가 읽는 컬럼)
+        List<Object[]> aggregates = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int id = 1; id <= products; id++) {
+            if (scoreCounts[id] > 0) {
+                aggregates.add(new Object[]{scoreSums[id], (long) scoreCounts[id], (long) scoreCounts[id],
+                        (double) scoreSums[id] / scoreCounts[id], (long) id});
+            }
+            if (aggregates.size() == INSERT_BATCH_SIZE || id == products) {
+                jdbcTemplate.batchUpdate("UPDATE products SET rating_score_sum = ?, rating_score_count = ?, " +
+                        "rating_count = ?, average_rating = ? WHERE id = ?", aggregates);
+                aggregates.clear();
+            }
+        }
+        return new SyntheticRatings(users, products, ratingId, heldOut);
+    }
+
+    int users() {
+        return users;
+    }
+
+    int products() {
+        return products;
+    }
+
+    long ratings() {
+        return ratings;
+    }
+
+    /**
+     * 평가 대상 사용자 → 남겨 둔 평가 중 4점 이상인 상품
+     */
+    Map<Long, Set<Long>> heldOut() {
+        return heldOut;
+    }
+
+    private static void insertProducts(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, category, view_count, average_rating, " +
+                "rating_count, rating_score_sum, rating_score_count, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 0, 0.0, 0, 0, 0, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private static void insertUsers(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, name, role, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 'CUSTOMER', ?, ?)", rows);
+        rows.clear();
+    }
+
+    private static void insertRatings(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO ratings (id, user_id, product_id, score, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private static int[] shuffledIds(int products, Random random) {
+        int[] ids = new int[products];
+        for (int i = 0; i < products; i++) {
+            ids[i] = i + 1;
+        }
+        for (int i = products - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+
+    /**
+     * 앞쪽 상품일수록 자주 뽑히는 Zipf 표본 추출 (누적 분포의 이진 탐색)
+     */
+    private static final class ZipfSampler {
+        private final int[] ids;
+        private final double[] cumulative;
+
+        ZipfSampler(int[] ids) {
+            this.ids = ids;
+            this.cumulative = new double[ids.length];
+            double sum = 0;
+            for (int rank = 0; rank < ids.length; rank++) {
+                sum += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+                cumulative[rank] = sum;
+            }
+        }
+
+        boolean isEmpty() {
+            return ids.length == 0;
+        }
+
+        long sample(Random random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            return ids[Math.min(ids.length - 1, index >= 0 ? index : -index - 1)];
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.commerceweb.service.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("이웃 사용자 색인 테스트")
+class UserNeighbourIndexTest {
+
+    private final RatingMatrix matrix = new RatingMatrix(null, new SimpleMeterRegistry(), 1_000);
+
+    @AfterEach
+    void tearDown() {
+        matrix.shutdown();
+    }
+
+    @Test
+    @DisplayName("후보가 충분하면 전수 비교한 Jaccard 상위 K명과 같고, 평가 변경을 바로 반영한다")
+    void testMatchesBruteForce() {
+        Random random = new Random(17);
+        Map<Long, Set<Long>> ratings = new HashMap<>();
+        RatingTriples triples = new RatingTriples(1024);
+        for (long user = 1; user <= 60; user++) {
+            for (long product = 1; product <= 40; product++) {
+                if (random.nextDouble() < 0.2) {
+                    triples.add(user, product, 1 + random.nextInt(5));
+                    ratings.computeIfAbsent(user, id -> new HashSet<>()).add(product);
+                }
+            }
+        }
+        matrix.load(triples);
+        UserNeighbourIndex index = new UserNeighbourIndex(matrix, new SimpleMeterRegistry(), 10_000, 2);
+        int k = 20;   // 후보 수(K × 4)가 전체 사용자보다 많아 전수 비교와 같아야 한다
+
+        assertNeighbours(index, ratings, k);
+
+        for (int i = 0; i < 300; i++) {
+            long user = 1 + random.nextInt(70);
+            long product = 1 + random.nextInt(45);
+            boolean delete = random.nextInt(3) == 0;
+            matrix.onRatingChanged(new UserRatingChangedEvent(user, product, delete ? null : 4));
+            Set<Long> row = ratings.computeIfAbsent(user, id -> new HashSet<>());
+            if (delete) {
+                row.remove(product);
+            } else {
+                row.add(product);
+            }
+        }
+        assertNeighbours(index, ratings, k);
+
+        matrix.compact();
+        assertNeighbours(index, ratings, k);
+    }
+
+    @Test
+    @DisplayName("평가자가 많은 인기 상품은 후보 세기에서 건너뛰지만 겹친 수에는 포함한다")
+    void testPopularItemFanOutCap() {
+        RatingTriples triples = new RatingTriples(64);
+        for (long user = 1; user <= 10; user++) {
+            triples.add(user, 1L, 5);   // 모두가 평가한 인기 상품
+        }
+        triples.add(1L, 2L, 5);
+        triples.add(1L, 3L, 5);
+        triples.add(2L, 2L, 4);
+        triples.add(2L, 3L, 4);
+        triples.add(3L, 2L, 3);
+        matrix.load(triples);
+        UserNeighbourIndex index = new UserNeighbourIndex(matrix, new SimpleMeterRegistry(), 3, 2);
+
+        List<UserNeighbour> neighbours = index.neighbours(1L, 5);
+
+        assertEquals(List.of(new UserNeighbour(2L, 3, 1.0), new UserNeighbour(3L, 2, 2.0 / 3)), neighbours);
+    }
+
+    private void assertNeighbours(UserNeighbourIndex index, Map<Long, Set<Long>> ratings, int k) {
+        for (Map.Entry<Long, Set<Long>> entry : ratings.entrySet()) {
+            Set<Long> mine = entry.getValue();
+            List<UserNeighbour> expected = ratings.entrySet().stream()
+                    .filter(other -> !other.getKey().equals(entry.getKey()))
+                    .map(other -> {
+                        int overlap = (int) other.getValue().stream().filter(mine::contains).count();
+                        return new UserNeighbour(other.getKey(), overlap,
+                                (double) overlap / (mine.size() + other.getValue().size() - overlap));
+                    })
+                    .filter(neighbour -> neighbour.overlap() >= 2)
+                    .sorted(Comparator.comparingDouble(UserNeighbour::similarity).reversed()
+                            .thenComparing(Comparator.comparingInt(UserNeighbour::overlap).reversed())
+                            .thenComparingLong(UserNeighbour::userId))
+                    .limit(k)
+                    .toList();
+
+            assertEquals(expected, index.neighbours(entry.getKey(), k), "userId=" + entry.getKey());
+        }
+    }
+}
@@ -7,8 +7,8 @@ const ProductList = () => {
   useEffect(() => {
     // 1. 백엔드 API 호출
     productService.getProducts()
-      .then(response => {
-        setProducts(response.data); // 2. 성공 시 상태 업데이트
+      .then(products => {
+        setProducts(products); // 2. 성공 시 상태 업데이트
       })
       .catch(error => {
         console.error("데이터 로딩 실패:", error);
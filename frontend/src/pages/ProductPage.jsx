@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
-import api from '../services/api';
+import api, { getAllPages } from '../services/api';
 
 const ProductPage = () => {
   const [products, setProducts] = useState([]);
@@ -13,13 +13,13 @@ const ProductPage = () => {
   const categories = ['전체', '가전', '의류', '식품'];
 
   useEffect(() => {
-    api.get('/products')
-      .then(response => {
-        setProducts(response.data);
-        setFilteredProducts(response.data);
+    getAllPages('/products')
+      .then(products => {
+        setProducts(products);
+        setFilteredProducts(products);
 
         const initialQuantities = {};
-        response.data.forEach(product => {
+        products.forEach(product => {
           initialQuantities[product.id] = 1;
         });
         setQuantities(initialQuantities);
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useLocation, useNavigate } from 'react-router-dom';
-import api from '../services/api';
+import api, { getAllPages } from '../services/api';
 
 const ReviewManagementPage = () => {
     const location = useLocation();
@@ -28,8 +28,7 @@ const ReviewManagementPage = () => {
 
     const fetchProducts = async () => {
         try {
-            const res = await api.get('/products');
-            setProducts(res.data);
+            setProducts(await getAllPages('/products'));
         } catch (err) {
             console.error("상품 목록 로딩 실패", err);
         }
@@ -38,13 +37,11 @@ const ReviewManagementPage = () => {
     const fetchReviews = async () => {
         setLoading(true);
         try {
-            let res;
             if (productIdFromUrl && productIdFromUrl !== 'undefined') {
-                res = await api.get(`/reviews/product/${productIdFromUrl}`);
+                setReviews(await getAllPages(`/reviews/product/${productIdFromUrl}`));
             } else {
-                res = await api.get('/reviews');
+                setReviews(await getAllPages('/reviews'));
             }
-            setReviews(res.data);
         } catch (err) {
             console.error("리뷰 로딩 실패", err);
         } finally {
@@ -27,4 +27,17 @@ api.interceptors.response.use(
   }
 );
 
+// ✅ 목록 API는 한 번에 일부만 내려주고 다음 페이지 커서를 X-Next-Cursor 헤더로 줍니다.
+// 헤더가 없을 때(마지막 페이지)까지 이어서 받아 하나의 배열로 합칩니다.
+export const getAllPages = async (url, params = {}) => {
+  const items = [];
+  let cursor;
+  do {
+    const response = await api.get(url, { params: { ...params, cursor } });
+    items.push(...response.data);
+    cursor = response.headers['x-next-cursor'];
+  } while (cursor);
+  return items;
+};
+
 export default api;
\ No newline at end of file
@@ -1,8 +1,8 @@
-import api from './api';
+import api, { getAllPages } from './api';
 
 export const productService = {
-  // 전체 상품 목록 가져오기
-  getProducts: () => api.get('/products'),
+  // 전체 상품 목록 가져오기 (모든 페이지를 이어 받은 배열)
+  getProducts: () => getAllPages('/products'),
   // 상품 상세 정보 가져오기
   getProductById: (id) => api.get(`/products/${id}`),
 };
\ No newline at end of file